@@ -0,0 +1,152 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.util.cache;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * A bounded cache whose keys are weakly referenced, so the entries are removed once their keys are
+ * collected by the garbage collector.
+ * <p>
+ * The entries are spread over several synchronized segments to reduce the contention. A segment is
+ * cleared when it reaches its capacity, which keeps the cache bounded without tracking the access order.
+ * </p>
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <T> the type of mapped values
+ */
+public class WeakCache<K, T> implements Cache<K, T> {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment<K, T>[] segments;
+
+    /**
+     * Constructs a new WeakCache with the specified capacity.
+     *
+     * @param capacity the maximum number of entries
+     */
+    @SuppressWarnings("unchecked")
+    public WeakCache(int capacity) {
+        int segmentCapacity = Math.max(1, (capacity + SEGMENTS - 1) / SEGMENTS);
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+    }
+
+    @Override
+    public T get(K key) {
+        return key == null ? null : getSegment(key).get(key);
+    }
+
+    /**
+     * Returns the value of the key, computing and caching it if it is absent.
+     *
+     * @param key      the key
+     * @param function the function to compute the value
+     * @return the value, or {@code null} if the key is {@code null} or the function returns {@code null}
+     */
+    public T computeIfAbsent(K key, Function<? super K, ? extends T> function) {
+        if (key == null) {
+            return null;
+        }
+        Segment<K, T> segment = getSegment(key);
+        T result = segment.get(key);
+        if (result == null) {
+            // compute outside of the lock, the value may be computed more than once.
+            result = function.apply(key);
+            if (result != null) {
+                segment.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Associates the value with the key.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void put(K key, T value) {
+        if (key != null && value != null) {
+            getSegment(key).put(key, value);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int size() {
+        int result = 0;
+        for (Segment<K, T> segment : segments) {
+            result += segment.size();
+        }
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        for (Segment<K, T> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private Segment<K, T> getSegment(K key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return segments[h & (SEGMENTS - 1)];
+    }
+
+    /**
+     * A synchronized and bounded weak map.
+     */
+    private static class Segment<K, T> {
+
+        private final int capacity;
+
+        private final Map<K, T> map = new WeakHashMap<>();
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized T get(K key) {
+            return map.get(key);
+        }
+
+        synchronized void put(K key, T value) {
+            if (map.size() >= capacity && !map.containsKey(key)) {
+                map.clear();
+            }
+            map.put(key, value);
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+
+        synchronized void clear() {
+            map.clear();
+        }
+    }
+}
@@ -40,6 +40,11 @@ public class HttpResponse<T> implements HttpState {
      */
     private final T data;
 
+    /**
+     * The cache validators of the response, which can be used to send conditional requests.
+     */
+    private final HttpValidator validator;
+
     /**
      * Constructs a new HttpResponse with the specified status code and data, but without a message.
      *
@@ -68,9 +73,22 @@ public class HttpResponse<T> implements HttpState {
      * @param data    The data of the response.
      */
     public HttpResponse(HttpStatus status, String message, T data) {
+        this(status, message, data, null);
+    }
+
+    /**
+     * Constructs a new HttpResponse with the specified status code, message, data and cache validators.
+     *
+     * @param status    The HTTP status code.
+     * @param message   The message associated with the response.
+     * @param data      The data of the response.
+     * @param validator The cache validators of the response.
+     */
+    public HttpResponse(HttpStatus status, String message, T data, HttpValidator validator) {
         this.status = status;
         this.message = message;
         this.data = data;
+        this.validator = validator;
     }
 
     @Override
@@ -103,7 +103,7 @@ public abstract class HttpUtils {
             if (status != null) {
                 switch (status) {
                     case OK:
-                        return new HttpResponse<>(status, getResponse(connection, reader));
+                        return new HttpResponse<>(status, null, getResponse(connection, reader), HttpValidator.of(connection));
                     case NOT_MODIFIED:
                     case NOT_FOUND:
                         return new HttpResponse<>(status, null);
@@ -237,6 +237,86 @@ public abstract class HttpUtils {
         }
     }
 
+    /**
+     * Returns the first decoded value of the key in the query string without building the whole query map.
+     *
+     * @param query the raw query string
+     * @param key   the query key
+     * @return the first value, an empty string if the key has no value, or null if the key is not present
+     */
+    public static String getQuery(String query, String key) {
+        int pos = indexOfQuery(query, key, 0);
+        return pos < 0 ? null : getQueryValue(query, pos);
+    }
+
+    /**
+     * Returns the decoded values of the key in the query string without building the whole query map.
+     *
+     * @param query the raw query string
+     * @param key   the query key
+     * @return the values, or null if the key is not present
+     */
+    public static List<String> getQueries(String query, String key) {
+        List<String> result = null;
+        int pos = indexOfQuery(query, key, 0);
+        while (pos >= 0) {
+            if (result == null) {
+                result = new ArrayList<>(2);
+            }
+            result.add(getQueryValue(query, pos));
+            int end = query.indexOf('&', pos);
+            pos = end < 0 ? -1 : indexOfQuery(query, key, end + 1);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the start of the next parameter named by the key.
+     *
+     * @param query the raw query string
+     * @param key   the query key
+     * @param from  the position to start searching from
+     * @return the start position of the parameter, or -1 if it's not found
+     */
+    private static int indexOfQuery(String query, String key, int from) {
+        if (query == null || key == null || key.isEmpty()) {
+            return -1;
+        }
+        int length = query.length();
+        int start = from;
+        while (start < length) {
+            int end = query.indexOf('&', start);
+            end = end < 0 ? length : end;
+            int keyEnd = query.indexOf('=', start);
+            keyEnd = keyEnd < 0 || keyEnd > end ? end : keyEnd;
+            if (keyEnd > start && isQueryKey(query, start, keyEnd, key)) {
+                return start;
+            }
+            start = end + 1;
+        }
+        return -1;
+    }
+
+    private static boolean isQueryKey(String query, int start, int end, String key) {
+        char c;
+        for (int i = start; i < end; i++) {
+            c = query.charAt(i);
+            if (c == '%' || c == '+') {
+                // encoded key
+                return key.equals(decodeURL(query.substring(start, end)));
+            }
+        }
+        int length = end - start;
+        return length == key.length() && query.regionMatches(start, key, 0, length);
+    }
+
+    private static String getQueryValue(String query, int start) {
+        int end = query.indexOf('&', start);
+        end = end < 0 ? query.length() : end;
+        int pos = query.indexOf('=', start);
+        return pos < 0 || pos >= end - 1 ? "" : decodeURL(query.substring(pos + 1, end));
+    }
+
     /**
      * Parses a query string and returns a map of key-value pairs.
      *
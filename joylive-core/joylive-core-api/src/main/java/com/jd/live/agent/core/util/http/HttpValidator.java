@@ -0,0 +1,71 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.util.http;
+
+import lombok.Getter;
+
+import java.net.HttpURLConnection;
+
+/**
+ * The cache validators of an HTTP resource, which are used to send conditional requests.
+ */
+@Getter
+public class HttpValidator {
+
+    /**
+     * The entity tag of the resource.
+     */
+    private final String etag;
+
+    /**
+     * The last modified time of the resource.
+     */
+    private final String lastModified;
+
+    public HttpValidator(String etag, String lastModified) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Adds the conditional headers to the connection.
+     *
+     * @param connection the HTTP connection to configure.
+     */
+    public void configure(HttpURLConnection connection) {
+        if (etag != null && !etag.isEmpty()) {
+            connection.setRequestProperty(HttpHeader.IF_NONE_MATCH, etag);
+        }
+        if (lastModified != null && !lastModified.isEmpty()) {
+            connection.setRequestProperty(HttpHeader.IF_MODIFIED_SINCE, lastModified);
+        }
+    }
+
+    /**
+     * Creates a validator from the response headers of the connection.
+     *
+     * @param connection the HTTP connection.
+     * @return the validator, or null if the response has no validator headers.
+     */
+    public static HttpValidator of(HttpURLConnection connection) {
+        String etag = connection.getHeaderField(HttpHeader.ETAG);
+        String lastModified = connection.getHeaderField(HttpHeader.LAST_MODIFIED);
+        if ((etag == null || etag.isEmpty()) && (lastModified == null || lastModified.isEmpty())) {
+            return null;
+        }
+        return new HttpValidator(etag, lastModified);
+    }
+}
@@ -0,0 +1,394 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.util.network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.jd.live.agent.core.util.StringUtils.SEMICOLON_COMMA_WHITESPACE;
+import static com.jd.live.agent.core.util.StringUtils.split;
+
+/**
+ * An immutable set of ip ranges compiled from cidr, range, wildcard or single address expressions.
+ * <p>
+ * The ranges are sorted and merged when built, so that a lookup is a binary search over primitive arrays
+ * and never parses the rule expressions again.
+ * <p>Supported expressions:
+ * <p>*
+ * <p>172.168.1.0/24, fd00::/8
+ * <p>172.168.1.0-172.168.1.255
+ * <p>172.168.1.*
+ * <p>172.168.1.1, ::1
+ */
+public class IpRanges {
+
+    /**
+     * An empty ip ranges, which contains nothing.
+     */
+    public static final IpRanges EMPTY = new IpRanges(false, new long[0], new long[0]);
+
+    private static final long IPV4_MAX = 0xFFFFFFFFL;
+
+    private final boolean any;
+
+    /**
+     * Merged ipv4 ranges, {@code begin, end} pairs ordered by begin.
+     */
+    private final long[] ipv4;
+
+    /**
+     * Merged ipv6 ranges, {@code beginHigh, beginLow, endHigh, endLow} quads ordered by begin (unsigned).
+     */
+    private final long[] ipv6;
+
+    private IpRanges(boolean any, long[] ipv4, long[] ipv6) {
+        this.any = any;
+        this.ipv4 = ipv4;
+        this.ipv6 = ipv6;
+    }
+
+    /**
+     * Checks if the ranges contain nothing.
+     *
+     * @return true if the ranges contain nothing
+     */
+    public boolean isEmpty() {
+        return !any && ipv4.length == 0 && ipv6.length == 0;
+    }
+
+    /**
+     * Checks if the specified ip address is in the ranges.
+     *
+     * @param ip the ip address
+     * @return true if the ip is in the ranges, false if it's not or not a valid address.
+     */
+    public boolean contains(String ip) {
+        if (ip == null || ip.isEmpty() || isEmpty()) {
+            return false;
+        } else if (any) {
+            return true;
+        }
+        long v4 = parseIpv4(ip);
+        if (v4 >= 0) {
+            return contains(v4);
+        }
+        try {
+            return contains(new IpLong(ip));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks if any of the specified ip addresses is in the ranges.
+     *
+     * @param ips the ip addresses
+     * @return true if any ip is in the ranges
+     */
+    public boolean containsAny(Collection<String> ips) {
+        if (ips == null || ips.isEmpty()) {
+            return false;
+        }
+        for (String ip : ips) {
+            if (contains(ip)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the specified ip address is in the ranges.
+     *
+     * @param ip the ip address
+     * @return true if the ip is in the ranges
+     */
+    public boolean contains(IpLong ip) {
+        if (ip == null) {
+            return false;
+        } else if (any) {
+            return true;
+        }
+        return ip.getHigh() == -1 && ip.getType() != IpType.IPV6 ? contains(ip.getLow()) : contains(ip.getHigh(), ip.getLow());
+    }
+
+    /**
+     * Checks if the ipv4 address is in the ranges.
+     *
+     * @param ip the ipv4 address as an unsigned 32 bits value
+     * @return true if the ip is in the ranges
+     */
+    public boolean contains(long ip) {
+        if (any) {
+            return true;
+        }
+        long[] ranges = ipv4;
+        int low = 0;
+        int high = (ranges.length >> 1) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (ranges[mid << 1] > ip) {
+                high = mid - 1;
+            } else if (ranges[(mid << 1) + 1] < ip) {
+                low = mid + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the ipv6 address is in the ranges.
+     *
+     * @param high the high 64 bits
+     * @param low  the low 64 bits
+     * @return true if the ip is in the ranges
+     */
+    public boolean contains(long high, long low) {
+        if (any) {
+            return true;
+        }
+        long[] ranges = ipv6;
+        int lo = 0;
+        int hi = (ranges.length >> 2) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int pos = mid << 2;
+            if (compare(ranges[pos], ranges[pos + 1], high, low) > 0) {
+                hi = mid - 1;
+            } else if (compare(ranges[pos + 2], ranges[pos + 3], high, low) < 0) {
+                lo = mid + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        if (any) {
+            return "*";
+        }
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < ipv4.length; i += 2) {
+            if (builder.length() > 0) {
+                builder.append(';');
+            }
+            builder.append(new IpLong(ipv4[i])).append('-').append(new IpLong(ipv4[i + 1]));
+        }
+        for (int i = 0; i < ipv6.length; i += 4) {
+            if (builder.length() > 0) {
+                builder.append(';');
+            }
+            builder.append(new IpLong(ipv6[i], ipv6[i + 1])).append('-').append(new IpLong(ipv6[i + 2], ipv6[i + 3]));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Compiles the expressions into ip ranges. Each expression may also contain multiple ranges
+     * separated by commas, semicolons or whitespaces.
+     *
+     * @param expressions the ip range expressions
+     * @return the ip ranges
+     * @throws IllegalArgumentException if any expression is invalid
+     */
+    public static IpRanges parse(Collection<String> expressions) {
+        return parse(expressions, false);
+    }
+
+    /**
+     * Compiles the expressions into ip ranges.
+     *
+     * @param expressions the ip range expressions
+     * @param ignoreError true to skip the invalid expressions
+     * @return the ip ranges
+     * @throws IllegalArgumentException if any expression is invalid and ignoreError is false
+     */
+    public static IpRanges parse(Collection<String> expressions, boolean ignoreError) {
+        if (expressions == null || expressions.isEmpty()) {
+            return EMPTY;
+        }
+        List<long[]> v4 = new ArrayList<>();
+        List<long[]> v6 = new ArrayList<>();
+        for (String expression : expressions) {
+            if (expression == null || expression.isEmpty()) {
+                continue;
+            }
+            for (String part : split(expression, SEMICOLON_COMMA_WHITESPACE)) {
+                try {
+                    if (!add(part, v4, v6)) {
+                        return new IpRanges(true, new long[0], new long[0]);
+                    }
+                } catch (IllegalArgumentException e) {
+                    if (!ignoreError) {
+                        throw e;
+                    }
+                }
+            }
+        }
+        return new IpRanges(false, mergeIpv4(v4), mergeIpv6(v6));
+    }
+
+    /**
+     * Adds the range of the expression.
+     *
+     * @return false if the expression matches any address.
+     */
+    private static boolean add(String expression, List<long[]> v4, List<long[]> v6) {
+        if (expression.equals("*")) {
+            return false;
+        }
+        int pos = expression.lastIndexOf('/');
+        if (pos > 0 && pos < expression.length() - 1) {
+            int bits;
+            try {
+                bits = Integer.parseInt(expression.substring(pos + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(String.format("invalid cidr %s", expression));
+            }
+            IpLong ip = new IpLong(expression.substring(0, pos));
+            if (ip.getType() == IpType.IPV6) {
+                if (bits < 0 || bits > 128) {
+                    throw new IllegalArgumentException(String.format("invalid cidr %s", expression));
+                }
+                long highMask = bits >= 64 ? -1L : (bits == 0 ? 0L : -1L << (64 - bits));
+                long lowMask = bits <= 64 ? 0L : (bits == 128 ? -1L : -1L << (128 - bits));
+                v6.add(new long[]{ip.getHigh() & highMask, ip.getLow() & lowMask, ip.getHigh() | ~highMask, ip.getLow() | ~lowMask});
+            } else {
+                if (bits < 0 || bits > 32) {
+                    throw new IllegalArgumentException(String.format("invalid cidr %s", expression));
+                }
+                long mask = bits == 0 ? 0L : (IPV4_MAX << (32 - bits)) & IPV4_MAX;
+                v4.add(new long[]{ip.getLow() & mask, (ip.getLow() | ~mask) & IPV4_MAX});
+            }
+        } else if (expression.indexOf(':') >= 0 && expression.indexOf('-') < 0) {
+            IpLong ip = new IpLong(expression);
+            v6.add(new long[]{ip.getHigh(), ip.getLow(), ip.getHigh(), ip.getLow()});
+        } else {
+            Segment segment = new Segment(expression);
+            IpLong begin = segment.getBegin();
+            IpLong end = segment.getEnd();
+            if (begin == null || end == null) {
+                throw new IllegalArgumentException(String.format("invalid ip range %s", expression));
+            } else if (begin.getType() == IpType.IPV6 || end.getType() == IpType.IPV6) {
+                v6.add(new long[]{begin.getHigh(), begin.getLow(), end.getHigh(), end.getLow()});
+            } else {
+                v4.add(new long[]{begin.getLow(), end.getLow()});
+            }
+        }
+        return true;
+    }
+
+    private static long[] mergeIpv4(List<long[]> ranges) {
+        ranges.sort(Comparator.comparingLong(r -> r[0]));
+        long[] result = new long[ranges.size() << 1];
+        int size = 0;
+        for (long[] range : ranges) {
+            if (range[0] > range[1]) {
+                continue;
+            }
+            if (size > 0 && range[0] <= result[size - 1] + 1) {
+                result[size - 1] = Math.max(result[size - 1], range[1]);
+            } else {
+                result[size++] = range[0];
+                result[size++] = range[1];
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private static long[] mergeIpv6(List<long[]> ranges) {
+        ranges.sort((a, b) -> compare(a[0], a[1], b[0], b[1]));
+        long[] result = new long[ranges.size() << 2];
+        int size = 0;
+        for (long[] range : ranges) {
+            if (compare(range[0], range[1], range[2], range[3]) > 0) {
+                continue;
+            }
+            if (size > 0 && isAdjacent(result[size - 2], result[size - 1], range[0], range[1])) {
+                if (compare(range[2], range[3], result[size - 2], result[size - 1]) > 0) {
+                    result[size - 2] = range[2];
+                    result[size - 1] = range[3];
+                }
+            } else {
+                result[size++] = range[0];
+                result[size++] = range[1];
+                result[size++] = range[2];
+                result[size++] = range[3];
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Checks if the begin address is not after the address next to the end.
+     */
+    private static boolean isAdjacent(long endHigh, long endLow, long beginHigh, long beginLow) {
+        if (compare(beginHigh, beginLow, endHigh, endLow) <= 0) {
+            return true;
+        }
+        // end + 1 == begin
+        long low = endLow + 1;
+        long high = low == 0 ? endHigh + 1 : endHigh;
+        return high == beginHigh && low == beginLow && !(endHigh == -1L && endLow == -1L);
+    }
+
+    private static int compare(long high1, long low1, long high2, long low2) {
+        int result = Long.compareUnsigned(high1, high2);
+        return result != 0 ? result : Long.compareUnsigned(low1, low2);
+    }
+
+    /**
+     * Parses a dotted ipv4 address without allocation.
+     *
+     * @param ip the ip address
+     * @return the unsigned 32 bits value, or -1 if it's not a dotted ipv4 address.
+     */
+    private static long parseIpv4(String ip) {
+        int length = ip.length();
+        if (length < 7 || length > 15) {
+            return -1;
+        }
+        long result = 0;
+        int part = -1;
+        int dots = 0;
+        int digits = 0;
+        char ch;
+        for (int i = 0; i < length; i++) {
+            ch = ip.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                part = part < 0 ? ch - '0' : part * 10 + (ch - '0');
+                if (++digits > 3 || part > 255) {
+                    return -1;
+                }
+            } else if (ch == '.' && part >= 0 && dots < 3) {
+                result = (result << 8) | part;
+                part = -1;
+                digits = 0;
+                dots++;
+            } else {
+                return -1;
+            }
+        }
+        return dots == 3 && part >= 0 ? (result << 8) | part : -1;
+    }
+}
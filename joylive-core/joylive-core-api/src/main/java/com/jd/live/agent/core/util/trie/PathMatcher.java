@@ -19,29 +19,47 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.ToString;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
  * A class that provides functionality to add and match paths with variables and static segments.
+ * <p>
+ * The matcher walks the path by index ranges without splitting it, and keeps a bounded memo of the
+ * recent match results, so the hot paths are matched without walking the trie.
+ * </p>
  *
  * @param <T> The type of the value associated with each path.
  */
 public class PathMatcher<T> {
     private static final String VARIABLE = ":";
+    private static final int DEFAULT_MEMO_CAPACITY = 1024;
+    private static final int MAX_MEMO_PATH_LENGTH = 256;
+    private static final MatchResult<?> NONE = new MatchResult<>(null, null, null);
     private final TrieNode<T> root;
     private final char delimiter;
+    private final Memo<T> memo;
+    private int depth;
 
     public PathMatcher() {
         this(PathType.URL.getDelimiter());
     }
 
     public PathMatcher(char delimiter) {
+        this(delimiter, DEFAULT_MEMO_CAPACITY);
+    }
+
+    /**
+     * Constructs a matcher with the specified delimiter and memo capacity.
+     *
+     * @param delimiter    The delimiter used to separate path segments.
+     * @param memoCapacity The maximum number of memoized match results, a non-positive value disables the memo.
+     */
+    public PathMatcher(char delimiter, int memoCapacity) {
         this.delimiter = delimiter;
-        this.root = new TrieNode<>("");
+        this.root = new TrieNode<>("", null);
+        this.memo = memoCapacity > 0 ? new Memo<>(memoCapacity) : null;
     }
 
     /**
@@ -72,11 +90,14 @@ public class PathMatcher<T> {
             current[0] = parent.getOrCreateChild(part);
             current[0].addVariable(variableName);
             current[0].level = level;
-            parent.hasVariable = parent.hasVariable || VARIABLE.equals(part);
+            depth = Math.max(depth, level);
             return true;
         });
         current[0].isEnd = true;
         current[0].value = value;
+        if (memo != null) {
+            memo.clear();
+        }
     }
 
     /**
@@ -85,17 +106,122 @@ public class PathMatcher<T> {
      * @param path The path to match.
      * @return A MatchResult containing the matched value and variables, or null if no match is found.
      */
+    @SuppressWarnings("unchecked")
     public MatchResult<T> match(String path) {
         if (path == null || path.isEmpty()) {
             return null;
+        } else if (memo == null || path.length() > MAX_MEMO_PATH_LENGTH) {
+            return doMatch(path);
         }
+        MatchResult<T> result = memo.get(path);
+        if (result == null) {
+            result = doMatch(path);
+            if (result == null) {
+                memo.put(path, (MatchResult<T>) NONE);
+            } else if (result.variables == null) {
+                // the paths with variables are usually unbounded, such as the paths with identities.
+                memo.put(path, result);
+            }
+        }
+        return result == NONE ? null : result;
+    }
+
+    /**
+     * Walks the trie by the index ranges of the path segments.
+     *
+     * @param path The path to match.
+     * @return A MatchResult containing the matched value and variables, or null if no match is found.
+     */
+    private MatchResult<T> doMatch(String path) {
         // TODO match the max length?
         // /user/*/a/b
         // /user/order/a
         // /user/order/a/b/c now match /user/order/a, maybe the best result is /user/*/a/b.
-        MatchState<T> state = new MatchState<>(root);
-        int count = preprocessPath(path, state::next);
-        return state.getResult(count);
+        TrieNode<T> current = root;
+        TrieNode<T> best = null;
+        int[] captures = null;
+        int count = 0;
+        // the root path is matched as an empty segment.
+        boolean slash = path.equals("/");
+        int length = slash ? 0 : path.length();
+        int start = 0;
+        int end;
+        TrieNode<T> next;
+        while (start < length) {
+            end = path.indexOf(delimiter, start);
+            end = end < 0 ? length : end;
+            if (start != end) {
+                count++;
+                next = current.next(path, start, end);
+                if (next == null) {
+                    break;
+                }
+                captures = capture(captures, next, start, end);
+                current = next;
+                if (next.isEnd) {
+                    best = next;
+                }
+            }
+            start = end + 1;
+        }
+        if (slash) {
+            next = current.next(path, 0, 0);
+            if (next != null && next.isEnd) {
+                captures = capture(captures, next, 0, 0);
+                best = next;
+            }
+        }
+        if (best == null) {
+            // Special case: if there is no specific match, check if the root node has a value
+            return !root.isEnd ? null : new MatchResult<>(count == 0 ? PathMatchType.EQUAL : PathMatchType.PREFIX, root.value, null);
+        }
+        return new MatchResult<>(count == best.level ? PathMatchType.EQUAL : PathMatchType.PREFIX, best.value, getVariables(path, best, captures));
+    }
+
+    /**
+     * Records the index range of the segment if the node captures variables.
+     *
+     * @param captures The index ranges of the captured segments, or null if nothing is captured.
+     * @param node     The matched node.
+     * @param start    The start index of the segment.
+     * @param end      The end index of the segment.
+     * @return The index ranges, which are allocated only when a variable is captured.
+     */
+    private int[] capture(int[] captures, TrieNode<T> node, int start, int end) {
+        if (node.variables == null) {
+            return captures;
+        }
+        int[] result = captures == null ? new int[(depth + 1) * 2] : captures;
+        result[node.level * 2] = start;
+        result[node.level * 2 + 1] = end;
+        return result;
+    }
+
+    /**
+     * Builds the variables which are captured by the nodes from the root to the best node.
+     *
+     * @param path     The path to match.
+     * @param node     The best node.
+     * @param captures The index ranges of the captured segments.
+     * @return The variables, or null if no variable is captured.
+     */
+    private Map<String, String> getVariables(String path, TrieNode<T> node, int[] captures) {
+        if (captures == null) {
+            return null;
+        }
+        Map<String, String> result = null;
+        while (node != null) {
+            if (node.variables != null) {
+                String value = path.substring(captures[node.level * 2], captures[node.level * 2 + 1]);
+                result = result == null ? new HashMap<>(4) : result;
+                for (String variable : node.variables) {
+                    // the deeper variable wins
+                    result.putIfAbsent(variable, value);
+                }
+            }
+            node = node.parent;
+        }
+        return result;
     }
 
     /**
@@ -104,36 +230,26 @@ public class PathMatcher<T> {
      * @param path The path to be processed. If the path is exactly "/", a single empty string will be passed to the function.
      * @param func The function to be applied to each part of the path. The function should return {@code true} to continue processing,
      *             or {@code false} to terminate processing early.
-     * @return The number of parts processed. If the function terminates early, the count will reflect the number of parts processed up to that point.
      */
-    private int preprocessPath(String path, Function<String, Boolean> func) {
+    private void preprocessPath(String path, Function<String, Boolean> func) {
         if (path.equals("/")) {
             func.apply("");
-            return 0;
+            return;
         }
 
-        int count = 0;
         int start = 0;
         int end;
-        String part;
 
         while ((end = path.indexOf(delimiter, start)) != -1) {
-            if (start != end) {
-                count++;
-                part = path.substring(start, end);
-                if (!func.apply(part)) {
-                    return count;
-                }
+            if (start != end && !func.apply(path.substring(start, end))) {
+                return;
             }
             start = end + 1;
         }
 
         if (start < path.length()) {
-            count++;
-            part = path.substring(start);
-            func.apply(part);
+            func.apply(path.substring(start));
         }
-        return count;
     }
 
     /**
@@ -147,54 +263,123 @@ public class PathMatcher<T> {
         return part.length() > 1 && part.charAt(0) == '{' && part.charAt(part.length() - 1) == '}';
     }
 
+    /**
+     * Computes the hash code of a path segment, which is the same as {@link String#hashCode()} of the segment.
+     *
+     * @param path  The path.
+     * @param start The start index of the segment.
+     * @param end   The end index of the segment.
+     * @return The hash code.
+     */
+    private static int hash(String path, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + path.charAt(i);
+        }
+        return h;
+    }
+
     /**
      * A class that provides functionality to match paths with variables and static segments.
+     * <p>
+     * The children are kept in an open addressing table, which is looked up by the index range of a segment.
+     * </p>
      *
      * @param <T> The type of the value associated with each path.
      */
     private static class TrieNode<T> {
         private final String name;
+        private final int hash;
+        private final TrieNode<T> parent;
         private TrieNode<T> child;
-        private Map<String, TrieNode<T>> children;
+        private TrieNode<T>[] children;
+        private TrieNode<T> variableChild;
         private int size;
         private int level;
-        private boolean hasVariable;
         private boolean isEnd;
         private List<String> variables;
         private T value;
 
-        TrieNode(String name) {
+        TrieNode(String name, TrieNode<T> parent) {
             this.name = name;
+            this.hash = name.hashCode();
+            this.parent = parent;
         }
 
+        @SuppressWarnings("unchecked")
         public TrieNode<T> getOrCreateChild(String name) {
-            TrieNode<T> result;
-            if (children == null && child == null) {
-                child = new TrieNode<>(name);
-                size = 1;
-                result = child;
-            } else if (child != null) {
-                children = new HashMap<>();
-                children.put(child.name, child);
-                child = null;
-                result = children.computeIfAbsent(name, TrieNode::new);
-                size = children.size();
+            TrieNode<T> result = getChild(name, 0, name.length(), name.hashCode());
+            if (result != null) {
+                return result;
+            }
+            result = new TrieNode<>(name, this);
+            if (size == 0) {
+                child = result;
             } else {
-                result = children.computeIfAbsent(name, TrieNode::new);
-                size = children.size();
+                if (children == null || (size + 1) * 2 > children.length) {
+                    TrieNode<T>[] old = children;
+                    children = new TrieNode[Math.max(4, Integer.highestOneBit(size + 1) * 4)];
+                    if (old == null) {
+                        put(child);
+                    } else {
+                        for (TrieNode<T> node : old) {
+                            if (node != null) {
+                                put(node);
+                            }
+                        }
+                    }
+                    child = null;
+                }
+                put(result);
+            }
+            if (VARIABLE.equals(name)) {
+                variableChild = result;
             }
+            size++;
             return result;
         }
 
-        public TrieNode<T> getChild(String name) {
+        private void put(TrieNode<T> node) {
+            int mask = children.length - 1;
+            int index = spread(node.hash) & mask;
+            while (children[index] != null) {
+                index = (index + 1) & mask;
+            }
+            children[index] = node;
+        }
+
+        /**
+         * Gets the child of the segment, or the variable child if the segment is not a static child.
+         *
+         * @param path  The path.
+         * @param start The start index of the segment.
+         * @param end   The end index of the segment.
+         * @return The child node, or null if no child is matched.
+         */
+        public TrieNode<T> next(String path, int start, int end) {
+            TrieNode<T> result = size == 0 || (size == 1 && variableChild != null) ? null : getChild(path, start, end, hash(path, start, end));
+            return result == null ? variableChild : result;
+        }
+
+        private TrieNode<T> getChild(String path, int start, int end, int h) {
             if (children == null) {
-                return child == null || !child.name.equals(name) ? null : child;
+                return child != null && child.matches(path, start, end, h) ? child : null;
+            }
+            int mask = children.length - 1;
+            int index = spread(h) & mask;
+            TrieNode<T> node;
+            while ((node = children[index]) != null) {
+                if (node.matches(path, start, end, h)) {
+                    return node;
+                }
+                index = (index + 1) & mask;
             }
-            return children.get(name);
+            return null;
         }
 
-        public int size() {
-            return size;
+        private boolean matches(String path, int start, int end, int h) {
+            int length = end - start;
+            return hash == h && name.length() == length && path.regionMatches(start, name, 0, length);
         }
 
         public void addVariable(String variable) {
@@ -207,60 +392,93 @@ public class PathMatcher<T> {
                 }
             }
         }
+
+        private static int spread(int h) {
+            return h ^ (h >>> 16);
+        }
     }
 
-    private static class MatchState<T> {
-        private final TrieNode<T> root;
-        private TrieNode<T> current;
-        private TrieNode<T> bestNode;
-        private Map<String, String> variables;
-        private Map<String, String> bestVariables;
+    /**
+     * A bounded memo of the match results, which is read without locking.
+     * <p>
+     * The results are evicted by the clock algorithm: a read marks the result as referenced, and the
+     * eviction hand gives the referenced results a second chance before removing them. The bound is
+     * approximate under concurrent puts.
+     * </p>
+     *
+     * @param <T> The type of the value associated with each path.
+     */
+    private static class Memo<T> {
+
+        private final int capacity;
 
-        MatchState(TrieNode<T> root) {
-            this.root = root;
-            this.current = root;
+        private final Map<String, MemoEntry<T>> entries = new ConcurrentHashMap<>();
+
+        // guarded by this
+        private Iterator<MemoEntry<T>> hand;
+
+        Memo(int capacity) {
+            this.capacity = capacity;
         }
 
-        public boolean next(String part) {
-            int size = current.size();
-            TrieNode<T> nextNode = size == 0 || (size == 1 && current.hasVariable) ? null : current.getChild(part);
-            if (nextNode == null && current.hasVariable) {
-                nextNode = current.getChild(VARIABLE);
-                if (nextNode != null && nextNode.variables != null) {
-                    if (variables == null) {
-                        variables = new HashMap<>(1);
-                    }
-                    nextNode.variables.forEach(v -> variables.put(v, part));
-                }
+        MatchResult<T> get(String path) {
+            MemoEntry<T> entry = entries.get(path);
+            if (entry == null) {
+                return null;
             }
-            if (nextNode != null) {
-                current = nextNode;
-                if (nextNode.isEnd) {
-                    bestNode = nextNode;
-                    if (variables != null) {
-                        if (bestVariables == null) {
-                            bestVariables = new HashMap<>(variables);
-                        } else {
-                            bestVariables.clear();
-                            bestVariables.putAll(variables);
-                        }
-                    }
-                }
+            if (!entry.referenced) {
+                entry.referenced = true;
             }
+            return entry.result;
+        }
 
-            return nextNode != null;
+        void put(String path, MatchResult<T> result) {
+            if (entries.size() >= capacity) {
+                evict();
+            }
+            entries.put(path, new MemoEntry<>(result));
         }
 
-        public MatchResult<T> getResult(int level) {
-            if (bestNode == null) {
-                // Special case: if there is no specific match, check if the root node has a value
-                return !root.isEnd ? null : new MatchResult<>(level == 0 ? PathMatchType.EQUAL : PathMatchType.PREFIX, root.value, null);
-            } else {
-                return new MatchResult<>(level == bestNode.level ? PathMatchType.EQUAL : PathMatchType.PREFIX, bestNode.value, bestVariables);
+        void clear() {
+            entries.clear();
+        }
+
+        private synchronized void evict() {
+            // two rounds are enough to find an unreferenced result.
+            int max = capacity * 2 + 1;
+            for (int i = 0; i < max && entries.size() >= capacity; i++) {
+                if (hand == null || !hand.hasNext()) {
+                    hand = entries.values().iterator();
+                    if (!hand.hasNext()) {
+                        return;
+                    }
+                }
+                MemoEntry<T> entry = hand.next();
+                if (entry.referenced) {
+                    entry.referenced = false;
+                } else {
+                    hand.remove();
+                }
             }
         }
     }
 
+    /**
+     * A memoized match result with its reference bit.
+     *
+     * @param <T> The type of the value associated with each path.
+     */
+    private static class MemoEntry<T> {
+
+        private final MatchResult<T> result;
+
+        private volatile boolean referenced;
+
+        MemoEntry(MatchResult<T> result) {
+            this.result = result;
+        }
+    }
+
     /**
      * A class that represents the result of a path match.
      *
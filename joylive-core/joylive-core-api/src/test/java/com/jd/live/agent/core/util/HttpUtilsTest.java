@@ -0,0 +1,45 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.util;
+
+import com.jd.live.agent.core.util.http.HttpUtils;
+import com.jd.live.agent.core.util.map.MultiMap;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+/**
+ * HttpUtilsTest
+ *
+ * @since 1.6.0
+ */
+public class HttpUtilsTest {
+
+    @Test
+    void testGetQuery() {
+        String query = "user=tom&tag=a&empty=&flag&tag=b%20c&na%6De=jerry&x+y=1";
+        MultiMap<String, String> queries = HttpUtils.parseQuery(query);
+        for (String key : Arrays.asList("user", "tag", "empty", "flag", "name", "x y")) {
+            Assertions.assertEquals(queries.get(key), HttpUtils.getQueries(query, key), key);
+            Assertions.assertEquals(queries.getFirst(key), HttpUtils.getQuery(query, key), key);
+        }
+        Assertions.assertNull(HttpUtils.getQuery(query, "us"));
+        Assertions.assertNull(HttpUtils.getQueries(query, "missing"));
+        Assertions.assertNull(HttpUtils.getQuery(null, "user"));
+        Assertions.assertNull(HttpUtils.getQuery("", "user"));
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.util;
+
+import com.jd.live.agent.core.util.network.IpRanges;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * IpRangesTest
+ *
+ * @since 1.6.0
+ */
+public class IpRangesTest {
+
+    @Test
+    void testIpv4() {
+        IpRanges ranges = IpRanges.parse(Arrays.asList("10.0.0.0/8", "192.168.1.10-192.168.1.20;172.16.1.*", "1.1.1.1"));
+        Assertions.assertTrue(ranges.contains("10.255.255.255"));
+        Assertions.assertTrue(ranges.contains("10.0.0.0"));
+        Assertions.assertFalse(ranges.contains("11.0.0.0"));
+        Assertions.assertTrue(ranges.contains("192.168.1.15"));
+        Assertions.assertFalse(ranges.contains("192.168.1.21"));
+        Assertions.assertTrue(ranges.contains("172.16.1.200"));
+        Assertions.assertTrue(ranges.contains("1.1.1.1"));
+        Assertions.assertFalse(ranges.contains("1.1.1.2"));
+        Assertions.assertFalse(ranges.contains("1.1.1"));
+        Assertions.assertFalse(ranges.contains("abc"));
+        Assertions.assertTrue(ranges.containsAny(Arrays.asList("8.8.8.8", "10.1.1.1")));
+    }
+
+    @Test
+    void testMerge() {
+        IpRanges ranges = IpRanges.parse(Arrays.asList("10.0.0.0/24", "10.0.1.0/24", "10.0.0.128/25"));
+        Assertions.assertEquals("10.0.0.0-10.0.1.255", ranges.toString());
+        Assertions.assertTrue(IpRanges.parse(Collections.singletonList("0.0.0.0/0")).contains("255.255.255.255"));
+    }
+
+    @Test
+    void testIpv6() {
+        IpRanges ranges = IpRanges.parse(Arrays.asList("fd00::/8", "2001:db8::/32", "::1"));
+        Assertions.assertTrue(ranges.contains("fdff:ffff::1"));
+        Assertions.assertTrue(ranges.contains("2001:db8:ffff::1"));
+        Assertions.assertFalse(ranges.contains("2001:db9::1"));
+        Assertions.assertTrue(ranges.contains("::1"));
+        Assertions.assertFalse(ranges.contains("::2"));
+        Assertions.assertFalse(ranges.contains("10.0.0.1"));
+    }
+
+    @Test
+    void testAnyAndInvalid() {
+        Assertions.assertTrue(IpRanges.parse(Collections.singletonList("*")).contains("fe80::1"));
+        Assertions.assertFalse(IpRanges.EMPTY.contains("1.1.1.1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> IpRanges.parse(Collections.singletonList("1.1.1.1/33")));
+        Assertions.assertTrue(IpRanges.parse(Arrays.asList("x.y", "1.1.1.1"), true).contains("1.1.1.1"));
+    }
+}
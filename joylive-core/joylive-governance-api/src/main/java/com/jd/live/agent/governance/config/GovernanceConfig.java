@@ -115,9 +115,18 @@ public class GovernanceConfig {
     @Config("configcenter")
     private ConfigCenterConfig configCenterConfig = new ConfigCenterConfig();
 
+    @Config("snapshot")
+    private SnapshotConfig snapshotConfig = new SnapshotConfig();
+
     @Config
     private int initializeTimeout = 10 * 1000;
 
+    /**
+     * The time in milliseconds to wait for more policy updates before applying them as one batch.
+     */
+    @Config
+    private long policyCoalesceWindow = 0;
+
     public GovernanceConfig() {
     }
 
@@ -0,0 +1,92 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.config;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration of the active health checking, which probes the subscribed endpoints periodically and
+ * removes the unhealthy ones from routing.
+ */
+@Getter
+@Setter
+public class HealthCheckConfig {
+
+    public static final String TYPE_TCP = "tcp";
+
+    public static final String TYPE_HTTP = "http";
+
+    public static final String TYPE_GRPC = "grpc";
+
+    /**
+     * Whether the active health checking is enabled.
+     */
+    private boolean enabled;
+
+    /**
+     * The default type of the probe, tcp, http or grpc.
+     */
+    private String type = TYPE_TCP;
+
+    /**
+     * The label of the endpoints which gives the protocol, such as http or grpc, to choose the probe of the
+     * endpoint. The default type is used if the label is missing or its protocol has no probe.
+     */
+    private String protocolLabel = "protocol";
+
+    /**
+     * The path of the http health check.
+     */
+    private String path = "/health";
+
+    /**
+     * The interval in milliseconds between two probes of an endpoint.
+     */
+    private long interval = 10000L;
+
+    /**
+     * The jitter ratio of the interval, which spreads the probes over time.
+     */
+    private double jitter = 0.2;
+
+    /**
+     * The timeout in milliseconds of a probe.
+     */
+    private long timeout = 2000L;
+
+    /**
+     * The maximum number of the in-flight probes.
+     */
+    private int maxInFlight = 64;
+
+    /**
+     * The number of consecutive failed probes before an endpoint is marked as unhealthy.
+     */
+    private int unhealthyThreshold = 2;
+
+    /**
+     * The number of consecutive successful probes before an unhealthy endpoint is marked as healthy.
+     */
+    private int healthyThreshold = 1;
+
+    /**
+     * The fraction of the healthy endpoints of a service, below which the health checking results are ignored,
+     * so that a partitioned checker does not take all the endpoints out of routing.
+     */
+    private double panicThreshold = 0.5;
+
+}
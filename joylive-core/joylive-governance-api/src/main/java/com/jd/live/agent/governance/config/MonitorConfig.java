@@ -15,7 +15,6 @@
  */
 package com.jd.live.agent.governance.config;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -26,13 +25,29 @@ import lombok.Setter;
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public class MonitorConfig {
 
+    public static final long DEFAULT_AGGREGATE_INTERVAL = 1000L;
+
     private Boolean forwardEnabled;
 
     private Boolean rejectEnabled = true;
 
+    /**
+     * Aggregates the traffic events by their dimensions before publishing them.
+     */
+    private boolean aggregateEnabled = true;
+
+    /**
+     * The interval in milliseconds to flush the aggregated traffic events.
+     */
+    private long aggregateInterval = DEFAULT_AGGREGATE_INTERVAL;
+
+    public MonitorConfig(Boolean forwardEnabled, Boolean rejectEnabled) {
+        this.forwardEnabled = forwardEnabled;
+        this.rejectEnabled = rejectEnabled;
+    }
+
     public boolean isForward() {
         return forwardEnabled != null && forwardEnabled;
     }
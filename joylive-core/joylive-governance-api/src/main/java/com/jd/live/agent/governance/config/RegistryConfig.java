@@ -15,6 +15,7 @@
  */
 package com.jd.live.agent.governance.config;
 
+import com.jd.live.agent.core.inject.annotation.Config;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -28,5 +29,8 @@ public class RegistryConfig {
     public static final String COMPONENT_REGISTRY_CONFIG = "registryConfig";
 
     private long heartbeatInterval = 5000L;
+
+    @Config("healthCheck")
+    private HealthCheckConfig healthCheckConfig = new HealthCheckConfig();
 }
 
@@ -129,6 +129,14 @@ public class ServiceConfig {
     @Setter
     private boolean responseException = true;
 
+    /**
+     * The safety margin in milliseconds reserved from the remaining time budget of the request,
+     * when capping the timeout of the outbound calls.
+     */
+    @Getter
+    @Setter
+    private long deadlineMargin = 10;
+
     private transient final PathMatcherTrie<PrefixPath> systemPathTrie = new PathMatcherTrie<>(() -> {
         List<PrefixPath> result = new ArrayList<>();
         if (systemPaths != null) {
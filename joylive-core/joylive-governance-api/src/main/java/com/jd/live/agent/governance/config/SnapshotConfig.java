@@ -0,0 +1,58 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.config;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration of the last-known-good policy snapshot, which is persisted whenever a new policy is published
+ * and restored on boot before the policy syncers are ready.
+ */
+@Getter
+@Setter
+public class SnapshotConfig {
+
+    public static final long DEFAULT_MAX_AGE = 24 * 60 * 60 * 1000L;
+
+    public static final long DEFAULT_FLUSH_INTERVAL = 5000L;
+
+    /**
+     * Whether the snapshot is enabled.
+     */
+    private boolean enabled;
+
+    /**
+     * The directory of the snapshot, defaults to the snapshot directory under the agent output path.
+     */
+    private String path;
+
+    /**
+     * The max age in milliseconds of a snapshot which can be restored.
+     */
+    private long maxAge = DEFAULT_MAX_AGE;
+
+    /**
+     * Whether the payload of the snapshot is compressed.
+     */
+    private boolean compress = true;
+
+    /**
+     * The interval in milliseconds to coalesce policy updates before flushing the snapshot.
+     */
+    private long flushInterval = DEFAULT_FLUSH_INTERVAL;
+
+}
@@ -184,6 +184,16 @@ public class RequestContext {
         }
     }
 
+    /**
+     * Returns the deadline of the current request in milliseconds since the epoch.
+     *
+     * @return the deadline, or {@code 0} if the request has no deadline.
+     */
+    public static long getDeadline() {
+        Long deadline = getAttribute(Carrier.ATTRIBUTE_DEADLINE);
+        return deadline == null ? 0 : deadline;
+    }
+
     /**
      * Determines if the current time has exceeded a specified deadline.
      *
@@ -35,4 +35,54 @@ public abstract class AbstractPropagation implements Propagation {
         }
         return require;
     }
+
+    /**
+     * Returns the remaining time budget of the carrier in milliseconds.
+     *
+     * @param carrier the carrier
+     * @return the remaining time budget, or null if the carrier has no deadline
+     */
+    protected String getTimeout(Carrier carrier) {
+        Long deadline = carrier.getAttribute(Carrier.ATTRIBUTE_DEADLINE);
+        return deadline == null || deadline <= 0 ? null : String.valueOf(Math.max(deadline - System.currentTimeMillis(), 0));
+    }
+
+    /**
+     * Checks if the key is the cargo of the remaining time budget.
+     *
+     * @param key the key
+     * @return true if the key is the cargo of the remaining time budget
+     */
+    protected boolean isTimeout(String key) {
+        return Carrier.CARGO_TIMEOUT.equalsIgnoreCase(key);
+    }
+
+    /**
+     * Converts the remaining time budget to a local deadline of the carrier, which keeps the earlier one.
+     * The relative budget is propagated instead of the absolute deadline, so the clock skew between hosts doesn't matter.
+     *
+     * @param carrier the carrier
+     * @param timeout the remaining time budget in milliseconds
+     * @return true if the deadline is set
+     */
+    protected boolean setDeadline(Carrier carrier, String timeout) {
+        if (timeout == null || timeout.isEmpty()) {
+            return false;
+        }
+        long budget;
+        try {
+            budget = Long.parseLong(timeout.trim());
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (budget < 0) {
+            return false;
+        }
+        long deadline = System.currentTimeMillis() + budget;
+        Long old = carrier.getAttribute(Carrier.ATTRIBUTE_DEADLINE);
+        if (old == null || old <= 0 || deadline < old) {
+            carrier.setAttribute(Carrier.ATTRIBUTE_DEADLINE, deadline);
+        }
+        return true;
+    }
 }
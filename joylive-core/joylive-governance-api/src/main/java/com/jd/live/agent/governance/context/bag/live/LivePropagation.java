@@ -47,6 +47,10 @@ public class LivePropagation extends AbstractPropagation {
                 }
             }
         }
+        String timeout = getTimeout(carrier);
+        if (timeout != null) {
+            writer.setHeader(Carrier.CARGO_TIMEOUT, timeout);
+        }
     }
 
     @Override
@@ -75,8 +79,13 @@ public class LivePropagation extends AbstractPropagation {
             return false;
         }
         CargoRequire require = getRequire();
-        return reader.read((name, values) ->
-                        carrier.addCargo(new Cargo(name, Label.parseValue(values), true)),
-                require::match) > 0;
+        return reader.read((name, values) -> {
+            if (isTimeout(name)) {
+                Iterator<String> iterator = values == null ? null : values.iterator();
+                setDeadline(carrier, iterator != null && iterator.hasNext() ? iterator.next() : null);
+            } else {
+                carrier.addCargo(new Cargo(name, Label.parseValue(values), true));
+            }
+        }, name -> isTimeout(name) || require.match(name)) > 0;
     }
 }
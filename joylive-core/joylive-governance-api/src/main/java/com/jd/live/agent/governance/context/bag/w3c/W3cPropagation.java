@@ -48,18 +48,19 @@ public class W3cPropagation extends AbstractPropagation {
             return;
         }
         Collection<Cargo> cargos = carrier.getCargos();
-        if (cargos == null || cargos.isEmpty()) {
+        String timeout = getTimeout(carrier);
+        if ((cargos == null || cargos.isEmpty()) && timeout == null) {
             return;
         }
 
         // TODO w3c baggage header maybe propagated by another agent, so we need to update the baggage header
         HeaderFeature feature = writer.getFeature();
         if (feature.isDuplicable()) {
-            writer.addHeader(KEY_BAGGAGE, appendCargo(cargos, new StringBuilder()));
+            writer.addHeader(KEY_BAGGAGE, appendCargo(cargos, timeout, new StringBuilder()));
         } else {
             String baggage = writer.getHeader(KEY_BAGGAGE);
             StringBuilder builder = baggage == null || baggage.isEmpty() ? new StringBuilder() : new StringBuilder(baggage);
-            writer.setHeader(KEY_BAGGAGE, appendCargo(cargos, builder));
+            writer.setHeader(KEY_BAGGAGE, appendCargo(cargos, timeout, builder));
         }
     }
 
@@ -98,7 +99,9 @@ public class W3cPropagation extends AbstractPropagation {
         int counter;
         for (String header : headers) {
             counter = splitMap(header, COMMA, true, (key, value) -> {
-                if (require.match(key)) {
+                if (isTimeout(key)) {
+                    return setDeadline(carrier, value);
+                } else if (require.match(key)) {
                     carrier.addCargo(new Cargo(key, parseValue(value), true));
                     return true;
                 }
@@ -117,12 +120,18 @@ public class W3cPropagation extends AbstractPropagation {
      * is formatted as "key=value". Pairs are separated by commas.
      *
      * @param cargos  the collection of Cargo objects to be added
+     * @param timeout the remaining time budget to be added, or null
      * @param builder the StringBuilder to which the key-value pairs will be appended
      * @return the value with the appended key-value pairs
      */
-    private String appendCargo(Collection<Cargo> cargos, StringBuilder builder) {
-        for (Cargo cargo : cargos) {
-            append(builder, CHAR_COMMA, cargo.getKey(), join(cargo.getValues()), true);
+    private String appendCargo(Collection<Cargo> cargos, String timeout, StringBuilder builder) {
+        if (cargos != null) {
+            for (Cargo cargo : cargos) {
+                append(builder, CHAR_COMMA, cargo.getKey(), join(cargo.getValues()), true);
+            }
+        }
+        if (timeout != null) {
+            append(builder, CHAR_COMMA, Carrier.CARGO_TIMEOUT, timeout, true);
         }
         return builder.toString();
     }
@@ -0,0 +1,111 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.event;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Aggregates the requests of the traffic events by their dimensions.
+ * <p>
+ * The requests are added in place on the request thread with striped counters, and the aggregated events
+ * are flushed periodically, so the cost of publishing and exporting scales with the cardinality of the
+ * dimensions instead of the traffic.
+ * </p>
+ */
+public class TrafficAggregator {
+
+    /**
+     * The number of flushes without any request after which the dimensions are removed.
+     */
+    private static final int MAX_IDLES = 60;
+
+    private final Map<TrafficKey, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Adds the requests of the event to the counter of its dimensions.
+     *
+     * @param event the traffic event
+     */
+    public void add(TrafficEvent event) {
+        if (event != null && event.getRequests() > 0) {
+            TrafficKey key = new TrafficKey(event);
+            Counter counter = counters.get(key);
+            if (counter == null) {
+                counter = counters.computeIfAbsent(key, Counter::new);
+            }
+            counter.add(event.getRequests());
+        }
+    }
+
+    /**
+     * Flushes the aggregated requests since the last flush.
+     *
+     * @param consumer the consumer of the aggregated events
+     */
+    public void flush(Consumer<TrafficEvent> consumer) {
+        Iterator<Map.Entry<TrafficKey, Counter>> iterator = counters.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Counter counter = iterator.next().getValue();
+            long requests = counter.sum();
+            if (requests == 0 && counter.idle()) {
+                iterator.remove();
+                // the requests which are added before the removal.
+                requests = counter.sum();
+            }
+            while (requests > 0) {
+                int value = (int) Math.min(requests, Integer.MAX_VALUE);
+                consumer.accept(counter.event.requests(value));
+                requests -= value;
+            }
+        }
+    }
+
+    /**
+     * The striped counter of the requests of the dimensions.
+     */
+    private static class Counter {
+
+        private final TrafficEvent event;
+
+        private final LongAdder adder = new LongAdder();
+
+        private int idles;
+
+        Counter(TrafficKey key) {
+            this.event = key.getEvent();
+        }
+
+        void add(int requests) {
+            adder.add(requests);
+        }
+
+        long sum() {
+            long result = adder.sumThenReset();
+            if (result > 0) {
+                idles = 0;
+            }
+            return result;
+        }
+
+        boolean idle() {
+            return ++idles >= MAX_IDLES;
+        }
+    }
+}
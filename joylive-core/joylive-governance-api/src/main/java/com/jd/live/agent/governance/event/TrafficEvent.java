@@ -68,6 +68,8 @@ public class TrafficEvent {
 
     public static final String KEY_REJECT_TYPE = "reject_type";
 
+    public static final String KEY_ADMISSION_TIER = "admission_tier";
+
     public static final String COUNTER_GATEWAY_INBOUND_REQUESTS_TOTAL = "joylive_gateway_inbound_requests_total";
 
     public static final String COUNTER_GATEWAY_INBOUND_FORWARD_REQUESTS_TOTAL = "joylive_gateway_inbound_forward_requests_total";
@@ -210,6 +212,18 @@ public class TrafficEvent {
         return rejectType == null ? null : rejectType.name();
     }
 
+    /**
+     * Creates a copy of this event with the specified number of requests.
+     *
+     * @param requests the number of requests
+     * @return a new traffic event with the same dimensions
+     */
+    public TrafficEvent requests(int requests) {
+        return new TrafficEvent(componentType, direction, liveSpaceId, unitRuleId, laneSpaceId, laneRuleId,
+                localUnit, localCell, localLane, targetUnit, targetCell, targetLane, service, group, path, method,
+                variable, policyId, policyTags, actionType, rejectType, requests);
+    }
+
     public static TrafficEventBuilder builder() {
         return new TrafficEventBuilder();
     }
@@ -312,7 +326,12 @@ public class TrafficEvent {
         /**
          * The traffic event is rejected because the circuit breaker has been triggered.
          */
-        REJECT_CIRCUIT_BREAK
+        REJECT_CIRCUIT_BREAK,
+
+        /**
+         * The traffic event is rejected because the deadline of the request has been exceeded.
+         */
+        REJECT_DEADLINE_EXCEEDED
     }
 
     public static class TrafficEventBuilder {
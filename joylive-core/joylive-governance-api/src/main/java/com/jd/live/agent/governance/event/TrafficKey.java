@@ -0,0 +1,85 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.event;
+
+import lombok.Getter;
+
+import java.util.Objects;
+
+/**
+ * The dimensions of a traffic event, which is used to aggregate the requests of the events
+ * and to cache the exported attributes of them.
+ * <p>
+ * All the attributes of the event except the number of requests take part in the equality.
+ * </p>
+ */
+public class TrafficKey {
+
+    @Getter
+    private final TrafficEvent event;
+
+    private final int hashCode;
+
+    public TrafficKey(TrafficEvent event) {
+        this.event = event;
+        this.hashCode = Objects.hash(event.getComponentType(), event.getDirection(), event.getActionType(), event.getRejectType(),
+                event.getLiveSpaceId(), event.getUnitRuleId(), event.getLaneSpaceId(), event.getLaneRuleId(),
+                event.getLocalUnit(), event.getLocalCell(), event.getLocalLane(),
+                event.getTargetUnit(), event.getTargetCell(), event.getTargetLane(),
+                event.getService(), event.getGroup(), event.getPath(), event.getMethod(), event.getVariable(),
+                event.getPolicyId(), event.getPolicyTags());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        } else if (!(o instanceof TrafficKey)) {
+            return false;
+        }
+        TrafficKey key = (TrafficKey) o;
+        if (hashCode != key.hashCode) {
+            return false;
+        }
+        TrafficEvent other = key.event;
+        return event.getComponentType() == other.getComponentType()
+                && event.getDirection() == other.getDirection()
+                && event.getActionType() == other.getActionType()
+                && event.getRejectType() == other.getRejectType()
+                && Objects.equals(event.getService(), other.getService())
+                && Objects.equals(event.getGroup(), other.getGroup())
+                && Objects.equals(event.getPath(), other.getPath())
+                && Objects.equals(event.getMethod(), other.getMethod())
+                && Objects.equals(event.getVariable(), other.getVariable())
+                && Objects.equals(event.getPolicyId(), other.getPolicyId())
+                && Objects.equals(event.getLiveSpaceId(), other.getLiveSpaceId())
+                && Objects.equals(event.getUnitRuleId(), other.getUnitRuleId())
+                && Objects.equals(event.getLaneSpaceId(), other.getLaneSpaceId())
+                && Objects.equals(event.getLaneRuleId(), other.getLaneRuleId())
+                && Objects.equals(event.getLocalUnit(), other.getLocalUnit())
+                && Objects.equals(event.getLocalCell(), other.getLocalCell())
+                && Objects.equals(event.getLocalLane(), other.getLocalLane())
+                && Objects.equals(event.getTargetUnit(), other.getTargetUnit())
+                && Objects.equals(event.getTargetCell(), other.getTargetCell())
+                && Objects.equals(event.getTargetLane(), other.getTargetLane())
+                && Objects.equals(event.getPolicyTags(), other.getPolicyTags());
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
@@ -19,13 +19,31 @@ import com.jd.live.agent.bootstrap.util.AbstractAttributes;
 import com.jd.live.agent.core.util.cache.UnsafeLazyObject;
 import com.jd.live.agent.governance.request.ServiceRequest;
 
+import java.util.Objects;
+
 /**
  * An abstract implementation of the {@link Endpoint} interface that provides caching for
  * various properties. This class uses {@link UnsafeLazyObject} to lazily cache the values
  * of the properties obtained from the {@link Endpoint} interface.
+ * <p>
+ * The endpoint may be cached by {@link EndpointCache} and shared by concurrent requests,
+ * so the request level values are kept by method or expire quickly.
+ * </p>
  */
 public abstract class AbstractEndpoint extends AbstractAttributes implements Endpoint {
 
+    /**
+     * The lifetime of the weight ratio of the circuit breaker.
+     * <p>
+     * The circuit breaker filter sets the ratio on every request while the endpoint is recovering, and clears it
+     * when the endpoint is healthy. But the filter stops visiting the endpoints once no breaker is open or
+     * recovering, so the last ratio of a cached endpoint would never be cleared. The ratio expires after this
+     * period instead, which is long enough to cover the load balancing of the request that set it, and short
+     * enough to restore the full weight soon after the recovery.
+     * </p>
+     */
+    private static final long RATIO_EXPIRE_MILLIS = 1000L;
+
     private String liveSpaceId;
 
     private String unit;
@@ -36,10 +54,9 @@ public abstract class AbstractEndpoint extends AbstractAttributes implements End
 
     private String lane;
 
-    // Endpoint is request level
-    private Integer weight;
+    private volatile MethodWeight weight;
 
-    private Double weightRatio;
+    private volatile WeightRatio weightRatio;
 
     @Override
     public String getLiveSpaceId() {
@@ -98,19 +115,53 @@ public abstract class AbstractEndpoint extends AbstractAttributes implements End
 
     @Override
     public Double getWeightRatio() {
-        return weightRatio;
+        WeightRatio ratio = weightRatio;
+        return ratio == null || ratio.expireTime < System.currentTimeMillis() ? null : ratio.value;
     }
 
     @Override
     public void setWeightRatio(Double weightRatio) {
-        this.weightRatio = weightRatio;
+        this.weightRatio = weightRatio == null ? null : new WeightRatio(weightRatio, System.currentTimeMillis() + RATIO_EXPIRE_MILLIS);
     }
 
     @Override
     public Integer reweight(ServiceRequest request) {
-        if (weight == null) {
-            weight = Endpoint.super.reweight(request);
+        String method = request == null ? null : request.getMethod();
+        MethodWeight mw = weight;
+        if (mw == null || !Objects.equals(mw.method, method)) {
+            mw = new MethodWeight(method, getWeight(request));
+            weight = mw;
+        }
+        return reweight(mw.weight);
+    }
+
+    /**
+     * The configured weight of the method.
+     */
+    private static class MethodWeight {
+
+        private final String method;
+
+        private final int weight;
+
+        MethodWeight(String method, Integer weight) {
+            this.method = method;
+            this.weight = weight == null ? 0 : weight;
+        }
+    }
+
+    /**
+     * The weight ratio with its expire time.
+     */
+    private static class WeightRatio {
+
+        private final double value;
+
+        private final long expireTime;
+
+        WeightRatio(double value, long expireTime) {
+            this.value = value;
+            this.expireTime = expireTime;
         }
-        return weight;
     }
 }
@@ -25,6 +25,8 @@ import com.jd.live.agent.governance.request.ServiceRequest;
 import com.jd.live.agent.governance.rule.tag.TagCondition;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import static com.jd.live.agent.core.util.StringUtils.isEqualsOrEmpty;
@@ -36,7 +38,7 @@ import static com.jd.live.agent.core.util.StringUtils.isEqualsOrEmpty;
 public interface Endpoint extends Matcher<TagCondition>, Attributes {
 
     /**
-     * Key for the counter attribute of the endpoint.
+     * Key for the counter attribute of the selected endpoint, which is bound to the request.
      */
     String ATTRIBUTE_COUNTER = "counter";
 
@@ -140,7 +142,16 @@ public interface Endpoint extends Matcher<TagCondition>, Attributes {
      * @return the weight for this endpoint
      */
     default Integer reweight(ServiceRequest request) {
-        int weight = getWeight(request);
+        return reweight(getWeight(request));
+    }
+
+    /**
+     * Gets the weight by the specified base weight, taking into account the warm-up time and recover time.
+     *
+     * @param weight the base weight of the endpoint
+     * @return the weight for this endpoint
+     */
+    default Integer reweight(int weight) {
         if (weight > 0) {
             long now = System.currentTimeMillis();
             Double ratio = getWeightRatio();
@@ -462,6 +473,63 @@ public interface Endpoint extends Matcher<TagCondition>, Attributes {
      */
     EndpointState getState();
 
+    /**
+     * Gets all the labels of this endpoint, which are compared to detect the changes of the endpoint.
+     *
+     * @return The labels, or {@code null} if the labels can not be enumerated.
+     */
+    default Map<String, String> getLabels() {
+        return null;
+    }
+
+    /**
+     * Gets the 64-bit fingerprint of the routing-relevant attributes of this endpoint, which is used to detect
+     * the changes of the endpoint. The equal fingerprints should be confirmed by {@link #isSame(Endpoint)}.
+     *
+     * @return The fingerprint of the endpoint.
+     */
+    default long getFingerprint() {
+        return new Fingerprint()
+                .add(getId()).add(getHost()).add(getPort()).add(getState())
+                .add(getTimestamp()).add(getWarmup()).add(getLabel(Constants.LABEL_WEIGHT))
+                .add(getLiveSpaceId()).add(getUnit()).add(getCell())
+                .add(getCloud()).add(getRegion()).add(getZone()).add(getLabel(Constants.LABEL_CLUSTER))
+                .add(getLaneSpaceId()).add(getLane()).add(getGroup())
+                .add(getLabels())
+                .get();
+    }
+
+    /**
+     * Compares the routing-relevant attributes of this endpoint with the other one.
+     *
+     * @param other The other endpoint.
+     * @return {@code true} if the attributes are all equal, {@code false} otherwise.
+     */
+    default boolean isSame(Endpoint other) {
+        if (other == this) {
+            return true;
+        }
+        return other != null
+                && getPort() == other.getPort()
+                && Objects.equals(getId(), other.getId())
+                && Objects.equals(getHost(), other.getHost())
+                && getState() == other.getState()
+                && Objects.equals(getTimestamp(), other.getTimestamp())
+                && Objects.equals(getWarmup(), other.getWarmup())
+                && Objects.equals(getLabel(Constants.LABEL_WEIGHT), other.getLabel(Constants.LABEL_WEIGHT))
+                && Objects.equals(getLiveSpaceId(), other.getLiveSpaceId())
+                && Objects.equals(getUnit(), other.getUnit())
+                && Objects.equals(getCell(), other.getCell())
+                && Objects.equals(getCloud(), other.getCloud())
+                && Objects.equals(getRegion(), other.getRegion())
+                && Objects.equals(getZone(), other.getZone())
+                && Objects.equals(getLabel(Constants.LABEL_CLUSTER), other.getLabel(Constants.LABEL_CLUSTER))
+                && Objects.equals(getLaneSpaceId(), other.getLaneSpaceId())
+                && Objects.equals(getLane(), other.getLane())
+                && Objects.equals(getGroup(), other.getGroup())
+                && Objects.equals(getLabels(), other.getLabels());
+    }
+
     /**
      * Checks if the endpoint is accessible based on its current state.
      * <p>
@@ -0,0 +1,215 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.instance;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A cache of the endpoints which are adapted from the native instances of the frameworks,
+ * such as service instances, invokers and providers.
+ * <p>
+ * The endpoints are interned by the identity of their native instances, or by the keys of the native instances
+ * if a key function is provided, so the per-endpoint values such as the parsed labels are kept across requests.
+ * A keyed endpoint is reused only if its native instance equals the new one, because the frameworks such as
+ * spring cloud create new instances on every refresh of the discovery. The adapted list is reused until
+ * the endpoints change.
+ * </p>
+ * <p>
+ * The returned list is shared by the requests and must not be modified.
+ * </p>
+ *
+ * @param <N> The type of the native instance.
+ * @param <E> The type of the endpoint.
+ */
+public class EndpointCache<N, E extends Endpoint> {
+
+    private static final int MIN_CAPACITY = 64;
+
+    private final Function<N, E> factory;
+
+    private final Function<N, String> keyFunc;
+
+    private volatile Snapshot<N, E> snapshot;
+
+    public EndpointCache(Function<N, E> factory) {
+        this(factory, null);
+    }
+
+    public EndpointCache(Function<N, E> factory, Function<N, String> keyFunc) {
+        this.factory = factory;
+        this.keyFunc = keyFunc;
+        this.snapshot = new Snapshot<>(keyFunc);
+    }
+
+    /**
+     * Returns the endpoints of the native instances.
+     *
+     * @param instances the native instances
+     * @return the endpoints, which must not be modified
+     */
+    public List<E> get(List<? extends N> instances) {
+        if (instances == null || instances.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Snapshot<N, E> last = snapshot;
+        if (last.isSame(instances)) {
+            return last.endpoints;
+        } else if (keyFunc != null && last.isEqual(instances)) {
+            // the refreshed instances are equal to the last ones, only the instances are replaced.
+            snapshot = new Snapshot<>(instances, last);
+            return last.endpoints;
+        }
+        Snapshot<N, E> current = new Snapshot<>(instances, last, factory, keyFunc);
+        snapshot = current;
+        return current.endpoints;
+    }
+
+    /**
+     * Returns the endpoint of the native instance.
+     *
+     * @param instance the native instance
+     * @return the endpoint
+     */
+    public E getEndpoint(N instance) {
+        if (instance == null) {
+            return null;
+        }
+        E endpoint = snapshot.lookup(instance);
+        return endpoint != null ? endpoint : factory.apply(instance);
+    }
+
+    /**
+     * An immutable snapshot of the native instances and their endpoints.
+     */
+    private static class Snapshot<N, E extends Endpoint> {
+
+        private final Function<N, String> keyFunc;
+
+        private final Object[] instances;
+
+        private final List<E> endpoints;
+
+        private final Map<Object, Node<N, E>> index;
+
+        Snapshot(Function<N, String> keyFunc) {
+            this.keyFunc = keyFunc;
+            this.instances = new Object[0];
+            this.endpoints = Collections.emptyList();
+            this.index = keyFunc == null ? new IdentityHashMap<>() : new HashMap<>();
+        }
+
+        Snapshot(List<? extends N> instances, Snapshot<N, E> last) {
+            this.keyFunc = last.keyFunc;
+            this.instances = instances.toArray();
+            this.endpoints = last.endpoints;
+            this.index = last.index;
+        }
+
+        Snapshot(List<? extends N> instances, Snapshot<N, E> last, Function<N, E> factory, Function<N, String> keyFunc) {
+            int size = instances.size();
+            Object[] natives = new Object[size];
+            List<E> list = new ArrayList<>(size);
+            Map<Object, Node<N, E>> map = keyFunc == null ? new IdentityHashMap<>(size) : new HashMap<>(size * 4 / 3 + 1);
+            boolean same = size == last.endpoints.size();
+            int i = 0;
+            for (N instance : instances) {
+                E endpoint = last.lookup(instance);
+                if (endpoint == null) {
+                    endpoint = factory.apply(instance);
+                }
+                same = same && endpoint == last.endpoints.get(i);
+                natives[i++] = instance;
+                list.add(endpoint);
+                map.put(keyFunc == null ? instance : keyFunc.apply(instance), new Node<>(instance, endpoint));
+            }
+            // keep the endpoints of the instances which are filtered out, as the routers may return a subset.
+            if (last.index.size() + size <= Math.max(MIN_CAPACITY, size * 2)) {
+                last.index.forEach(map::putIfAbsent);
+            }
+            this.keyFunc = keyFunc;
+            this.instances = natives;
+            // keep the list of the same endpoints, so the caches keyed by the list are still valid.
+            this.endpoints = same ? last.endpoints : Collections.unmodifiableList(list);
+            this.index = map;
+        }
+
+        /**
+         * Looks up the endpoint of the native instance.
+         *
+         * @param instance the native instance
+         * @return the endpoint, or null if it is not found or its native instance is changed
+         */
+        E lookup(N instance) {
+            Node<N, E> node = index.get(keyFunc == null ? instance : keyFunc.apply(instance));
+            return node == null || node.instance != instance && !node.instance.equals(instance) ? null : node.endpoint;
+        }
+
+        /**
+         * Checks whether the native instances are equal to the ones of this snapshot.
+         *
+         * @param others the native instances
+         * @return true if they are the equal instances in the same order
+         */
+        boolean isEqual(List<? extends N> others) {
+            if (others.size() != instances.length) {
+                return false;
+            }
+            int i = 0;
+            for (N other : others) {
+                Object instance = instances[i++];
+                if (other != instance && (other == null || !other.equals(instance))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Checks whether the native instances are the same as the ones of this snapshot.
+         *
+         * @param others the native instances
+         * @return true if they are the same instances in the same order
+         */
+        boolean isSame(List<? extends N> others) {
+            if (others.size() != instances.length) {
+                return false;
+            }
+            int i = 0;
+            for (N other : others) {
+                if (other != instances[i++]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A native instance with its endpoint.
+     */
+    private static class Node<N, E> {
+
+        private final N instance;
+
+        private final E endpoint;
+
+        Node(N instance, E endpoint) {
+            this.instance = instance;
+            this.endpoint = endpoint;
+        }
+    }
+}
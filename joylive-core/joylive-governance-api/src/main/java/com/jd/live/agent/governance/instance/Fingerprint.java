@@ -0,0 +1,129 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.instance;
+
+import java.util.Map;
+
+/**
+ * An accumulator of a 64-bit fingerprint, which hashes the values with FNV-1a and spreads the result with
+ * the finalizer of MurmurHash3.
+ * <p>
+ * A fingerprint only detects the changes, the equal fingerprints should be confirmed by a full comparison.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+public class Fingerprint {
+
+    private static final long OFFSET = 0xcbf29ce484222325L;
+
+    private static final long PRIME = 0x100000001b3L;
+
+    private long hash = OFFSET;
+
+    /**
+     * Adds a long value.
+     *
+     * @param value the value
+     * @return this fingerprint
+     */
+    public Fingerprint add(long value) {
+        for (int i = 0; i < 8; i++) {
+            hash = (hash ^ (value & 0xff)) * PRIME;
+            value >>>= 8;
+        }
+        return this;
+    }
+
+    /**
+     * Adds a string value.
+     *
+     * @param value the value
+     * @return this fingerprint
+     */
+    public Fingerprint add(String value) {
+        if (value == null) {
+            return add(0L);
+        }
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char ch = value.charAt(i);
+            hash = (hash ^ (ch & 0xff)) * PRIME;
+            hash = (hash ^ (ch >>> 8)) * PRIME;
+        }
+        // the length separates the adjacent strings.
+        return add((long) length + 1);
+    }
+
+    /**
+     * Adds a value, the numbers and enums are added by their values and names.
+     *
+     * @param value the value
+     * @return this fingerprint
+     */
+    public Fingerprint add(Object value) {
+        if (value == null) {
+            return add(0L);
+        } else if (value instanceof String) {
+            return add((String) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            return add(Double.doubleToLongBits(((Number) value).doubleValue()));
+        } else if (value instanceof Number) {
+            return add(((Number) value).longValue());
+        } else if (value instanceof Enum) {
+            return add(((Enum<?>) value).name());
+        }
+        return add(value.toString());
+    }
+
+    /**
+     * Adds the entries of the map regardless of their order.
+     *
+     * @param map the map
+     * @return this fingerprint
+     */
+    public Fingerprint add(Map<String, String> map) {
+        if (map == null) {
+            return add(0L);
+        }
+        long sum = 0;
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            sum += new Fingerprint().add(entry.getKey()).add(entry.getValue()).get();
+        }
+        return add(sum).add((long) map.size() + 1);
+    }
+
+    /**
+     * Gets the fingerprint.
+     *
+     * @return the fingerprint
+     */
+    public long get() {
+        return mix(hash);
+    }
+
+    /**
+     * Spreads the bits of the value, so that the sum of the fingerprints is sensitive to every bit.
+     *
+     * @param value the value
+     * @return the mixed value
+     */
+    public static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+}
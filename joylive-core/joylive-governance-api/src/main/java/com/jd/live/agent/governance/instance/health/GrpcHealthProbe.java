@@ -0,0 +1,217 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.instance.health;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A probe which calls the standard grpc health service {@code grpc.health.v1.Health/Check} over plaintext http/2
+ * with prior knowledge, and treats the {@code SERVING} status as healthy.
+ * <p>
+ * The response headers are not decoded. A response without message, such as {@code UNIMPLEMENTED} when the
+ * server does not register the health service, is treated as healthy, because the server has answered the
+ * http/2 request.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+public class GrpcHealthProbe extends TcpHealthProbe {
+
+    private static final String PATH = "/grpc.health.v1.Health/Check";
+
+    private static final byte[] PREFACE = "PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int FRAME_HEADER_SIZE = 9;
+
+    private static final int TYPE_DATA = 0x0;
+
+    private static final int TYPE_HEADERS = 0x1;
+
+    private static final int TYPE_RST_STREAM = 0x3;
+
+    private static final int TYPE_SETTINGS = 0x4;
+
+    private static final int TYPE_GOAWAY = 0x7;
+
+    private static final int FLAG_END_STREAM = 0x1;
+
+    private static final int FLAG_END_HEADERS = 0x4;
+
+    private static final int FLAG_PADDED = 0x8;
+
+    private static final int STREAM_ID = 1;
+
+    private static final int SERVING = 1;
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    @Override
+    protected void onConnected(AsynchronousSocketChannel channel, InetSocketAddress address, CompletableFuture<Boolean> result) {
+        write(channel, ByteBuffer.wrap(request(address.getHostString() + ":" + address.getPort())), result);
+    }
+
+    /**
+     * Builds the request, which consists of the connection preface, an empty settings frame, the headers frame
+     * and the data frame with an empty {@code HealthCheckRequest}.
+     *
+     * @param authority the authority of the endpoint
+     * @return the request bytes
+     */
+    protected static byte[] request(String authority) {
+        ByteArrayOutputStream headers = new ByteArrayOutputStream();
+        // indexed header fields of the hpack static table: ":method: POST" and ":scheme: http"
+        headers.write(0x83);
+        headers.write(0x86);
+        // literal header fields without indexing, with the names of the static table: ":path", ":authority" and "content-type"
+        literal(headers, new byte[]{0x04}, PATH);
+        literal(headers, new byte[]{0x01}, authority);
+        literal(headers, new byte[]{0x0f, 0x10}, "application/grpc");
+        // literal header field without indexing, with a new name
+        literal(headers, new byte[]{0x00}, "te");
+        string(headers, "trailers");
+        byte[] block = headers.toByteArray();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(PREFACE, 0, PREFACE.length);
+        frame(out, TYPE_SETTINGS, 0, 0, new byte[0]);
+        frame(out, TYPE_HEADERS, FLAG_END_HEADERS, STREAM_ID, block);
+        // the grpc message prefix of an empty message, which is not compressed
+        frame(out, TYPE_DATA, FLAG_END_STREAM, STREAM_ID, new byte[5]);
+        return out.toByteArray();
+    }
+
+    /**
+     * Parses the received frames.
+     *
+     * @param bytes  the received bytes
+     * @param length the length of the received bytes
+     * @return true if the endpoint is serving, false if it's not, or null if more bytes are required
+     */
+    protected static Boolean parse(byte[] bytes, int length) {
+        int offset = 0;
+        while (offset + FRAME_HEADER_SIZE <= length) {
+            int size = ((bytes[offset] & 0xff) << 16) | ((bytes[offset + 1] & 0xff) << 8) | (bytes[offset + 2] & 0xff);
+            int type = bytes[offset + 3] & 0xff;
+            int flags = bytes[offset + 4] & 0xff;
+            int stream = ((bytes[offset + 5] & 0x7f) << 24) | ((bytes[offset + 6] & 0xff) << 16)
+                    | ((bytes[offset + 7] & 0xff) << 8) | (bytes[offset + 8] & 0xff);
+            int start = offset + FRAME_HEADER_SIZE;
+            if (start + size > length) {
+                return null;
+            }
+            if (type == TYPE_GOAWAY || type == TYPE_RST_STREAM && stream == STREAM_ID) {
+                return false;
+            } else if (type == TYPE_DATA && stream == STREAM_ID) {
+                int padding = (flags & FLAG_PADDED) != 0 && size > 0 ? bytes[start] & 0xff : 0;
+                int dataStart = (flags & FLAG_PADDED) != 0 ? start + 1 : start;
+                int dataEnd = start + size - padding;
+                // skip the message prefix, and read the field "status" (field 1, varint) of HealthCheckResponse
+                for (int i = dataStart + 5; i + 1 < dataEnd; i++) {
+                    if (bytes[i] == 0x08) {
+                        return bytes[i + 1] == SERVING;
+                    }
+                }
+                return false;
+            } else if (type == TYPE_HEADERS && stream == STREAM_ID && (flags & FLAG_END_STREAM) != 0) {
+                // a trailers-only response without message
+                return true;
+            }
+            offset = start + size;
+        }
+        return null;
+    }
+
+    private void write(AsynchronousSocketChannel channel, ByteBuffer buffer, CompletableFuture<Boolean> result) {
+        channel.write(buffer, null, new CompletionHandler<Integer, Void>() {
+            @Override
+            public void completed(Integer count, Void attachment) {
+                if (buffer.hasRemaining()) {
+                    write(channel, buffer, result);
+                } else {
+                    read(channel, ByteBuffer.allocate(BUFFER_SIZE), result);
+                }
+            }
+
+            @Override
+            public void failed(Throwable e, Void attachment) {
+                result.complete(false);
+            }
+        });
+    }
+
+    private void read(AsynchronousSocketChannel channel, ByteBuffer buffer, CompletableFuture<Boolean> result) {
+        channel.read(buffer, null, new CompletionHandler<Integer, Void>() {
+            @Override
+            public void completed(Integer count, Void attachment) {
+                Boolean serving = parse(buffer.array(), buffer.position());
+                if (serving != null) {
+                    result.complete(serving);
+                } else if (count < 0 || !buffer.hasRemaining()) {
+                    result.complete(false);
+                } else {
+                    read(channel, buffer, result);
+                }
+            }
+
+            @Override
+            public void failed(Throwable e, Void attachment) {
+                result.complete(false);
+            }
+        });
+    }
+
+    private static void frame(ByteArrayOutputStream out, int type, int flags, int stream, byte[] payload) {
+        out.write(payload.length >>> 16);
+        out.write(payload.length >>> 8);
+        out.write(payload.length);
+        out.write(type);
+        out.write(flags);
+        out.write(stream >>> 24);
+        out.write(stream >>> 16);
+        out.write(stream >>> 8);
+        out.write(stream);
+        out.write(payload, 0, payload.length);
+    }
+
+    private static void literal(ByteArrayOutputStream out, byte[] name, String value) {
+        out.write(name, 0, name.length);
+        string(out, value);
+    }
+
+    private static void string(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        // the string literal without huffman encoding, the length has a 7-bit prefix
+        int length = bytes.length;
+        if (length < 0x7f) {
+            out.write(length);
+        } else {
+            out.write(0x7f);
+            length -= 0x7f;
+            while (length >= 0x80) {
+                out.write((length & 0x7f) | 0x80);
+                length >>>= 7;
+            }
+            out.write(length);
+        }
+        out.write(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,362 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.instance.health;
+
+import com.jd.live.agent.bootstrap.logger.Logger;
+import com.jd.live.agent.bootstrap.logger.LoggerFactory;
+import com.jd.live.agent.core.thread.NamedThreadFactory;
+import com.jd.live.agent.core.util.network.Ipv4;
+import com.jd.live.agent.core.util.time.Timeout;
+import com.jd.live.agent.core.util.time.Timer;
+import com.jd.live.agent.governance.config.HealthCheckConfig;
+import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.registry.EndpointEvent;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.AsynchronousChannelGroup;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.UnresolvedAddressException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An active health checker, which probes the subscribed endpoints on the timer with jittered intervals.
+ * <p>
+ * The endpoints are deduplicated by address across the services sharing them, the probes are non-blocking
+ * connects on a shared channel group, and the number of in-flight probes is bounded. The probe of an endpoint
+ * is chosen by its protocol label, and the host names are resolved on a dedicated thread instead of the timer.
+ * The results are published into the {@link HealthIndex}.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+public class HealthChecker {
+
+    private static final Logger logger = LoggerFactory.getLogger(HealthChecker.class);
+
+    private static final long BUSY_DELAY = 100L;
+
+    private final HealthCheckConfig config;
+
+    private final Timer timer;
+
+    private final HealthIndex index;
+
+    private final Map<String, HealthProbe> probes = new HashMap<>();
+
+    private final HealthProbe defaultProbe;
+
+    private final Map<String, Target> targets = new ConcurrentHashMap<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile AsynchronousChannelGroup group;
+
+    private volatile ExecutorService resolver;
+
+    public HealthChecker(HealthCheckConfig config, Timer timer, HealthIndex index) {
+        this.config = config;
+        this.timer = timer;
+        this.index = index;
+        probes.put(HealthCheckConfig.TYPE_TCP, new TcpHealthProbe());
+        probes.put(HealthCheckConfig.TYPE_HTTP, new HttpHealthProbe(config.getPath()));
+        probes.put(HealthCheckConfig.TYPE_GRPC, new GrpcHealthProbe());
+        HealthProbe probe = config.getType() == null ? null : probes.get(config.getType().toLowerCase());
+        this.defaultProbe = probe == null ? probes.get(HealthCheckConfig.TYPE_TCP) : probe;
+    }
+
+    /**
+     * Starts the health checker.
+     *
+     * @throws IOException if the channel group can't be created
+     */
+    public synchronized void start() throws IOException {
+        if (group == null) {
+            group = AsynchronousChannelGroup.withFixedThreadPool(1, new NamedThreadFactory("LiveAgent-health-check", true));
+            // the host names are resolved out of the timer thread
+            resolver = Executors.newSingleThreadExecutor(new NamedThreadFactory("LiveAgent-health-resolve", true));
+        }
+    }
+
+    /**
+     * Stops the health checker and clears the health of the endpoints.
+     */
+    public synchronized void stop() {
+        AsynchronousChannelGroup current = group;
+        ExecutorService executor = resolver;
+        group = null;
+        resolver = null;
+        if (current != null) {
+            try {
+                current.shutdownNow();
+            } catch (IOException ignored) {
+            }
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        for (Target target : targets.values()) {
+            target.removed = true;
+            index.remove(target.address);
+        }
+        targets.clear();
+    }
+
+    /**
+     * Handles the endpoint event of a subscribed service.
+     *
+     * @param event the endpoint event
+     */
+    public void onEvent(EndpointEvent event) {
+        add(event.getService(), event.getAdds());
+        remove(event.getService(), event.getRemoves());
+    }
+
+    /**
+     * Adds the endpoints of the service to be checked.
+     *
+     * @param service   the service
+     * @param endpoints the endpoints
+     */
+    public void add(String service, Collection<? extends Endpoint> endpoints) {
+        if (endpoints == null || endpoints.isEmpty() || group == null) {
+            return;
+        }
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.getPort() <= 0 || endpoint.getHost() == null || endpoint.getHost().isEmpty()) {
+                continue;
+            }
+            String address = endpoint.getAddress();
+            Target target = targets.computeIfAbsent(address, a -> new Target(a, endpoint.getHost(), endpoint.getPort(), getProbe(endpoint)));
+            if (target.services.add(service) && target.started.compareAndSet(false, true)) {
+                // spread the first probes of the endpoints over an interval
+                schedule(target, ThreadLocalRandom.current().nextLong(Math.max(1, config.getInterval())));
+            }
+        }
+    }
+
+    /**
+     * Removes the endpoints of the service, and stops checking the ones no longer used by any service.
+     *
+     * @param service   the service
+     * @param endpoints the endpoints
+     */
+    public void remove(String service, Collection<? extends Endpoint> endpoints) {
+        if (endpoints == null || endpoints.isEmpty()) {
+            return;
+        }
+        for (Endpoint endpoint : endpoints) {
+            String address = endpoint.getAddress();
+            Target target = targets.get(address);
+            if (target != null && target.services.remove(service) && target.services.isEmpty()) {
+                targets.remove(address, target);
+                target.removed = true;
+                index.remove(address);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of the checked endpoints.
+     *
+     * @return the number of the checked endpoints
+     */
+    public int size() {
+        return targets.size();
+    }
+
+    /**
+     * Returns the probe of the endpoint by its protocol.
+     *
+     * @param endpoint the endpoint
+     * @return the probe
+     */
+    private HealthProbe getProbe(Endpoint endpoint) {
+        String label = config.getProtocolLabel();
+        String protocol = label == null || label.isEmpty() ? null : endpoint.getLabel(label);
+        HealthProbe result = protocol == null || protocol.isEmpty() ? null : probes.get(protocol.toLowerCase());
+        return result == null ? defaultProbe : result;
+    }
+
+    private void schedule(Target target, long delay) {
+        if (!target.scheduled.compareAndSet(0, 1)) {
+            return;
+        }
+        timer.delay("health-check-" + target.address, delay, () -> {
+            target.scheduled.set(0);
+            probe(target);
+        });
+    }
+
+    private long getInterval() {
+        long interval = Math.max(1, config.getInterval());
+        double jitter = Math.min(1, Math.max(0, config.getJitter()));
+        long range = (long) (interval * jitter);
+        return range <= 0 ? interval : interval - range + ThreadLocalRandom.current().nextLong(range * 2 + 1);
+    }
+
+    private void probe(Target target) {
+        AsynchronousChannelGroup current = group;
+        if (current == null || target.removed) {
+            return;
+        } else if (inFlight.incrementAndGet() > Math.max(1, config.getMaxInFlight())) {
+            inFlight.decrementAndGet();
+            schedule(target, BUSY_DELAY + ThreadLocalRandom.current().nextLong(BUSY_DELAY));
+            return;
+        }
+        InetSocketAddress address = target.getSocketAddress();
+        if (address != null) {
+            connect(current, target, address);
+            return;
+        }
+        try {
+            resolver.execute(() -> connect(current, target, target.resolve()));
+        } catch (Throwable e) {
+            inFlight.decrementAndGet();
+            onResult(target, false);
+        }
+    }
+
+    private void connect(AsynchronousChannelGroup group, Target target, InetSocketAddress address) {
+        AsynchronousSocketChannel channel;
+        try {
+            if (address.isUnresolved()) {
+                throw new UnresolvedAddressException();
+            }
+            channel = AsynchronousSocketChannel.open(group);
+        } catch (Throwable e) {
+            inFlight.decrementAndGet();
+            onResult(target, false);
+            return;
+        }
+        Timeout timeout = timer.delay("health-check-timeout-" + target.address, config.getTimeout(), () -> close(channel));
+        target.probe.probe(channel, address).whenComplete((healthy, e) -> {
+            timeout.cancel();
+            close(channel);
+            inFlight.decrementAndGet();
+            onResult(target, healthy != null && healthy);
+        });
+    }
+
+    private void onResult(Target target, boolean healthy) {
+        if (target.removed) {
+            return;
+        }
+        if (healthy) {
+            target.failures = 0;
+            target.successes++;
+            if (!target.healthy && target.successes >= config.getHealthyThreshold()) {
+                target.healthy = true;
+                index.update(target.address, true);
+                logger.info("Endpoint " + target.address + " is healthy by active health checking.");
+            }
+        } else {
+            target.successes = 0;
+            target.failures++;
+            if (target.healthy && target.failures >= config.getUnhealthyThreshold()) {
+                target.healthy = false;
+                index.update(target.address, false);
+                logger.info("Endpoint " + target.address + " is unhealthy by active health checking.");
+            }
+        }
+        if (target.removed) {
+            index.remove(target.address);
+        } else {
+            schedule(target, getInterval());
+        }
+    }
+
+    private static void close(AsynchronousSocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * An endpoint address to be checked, which is shared by the services.
+     */
+    private static class Target {
+
+        private final String address;
+
+        private final String host;
+
+        private final int port;
+
+        private final Set<String> services = ConcurrentHashMap.newKeySet();
+
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        private final AtomicInteger scheduled = new AtomicInteger();
+
+        private final HealthProbe probe;
+
+        private volatile InetSocketAddress socketAddress;
+
+        private volatile boolean removed;
+
+        private boolean healthy = true;
+
+        private int successes;
+
+        private int failures;
+
+        Target(String address, String host, int port, HealthProbe probe) {
+            this.address = address;
+            this.host = host;
+            this.port = port;
+            this.probe = probe;
+        }
+
+        /**
+         * Returns the socket address without looking up the name service.
+         *
+         * @return the resolved socket address, or null if the host name has to be resolved
+         */
+        InetSocketAddress getSocketAddress() {
+            InetSocketAddress result = socketAddress;
+            if (result == null && (Ipv4.isIpv4(host) || host.indexOf(':') >= 0)) {
+                // the ip literal is parsed without looking up the name service.
+                result = new InetSocketAddress(host, port);
+                socketAddress = result;
+            }
+            return result;
+        }
+
+        /**
+         * Resolves the host name, which may block on the name service.
+         *
+         * @return the socket address, which is unresolved if the host name is unknown
+         */
+        InetSocketAddress resolve() {
+            InetSocketAddress result = new InetSocketAddress(host, port);
+            if (!result.isUnresolved()) {
+                socketAddress = result;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.instance.health;
+
+import com.jd.live.agent.governance.instance.Endpoint;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An index of the endpoints which are marked as unhealthy by the active health checking.
+ * <p>
+ * It's written by the health checker and read by the route filters without locks. The lookup is skipped
+ * entirely when all the endpoints are healthy.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+public class HealthIndex {
+
+    /**
+     * The name used to identify the health index component.
+     */
+    public static final String COMPONENT_HEALTH_INDEX = "healthIndex";
+
+    private final Map<String, Boolean> unhealthies = new ConcurrentHashMap<>();
+
+    /**
+     * Checks whether the endpoint is healthy.
+     *
+     * @param endpoint the endpoint
+     * @return false if the endpoint is marked as unhealthy
+     */
+    public boolean isHealthy(Endpoint endpoint) {
+        return unhealthies.isEmpty() || !unhealthies.containsKey(endpoint.getAddress());
+    }
+
+    /**
+     * Checks whether the address is healthy.
+     *
+     * @param address the address of the endpoint
+     * @return false if the address is marked as unhealthy
+     */
+    public boolean isHealthy(String address) {
+        return !unhealthies.containsKey(address);
+    }
+
+    /**
+     * Checks whether all the endpoints are healthy.
+     *
+     * @return true if there is no unhealthy endpoint
+     */
+    public boolean isEmpty() {
+        return unhealthies.isEmpty();
+    }
+
+    /**
+     * Returns the number of the unhealthy endpoints.
+     *
+     * @return the number of the unhealthy endpoints
+     */
+    public int size() {
+        return unhealthies.size();
+    }
+
+    /**
+     * Updates the health of the address.
+     *
+     * @param address the address of the endpoint
+     * @param healthy whether the endpoint is healthy
+     */
+    public void update(String address, boolean healthy) {
+        if (healthy) {
+            unhealthies.remove(address);
+        } else {
+            unhealthies.put(address, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Removes the address, which is no longer checked.
+     *
+     * @param address the address of the endpoint
+     */
+    public void remove(String address) {
+        unhealthies.remove(address);
+    }
+}
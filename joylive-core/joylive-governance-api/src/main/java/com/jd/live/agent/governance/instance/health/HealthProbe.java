@@ -0,0 +1,39 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.instance.health;
+
+import java.net.InetSocketAddress;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A non-blocking probe of the health of an endpoint.
+ *
+ * @since 1.6.0
+ */
+public interface HealthProbe {
+
+    /**
+     * Probes the endpoint through the unconnected channel. The returned future is completed with false
+     * if the endpoint is unhealthy. The caller bounds the probe with a timeout and closes the channel.
+     *
+     * @param channel the unconnected channel
+     * @param address the address of the endpoint
+     * @return the future of the result
+     */
+    CompletableFuture<Boolean> probe(AsynchronousSocketChannel channel, InetSocketAddress address);
+
+}
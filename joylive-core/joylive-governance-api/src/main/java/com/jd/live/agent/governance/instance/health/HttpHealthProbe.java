@@ -0,0 +1,115 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.instance.health;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A probe which sends a http/1.1 GET request to the health path, and treats the 2xx and 3xx status as healthy.
+ *
+ * @since 1.6.0
+ */
+public class HttpHealthProbe extends TcpHealthProbe {
+
+    private static final int STATUS_LINE_SIZE = 256;
+
+    private final String path;
+
+    public HttpHealthProbe(String path) {
+        this.path = path == null || path.isEmpty() ? "/" : (path.charAt(0) == '/' ? path : "/" + path);
+    }
+
+    @Override
+    protected void onConnected(AsynchronousSocketChannel channel, InetSocketAddress address, CompletableFuture<Boolean> result) {
+        String request = "GET " + path + " HTTP/1.1\r\nHost: " + address.getHostString() + ":" + address.getPort()
+                + "\r\nUser-Agent: joylive-health-check\r\nConnection: close\r\n\r\n";
+        write(channel, ByteBuffer.wrap(request.getBytes(StandardCharsets.US_ASCII)), result);
+    }
+
+    private void write(AsynchronousSocketChannel channel, ByteBuffer buffer, CompletableFuture<Boolean> result) {
+        channel.write(buffer, null, new CompletionHandler<Integer, Void>() {
+            @Override
+            public void completed(Integer count, Void attachment) {
+                if (buffer.hasRemaining()) {
+                    write(channel, buffer, result);
+                } else {
+                    read(channel, ByteBuffer.allocate(STATUS_LINE_SIZE), result);
+                }
+            }
+
+            @Override
+            public void failed(Throwable e, Void attachment) {
+                result.complete(false);
+            }
+        });
+    }
+
+    private void read(AsynchronousSocketChannel channel, ByteBuffer buffer, CompletableFuture<Boolean> result) {
+        channel.read(buffer, null, new CompletionHandler<Integer, Void>() {
+            @Override
+            public void completed(Integer count, Void attachment) {
+                int status = parseStatus(buffer.array(), buffer.position());
+                if (status != 0) {
+                    result.complete(status >= 200 && status < 400);
+                } else if (count < 0 || !buffer.hasRemaining()) {
+                    result.complete(false);
+                } else {
+                    read(channel, buffer, result);
+                }
+            }
+
+            @Override
+            public void failed(Throwable e, Void attachment) {
+                result.complete(false);
+            }
+        });
+    }
+
+    /**
+     * Parses the status code from the status line, such as "HTTP/1.1 200 OK".
+     *
+     * @param bytes  the received bytes
+     * @param length the length of the received bytes
+     * @return the status code, or 0 if the status line is incomplete, or -1 if it's malformed
+     */
+    protected static int parseStatus(byte[] bytes, int length) {
+        int end = -1;
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] == '\n') {
+                end = i;
+                break;
+            }
+        }
+        if (end < 0) {
+            return 0;
+        }
+        String line = new String(bytes, 0, end, StandardCharsets.US_ASCII).trim();
+        int start = line.indexOf(' ');
+        if (!line.startsWith("HTTP/") || start < 0 || line.length() < start + 4) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(line.substring(start + 1, start + 4));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
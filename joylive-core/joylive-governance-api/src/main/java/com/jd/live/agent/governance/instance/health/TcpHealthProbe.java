@@ -0,0 +1,57 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.instance.health;
+
+import java.net.InetSocketAddress;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A probe which only checks whether the endpoint accepts a tcp connection.
+ *
+ * @since 1.6.0
+ */
+public class TcpHealthProbe implements HealthProbe {
+
+    @Override
+    public CompletableFuture<Boolean> probe(AsynchronousSocketChannel channel, InetSocketAddress address) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        channel.connect(address, null, new CompletionHandler<Void, Void>() {
+            @Override
+            public void completed(Void v, Void attachment) {
+                onConnected(channel, address, result);
+            }
+
+            @Override
+            public void failed(Throwable e, Void attachment) {
+                result.complete(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Called when the channel is connected.
+     *
+     * @param channel the connected channel
+     * @param address the address of the endpoint
+     * @param result  the future of the result
+     */
+    protected void onConnected(AsynchronousSocketChannel channel, InetSocketAddress address, CompletableFuture<Boolean> result) {
+        result.complete(true);
+    }
+}
@@ -17,6 +17,7 @@ package com.jd.live.agent.governance.interceptor;
 
 import com.jd.live.agent.bootstrap.bytekit.context.MethodContext;
 import com.jd.live.agent.core.plugin.definition.InterceptorAdaptor;
+import com.jd.live.agent.core.util.cache.WeakCache;
 import com.jd.live.agent.governance.policy.AccessMode;
 import com.jd.live.agent.governance.policy.GovernancePolicy;
 import com.jd.live.agent.governance.policy.PolicySupplier;
@@ -33,12 +34,19 @@ import java.sql.SQLException;
  */
 public abstract class AbstractDbInterceptor extends InterceptorAdaptor {
 
+    private static final int MAX_CONNECTIONS = 4096;
+
     /**
      * A supplier of governance policies that is used to retrieve the current policy
      * for database access control.
      */
     protected final PolicySupplier policySupplier;
 
+    /**
+     * The access modes of the connections, which are weakly referenced.
+     */
+    private final WeakCache<Object, ConnectionPolicy> connections = new WeakCache<>(MAX_CONNECTIONS);
+
     /**
      * Constructs a new AbstractDbInterceptor with the specified policy supplier.
      *
@@ -57,29 +65,88 @@ public abstract class AbstractDbInterceptor extends InterceptorAdaptor {
      * @param request the DbRequest representing the database operation to be protected
      */
     protected void protect(MethodContext context, DbRequest request) {
+        protect(context, request, null);
+    }
+
+    /**
+     * Protects the database operation by checking the access policy for the given request.
+     * The access mode is resolved once per connection until the governance policy changes.
+     *
+     * @param context    the MethodContext in which the database operation is being performed
+     * @param request    the DbRequest representing the database operation to be protected
+     * @param connection the connection which is bound to a single database address, or {@code null}
+     */
+    protected void protect(MethodContext context, DbRequest request, Object connection) {
         GovernancePolicy policy = policySupplier.getPolicy();
         if (policy != null) {
-            DatabaseCluster cluster;
-            String name = request.getName();
-            // Determine the database cluster based on the request name, host, and port
-            if (name != null && !name.isEmpty()) {
-                cluster = policy.getDbCluster(name);
-            } else {
-                cluster = policy.getDbCluster(request.getHost(), request.getPort());
-            }
-            if (cluster != null) {
-                // Retrieve the database policy and determine the access mode
-                DatabasePolicy dbPolicy = cluster.getPolicy(request.getName());
-                AccessMode accessMode = dbPolicy == null ? AccessMode.READ_WRITE : dbPolicy.getAccessMode();
-                // Check if the operation is allowed based on the access mode
-                if (!accessMode.isReadable() || !accessMode.isWriteable() && request.isWrite()) {
-                    // If not allowed, set an exception and skip the rest of the interceptor chain
-                    context.setThrowable(new SQLException("Database is not accessible, name=" + name + ", host=" +
-                            request.getHost() + ", port=" + request.getPort() + ", database=" + request.getDatabase()));
-                    context.setSkip(true);
-                }
+            AccessMode accessMode = getAccessMode(policy, request, connection);
+            // Check if the operation is allowed based on the access mode
+            if (accessMode != null && (!accessMode.isReadable() || !accessMode.isWriteable() && request.isWrite())) {
+                // If not allowed, set an exception and skip the rest of the interceptor chain
+                context.setThrowable(new SQLException("Database is not accessible, name=" + request.getName() + ", host=" +
+                        request.getHost() + ", port=" + request.getPort() + ", database=" + request.getDatabase()));
+                context.setSkip(true);
             }
         }
     }
+
+    /**
+     * Resolves the access mode of the request, the result is cached by the connection.
+     *
+     * @param policy     the governance policy
+     * @param request    the database request
+     * @param connection the connection, or {@code null}
+     * @return the access mode, or {@code null} if the database is not governed
+     */
+    private AccessMode getAccessMode(GovernancePolicy policy, DbRequest request, Object connection) {
+        if (connection == null) {
+            return getAccessMode(policy, request);
+        }
+        ConnectionPolicy result = connections.get(connection);
+        if (result == null || result.policy != policy) {
+            result = new ConnectionPolicy(policy, getAccessMode(policy, request));
+            connections.put(connection, result);
+        }
+        return result.accessMode;
+    }
+
+    /**
+     * Resolves the access mode of the request.
+     *
+     * @param policy  the governance policy
+     * @param request the database request
+     * @return the access mode, or {@code null} if the database is not governed
+     */
+    private AccessMode getAccessMode(GovernancePolicy policy, DbRequest request) {
+        DatabaseCluster cluster;
+        String name = request.getName();
+        // Determine the database cluster based on the request name, host, and port
+        if (name != null && !name.isEmpty()) {
+            cluster = policy.getDbCluster(name);
+        } else {
+            cluster = policy.getDbCluster(request.getHost(), request.getPort());
+        }
+        if (cluster == null) {
+            return null;
+        }
+        // Retrieve the database policy and determine the access mode
+        DatabasePolicy dbPolicy = cluster.getPolicy(name);
+        return dbPolicy == null ? AccessMode.READ_WRITE : dbPolicy.getAccessMode();
+    }
+
+    /**
+     * The access mode of a connection which is resolved from a governance policy.
+     */
+    private static class ConnectionPolicy {
+
+        private final GovernancePolicy policy;
+
+        private final AccessMode accessMode;
+
+        ConnectionPolicy(GovernancePolicy policy, AccessMode accessMode) {
+            this.policy = policy;
+            this.accessMode = accessMode;
+        }
+    }
 }
 
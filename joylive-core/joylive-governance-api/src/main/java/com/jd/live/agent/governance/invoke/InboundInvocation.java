@@ -71,6 +71,12 @@ public abstract class InboundInvocation<T extends InboundRequest> extends Invoca
 
     protected List<InboundListener> listeners;
 
+    /**
+     * Constructs a new InboundInvocation object.
+     */
+    protected InboundInvocation() {
+    }
+
     /**
      * Constructs an InboundInvocation with the specified request and context.
      *
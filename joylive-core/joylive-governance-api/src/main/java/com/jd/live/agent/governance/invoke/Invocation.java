@@ -45,7 +45,9 @@ import com.jd.live.agent.governance.request.ServiceRequest;
 import com.jd.live.agent.governance.rule.tag.TagCondition;
 import lombok.Getter;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 /**
  * Abstract class for an invocation, encapsulating the context and metadata required for processing a service request.
@@ -97,6 +99,17 @@ public abstract class Invocation<T extends ServiceRequest> implements Matcher<Ta
      */
     protected PolicyId policyId;
 
+    /**
+     * The extra tags of the traffic events, such as the admission tier.
+     */
+    protected Map<String, String> policyTags;
+
+    /**
+     * The per-request scaffolding, which keeps the shared filter chains stateless.
+     */
+    @Getter
+    protected final InvocationFrame frame = new InvocationFrame();
+
     /**
      * Constructs a new Invocation object.
      */
@@ -164,6 +177,49 @@ public abstract class Invocation<T extends ServiceRequest> implements Matcher<Ta
         return serviceMetadata.getServicePolicy();
     }
 
+    /**
+     * Starts a pass through the inbound or outbound filter chain.
+     *
+     * @param invoker the callable invoked at the end of the chain
+     */
+    public void startFilter(Callable<Object> invoker) {
+        frame.startFilter(invoker);
+    }
+
+    /**
+     * Returns the position of the next filter in the inbound or outbound filter chain and moves forward.
+     *
+     * @return the position of the next filter
+     */
+    public int nextFilter() {
+        return frame.nextFilter();
+    }
+
+    /**
+     * Starts a pass through the route filter chain.
+     */
+    public void startRoute() {
+        frame.startRoute();
+    }
+
+    /**
+     * Returns the position of the next filter in the route filter chain and moves forward.
+     *
+     * @return the position of the next route filter
+     */
+    public int nextRoute() {
+        return frame.nextRoute();
+    }
+
+    /**
+     * Returns the callable invoked at the end of the inbound or outbound filter chain.
+     *
+     * @return the callable
+     */
+    public Callable<Object> getInvoker() {
+        return frame.getInvoker();
+    }
+
     public GatewayRole getGateway() {
         return GatewayRole.NONE;
     }
@@ -173,7 +229,7 @@ public abstract class Invocation<T extends ServiceRequest> implements Matcher<Ta
      * This method is typically used to restore the instance to its initial state.
      */
     public void resetOnRetry() {
-
+        frame.recycle();
     }
 
     /**
@@ -220,6 +276,21 @@ public abstract class Invocation<T extends ServiceRequest> implements Matcher<Ta
         return matcher != null && matcher.match(condition, request);
     }
 
+    /**
+     * Adds an extra tag to the traffic events of this invocation.
+     *
+     * @param key   the tag key
+     * @param value the tag value
+     */
+    public void addPolicyTag(String key, String value) {
+        if (key != null && value != null) {
+            if (policyTags == null) {
+                policyTags = new HashMap<>(2);
+            }
+            policyTags.put(key, value);
+        }
+    }
+
     /**
      * Rejects the request with a specified fault type and reason.
      *
@@ -273,6 +344,8 @@ public abstract class Invocation<T extends ServiceRequest> implements Matcher<Ta
             onRejectEvent(RejectType.REJECT_UNAUTHORIZED);
         } else if (exception instanceof RejectCircuitBreakException) {
             onRejectEvent(RejectType.REJECT_CIRCUIT_BREAK);
+        } else if (exception instanceof RejectDeadlineException) {
+            onRejectEvent(RejectType.REJECT_DEADLINE_EXCEEDED);
         }
     }
 
@@ -329,6 +402,7 @@ public abstract class Invocation<T extends ServiceRequest> implements Matcher<Ta
                 localLane(localLane == null ? null : localLane.getCode()).
                 targetLane(targetLane == null ? null : targetLane.getCode()).
                 policyId(policyId == null ? null : policyId.getId()).
+                policyTags(policyTags).
                 service(uri == null ? null : uri.getHost()).
                 group(uri == null ? null : uri.getParameter(PolicyId.KEY_SERVICE_GROUP)).
                 path(uri == null ? null : uri.getPath()).
@@ -27,11 +27,13 @@ import com.jd.live.agent.governance.config.GovernanceConfig;
 import com.jd.live.agent.governance.context.bag.Propagation;
 import com.jd.live.agent.governance.event.TrafficEvent;
 import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.instance.health.HealthIndex;
 import com.jd.live.agent.governance.invoke.cluster.ClusterInvoker;
 import com.jd.live.agent.governance.invoke.counter.CounterManager;
 import com.jd.live.agent.governance.invoke.filter.*;
 import com.jd.live.agent.governance.invoke.loadbalance.LoadBalancer;
 import com.jd.live.agent.governance.invoke.matcher.TagMatcher;
+import com.jd.live.agent.governance.invoke.outlier.OutlierDetector;
 import com.jd.live.agent.governance.policy.GovernancePolicy;
 import com.jd.live.agent.governance.policy.PolicySupplier;
 import com.jd.live.agent.governance.policy.domain.Domain;
@@ -42,6 +44,7 @@ import com.jd.live.agent.governance.policy.service.cluster.ClusterPolicy;
 import com.jd.live.agent.governance.policy.variable.UnitFunction;
 import com.jd.live.agent.governance.policy.variable.VariableFunction;
 import com.jd.live.agent.governance.policy.variable.VariableParser;
+import com.jd.live.agent.governance.subscription.policy.PolicyApplier;
 import com.jd.live.agent.governance.request.HttpRequest.HttpOutboundRequest;
 import com.jd.live.agent.governance.request.ServiceRequest.InboundRequest;
 import com.jd.live.agent.governance.request.ServiceRequest.OutboundRequest;
@@ -138,6 +141,29 @@ public interface InvocationContext {
      */
     CounterManager getCounterManager();
 
+    /**
+     * Returns the OutlierDetector associated with this instance.
+     *
+     * @return the OutlierDetector instance
+     */
+    OutlierDetector getOutlierDetector();
+
+    /**
+     * Returns the PolicyApplier which applies the policy events.
+     *
+     * @return the PolicyApplier instance, or null if it's not available
+     */
+    default PolicyApplier getPolicyApplier() {
+        return null;
+    }
+
+    /**
+     * Returns the HealthIndex of the active health checking.
+     *
+     * @return the HealthIndex instance
+     */
+    HealthIndex getHealthIndex();
+
     /**
      * Returns the Propagation associated with this instance.
      *
@@ -262,6 +288,13 @@ public interface InvocationContext {
      */
     OutboundFilter[] getOutboundFilters();
 
+    /**
+     * Retrieves the pre-built filter chains, which are shared by the invocations of the same service policy.
+     *
+     * @return the filter chains.
+     */
+    FilterChains getFilterChains();
+
     /**
      * Processes an inbound invocation through a chain of configured inbound filters.
      * <p>
@@ -297,11 +330,7 @@ public interface InvocationContext {
      */
     default <R extends InboundRequest> CompletionStage<Object> inbound(InboundInvocation<R> invocation, Callable<Object> callable) {
         try {
-            InboundFilter[] filters = getInboundFilters();
-            InboundFilterChain.Chain chain = callable == null
-                    ? new InboundFilterChain.Chain(filters)
-                    : new InboundFilterChain.InvokerChain(filters, callable);
-            return chain.filter(invocation).whenComplete((r, t) -> {
+            return getFilterChains().getInboundChain(invocation).start(invocation, callable).whenComplete((r, t) -> {
                 if (t == null) {
                     invocation.onForward();
                 } else if (t instanceof RejectException) {
@@ -490,8 +519,10 @@ public interface InvocationContext {
             invocation.setInstances(instances);
         }
         try {
-            RouteFilterChain chain = new RouteFilterChain.Chain(filters == null || filters.length == 0 ? getRouteFilters() : filters);
-            chain.filter(invocation);
+            RouteFilterChain.Chain chain = filters == null || filters.length == 0
+                    ? getFilterChains().getRouteChain(invocation)
+                    : new RouteFilterChain.Chain(filters);
+            chain.start(invocation);
             List<? extends Endpoint> endpoints = invocation.getEndpoints();
             Endpoint endpoint = endpoints != null && !endpoints.isEmpty() ? endpoints.get(0) : null;
             if (endpoint != null || !invocation.getRequest().isInstanceSensitive()) {
@@ -528,10 +559,7 @@ public interface InvocationContext {
             O extends OutboundResponse,
             E extends Endpoint> CompletionStage<O> outbound(OutboundInvocation<R> invocation, E endpoint, Callable<Object> callable) {
         try {
-            OutboundFilterChain chain = callable == null
-                    ? new OutboundFilterChain.Chain(getOutboundFilters())
-                    : new OutboundFilterChain.InvokerChain(getOutboundFilters(), callable);
-            return chain.filter(invocation, endpoint);
+            return getFilterChains().getOutboundChain(invocation).start(invocation, endpoint, callable);
         } catch (RejectException e) {
             invocation.onReject(e);
             return Futures.future(e);
@@ -620,6 +648,21 @@ public interface InvocationContext {
             return delegate.getCounterManager();
         }
 
+        @Override
+        public OutlierDetector getOutlierDetector() {
+            return delegate.getOutlierDetector();
+        }
+
+        @Override
+        public PolicyApplier getPolicyApplier() {
+            return delegate.getPolicyApplier();
+        }
+
+        @Override
+        public HealthIndex getHealthIndex() {
+            return delegate.getHealthIndex();
+        }
+
         @Override
         public Propagation getPropagation() {
             return delegate.getPropagation();
@@ -675,6 +718,11 @@ public interface InvocationContext {
             return delegate.getOutboundFilters();
         }
 
+        @Override
+        public FilterChains getFilterChains() {
+            return delegate.getFilterChains();
+        }
+
         @Override
         public <R extends OutboundRequest> ClusterInvoker getClusterInvoker(OutboundInvocation<R> invocation,
                                                                             ClusterPolicy defaultPolicy) {
@@ -0,0 +1,117 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke;
+
+import lombok.Getter;
+
+import java.util.concurrent.Callable;
+
+/**
+ * The per-request scaffolding of an invocation, which keeps the positions in the filter chains and the invoker
+ * at the end of the inbound or outbound filter chain.
+ * <p>
+ * The filter chains are stateless and shared by the requests, they're indexed by the positions of this frame.
+ * An invocation owns one frame, which is recycled by its following passes such as the retries, so that a pass
+ * does not allocate any chain state. A pass nested in a filter of the same invocation saves the positions of
+ * the enclosing pass, and resumes them when it returns.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+public class InvocationFrame {
+
+    /**
+     * The position in the inbound or outbound filter chain.
+     */
+    @Getter
+    private int filterIndex;
+
+    /**
+     * The position in the route filter chain.
+     */
+    @Getter
+    private int routeIndex;
+
+    /**
+     * The callable invoked at the end of the inbound or outbound filter chain.
+     */
+    @Getter
+    private Callable<Object> invoker;
+
+    /**
+     * Starts a pass through the inbound or outbound filter chain.
+     *
+     * @param invoker the callable invoked at the end of the chain
+     */
+    public void startFilter(Callable<Object> invoker) {
+        this.filterIndex = 0;
+        this.invoker = invoker;
+    }
+
+    /**
+     * Resumes the pass through the inbound or outbound filter chain, which encloses a nested pass.
+     *
+     * @param filterIndex the saved position of the enclosing pass
+     * @param invoker     the saved invoker of the enclosing pass
+     */
+    public void resumeFilter(int filterIndex, Callable<Object> invoker) {
+        this.filterIndex = filterIndex;
+        this.invoker = invoker;
+    }
+
+    /**
+     * Returns the position of the next filter in the inbound or outbound filter chain and moves forward.
+     *
+     * @return the position of the next filter
+     */
+    public int nextFilter() {
+        return filterIndex++;
+    }
+
+    /**
+     * Starts a pass through the route filter chain.
+     */
+    public void startRoute() {
+        this.routeIndex = 0;
+    }
+
+    /**
+     * Resumes the pass through the route filter chain, which encloses a nested pass.
+     *
+     * @param routeIndex the saved position of the enclosing pass
+     */
+    public void resumeRoute(int routeIndex) {
+        this.routeIndex = routeIndex;
+    }
+
+    /**
+     * Returns the position of the next filter in the route filter chain and moves forward.
+     *
+     * @return the position of the next route filter
+     */
+    public int nextRoute() {
+        return routeIndex++;
+    }
+
+    /**
+     * Recycles this frame for the next pass.
+     */
+    public void recycle() {
+        filterIndex = 0;
+        routeIndex = 0;
+        invoker = null;
+    }
+}
@@ -28,6 +28,7 @@ import com.jd.live.agent.governance.invoke.metadata.parser.ServiceMetadataParser
 import com.jd.live.agent.governance.invoke.metadata.parser.ServiceMetadataParser.OutboundServiceMetadataParser;
 import com.jd.live.agent.governance.policy.live.Cell;
 import com.jd.live.agent.governance.policy.live.Unit;
+import com.jd.live.agent.governance.policy.service.ServicePolicy;
 import com.jd.live.agent.governance.request.HttpRequest.HttpOutboundRequest;
 import com.jd.live.agent.governance.request.RpcRequest.RpcOutboundRequest;
 import com.jd.live.agent.governance.request.ServiceRequest.OutboundRequest;
@@ -37,6 +38,7 @@ import lombok.Setter;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Represents an abstract outbound invocation, extending the Invocation class
@@ -60,6 +62,18 @@ public abstract class OutboundInvocation<T extends OutboundRequest> extends Invo
      */
     private RouteTarget routeTarget;
 
+    /**
+     * The endpoints removed by the health and circuit breaker filters, which are only recorded for the
+     * locality policy to count the endpoints of each locality.
+     */
+    private List<Endpoint> unavailables;
+
+    /**
+     * Constructs a new OutboundInvocation object.
+     */
+    protected OutboundInvocation() {
+    }
+
     /**
      * Constructs an OutboundInvocation with a request and invocation context.
      *
@@ -100,8 +114,35 @@ public abstract class OutboundInvocation<T extends OutboundRequest> extends Invo
 
     @Override
     public void resetOnRetry() {
+        super.resetOnRetry();
         listeners = null;
         routeTarget = null;
+        unavailables = null;
+    }
+
+    /**
+     * Filters the available endpoints of the route target. The unavailable endpoints are recorded
+     * when the service has a locality policy.
+     *
+     * @param predicate the predicate of the available endpoints
+     */
+    public void filterAvailable(Predicate<Endpoint> predicate) {
+        RouteTarget target = getRouteTarget();
+        ServicePolicy policy = serviceMetadata == null ? null : serviceMetadata.getServicePolicy();
+        if (policy == null || policy.getLocalityPolicy() == null) {
+            target.filter(predicate);
+        } else {
+            target.filter(e -> {
+                if (predicate.test(e)) {
+                    return true;
+                }
+                if (unavailables == null) {
+                    unavailables = new ArrayList<>();
+                }
+                unavailables.add(e);
+                return false;
+            });
+        }
     }
 
     /**
@@ -0,0 +1,422 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.admission;
+
+import com.jd.live.agent.bootstrap.exception.RejectException.RejectLimitException;
+import com.jd.live.agent.core.util.time.Timeout;
+import com.jd.live.agent.core.util.time.Timer;
+import com.jd.live.agent.governance.policy.live.FaultType;
+import com.jd.live.agent.governance.policy.service.admission.AdmissionPolicy;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A priority aware admission controller.
+ * <p>
+ * It admits at most {@code maxConcurrency} requests at the same time. When it's saturated, the requests wait in
+ * a bounded lock-free queue of their priority tier, and the released permits are handed to the queued requests
+ * strictly by priority. The head of each queue is dropped by the CoDel control law when its sojourn time stays
+ * above the target delay for an interval, and every queued request is dropped when it exceeds the maximum wait time.
+ * </p>
+ * <p>
+ * The controller is reconfigured in place when the policy is updated, so the admitted and waiting requests
+ * are still accounted by the new limits.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+public class AdmissionController {
+
+    private static final CompletableFuture<Void> ADMITTED = CompletableFuture.completedFuture(null);
+
+    @Getter
+    private volatile AdmissionPolicy policy;
+
+    private final Timer timer;
+
+    private volatile int maxConcurrency;
+
+    private volatile long maxWaitTime;
+
+    private volatile int tiers;
+
+    // the queues are never shrunk, so the requests waiting in the removed tiers are still dispatched.
+    private volatile AdmissionQueue[] queues = new AdmissionQueue[0];
+
+    private final AtomicInteger concurrency = new AtomicInteger();
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private volatile long lastAccessTime;
+
+    public AdmissionController(AdmissionPolicy policy, Timer timer) {
+        this.timer = timer;
+        this.lastAccessTime = System.currentTimeMillis();
+        update(policy);
+    }
+
+    /**
+     * Reconfigures the controller with the updated policy, and hands the new permits to the queued requests.
+     *
+     * @param policy the admission policy
+     */
+    public synchronized void update(AdmissionPolicy policy) {
+        if (policy == this.policy) {
+            return;
+        }
+        int tiers = policy.getTiersOrDefault();
+        AdmissionQueue[] queues = this.queues;
+        if (tiers > queues.length) {
+            AdmissionQueue[] expanded = Arrays.copyOf(queues, tiers);
+            for (int i = queues.length; i < tiers; i++) {
+                expanded[i] = new AdmissionQueue(i);
+            }
+            queues = expanded;
+        }
+        for (AdmissionQueue queue : queues) {
+            queue.update(policy.getQueueCapacityOrDefault(), policy.getTargetDelayOrDefault(), policy.getIntervalOrDefault());
+        }
+        this.maxConcurrency = policy.getMaxConcurrency();
+        this.maxWaitTime = policy.getMaxWaitTimeOrDefault();
+        this.tiers = tiers;
+        this.queues = queues;
+        this.policy = policy;
+        if (waiting.get() > 0) {
+            dispatch();
+        }
+    }
+
+    /**
+     * Acquires a permit for a request of the specified priority tier.
+     * <p>
+     * The returned future is already completed when the request is admitted immediately, or rejected because
+     * the queue is full. Otherwise, it's completed when a permit is handed to the request, or completed
+     * exceptionally with a {@link RejectLimitException}
+     * when the request is dropped. The caller must {@link #release()} the permit after the request is completed.
+     * </p>
+     *
+     * @param priority the priority tier of the request
+     * @return a future of the admission
+     */
+    public CompletableFuture<Void> acquire(int priority) {
+        lastAccessTime = System.currentTimeMillis();
+        AdmissionQueue queue = queues[Math.min(Math.max(priority, 0), tiers - 1)];
+        // requests can't bypass the waiting ones, which keeps the admission strictly by priority.
+        if (waiting.get() == 0 && tryAcquire()) {
+            queue.metric.onAdmit();
+            return ADMITTED;
+        }
+        Ticket ticket = new Ticket(queue, System.currentTimeMillis());
+        // counts the waiting before offering, so the dispatching never sees a negative number.
+        waiting.incrementAndGet();
+        if (!queue.offer(ticket)) {
+            waiting.decrementAndGet();
+            queue.metric.onReject();
+            ticket.completeExceptionally(FaultType.LIMIT.reject("The request is rejected by admission controller. queue is full, tier="
+                    + queue.tier));
+            return ticket;
+        }
+        queue.metric.onQueue();
+        ticket.timeout = timer.delay("admission-timeout", maxWaitTime, () -> expire(ticket));
+        dispatch();
+        return ticket;
+    }
+
+    /**
+     * Releases a permit and hands it to the queued requests.
+     */
+    public void release() {
+        concurrency.decrementAndGet();
+        if (waiting.get() > 0) {
+            dispatch();
+        }
+    }
+
+    /**
+     * Returns the number of admitted requests, which are not released.
+     *
+     * @return the number of admitted requests
+     */
+    public int getConcurrency() {
+        return concurrency.get();
+    }
+
+    /**
+     * Returns the number of waiting requests.
+     *
+     * @return the number of waiting requests
+     */
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    /**
+     * Returns the metric of the specified priority tier.
+     *
+     * @param tier the priority tier
+     * @return the metric, or null if the tier is out of range
+     */
+    public AdmissionMetric getMetric(int tier) {
+        AdmissionQueue[] queues = this.queues;
+        return tier < 0 || tier >= queues.length ? null : queues[tier].metric;
+    }
+
+    /**
+     * Returns the number of the priority tiers.
+     *
+     * @return the number of the priority tiers
+     */
+    public int getTiers() {
+        return tiers;
+    }
+
+    /**
+     * Returns whether the controller has no admitted or waiting requests, and is not accessed for the expire time.
+     *
+     * @param expireTime the expire time in milliseconds
+     * @return true if the controller is idle
+     */
+    public boolean isIdle(long expireTime) {
+        return concurrency.get() <= 0 && waiting.get() <= 0 && System.currentTimeMillis() - lastAccessTime > expireTime;
+    }
+
+    private boolean tryAcquire() {
+        int current;
+        while ((current = concurrency.get()) < maxConcurrency) {
+            if (concurrency.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hands the free permits to the queued requests by priority. It's serialized by the work-in-progress counter,
+     * so the CoDel state of the queues is only touched by one thread, and the missed signals are replayed.
+     */
+    private void dispatch() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (waiting.get() > 0 && tryAcquire()) {
+                if (!handover(System.currentTimeMillis())) {
+                    concurrency.decrementAndGet();
+                    break;
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Hands an acquired permit to the first eligible request of the highest priority.
+     *
+     * @param now the current time
+     * @return true if the permit is handed over
+     */
+    private boolean handover(long now) {
+        for (AdmissionQueue queue : queues) {
+            Ticket ticket;
+            while ((ticket = queue.poll()) != null) {
+                waiting.decrementAndGet();
+                long sojourn = now - ticket.enqueueTime;
+                if (!ticket.claim()) {
+                    // expired
+                    continue;
+                }
+                if (sojourn >= maxWaitTime || queue.drop(sojourn, now)) {
+                    queue.metric.onDequeue(sojourn, false);
+                    ticket.drop("The request is dropped by admission controller. sojourn=" + sojourn + "ms, tier=" + queue.tier);
+                } else {
+                    ticket.cancelTimeout();
+                    queue.metric.onDequeue(sojourn, true);
+                    if (ticket.complete(null)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private void expire(Ticket ticket) {
+        AdmissionQueue queue = ticket.queue;
+        if (queue.remove(ticket)) {
+            waiting.decrementAndGet();
+        }
+        if (ticket.claim()) {
+            queue.metric.onDequeue(System.currentTimeMillis() - ticket.enqueueTime, false);
+            ticket.drop("The request is dropped by admission controller. wait time exceeds " + maxWaitTime + "ms, tier=" + queue.tier);
+        }
+    }
+
+    /**
+     * A queued request.
+     */
+    private static class Ticket extends CompletableFuture<Void> {
+
+        private final AdmissionQueue queue;
+
+        private final long enqueueTime;
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private volatile Timeout timeout;
+
+        Ticket(AdmissionQueue queue, long enqueueTime) {
+            this.queue = queue;
+            this.enqueueTime = enqueueTime;
+        }
+
+        /**
+         * Claims the ticket, so it's either admitted or dropped only once.
+         *
+         * @return true if the ticket is claimed by the caller
+         */
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        void drop(String reason) {
+            cancelTimeout();
+            completeExceptionally(FaultType.LIMIT.reject(reason));
+        }
+
+        void cancelTimeout() {
+            Timeout t = timeout;
+            if (t != null) {
+                t.cancel();
+            }
+        }
+    }
+
+    /**
+     * A bounded lock-free queue of a priority tier with the CoDel dropping state.
+     */
+    private static class AdmissionQueue {
+
+        private final int tier;
+
+        private volatile int capacity;
+
+        private volatile long targetDelay;
+
+        private volatile long interval;
+
+        private final AdmissionMetric metric;
+
+        private final ConcurrentLinkedQueue<Ticket> queue = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        // the following CoDel states are only accessed in the dispatching.
+
+        private long firstAboveTime;
+
+        private long dropNext;
+
+        private int dropCount;
+
+        private boolean dropping;
+
+        AdmissionQueue(int tier) {
+            this.tier = tier;
+            this.metric = new AdmissionMetric(tier);
+        }
+
+        void update(int capacity, long targetDelay, long interval) {
+            this.capacity = capacity;
+            this.targetDelay = targetDelay;
+            this.interval = interval;
+        }
+
+        boolean offer(Ticket ticket) {
+            int current;
+            do {
+                current = size.get();
+                if (current >= capacity) {
+                    return false;
+                }
+            } while (!size.compareAndSet(current, current + 1));
+            queue.offer(ticket);
+            return true;
+        }
+
+        Ticket poll() {
+            Ticket ticket = queue.poll();
+            if (ticket != null) {
+                size.decrementAndGet();
+            }
+            return ticket;
+        }
+
+        boolean remove(Ticket ticket) {
+            if (queue.remove(ticket)) {
+                size.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Decides whether to drop the head request by the CoDel control law.
+         *
+         * @param sojourn the sojourn time of the head request
+         * @param now     the current time
+         * @return true if the head request should be dropped
+         */
+        boolean drop(long sojourn, long now) {
+            boolean above = false;
+            if (sojourn < targetDelay) {
+                firstAboveTime = 0;
+            } else if (firstAboveTime == 0) {
+                firstAboveTime = now + interval;
+            } else if (now >= firstAboveTime) {
+                above = true;
+            }
+            if (dropping) {
+                if (!above) {
+                    dropping = false;
+                } else if (now >= dropNext) {
+                    dropCount++;
+                    dropNext = controlLaw(dropNext);
+                    return true;
+                }
+                return false;
+            } else if (above) {
+                dropping = true;
+                // resume the previous drop rate if the dropping state is re-entered shortly.
+                dropCount = dropCount > 2 && now - dropNext < 16 * interval ? dropCount - 2 : 1;
+                dropNext = controlLaw(now);
+                return true;
+            }
+            return false;
+        }
+
+        private long controlLaw(long time) {
+            return time + (long) (interval / Math.sqrt(dropCount));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The admission metric of a priority tier.
+ *
+ * @since 1.6.0
+ */
+public class AdmissionMetric {
+
+    private final int tier;
+
+    private final LongAdder admitted = new LongAdder();
+
+    private final LongAdder queued = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder queueTime = new LongAdder();
+
+    private final AtomicLong maxQueueTime = new AtomicLong();
+
+    public AdmissionMetric(int tier) {
+        this.tier = tier;
+    }
+
+    public int getTier() {
+        return tier;
+    }
+
+    /**
+     * Returns the number of admitted requests, including the ones admitted after waiting.
+     *
+     * @return the number of admitted requests
+     */
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    /**
+     * Returns the number of requests which have waited in the queue.
+     *
+     * @return the number of queued requests
+     */
+    public long getQueued() {
+        return queued.sum();
+    }
+
+    /**
+     * Returns the number of requests rejected because the queue is full.
+     *
+     * @return the number of rejected requests
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Returns the number of queued requests dropped by the sojourn time or the maximum wait time.
+     *
+     * @return the number of dropped requests
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns the number of shed requests, which is the sum of the rejected and dropped requests.
+     *
+     * @return the number of shed requests
+     */
+    public long getShed() {
+        return rejected.sum() + dropped.sum();
+    }
+
+    /**
+     * Returns the total sojourn time of the requests leaving the queue in milliseconds.
+     *
+     * @return the total queue time
+     */
+    public long getQueueTime() {
+        return queueTime.sum();
+    }
+
+    /**
+     * Returns the maximum sojourn time of the requests leaving the queue in milliseconds.
+     *
+     * @return the maximum queue time
+     */
+    public long getMaxQueueTime() {
+        return maxQueueTime.get();
+    }
+
+    protected void onAdmit() {
+        admitted.increment();
+    }
+
+    protected void onQueue() {
+        queued.increment();
+    }
+
+    protected void onReject() {
+        rejected.increment();
+    }
+
+    protected void onDequeue(long sojourn, boolean admit) {
+        if (admit) {
+            admitted.increment();
+        } else {
+            dropped.increment();
+        }
+        queueTime.add(sojourn);
+        long max = maxQueueTime.get();
+        while (sojourn > max && !maxQueueTime.compareAndSet(max, sojourn)) {
+            max = maxQueueTime.get();
+        }
+    }
+}
@@ -0,0 +1,370 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.auth.jwt;
+
+import com.jd.live.agent.bootstrap.logger.Logger;
+import com.jd.live.agent.bootstrap.logger.LoggerFactory;
+import com.jd.live.agent.core.extension.annotation.Extension;
+import com.jd.live.agent.core.inject.annotation.Inject;
+import com.jd.live.agent.core.inject.annotation.Injectable;
+import com.jd.live.agent.core.instance.Application;
+import com.jd.live.agent.core.parser.ObjectParser;
+import com.jd.live.agent.core.parser.TypeReference;
+import com.jd.live.agent.core.util.cache.WeakCache;
+import com.jd.live.agent.core.util.option.Converts;
+import com.jd.live.agent.governance.invoke.auth.AuthResult;
+import com.jd.live.agent.governance.invoke.auth.Authenticate;
+import com.jd.live.agent.governance.policy.service.auth.AuthPolicy;
+import com.jd.live.agent.governance.policy.service.auth.JwtPolicy;
+import com.jd.live.agent.governance.request.ServiceRequest;
+import com.jd.live.agent.governance.request.ServiceRequest.OutboundRequest;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authenticates the requests by the signed json web tokens (HS256 or RS256).
+ * <p>
+ * The tokens must carry the expiration and the local service as their audience. The verified tokens are cached
+ * with their claims until they expire, so a token is verified only once.
+ * The outbound tokens are minted per provider and reused until three quarters of their lifetime elapse.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+@Injectable
+@Extension("jwt")
+public class JwtAuthenticate implements Authenticate {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticate.class);
+
+    public static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * The attribute key of the verified claims in the request.
+     */
+    public static final String ATTRIBUTE_CLAIMS = "jwt.claims";
+
+    private static final String CLAIM_ISSUER = "iss";
+
+    private static final String CLAIM_SUBJECT = "sub";
+
+    private static final String CLAIM_AUDIENCE = "aud";
+
+    private static final String CLAIM_ISSUED_AT = "iat";
+
+    private static final String CLAIM_EXPIRE = "exp";
+
+    private static final String CLAIM_NOT_BEFORE = "nbf";
+
+    private static final String HEADER_ALGORITHM = "alg";
+
+    private static final int MAX_TOKENS = 10000;
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<Map<String, Object>>() {
+    };
+
+    @Inject(ObjectParser.JSON)
+    private ObjectParser parser;
+
+    @Inject(Application.COMPONENT_APPLICATION)
+    private Application application;
+
+    private final WeakCache<JwtPolicy, JwtContext> contexts = new WeakCache<>(1024);
+
+    @Override
+    public AuthResult authenticate(ServiceRequest request, AuthPolicy policy) {
+        JwtPolicy jwtPolicy = policy.getJwtPolicy();
+        if (jwtPolicy == null || !jwtPolicy.isValid()) {
+            return new AuthResult(true, null);
+        }
+        JwtContext context = getContext(jwtPolicy);
+        if (context.signer == null || !context.signer.isVerifiable()) {
+            return new AuthResult(false, "Jwt verification key is not correct.");
+        }
+        String token = request.getHeader(jwtPolicy.getKey());
+        if (token == null || token.isEmpty()) {
+            return new AuthResult(false, "Token is missing.");
+        } else if (token.startsWith(BEARER_PREFIX)) {
+            token = token.substring(BEARER_PREFIX.length());
+        }
+        long now = System.currentTimeMillis();
+        VerifiedToken verified = context.verified.get(token);
+        if (verified == null) {
+            try {
+                verified = verify(context, jwtPolicy, token, now);
+            } catch (JwtException e) {
+                return new AuthResult(false, e.getMessage());
+            }
+            context.cache(token, verified, now);
+        } else if (verified.expireTime <= now) {
+            context.verified.remove(token);
+            return new AuthResult(false, "Token is expired.");
+        }
+        if (!isAudience(verified.claims.get(CLAIM_AUDIENCE), getLocalService(request))) {
+            return new AuthResult(false, "Token audience is not correct.");
+        }
+        // each request gets its own copy of the cached claims.
+        request.setAttribute(ATTRIBUTE_CLAIMS, new LinkedHashMap<>(verified.claims));
+        return new AuthResult(true, null);
+    }
+
+    @Override
+    public void inject(OutboundRequest request, AuthPolicy policy) {
+        JwtPolicy jwtPolicy = policy.getJwtPolicy();
+        if (jwtPolicy != null && jwtPolicy.isValid() && request.getHeader(jwtPolicy.getKey()) == null) {
+            JwtContext context = getContext(jwtPolicy);
+            if (context.signer != null && context.signer.isSignable()) {
+                String token = mint(context, jwtPolicy, request.getService(), System.currentTimeMillis());
+                if (token != null) {
+                    request.setHeader(jwtPolicy.getKey(), KEY_AUTH.equalsIgnoreCase(jwtPolicy.getKey()) ? BEARER_PREFIX + token : token);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the context of the policy, which is created once per policy instance.
+     *
+     * @param policy the jwt policy
+     * @return the context
+     */
+    private JwtContext getContext(JwtPolicy policy) {
+        return contexts.computeIfAbsent(policy, p -> {
+            try {
+                return new JwtContext(new JwtSigner(p));
+            } catch (Throwable e) {
+                logger.error("Failed to create jwt signer, caused by " + e.getMessage(), e);
+                return new JwtContext(null);
+            }
+        });
+    }
+
+    /**
+     * Verifies the header, signature and claims of the token.
+     *
+     * @param context the context
+     * @param policy  the jwt policy
+     * @param token   the token
+     * @param now     the current time in milliseconds
+     * @return the verified token
+     * @throws JwtException if the token is not valid
+     */
+    private VerifiedToken verify(JwtContext context, JwtPolicy policy, String token, long now) throws JwtException {
+        int dot1 = token.indexOf('.');
+        int dot2 = dot1 < 0 ? -1 : token.indexOf('.', dot1 + 1);
+        if (dot2 < 0 || token.indexOf('.', dot2 + 1) >= 0) {
+            throw new JwtException("Token is malformed.");
+        }
+        Map<String, Object> header = parse(token, 0, dot1);
+        if (!context.signer.getAlgorithm().equalsIgnoreCase(String.valueOf(header.get(HEADER_ALGORITHM)))) {
+            throw new JwtException("Token algorithm is not correct.");
+        } else if (!context.signer.verify(token, dot2)) {
+            throw new JwtException("Token signature is not correct.");
+        }
+        Map<String, Object> claims = parse(token, dot1 + 1, dot2);
+        Long expire = getTime(claims, CLAIM_EXPIRE);
+        Long notBefore = getTime(claims, CLAIM_NOT_BEFORE);
+        String issuer = policy.getIssuer();
+        if (expire == null) {
+            throw new JwtException("Token expiration is missing.");
+        } else if (expire <= now) {
+            throw new JwtException("Token is expired.");
+        } else if (notBefore != null && notBefore > now) {
+            throw new JwtException("Token is not active.");
+        } else if (issuer != null && !issuer.isEmpty() && !issuer.equals(claims.get(CLAIM_ISSUER))) {
+            throw new JwtException("Token issuer is not correct.");
+        }
+        return new VerifiedToken(claims, expire);
+    }
+
+    /**
+     * Returns the name of the local service, which is the expected audience of the inbound tokens.
+     *
+     * @param request the inbound request
+     * @return the name of the local service
+     */
+    private String getLocalService(ServiceRequest request) {
+        String result = application == null ? null : application.getService().getName();
+        return result == null || result.isEmpty() ? request.getService() : result;
+    }
+
+    /**
+     * Checks if the audience claim, which is a string or an array of strings, contains the service.
+     *
+     * @param audience the audience claim
+     * @param service  the service name
+     * @return true if the audience contains the service
+     */
+    private static boolean isAudience(Object audience, String service) {
+        if (audience == null || service == null || service.isEmpty()) {
+            return false;
+        } else if (audience instanceof Collection) {
+            return ((Collection<?>) audience).contains(service);
+        }
+        return service.equals(audience);
+    }
+
+    /**
+     * Mints a token for the provider, or reuses the one which is not going to expire.
+     *
+     * @param context  the context
+     * @param policy   the jwt policy
+     * @param provider the provider service
+     * @param now      the current time in milliseconds
+     * @return the token, or null if it can not be signed
+     */
+    private String mint(JwtContext context, JwtPolicy policy, String provider, long now) {
+        provider = provider == null ? "" : provider;
+        MintedToken minted = context.minted.get(provider);
+        if (minted != null && minted.refreshTime > now) {
+            return minted.token;
+        }
+        long expireTime = policy.getExpireTime() > 0 ? policy.getExpireTime() : JwtPolicy.DEFAULT_EXPIRE_TIME;
+        String consumer = application == null ? null : application.getName();
+        String issuer = policy.getIssuer() == null || policy.getIssuer().isEmpty() ? consumer : policy.getIssuer();
+        Map<String, Object> claims = new LinkedHashMap<>();
+        if (issuer != null) {
+            claims.put(CLAIM_ISSUER, issuer);
+        }
+        if (consumer != null) {
+            claims.put(CLAIM_SUBJECT, consumer);
+        }
+        claims.put(CLAIM_AUDIENCE, provider);
+        claims.put(CLAIM_ISSUED_AT, now / 1000);
+        claims.put(CLAIM_EXPIRE, (now + expireTime) / 1000);
+        try {
+            StringWriter writer = new StringWriter(128);
+            parser.write(writer, claims);
+            String token = context.signer.sign(writer.toString());
+            context.minted.put(provider, new MintedToken(token, now + expireTime * 3 / 4));
+            return token;
+        } catch (Throwable e) {
+            logger.error("Failed to sign jwt token, caused by " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private Map<String, Object> parse(String token, int start, int end) throws JwtException {
+        try {
+            Map<String, Object> result = parser.read(new StringReader(JwtSigner.decode(token, start, end)), MAP_TYPE);
+            if (result == null) {
+                throw new JwtException("Token is malformed.");
+            }
+            return result;
+        } catch (JwtException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new JwtException("Token is malformed.");
+        }
+    }
+
+    private static Long getTime(Map<String, Object> claims, String key) throws JwtException {
+        Object value = claims.get(key);
+        if (value == null) {
+            return null;
+        }
+        Long seconds = value instanceof Number ? Long.valueOf(((Number) value).longValue()) : Converts.getLong(value, null);
+        if (seconds == null) {
+            throw new JwtException("Token claim " + key + " is not correct.");
+        }
+        return seconds * 1000;
+    }
+
+    /**
+     * The signer and the token caches of a jwt policy.
+     */
+    private static class JwtContext {
+
+        private final JwtSigner signer;
+
+        private final Map<String, VerifiedToken> verified = new ConcurrentHashMap<>();
+
+        private final Map<String, MintedToken> minted = new ConcurrentHashMap<>();
+
+        JwtContext(JwtSigner signer) {
+            this.signer = signer;
+        }
+
+        /**
+         * Caches the verified token, the expired tokens are purged when the cache is full.
+         *
+         * @param token    the token
+         * @param verified the verified token
+         * @param now      the current time in milliseconds
+         */
+        void cache(String token, VerifiedToken verified, long now) {
+            if (this.verified.size() >= MAX_TOKENS) {
+                Iterator<VerifiedToken> iterator = this.verified.values().iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().expireTime <= now) {
+                        iterator.remove();
+                    }
+                }
+                if (this.verified.size() >= MAX_TOKENS) {
+                    this.verified.clear();
+                }
+            }
+            this.verified.put(token, verified);
+        }
+    }
+
+    /**
+     * A verified token and its claims.
+     */
+    private static class VerifiedToken {
+
+        private final Map<String, Object> claims;
+
+        private final long expireTime;
+
+        VerifiedToken(Map<String, Object> claims, long expireTime) {
+            this.claims = Collections.unmodifiableMap(claims);
+            this.expireTime = expireTime;
+        }
+    }
+
+    /**
+     * A minted token and the time to refresh it.
+     */
+    private static class MintedToken {
+
+        private final String token;
+
+        private final long refreshTime;
+
+        MintedToken(String token, long refreshTime) {
+            this.token = token;
+            this.refreshTime = refreshTime;
+        }
+    }
+
+    /**
+     * Thrown when a token is not valid.
+     */
+    private static class JwtException extends Exception {
+
+        JwtException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.auth.jwt;
+
+import com.jd.live.agent.governance.policy.service.auth.JwtPolicy;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.*;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+/**
+ * Signs and verifies the json web tokens of a {@link JwtPolicy}.
+ * <p>
+ * The keys are parsed once, and the initialized {@link Mac} and {@link Signature} instances are kept per thread,
+ * because they are not thread safe and expensive to create.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+public class JwtSigner {
+
+    private static final String HMAC_SHA256 = "HmacSHA256";
+
+    private static final String SHA256_WITH_RSA = "SHA256withRSA";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final String algorithm;
+
+    private final String header;
+
+    private final ThreadLocal<Mac> macs;
+
+    private final ThreadLocal<Signature> signers;
+
+    private final ThreadLocal<Signature> verifiers;
+
+    public JwtSigner(JwtPolicy policy) throws GeneralSecurityException {
+        this.algorithm = policy.getAlgorithm().toUpperCase();
+        this.header = encode("{\"alg\":\"" + algorithm + "\",\"typ\":\"JWT\"}");
+        if (policy.isHmac()) {
+            Key key = new SecretKeySpec(policy.getSecret().getBytes(StandardCharsets.UTF_8), HMAC_SHA256);
+            // fail fast if the key is invalid.
+            createMac(key);
+            this.macs = ThreadLocal.withInitial(() -> {
+                try {
+                    return createMac(key);
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            });
+            this.signers = null;
+            this.verifiers = null;
+        } else if (policy.isRsa()) {
+            KeyFactory factory = KeyFactory.getInstance("RSA");
+            PublicKey publicKey = isEmpty(policy.getPublicKey()) ? null
+                    : factory.generatePublic(new X509EncodedKeySpec(Base64.getMimeDecoder().decode(policy.getPublicKey())));
+            PrivateKey privateKey = isEmpty(policy.getPrivateKey()) ? null
+                    : factory.generatePrivate(new PKCS8EncodedKeySpec(Base64.getMimeDecoder().decode(policy.getPrivateKey())));
+            this.macs = null;
+            this.signers = privateKey == null ? null : ThreadLocal.withInitial(() -> {
+                try {
+                    Signature signature = Signature.getInstance(SHA256_WITH_RSA);
+                    signature.initSign(privateKey);
+                    return signature;
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            });
+            this.verifiers = publicKey == null ? null : ThreadLocal.withInitial(() -> {
+                try {
+                    Signature signature = Signature.getInstance(SHA256_WITH_RSA);
+                    signature.initVerify(publicKey);
+                    return signature;
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            });
+        } else {
+            throw new NoSuchAlgorithmException("Unsupported jwt algorithm " + policy.getAlgorithm());
+        }
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Checks if the signer is able to sign the tokens.
+     *
+     * @return true if the tokens can be signed
+     */
+    public boolean isSignable() {
+        return macs != null || signers != null;
+    }
+
+    /**
+     * Checks if the signer is able to verify the tokens.
+     *
+     * @return true if the tokens can be verified
+     */
+    public boolean isVerifiable() {
+        return macs != null || verifiers != null;
+    }
+
+    /**
+     * Signs the payload and returns the token.
+     *
+     * @param payload the json payload
+     * @return the compact serialized token
+     * @throws GeneralSecurityException if the payload can not be signed
+     */
+    public String sign(String payload) throws GeneralSecurityException {
+        String content = header + '.' + encode(payload);
+        byte[] data = content.getBytes(StandardCharsets.US_ASCII);
+        byte[] signature;
+        if (macs != null) {
+            signature = macs.get().doFinal(data);
+        } else if (signers != null) {
+            Signature signer = signers.get();
+            signer.update(data);
+            signature = signer.sign();
+        } else {
+            throw new InvalidKeyException("The private key is not configured.");
+        }
+        return content + '.' + ENCODER.encodeToString(signature);
+    }
+
+    /**
+     * Verifies the signature of the token.
+     *
+     * @param token the compact serialized token
+     * @param dot   the position of the last dot, which separates the signature
+     * @return true if the signature is valid
+     */
+    public boolean verify(String token, int dot) {
+        try {
+            byte[] data = token.substring(0, dot).getBytes(StandardCharsets.US_ASCII);
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (macs != null) {
+                return MessageDigest.isEqual(macs.get().doFinal(data), signature);
+            } else if (verifiers != null) {
+                Signature verifier = verifiers.get();
+                verifier.update(data);
+                return verifier.verify(signature);
+            }
+            return false;
+        } catch (IllegalArgumentException | GeneralSecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Decodes a base64url encoded part of the token.
+     *
+     * @param token the token
+     * @param start the start position
+     * @param end   the end position
+     * @return the decoded text
+     */
+    public static String decode(String token, int start, int end) {
+        return new String(DECODER.decode(token.substring(start, end)), StandardCharsets.UTF_8);
+    }
+
+    private static String encode(String value) {
+        return ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Mac createMac(Key key) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(HMAC_SHA256);
+        mac.init(key);
+        return mac;
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+}
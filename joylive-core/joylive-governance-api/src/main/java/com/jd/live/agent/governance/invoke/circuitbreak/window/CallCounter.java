@@ -0,0 +1,117 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.circuitbreak.window;
+
+/**
+ * Utility to pack the call, failure and slow call counters into one long value,
+ * so that they can be updated by a single atomic operation.
+ * <p>
+ * Layout: calls (bit 42-62), failures (bit 21-41), slow calls (bit 0-20).
+ * </p>
+ *
+ * @since 1.6.0
+ */
+public final class CallCounter {
+
+    private static final int BITS = 21;
+
+    private static final long MASK = (1L << BITS) - 1;
+
+    /**
+     * The maximum count of each field.
+     */
+    public static final int MAX_COUNT = (int) MASK;
+
+    private static final long CALL = 1L << (BITS * 2);
+
+    private static final long FAILURE = 1L << BITS;
+
+    private static final long SLOW = 1L;
+
+    /**
+     * The packed outcome of a successful and fast call.
+     */
+    public static final long SUCCESS = CALL;
+
+    private CallCounter() {
+    }
+
+    /**
+     * Packs the outcome of a call.
+     *
+     * @param failure whether the call is failed
+     * @param slow    whether the call is slow
+     * @return the packed outcome
+     */
+    public static long of(boolean failure, boolean slow) {
+        long result = CALL;
+        if (failure) {
+            result |= FAILURE;
+        }
+        if (slow) {
+            result |= SLOW;
+        }
+        return result;
+    }
+
+    /**
+     * Packs the counters, the counters are scaled down proportionally if the calls exceed {@link #MAX_COUNT}.
+     *
+     * @param calls    the number of calls
+     * @param failures the number of failed calls
+     * @param slows    the number of slow calls
+     * @return the packed counters
+     */
+    public static long of(long calls, long failures, long slows) {
+        if (calls > MAX_COUNT) {
+            long factor = (calls + MAX_COUNT - 1) / MAX_COUNT;
+            calls /= factor;
+            failures /= factor;
+            slows /= factor;
+        }
+        return calls << (BITS * 2) | failures << BITS | slows;
+    }
+
+    /**
+     * Returns the number of calls.
+     *
+     * @param counters the packed counters
+     * @return the number of calls
+     */
+    public static int getCalls(long counters) {
+        return (int) ((counters >>> (BITS * 2)) & MASK);
+    }
+
+    /**
+     * Returns the number of failed calls.
+     *
+     * @param counters the packed counters
+     * @return the number of failed calls
+     */
+    public static int getFailures(long counters) {
+        return (int) ((counters >>> BITS) & MASK);
+    }
+
+    /**
+     * Returns the number of slow calls.
+     *
+     * @param counters the packed counters
+     * @return the number of slow calls
+     */
+    public static int getSlows(long counters) {
+        return (int) (counters & MASK);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.circuitbreak.window;
+
+/**
+ * A sliding window of call outcomes.
+ * <p>
+ * The counters are packed into a single long value, see {@link CallCounter}.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+public interface CallWindow {
+
+    /**
+     * Records the outcome of a call.
+     *
+     * @param outcome the packed outcome, see {@link CallCounter#of(boolean, boolean)}
+     * @param now     the current time in milliseconds
+     */
+    void record(long outcome, long now);
+
+    /**
+     * Returns the packed counters of the calls in the window.
+     *
+     * @param now the current time in milliseconds
+     * @return the packed counters
+     */
+    long getCounters(long now);
+
+    /**
+     * Checks if reading the counters is a constant time operation.
+     *
+     * @return true if reading the counters is cheap
+     */
+    default boolean isCheap() {
+        return true;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.circuitbreak.window;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A count based sliding window, which keeps the outcomes of the last N calls in a lock-free ring.
+ * <p>
+ * Each slot holds the packed outcome of one call. Recording a call swaps the outcome into its slot and
+ * adjusts the packed aggregate by the difference, so both recording and reading are constant time.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+public class CountCallWindow implements CallWindow {
+
+    private final int size;
+
+    private final AtomicLongArray slots;
+
+    private final AtomicLong sequence = new AtomicLong(0);
+
+    private final AtomicLong counters = new AtomicLong(0);
+
+    public CountCallWindow(int size) {
+        this.size = Math.max(1, Math.min(size, CallCounter.MAX_COUNT));
+        this.slots = new AtomicLongArray(this.size);
+    }
+
+    @Override
+    public void record(long outcome, long now) {
+        int index = (int) (sequence.getAndIncrement() % size);
+        long old = slots.getAndSet(index, outcome);
+        counters.addAndGet(outcome - old);
+    }
+
+    @Override
+    public long getCounters(long now) {
+        return counters.get();
+    }
+}
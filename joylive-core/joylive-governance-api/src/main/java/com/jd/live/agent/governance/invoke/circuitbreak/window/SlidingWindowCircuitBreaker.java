@@ -0,0 +1,306 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.circuitbreak.window;
+
+import com.jd.live.agent.bootstrap.logger.Logger;
+import com.jd.live.agent.bootstrap.logger.LoggerFactory;
+import com.jd.live.agent.core.util.URI;
+import com.jd.live.agent.governance.invoke.circuitbreak.*;
+import com.jd.live.agent.governance.policy.PolicyId;
+import com.jd.live.agent.governance.policy.service.circuitbreak.CircuitBreakLevel;
+import com.jd.live.agent.governance.policy.service.circuitbreak.CircuitBreakPolicy;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.jd.live.agent.governance.policy.service.circuitbreak.CircuitBreakPolicy.SLIDING_WINDOW_COUNT;
+
+/**
+ * A native circuit breaker based on a lock-free sliding window.
+ * <p>
+ * The outcomes are recorded into a {@link CallWindow} without locks, and the state transitions are done by CAS.
+ * The failure and slow call rates are evaluated on every record for the count based window,
+ * and only on failed or slow calls for the time based window, because summing its buckets is not constant time.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+public class SlidingWindowCircuitBreaker extends AbstractCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlidingWindowCircuitBreaker.class);
+
+    private final AtomicReference<Phase> phaseRef = new AtomicReference<>();
+
+    private final List<CircuitBreakerStateListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final String instanceId;
+
+    /**
+     * The half open phase which issued the permit of the current thread, so the permit is returned to it on release.
+     */
+    private final ThreadLocal<Phase> permitPhase = new ThreadLocal<>();
+
+    public SlidingWindowCircuitBreaker(CircuitBreakPolicy policy, URI uri) {
+        super(policy, uri);
+        this.instanceId = policy.getLevel() == CircuitBreakLevel.INSTANCE ? uri.getParameter(PolicyId.KEY_SERVICE_ENDPOINT) : null;
+        long now = System.currentTimeMillis();
+        if (policy.isForceOpen()) {
+            Phase phase = new Phase(CircuitBreakerState.OPEN, now, Long.MAX_VALUE, null, 0);
+            phaseRef.set(phase);
+            onTransition(CircuitBreakerState.CLOSED, phase);
+        } else {
+            phaseRef.set(new Phase(CircuitBreakerState.CLOSED, now, 0, createWindow(), 0));
+        }
+    }
+
+    @Override
+    protected boolean doAcquire() {
+        while (true) {
+            Phase phase = phaseRef.get();
+            switch (phase.state) {
+                case OPEN:
+                    long now = System.currentTimeMillis();
+                    if (now < phase.endTime) {
+                        return false;
+                    }
+                    transition(phase, halfOpen(now));
+                    break;
+                case HALF_OPEN:
+                    int maxWait = policy.getMaxWaitDurationInHalfOpenState();
+                    if (maxWait > 0) {
+                        now = System.currentTimeMillis();
+                        if (now - phase.startTime > maxWait) {
+                            transition(phase, open(now));
+                            return false;
+                        }
+                    }
+                    if (phase.tryAcquire()) {
+                        permitPhase.set(phase);
+                        return true;
+                    }
+                    return false;
+                case CLOSED:
+                default:
+                    permitPhase.remove();
+                    return true;
+            }
+        }
+    }
+
+    @Override
+    protected void doRelease() {
+        // return the permit to the phase which issued it, not the current one.
+        Phase phase = permitPhase.get();
+        if (phase != null) {
+            permitPhase.remove();
+            phase.permits.incrementAndGet();
+        }
+    }
+
+    @Override
+    protected void doOnError(long durationInMs, Throwable throwable) {
+        record(true, durationInMs);
+    }
+
+    @Override
+    protected void doOnSuccess(long durationInMs) {
+        record(false, durationInMs);
+    }
+
+    @Override
+    public boolean isExpired(long timeout) {
+        return phaseRef.get().state == CircuitBreakerState.CLOSED && super.isExpired(timeout);
+    }
+
+    @Override
+    public void addListener(CircuitBreakerStateListener listener) {
+        if (listener != null) {
+            listeners.add(listener);
+        }
+    }
+
+    @Override
+    protected void doClose() {
+        if (instanceId != null) {
+            policy.removeInspector(instanceId, this);
+        }
+    }
+
+    /**
+     * Records the outcome of a call, and transitions the state if the thresholds are exceeded.
+     *
+     * @param failure      whether the call is failed
+     * @param durationInMs the elapsed time of the call in milliseconds
+     */
+    private void record(boolean failure, long durationInMs) {
+        Phase phase = phaseRef.get();
+        if (phase.window == null) {
+            return;
+        }
+        boolean slow = durationInMs > policy.getSlowCallDurationThreshold();
+        long outcome = CallCounter.of(failure, slow);
+        long now = System.currentTimeMillis();
+        CallWindow window = phase.window;
+        window.record(outcome, now);
+        if (phase.state == CircuitBreakerState.HALF_OPEN) {
+            long counters = window.getCounters(now);
+            if (CallCounter.getCalls(counters) >= phase.calls) {
+                transition(phase, isExceeded(counters, phase.calls) ? open(now) : closed(now));
+            }
+        } else if (outcome != CallCounter.SUCCESS || window.isCheap()) {
+            if (isExceeded(window.getCounters(now), policy.getMinCallsThreshold())) {
+                transition(phase, open(now));
+            }
+        }
+    }
+
+    /**
+     * Checks if the failure rate or slow call rate exceeds the threshold.
+     *
+     * @param counters the packed counters
+     * @param minCalls the minimum number of calls to evaluate the rates
+     * @return true if the threshold is exceeded
+     */
+    private boolean isExceeded(long counters, int minCalls) {
+        int calls = CallCounter.getCalls(counters);
+        if (calls <= 0 || calls < minCalls) {
+            return false;
+        }
+        float failureRate = CallCounter.getFailures(counters) * 100f / calls;
+        if (failureRate >= policy.getFailureRateThreshold()) {
+            return true;
+        }
+        float slowRate = CallCounter.getSlows(counters) * 100f / calls;
+        return slowRate >= policy.getSlowCallRateThreshold();
+    }
+
+    /**
+     * Transitions the state by CAS, and notifies the listeners if it is successful.
+     *
+     * @param expect the expected phase
+     * @param update the new phase
+     */
+    private void transition(Phase expect, Phase update) {
+        if (phaseRef.compareAndSet(expect, update)) {
+            onTransition(expect.state, update);
+        }
+    }
+
+    /**
+     * Handles the state transition.
+     *
+     * @param from  the previous state
+     * @param phase the new phase
+     */
+    private void onTransition(CircuitBreakerState from, Phase phase) {
+        switch (phase.state) {
+            case OPEN:
+                windowRef.set(new CircuitBreakerStateWindow(CircuitBreakerState.OPEN, phase.startTime, phase.endTime));
+                break;
+            case HALF_OPEN:
+                windowRef.set(new CircuitBreakerStateWindow(CircuitBreakerState.HALF_OPEN, phase.startTime, null));
+                break;
+            case CLOSED:
+            default:
+                windowRef.set(new CircuitBreakerStateWindow(CircuitBreakerState.CLOSED, phase.startTime, phase.startTime + policy.getRecoveryDuration()));
+                // register the recovering endpoint the same way as the resilience4j circuit breaker.
+                if (instanceId != null) {
+                    policy.addInspector(instanceId, this);
+                }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("[CircuitBreak]State is transitioned from " + from + " to " + phase.state + ", uri=" + uri);
+        }
+        if (!listeners.isEmpty()) {
+            CircuitBreakerStateEvent event = new CircuitBreakerStateEvent();
+            event.setUri(uri.toString());
+            event.setFrom(from);
+            event.setTo(phase.state);
+            for (CircuitBreakerStateListener listener : listeners) {
+                listener.onStateChange(event);
+            }
+        }
+    }
+
+    private Phase open(long now) {
+        return new Phase(CircuitBreakerState.OPEN, now, now + policy.getWaitDurationInOpenState() * 1000L, null, 0);
+    }
+
+    private Phase halfOpen(long now) {
+        int calls = policy.getAllowedCallsInHalfOpenState();
+        return new Phase(CircuitBreakerState.HALF_OPEN, now, 0, new CountCallWindow(calls), calls);
+    }
+
+    private Phase closed(long now) {
+        return new Phase(CircuitBreakerState.CLOSED, now, 0, createWindow(), 0);
+    }
+
+    /**
+     * Creates the sliding window for the closed state according to the policy.
+     *
+     * @return the sliding window
+     */
+    private CallWindow createWindow() {
+        return SLIDING_WINDOW_COUNT.equals(policy.getSlidingWindowType())
+                ? new CountCallWindow(policy.getSlidingWindowSize())
+                : new TimeCallWindow(policy.getSlidingWindowSize());
+    }
+
+    /**
+     * An immutable phase of the circuit breaker, it's replaced as a whole on state transition.
+     */
+    private static class Phase {
+
+        private final CircuitBreakerState state;
+
+        private final long startTime;
+
+        private final long endTime;
+
+        private final CallWindow window;
+
+        private final int calls;
+
+        private final AtomicInteger permits;
+
+        Phase(CircuitBreakerState state, long startTime, long endTime, CallWindow window, int calls) {
+            this.state = state;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.window = window;
+            this.calls = calls;
+            this.permits = new AtomicInteger(calls);
+        }
+
+        /**
+         * Tries to acquire a permit in the half open state.
+         *
+         * @return true if the permit is acquired
+         */
+        boolean tryAcquire() {
+            int value;
+            do {
+                value = permits.get();
+                if (value <= 0) {
+                    return false;
+                }
+            } while (!permits.compareAndSet(value, value - 1));
+            return true;
+        }
+    }
+}
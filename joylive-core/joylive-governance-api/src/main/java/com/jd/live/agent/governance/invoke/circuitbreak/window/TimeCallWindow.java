@@ -0,0 +1,98 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.circuitbreak.window;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A time based sliding window, which keeps the outcomes of the last N seconds in a lock-free ring of buckets.
+ * <p>
+ * Each bucket holds the packed counters of one second in a striped adder, so concurrent records do not contend
+ * on one cache line. A stale bucket is replaced by CAS when its slot is reused, and reading the counters sums
+ * the buckets which are still in the window.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+public class TimeCallWindow implements CallWindow {
+
+    private final int size;
+
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    public TimeCallWindow(int seconds) {
+        this.size = Math.max(1, seconds);
+        this.buckets = new AtomicReferenceArray<>(size);
+    }
+
+    @Override
+    public void record(long outcome, long now) {
+        long second = now / 1000;
+        int index = (int) (second % size);
+        Bucket bucket = buckets.get(index);
+        while (bucket == null || bucket.second < second) {
+            Bucket update = new Bucket(second);
+            if (buckets.compareAndSet(index, bucket, update)) {
+                bucket = update;
+            } else {
+                bucket = buckets.get(index);
+            }
+        }
+        bucket.counters.add(outcome);
+    }
+
+    @Override
+    public long getCounters(long now) {
+        long second = now / 1000;
+        long start = second - size;
+        long calls = 0;
+        long failures = 0;
+        long slows = 0;
+        long counters;
+        Bucket bucket;
+        for (int i = 0; i < size; i++) {
+            bucket = buckets.get(i);
+            if (bucket != null && bucket.second > start && bucket.second <= second) {
+                // sum each field separately to avoid overflow between the packed fields
+                counters = bucket.counters.sum();
+                calls += CallCounter.getCalls(counters);
+                failures += CallCounter.getFailures(counters);
+                slows += CallCounter.getSlows(counters);
+            }
+        }
+        return CallCounter.of(calls, failures, slows);
+    }
+
+    @Override
+    public boolean isCheap() {
+        return false;
+    }
+
+    /**
+     * The counters of one second.
+     */
+    private static class Bucket {
+
+        private final long second;
+
+        private final LongAdder counters = new LongAdder();
+
+        Bucket(long second) {
+            this.second = second;
+        }
+    }
+}
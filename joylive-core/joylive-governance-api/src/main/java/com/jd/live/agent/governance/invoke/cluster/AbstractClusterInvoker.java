@@ -16,12 +16,18 @@
 package com.jd.live.agent.governance.invoke.cluster;
 
 import com.jd.live.agent.bootstrap.exception.LiveException;
+import com.jd.live.agent.bootstrap.exception.RejectException;
 import com.jd.live.agent.bootstrap.logger.Logger;
 import com.jd.live.agent.bootstrap.logger.LoggerFactory;
+import com.jd.live.agent.core.inject.annotation.Inject;
+import com.jd.live.agent.governance.config.GovernanceConfig;
+import com.jd.live.agent.governance.context.RequestContext;
+import com.jd.live.agent.governance.context.bag.Carrier;
 import com.jd.live.agent.governance.exception.ServiceError;
 import com.jd.live.agent.governance.instance.Endpoint;
 import com.jd.live.agent.governance.invoke.InvocationContext;
 import com.jd.live.agent.governance.invoke.OutboundInvocation;
+import com.jd.live.agent.governance.policy.live.FaultType;
 import com.jd.live.agent.governance.policy.service.cluster.ClusterPolicy;
 import com.jd.live.agent.governance.request.RoutedRequest;
 import com.jd.live.agent.governance.request.ServiceRequest.OutboundRequest;
@@ -40,6 +46,9 @@ public abstract class AbstractClusterInvoker implements ClusterInvoker {
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractClusterInvoker.class);
 
+    @Inject(value = GovernanceConfig.COMPONENT_GOVERNANCE_CONFIG, nullable = true)
+    private GovernanceConfig governanceConfig;
+
     @Override
     public <R extends OutboundRequest,
             O extends OutboundResponse,
@@ -50,6 +59,30 @@ public abstract class AbstractClusterInvoker implements ClusterInvoker {
         return invoke(cluster, invocation, 0);
     }
 
+    /**
+     * Invokes a service method on a cluster of endpoints with the deadline of the current request context.
+     * The first call starts the deadline from the timeout of the request if the caller has not propagated one.
+     *
+     * @param <R>        The type of the outbound request that extends {@link OutboundRequest}.
+     * @param <O>        The type of the outbound response that extends {@link OutboundResponse}.
+     * @param <E>        The type of the endpoint that extends {@link Endpoint}.
+     * @param cluster    The {@link LiveCluster} managing the distribution and processing of the request.
+     * @param invocation The {@link OutboundInvocation} representing the specific request and its routing information.
+     * @param counter    The counter that records the current number of retry attempts..
+     * @return A {@link CompletionStage} that completes with the result of the service invocation.
+     * @see #invoke(LiveCluster, OutboundInvocation, int, long)
+     */
+    protected <R extends OutboundRequest,
+            O extends OutboundResponse,
+            E extends Endpoint> CompletionStage<O> invoke(LiveCluster<R, O, E> cluster, OutboundInvocation<R> invocation, int counter) {
+        long started = counter == 0 ? startDeadline(invocation.getRequest().getTimeout()) : 0;
+        try {
+            return invoke(cluster, invocation, counter, RequestContext.getDeadline());
+        } finally {
+            stopDeadline(started);
+        }
+    }
+
     /**
      * Invokes a service method on a cluster of endpoints. This method handles the routing of the
      * request to the appropriate endpoint(s) based on the cluster strategy and an optional predicate
@@ -61,6 +94,8 @@ public abstract class AbstractClusterInvoker implements ClusterInvoker {
      * @param cluster    The {@link LiveCluster} managing the distribution and processing of the request.
      * @param invocation The {@link OutboundInvocation} representing the specific request and its routing information.
      * @param counter    The counter that records the current number of retry attempts..
+     * @param deadline   The deadline of the request in milliseconds since the epoch, or 0 if it has no deadline.
+     *                   The timeout of the request is capped to the remaining time budget minus a safety margin.
      * @return A {@link CompletionStage} that completes with the result of the service invocation.
      * This future may complete exceptionally if the invocation fails or if no suitable endpoints
      * can be found.
@@ -68,10 +103,25 @@ public abstract class AbstractClusterInvoker implements ClusterInvoker {
     @SuppressWarnings("unchecked")
     protected <R extends OutboundRequest,
             O extends OutboundResponse,
-            E extends Endpoint> CompletionStage<O> invoke(LiveCluster<R, O, E> cluster, OutboundInvocation<R> invocation, int counter) {
+            E extends Endpoint> CompletionStage<O> invoke(LiveCluster<R, O, E> cluster,
+                                                          OutboundInvocation<R> invocation,
+                                                          int counter,
+                                                          long deadline) {
         CompletableFuture<O> result = new CompletableFuture<>();
         InvocationContext context = invocation.getContext();
         R request = invocation.getRequest();
+        if (deadline > 0) {
+            long budget = deadline - System.currentTimeMillis() - getDeadlineMargin();
+            if (budget <= 0) {
+                RejectException e = FaultType.DEADLINE.reject("The remaining time budget of the request is not enough. deadline=" + deadline);
+                onException(cluster, invocation, null, new ServiceError(e, false), null, result);
+                return result;
+            }
+            long timeout = request.getTimeout();
+            if (timeout <= 0 || timeout > budget) {
+                request.setTimeout(budget);
+            }
+        }
         List<? extends Endpoint> instances = invocation.getInstances();
         CompletionStage<List<E>> discoveryStage = instances == null || instances.isEmpty() || counter > 0
                 ? cluster.route(request)
@@ -211,6 +261,43 @@ public abstract class AbstractClusterInvoker implements ClusterInvoker {
         }
     }
 
+    /**
+     * Starts the deadline of the request on its first outbound call if the caller has not propagated one,
+     * so the downstream services share the time budget of the request. The safety margin is added,
+     * so the timeout of the call itself is not capped.
+     *
+     * @param timeout the time budget of the request in milliseconds
+     * @return the started deadline, or 0 if the deadline is not started
+     */
+    protected long startDeadline(long timeout) {
+        if (timeout <= 0 || RequestContext.getDeadline() > 0) {
+            return 0;
+        }
+        long deadline = System.currentTimeMillis() + timeout + getDeadlineMargin();
+        RequestContext.setAttribute(Carrier.ATTRIBUTE_DEADLINE, deadline);
+        return deadline;
+    }
+
+    /**
+     * Removes the deadline started by {@link #startDeadline(long)}, so it doesn't leak to the next requests of the thread.
+     *
+     * @param started the started deadline
+     */
+    protected void stopDeadline(long started) {
+        if (started > 0) {
+            RequestContext.removeAttribute(Carrier.ATTRIBUTE_DEADLINE);
+        }
+    }
+
+    /**
+     * Returns the safety margin in milliseconds reserved from the remaining time budget of the request.
+     *
+     * @return the safety margin
+     */
+    protected long getDeadlineMargin() {
+        return governanceConfig == null ? 0 : Math.max(governanceConfig.getServiceConfig().getDeadlineMargin(), 0);
+    }
+
     /**
      * Logs an error message. If the provided exception is null or an instance of LiveException,
      * it logs only the message. Otherwise, it logs both the message and the exception.
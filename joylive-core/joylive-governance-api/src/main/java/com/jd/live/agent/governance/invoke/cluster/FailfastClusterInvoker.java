@@ -16,6 +16,7 @@
 package com.jd.live.agent.governance.invoke.cluster;
 
 import com.jd.live.agent.core.extension.annotation.Extension;
+import com.jd.live.agent.core.inject.annotation.Injectable;
 import com.jd.live.agent.governance.instance.Endpoint;
 import com.jd.live.agent.governance.invoke.OutboundInvocation;
 import com.jd.live.agent.governance.policy.service.cluster.ClusterPolicy;
@@ -38,6 +39,7 @@ import java.util.concurrent.CompletionStage;
  * the impact on system resources and operation time when a failure is likely unrecoverable.
  * </p>
  */
+@Injectable
 @Extension(value = ClusterInvoker.TYPE_FAILFAST, order = ClusterInvoker.ORDER_FAILFAST)
 public class FailfastClusterInvoker extends AbstractClusterInvoker {
 
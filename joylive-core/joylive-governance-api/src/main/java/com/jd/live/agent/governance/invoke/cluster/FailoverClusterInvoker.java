@@ -21,6 +21,7 @@ import com.jd.live.agent.core.extension.annotation.Extension;
 import com.jd.live.agent.core.inject.annotation.Inject;
 import com.jd.live.agent.core.inject.annotation.Injectable;
 import com.jd.live.agent.core.util.Futures;
+import com.jd.live.agent.governance.context.RequestContext;
 import com.jd.live.agent.governance.exception.ErrorCause;
 import com.jd.live.agent.governance.exception.RetryException.RetryExhaustedException;
 import com.jd.live.agent.governance.exception.RetryException.RetryTimeoutException;
@@ -68,14 +69,39 @@ public class FailoverClusterInvoker extends AbstractClusterInvoker {
         retryPolicy = retryPolicy == null && defaultPolicy != null ? defaultPolicy.getRetryPolicy() : retryPolicy;
         R request = invocation.getRequest();
         request.addErrorPolicy(retryPolicy);
-        RetryContext<R, O, E> retryContext = new RetryContext<>(codeParsers, retryPolicy, cluster);
-        Supplier<CompletionStage<O>> supplier = () -> invoke(cluster, invocation, retryContext.getAndIncrement());
-        cluster.onStart(request);
-        return retryContext.execute(invocation, supplier).exceptionally(e ->
-                cluster.createResponse(
-                        cluster.createException(e, invocation),
-                        request,
-                        null));
+        long started = startDeadline(getBudget(request, retryPolicy));
+        try {
+            RetryContext<R, O, E> retryContext = new RetryContext<>(codeParsers, retryPolicy, cluster,
+                    RequestContext.getDeadline(), getDeadlineMargin());
+            Supplier<CompletionStage<O>> supplier = () -> invoke(cluster, invocation, retryContext.getAndIncrement(),
+                    retryContext.requestDeadline);
+            cluster.onStart(request);
+            return retryContext.execute(invocation, supplier).exceptionally(e ->
+                    cluster.createResponse(
+                            cluster.createException(e, invocation),
+                            request,
+                            null));
+        } finally {
+            stopDeadline(started);
+        }
+    }
+
+    /**
+     * Returns the time budget of the request with retries, which is the timeout of the retry policy,
+     * or the timeout of the request multiplied by the attempts.
+     *
+     * @param request     the outbound request
+     * @param retryPolicy the retry policy
+     * @return the time budget in milliseconds, or 0 if it's unknown
+     */
+    private long getBudget(OutboundRequest request, RetryPolicy retryPolicy) {
+        Long timeout = retryPolicy == null ? null : retryPolicy.getTimeout();
+        if (timeout != null && timeout > 0) {
+            return timeout;
+        }
+        Integer retry = retryPolicy == null ? null : retryPolicy.getRetry();
+        long attempts = retry == null || retry < 0 ? 1 : retry + 1;
+        return Math.max(request.getTimeout(), 0) * attempts;
     }
 
     /**
@@ -118,20 +144,43 @@ public class FailoverClusterInvoker extends AbstractClusterInvoker {
          */
         private final long deadline;
 
+        /**
+         * The deadline timestamp in milliseconds propagated by the caller of the request, or 0 if it has no deadline.
+         */
+        private final long requestDeadline;
+
+        /**
+         * The safety margin in milliseconds reserved from the remaining time budget of the request.
+         */
+        private final long margin;
+
+        /**
+         * The longest elapsed time of the attempts, which is used to estimate the cost of another attempt.
+         */
+        private volatile long maxElapsed;
+
         private final Object mutex = new Object();
 
         /**
          * Constructs a new {@code RetryContext} with the specified retry policy and response function.
          *
-         * @param retryPolicy The {@link RetryPolicy} to govern retry behavior.
-         * @param cluster     The {@link LiveCluster} managing the distribution and processing of the request
+         * @param retryPolicy     The {@link RetryPolicy} to govern retry behavior.
+         * @param cluster         The {@link LiveCluster} managing the distribution and processing of the request
+         * @param requestDeadline The deadline of the request, or 0 if it has no deadline.
+         * @param margin          The safety margin reserved from the remaining time budget.
          */
-        RetryContext(Map<String, ErrorParser> errorParsers, RetryPolicy retryPolicy, LiveCluster<R, O, E> cluster) {
+        RetryContext(Map<String, ErrorParser> errorParsers,
+                     RetryPolicy retryPolicy,
+                     LiveCluster<R, O, E> cluster,
+                     long requestDeadline,
+                     long margin) {
             this.errorParsers = errorParsers;
             this.retryPolicy = retryPolicy;
             this.cluster = cluster;
             this.counter = new AtomicInteger(0);
             this.deadline = retryPolicy == null ? 0 : retryPolicy.getDeadline(System.currentTimeMillis());
+            this.requestDeadline = requestDeadline;
+            this.margin = margin;
         }
 
         /**
@@ -169,8 +218,10 @@ public class FailoverClusterInvoker extends AbstractClusterInvoker {
                 invocation.resetOnRetry();
             }
             cluster.onRetry(request, count);
+            long startTime = System.currentTimeMillis();
             CompletionStage<O> stage = supplier.get();
             stage.whenComplete((v, e) -> {
+                maxElapsed = Math.max(maxElapsed, System.currentTimeMillis() - startTime);
                 ServiceError se = v == null ? null : v.getError();
                 Throwable throwable = se == null ? e : se.getThrowable();
                 // not retry when empty instance
@@ -234,7 +285,7 @@ public class FailoverClusterInvoker extends AbstractClusterInvoker {
         private Throwable await(Throwable cause) {
             Long interval = retryPolicy == null ? null : retryPolicy.getInterval();
             if (interval != null && interval > 0) {
-                if (interval + System.currentTimeMillis() > deadline) {
+                if (deadline > 0 && interval + System.currentTimeMillis() > deadline) {
                     return new RetryTimeoutException("retry is timeout.", cause, retryPolicy.getTimeout());
                 }
                 synchronized (mutex) {
@@ -248,6 +299,21 @@ public class FailoverClusterInvoker extends AbstractClusterInvoker {
             return null;
         }
 
+        /**
+         * Checks if the remaining time budget of the request can fit another attempt, whose cost is estimated
+         * by the longest elapsed time of the previous attempts, the retry interval and the safety margin.
+         *
+         * @return true if the request has no deadline or the budget is enough
+         */
+        private boolean isBudgetEnough() {
+            if (requestDeadline <= 0) {
+                return true;
+            }
+            Long interval = retryPolicy.getInterval();
+            long cost = maxElapsed + (interval == null || interval < 0 ? 0 : interval) + margin;
+            return System.currentTimeMillis() + cost < requestDeadline;
+        }
+
         private int getAndIncrement() {
             return counter.getAndIncrement();
         }
@@ -277,6 +343,9 @@ public class FailoverClusterInvoker extends AbstractClusterInvoker {
                         return RetryType.TIMEOUT;
                     } else if (count >= retryPolicy.getRetry()) {
                         return RetryType.EXHAUSTED;
+                    } else if (!isBudgetEnough()) {
+                        // the caller will abandon the request before another attempt completes.
+                        return RetryType.NONE;
                     }
                     return RetryType.RETRY;
                 } else {
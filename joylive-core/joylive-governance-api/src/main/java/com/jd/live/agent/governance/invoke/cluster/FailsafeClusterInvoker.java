@@ -18,6 +18,7 @@ package com.jd.live.agent.governance.invoke.cluster;
 import com.jd.live.agent.bootstrap.logger.Logger;
 import com.jd.live.agent.bootstrap.logger.LoggerFactory;
 import com.jd.live.agent.core.extension.annotation.Extension;
+import com.jd.live.agent.core.inject.annotation.Injectable;
 import com.jd.live.agent.governance.instance.Endpoint;
 import com.jd.live.agent.governance.invoke.OutboundInvocation;
 import com.jd.live.agent.governance.policy.service.cluster.ClusterPolicy;
@@ -39,6 +40,7 @@ import java.util.concurrent.CompletionStage;
  * maintain system stability.
  * </p>
  */
+@Injectable
 @Extension(value = ClusterInvoker.TYPE_FAILSAFE, order = ClusterInvoker.ORDER_FAILSAFE)
 public class FailsafeClusterInvoker extends AbstractClusterInvoker {
 
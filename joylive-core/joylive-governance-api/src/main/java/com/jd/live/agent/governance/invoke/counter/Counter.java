@@ -43,6 +43,10 @@ public class Counter {
      * The number of failed requests.
      */
     private final AtomicInteger failed = new AtomicInteger();
+    /**
+     * The number of consecutive failed requests.
+     */
+    private final AtomicInteger consecutiveFailed = new AtomicInteger();
     /**
      * The total elapsed time for all requests.
      */
@@ -95,9 +99,13 @@ public class Counter {
 
         AtomicUtils.update(maxElapsed, elapsed, (older, newer) -> older < newer);
         if (succeeded) {
+            if (consecutiveFailed.get() != 0) {
+                consecutiveFailed.set(0);
+            }
             AtomicUtils.update(succeededMaxElapsed, elapsed, (older, newer) -> older < newer);
         } else {
             failed.incrementAndGet();
+            consecutiveFailed.incrementAndGet();
             failedElapsed.addAndGet(elapsed);
             AtomicUtils.update(failedMaxElapsed, elapsed, (older, newer) -> older < newer);
         }
@@ -131,6 +139,14 @@ public class Counter {
         return failed.get();
     }
 
+    public int getConsecutiveFailed() {
+        return consecutiveFailed.get();
+    }
+
+    public void resetConsecutiveFailed() {
+        consecutiveFailed.set(0);
+    }
+
     public long getFailedElapsed() {
         return failedElapsed.get();
     }
@@ -56,6 +56,54 @@ public class EndpointCounter {
         return counters.computeIfAbsent(getMethodKey(uri), n -> new Counter(service));
     }
 
+    /**
+     * Returns the maximum number of consecutive failed requests of all counters.
+     *
+     * @return the number of consecutive failed requests
+     */
+    public int getConsecutiveFailed() {
+        int result = 0;
+        for (Counter counter : counters.values()) {
+            result = Math.max(result, counter.getConsecutiveFailed());
+        }
+        return result;
+    }
+
+    /**
+     * Resets the number of consecutive failed requests of all counters.
+     */
+    public void resetConsecutiveFailed() {
+        for (Counter counter : counters.values()) {
+            counter.resetConsecutiveFailed();
+        }
+    }
+
+    /**
+     * Returns the total number of requests of all counters.
+     *
+     * @return the total number of requests
+     */
+    public long getTotal() {
+        long result = 0;
+        for (Counter counter : counters.values()) {
+            result += counter.getTotal();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the total elapsed time of all counters.
+     *
+     * @return the total elapsed time
+     */
+    public long getTotalElapsed() {
+        long result = 0;
+        for (Counter counter : counters.values()) {
+            result += counter.getTotalElapsed();
+        }
+        return result;
+    }
+
     /**
      * Takes a snapshot of all counters for this service.
      */
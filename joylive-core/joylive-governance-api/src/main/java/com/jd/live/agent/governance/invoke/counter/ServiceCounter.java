@@ -26,6 +26,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * A class that represents a counter for a specific service, tracking the number of active, total, failed, and
@@ -74,6 +75,15 @@ public class ServiceCounter {
         return counters.computeIfAbsent(endpoint, e -> new EndpointCounter(e, this));
     }
 
+    /**
+     * Performs the given action for each endpoint counter of this service.
+     *
+     * @param consumer The action to be performed for each endpoint counter.
+     */
+    public void forEach(Consumer<EndpointCounter> consumer) {
+        counters.values().forEach(consumer);
+    }
+
     /**
      * Schedules a task to clean up counters for endpoints that are no longer in use, using the provided list of
      * current endpoints. The task will not be scheduled if one is already running.
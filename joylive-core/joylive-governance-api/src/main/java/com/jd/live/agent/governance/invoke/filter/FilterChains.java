@@ -0,0 +1,145 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.filter;
+
+import com.jd.live.agent.core.util.cache.WeakCache;
+import com.jd.live.agent.governance.invoke.Invocation;
+import com.jd.live.agent.governance.invoke.metadata.ServiceMetadata;
+import com.jd.live.agent.governance.policy.service.Service;
+import com.jd.live.agent.governance.policy.service.ServicePolicy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pre-built filter chains shared by all invocations.
+ * <p>
+ * The chains only contain the filters that apply to the service policy of the invocation, see {@link PolicyFilter}.
+ * They are computed once per service policy and version, and the chains of the services without any policy
+ * are built eagerly as the fast path.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+public class FilterChains {
+
+    private final InboundFilter[] inboundFilters;
+
+    private final RouteFilter[] routeFilters;
+
+    private final OutboundFilter[] outboundFilters;
+
+    private final Chains defaults;
+
+    private final WeakCache<ServicePolicy, Chains> chains = new WeakCache<>(4096);
+
+    public FilterChains(InboundFilter[] inboundFilters, RouteFilter[] routeFilters, OutboundFilter[] outboundFilters) {
+        this.inboundFilters = inboundFilters == null ? new InboundFilter[0] : inboundFilters;
+        this.routeFilters = routeFilters == null ? new RouteFilter[0] : routeFilters;
+        this.outboundFilters = outboundFilters == null ? new OutboundFilter[0] : outboundFilters;
+        this.defaults = build(null, 0);
+    }
+
+    /**
+     * Returns the inbound chain for the given invocation.
+     *
+     * @param invocation the invocation.
+     * @return the inbound chain.
+     */
+    public InboundFilterChain.Chain getInboundChain(Invocation<?> invocation) {
+        return getChains(invocation).inbound;
+    }
+
+    /**
+     * Returns the route chain for the given invocation.
+     *
+     * @param invocation the invocation.
+     * @return the route chain.
+     */
+    public RouteFilterChain.Chain getRouteChain(Invocation<?> invocation) {
+        return getChains(invocation).route;
+    }
+
+    /**
+     * Returns the outbound chain for the given invocation.
+     *
+     * @param invocation the invocation.
+     * @return the outbound chain.
+     */
+    public OutboundFilterChain.Chain getOutboundChain(Invocation<?> invocation) {
+        return getChains(invocation).outbound;
+    }
+
+    /**
+     * Returns the chains for the service policy of the invocation, rebuilding them when the service is updated.
+     *
+     * @param invocation the invocation.
+     * @return the chains.
+     */
+    private Chains getChains(Invocation<?> invocation) {
+        ServiceMetadata metadata = invocation.getServiceMetadata();
+        ServicePolicy policy = metadata == null ? null : metadata.getServicePolicy();
+        if (policy == null) {
+            return defaults;
+        }
+        Service service = metadata.getService();
+        long version = service == null ? 0 : service.getVersion();
+        Chains result = chains.get(policy);
+        if (result == null || result.version != version) {
+            result = build(policy, version);
+            chains.put(policy, result);
+        }
+        return result;
+    }
+
+    private Chains build(ServicePolicy policy, long version) {
+        return new Chains(version,
+                new InboundFilterChain.Chain(select(inboundFilters, policy)),
+                new RouteFilterChain.Chain(select(routeFilters, policy)),
+                new OutboundFilterChain.Chain(select(outboundFilters, policy)));
+    }
+
+    private static <T> List<T> select(T[] filters, ServicePolicy policy) {
+        List<T> result = new ArrayList<>(filters.length);
+        for (T filter : filters) {
+            if (!(filter instanceof PolicyFilter) || ((PolicyFilter) filter).isApplicable(policy)) {
+                result.add(filter);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The chains of a service policy version.
+     */
+    private static class Chains {
+
+        private final long version;
+
+        private final InboundFilterChain.Chain inbound;
+
+        private final RouteFilterChain.Chain route;
+
+        private final OutboundFilterChain.Chain outbound;
+
+        Chains(long version, InboundFilterChain.Chain inbound, RouteFilterChain.Chain route, OutboundFilterChain.Chain outbound) {
+            this.version = version;
+            this.inbound = inbound;
+            this.route = route;
+            this.outbound = outbound;
+        }
+    }
+}
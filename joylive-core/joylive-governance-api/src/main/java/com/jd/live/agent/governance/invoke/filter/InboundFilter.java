@@ -44,6 +44,11 @@ public interface InboundFilter {
      */
     int ORDER_READY = 0;
 
+    /**
+     * Execution order for the request deadline filter
+     */
+    int ORDER_DEADLINE = ORDER_READY + 50;
+
     /**
      * Execution order for the request auth filter
      */
@@ -59,6 +64,11 @@ public interface InboundFilter {
      */
     int ORDER_LOAD_LIMITER = ORDER_PERMISSION + 100;
 
+    /**
+     * Execution order for the priority aware admission filter
+     */
+    int ORDER_ADMISSION = ORDER_LOAD_LIMITER + 50;
+
     /**
      * Execution order for the request limiter filter
      */
@@ -17,6 +17,7 @@ package com.jd.live.agent.governance.invoke.filter;
 
 import com.jd.live.agent.core.util.Futures;
 import com.jd.live.agent.governance.invoke.InboundInvocation;
+import com.jd.live.agent.governance.invoke.InvocationFrame;
 import com.jd.live.agent.governance.request.ServiceRequest.InboundRequest;
 
 import java.util.List;
@@ -51,10 +52,12 @@ public interface InboundFilterChain {
 
     /**
      * A concrete implementation of the {@code InboundFilterChain} that manages and invokes a sequence of inbound filters.
+     * <p>
+     * The chain is stateless, the current position is kept in the invocation, so that one chain can be shared by requests.
+     * </p>
      */
     class Chain implements InboundFilterChain {
 
-        protected int index; // Tracks the current position in the filter chain
         protected final InboundFilter[] filters; // Array of filters in the chain
 
         /**
@@ -87,9 +90,45 @@ public interface InboundFilterChain {
          */
         @Override
         public <T extends InboundRequest> CompletionStage<Object> filter(InboundInvocation<T> invocation) {
+            return filter(invocation, invocation.nextFilter());
+        }
+
+        /**
+         * Starts a pass through the chain of filters, and invokes the callable at the end of the chain.
+         * <p>
+         * The position of the enclosing pass of the same invocation is resumed when this pass returns,
+         * so that the pass can be nested in a filter.
+         * </p>
+         *
+         * @param invocation Represents the invocation information of an inbound request.
+         * @param invoker    The callable object to invoke after all the filters have been processed.
+         * @param <T>        The type of the inbound request.
+         * @return A completion stage that represents the result of the pass.
+         */
+        public <T extends InboundRequest> CompletionStage<Object> start(InboundInvocation<T> invocation, Callable<Object> invoker) {
+            InvocationFrame frame = invocation.getFrame();
+            int index = frame.getFilterIndex();
+            Callable<Object> outer = frame.getInvoker();
+            frame.startFilter(invoker);
+            try {
+                return filter(invocation);
+            } finally {
+                frame.resumeFilter(index, outer);
+            }
+        }
+
+        /**
+         * Invokes the filter at the position, or the invoker at the end of the chain.
+         *
+         * @param invocation Represents the invocation information of an inbound request.
+         * @param index      The position in the chain.
+         * @param <T>        The type of the inbound request.
+         * @return A completion stage that represents the result of the filter.
+         */
+        protected <T extends InboundRequest> CompletionStage<Object> filter(InboundInvocation<T> invocation, int index) {
             CompletionStage<Object> result = null;
             if (index < filters.length) {
-                result = filters[index++].filter(invocation, this);
+                result = filters[index].filter(invocation, this);
             } else if (index == filters.length) {
                 result = invoke(invocation);
             }
@@ -97,6 +136,15 @@ public interface InboundFilterChain {
             return result;
         }
 
+        /**
+         * Returns the number of filters in the chain.
+         *
+         * @return the number of filters
+         */
+        public int size() {
+            return filters.length;
+        }
+
         /**
          * Invokes the inbound request asynchronously.
          *
@@ -104,18 +152,45 @@ public interface InboundFilterChain {
          * @return A completion stage that represents the result of the invocation.
          */
         protected <T extends InboundRequest> CompletionStage<Object> invoke(InboundInvocation<T> invocation) {
-            return CompletableFuture.completedFuture(null);
+            return call(invocation.getInvoker());
+        }
+
+        /**
+         * Calls the invoker and adapts its result to a completion stage.
+         *
+         * @param invoker The callable object to invoke.
+         * @return A completion stage that represents the result of the invoker.
+         */
+        @SuppressWarnings("unchecked")
+        protected static CompletionStage<Object> call(Callable<Object> invoker) {
+            try {
+                if (invoker == null) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                Object result = invoker.call();
+                if (result instanceof CompletionStage) {
+                    return (CompletionStage<Object>) result;
+                }
+                return CompletableFuture.completedFuture(result);
+            } catch (Throwable e) {
+                return Futures.future(e);
+            }
         }
 
     }
 
     /**
-     * A chain of filters that invokes a callable object.
+     * A chain of filters that invokes a callable object, which is created for each request and keeps its own position.
+     *
+     * @deprecated Use the shared chains of {@link FilterChains} with {@link Chain#start(InboundInvocation, Callable)}.
      */
+    @Deprecated
     class InvokerChain extends Chain {
 
         private final Callable<Object> invoker;
 
+        private int index;
+
         /**
          * Creates a new instance of the InvokerChain with the specified filters and invoker.
          *
@@ -138,22 +213,19 @@ public interface InboundFilterChain {
             this.invoker = invoker;
         }
 
-        @SuppressWarnings("unchecked")
+        @Override
+        public <T extends InboundRequest> CompletionStage<Object> filter(InboundInvocation<T> invocation) {
+            return filter(invocation, index++);
+        }
+
+        @Override
+        public <T extends InboundRequest> CompletionStage<Object> start(InboundInvocation<T> invocation, Callable<Object> callable) {
+            return filter(invocation);
+        }
+
         @Override
         protected <T extends InboundRequest> CompletionStage<Object> invoke(InboundInvocation<T> invocation) {
-            try {
-                if (invoker == null) {
-                    return CompletableFuture.completedFuture(null);
-                }
-                Object result = invoker.call();
-                if (result instanceof CompletionStage) {
-                    return (CompletionStage<Object>) result;
-                }
-                return CompletableFuture.completedFuture(result);
-            } catch (Throwable e) {
-                return Futures.future(e);
-            }
+            return call(invoker);
         }
     }
 }
-
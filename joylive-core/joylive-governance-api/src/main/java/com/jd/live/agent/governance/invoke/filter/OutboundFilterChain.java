@@ -17,6 +17,7 @@ package com.jd.live.agent.governance.invoke.filter;
 
 import com.jd.live.agent.core.util.Futures;
 import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.invoke.InvocationFrame;
 import com.jd.live.agent.governance.invoke.OutboundInvocation;
 import com.jd.live.agent.governance.request.ServiceRequest.OutboundRequest;
 import com.jd.live.agent.governance.response.ServiceResponse.OutboundResponse;
@@ -58,14 +59,12 @@ public interface OutboundFilterChain {
 
     /**
      * A concrete implementation of the {@code OutboundFilterChain} that manages and invokes a sequence of outbound filters.
+     * <p>
+     * The chain is stateless, the current position is kept in the invocation, so that one chain can be shared by requests.
+     * </p>
      */
     class Chain implements OutboundFilterChain {
 
-        /**
-         * Tracks the current position in the filter chain
-         */
-        private int index;
-
         /**
          * Array of filters in the chain
          */
@@ -93,9 +92,55 @@ public interface OutboundFilterChain {
         public <R extends OutboundRequest,
                 O extends OutboundResponse,
                 E extends Endpoint> CompletionStage<O> filter(OutboundInvocation<R> invocation, E endpoint) {
+            return filter(invocation, endpoint, invocation.nextFilter());
+        }
+
+        /**
+         * Starts a pass through the chain of filters, and invokes the callable at the end of the chain.
+         * <p>
+         * The position of the enclosing pass of the same invocation is resumed when this pass returns,
+         * so that the pass can be nested in a filter.
+         * </p>
+         *
+         * @param invocation The outbound service request invocation.
+         * @param endpoint   The endpoint through which the request will be sent.
+         * @param invoker    The callable object to invoke after all the filters have been processed.
+         * @param <R>        The type of the outbound service request.
+         * @param <O>        The type of the outbound service response.
+         * @param <E>        The type of the endpoint.
+         * @return A completion stage that represents the result of the pass.
+         */
+        public <R extends OutboundRequest,
+                O extends OutboundResponse,
+                E extends Endpoint> CompletionStage<O> start(OutboundInvocation<R> invocation, E endpoint, Callable<Object> invoker) {
+            InvocationFrame frame = invocation.getFrame();
+            int index = frame.getFilterIndex();
+            Callable<Object> outer = frame.getInvoker();
+            frame.startFilter(invoker);
+            try {
+                return filter(invocation, endpoint);
+            } finally {
+                frame.resumeFilter(index, outer);
+            }
+        }
+
+        /**
+         * Invokes the filter at the position, or the invoker at the end of the chain.
+         *
+         * @param invocation The outbound service request invocation.
+         * @param endpoint   The endpoint through which the request will be sent.
+         * @param index      The position in the chain.
+         * @param <R>        The type of the outbound service request.
+         * @param <O>        The type of the outbound service response.
+         * @param <E>        The type of the endpoint.
+         * @return A completion stage that represents the result of the filter.
+         */
+        protected <R extends OutboundRequest,
+                O extends OutboundResponse,
+                E extends Endpoint> CompletionStage<O> filter(OutboundInvocation<R> invocation, E endpoint, int index) {
             CompletionStage<O> result = null;
             if (index < filters.length) {
-                result = filters[index++].filter(invocation, endpoint, this);
+                result = filters[index].filter(invocation, endpoint, this);
             } else if (index == filters.length) {
                 result = invoke(invocation);
             }
@@ -104,24 +149,61 @@ public interface OutboundFilterChain {
         }
 
         /**
-         * Invokes the inbound request asynchronously.
+         * Returns the number of filters in the chain.
          *
-         * @param invocation The inbound invocation to invoke.
+         * @return the number of filters
+         */
+        public int size() {
+            return filters.length;
+        }
+
+        /**
+         * Invokes the outbound request asynchronously.
+         *
+         * @param invocation The outbound invocation to invoke.
          * @return A completion stage that represents the result of the invocation.
          */
         protected <R extends OutboundRequest, O extends OutboundResponse> CompletionStage<O> invoke(OutboundInvocation<R> invocation) {
-            return CompletableFuture.completedFuture(null);
+            return call(invocation.getInvoker());
+        }
+
+        /**
+         * Calls the invoker and adapts its result to a completion stage.
+         *
+         * @param invoker The callable object to invoke.
+         * @return A completion stage that represents the result of the invoker.
+         */
+        @SuppressWarnings("unchecked")
+        protected static <O extends OutboundResponse> CompletionStage<O> call(Callable<Object> invoker) {
+            try {
+                if (invoker == null) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                Object result = invoker.call();
+                if (result instanceof CompletionStage) {
+                    return (CompletionStage<O>) result;
+                }
+                return CompletableFuture.completedFuture((O) result);
+            } catch (Throwable e) {
+                return Futures.future(e);
+            }
         }
 
     }
 
     /**
-     * A chain of filters that invokes a callable object.
+     * A chain of filters that invokes a callable object, which is created for each request and keeps its own position.
+     *
+     * @deprecated Use the shared chains of {@link FilterChains} with
+     * {@link Chain#start(OutboundInvocation, Endpoint, Callable)}.
      */
+    @Deprecated
     class InvokerChain extends Chain {
 
         private final Callable<Object> invoker;
 
+        private int index;
+
         /**
          * Creates a new instance of the InvokerChain with the specified filters and invoker.
          *
@@ -144,21 +226,23 @@ public interface OutboundFilterChain {
             this.invoker = invoker;
         }
 
-        @SuppressWarnings("unchecked")
+        @Override
+        public <R extends OutboundRequest,
+                O extends OutboundResponse,
+                E extends Endpoint> CompletionStage<O> filter(OutboundInvocation<R> invocation, E endpoint) {
+            return filter(invocation, endpoint, index++);
+        }
+
+        @Override
+        public <R extends OutboundRequest,
+                O extends OutboundResponse,
+                E extends Endpoint> CompletionStage<O> start(OutboundInvocation<R> invocation, E endpoint, Callable<Object> callable) {
+            return filter(invocation, endpoint);
+        }
+
         @Override
         protected <R extends OutboundRequest, O extends OutboundResponse> CompletionStage<O> invoke(OutboundInvocation<R> invocation) {
-            try {
-                if (invoker == null) {
-                    return CompletableFuture.completedFuture(null);
-                }
-                Object result = invoker.call();
-                if (result instanceof CompletionStage) {
-                    return (CompletionStage<O>) result;
-                }
-                return CompletableFuture.completedFuture((O) result);
-            } catch (Throwable e) {
-                return Futures.future(e);
-            }
+            return call(invoker);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.filter;
+
+import com.jd.live.agent.governance.policy.service.ServicePolicy;
+
+/**
+ * A filter that only takes effect when the service policy contains its kind of rules.
+ * <p>
+ * Filters implementing this interface are left out of the pre-built chains of the services whose policy
+ * does not need them, and services without any policy skip them entirely.
+ * </p>
+ *
+ * @see FilterChains
+ * @since 1.6.0
+ */
+public interface PolicyFilter {
+
+    /**
+     * Checks whether this filter should be applied to the requests of the given service policy.
+     *
+     * @param policy the service policy, may be null.
+     * @return true if the filter should be applied, false otherwise.
+     */
+    boolean isApplicable(ServicePolicy policy);
+
+}
@@ -57,6 +57,8 @@ public interface RouteFilter {
 
     int ORDER_LIVE_CELL = ORDER_LANE + 100;
 
+    int ORDER_LOCALITY = ORDER_LIVE_CELL + 50;
+
     int ORDER_RETRY = ORDER_LIVE_CELL + 100;
 
     int ORDER_LOAD_BALANCE = ORDER_LIVE_CELL + 100;
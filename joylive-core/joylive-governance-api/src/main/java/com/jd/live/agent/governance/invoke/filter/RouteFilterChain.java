@@ -17,6 +17,7 @@ package com.jd.live.agent.governance.invoke.filter;
 
 import com.jd.live.agent.bootstrap.logger.Logger;
 import com.jd.live.agent.bootstrap.logger.LoggerFactory;
+import com.jd.live.agent.governance.invoke.InvocationFrame;
 import com.jd.live.agent.governance.invoke.OutboundInvocation;
 import com.jd.live.agent.governance.request.ServiceRequest.OutboundRequest;
 
@@ -48,12 +49,14 @@ public interface RouteFilterChain {
 
     /**
      * A concrete implementation of the {@code OutboundFilterChain} that manages and invokes a sequence of routing filters.
+     * <p>
+     * The chain is stateless, the current position is kept in the invocation, so that one chain can be shared by requests.
+     * </p>
      */
     class Chain implements RouteFilterChain {
 
         private static final Logger logger = LoggerFactory.getLogger(Chain.class);
 
-        private int index; // Tracks the current position in the filter chain.
         private final RouteFilter[] filters; // Array of filters in the chain.
         private final int size;
 
@@ -90,17 +93,47 @@ public interface RouteFilterChain {
          */
         @Override
         public <T extends OutboundRequest> void filter(final OutboundInvocation<T> invocation) {
+            int index = invocation.nextRoute();
             if (index < size) {
                 if (logger.isDebugEnabled()) {
                     log(index - 1, invocation);
                 }
-                RouteFilter filter = filters[index++];
-                filter.filter(invocation, this);
+                filters[index].filter(invocation, this);
             } else if (index == size && logger.isDebugEnabled()) {
                 log(index - 1, invocation);
             }
         }
 
+        /**
+         * Starts a pass through the chain of filters.
+         * <p>
+         * The position of the enclosing pass of the same invocation is resumed when this pass returns,
+         * so that the pass can be nested in a filter.
+         * </p>
+         *
+         * @param invocation Represents the invocation information of an outbound request.
+         * @param <T>        The type of the outbound request.
+         */
+        public <T extends OutboundRequest> void start(final OutboundInvocation<T> invocation) {
+            InvocationFrame frame = invocation.getFrame();
+            int index = frame.getRouteIndex();
+            frame.startRoute();
+            try {
+                filter(invocation);
+            } finally {
+                frame.resumeRoute(index);
+            }
+        }
+
+        /**
+         * Returns the number of filters in the chain.
+         *
+         * @return the number of filters
+         */
+        public int size() {
+            return size;
+        }
+
         private <T extends OutboundRequest> void log(final int index, final OutboundInvocation<T> invocation) {
             if (index < 0) {
                 logger.debug("Before apply any filter, endpoint size: " + invocation.getEndpointSize());
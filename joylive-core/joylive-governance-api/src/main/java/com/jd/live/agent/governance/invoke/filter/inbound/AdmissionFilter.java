@@ -0,0 +1,187 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.filter.inbound;
+
+import com.jd.live.agent.core.extension.annotation.Extension;
+import com.jd.live.agent.core.inject.annotation.Inject;
+import com.jd.live.agent.core.inject.annotation.Injectable;
+import com.jd.live.agent.core.util.time.Timer;
+import com.jd.live.agent.governance.annotation.ConditionalOnFlowControlEnabled;
+import com.jd.live.agent.governance.config.GovernanceConfig;
+import com.jd.live.agent.governance.config.RecyclerConfig;
+import com.jd.live.agent.governance.event.TrafficEvent;
+import com.jd.live.agent.governance.invoke.InboundInvocation;
+import com.jd.live.agent.governance.invoke.admission.AdmissionController;
+import com.jd.live.agent.governance.invoke.filter.InboundFilter;
+import com.jd.live.agent.governance.invoke.filter.InboundFilterChain;
+import com.jd.live.agent.governance.invoke.filter.PolicyFilter;
+import com.jd.live.agent.governance.policy.live.FaultType;
+import com.jd.live.agent.governance.policy.service.ServicePolicy;
+import com.jd.live.agent.governance.policy.service.admission.AdmissionPolicy;
+import com.jd.live.agent.governance.request.ServiceRequest.InboundRequest;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * AdmissionFilter classifies the inbound requests into priority tiers, and admits them by the admission controller.
+ * <p>
+ * The synchronous requests wait for the admission in the calling thread, while the asynchronous requests
+ * continue the filter chain when the admission is granted.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+@Injectable
+@Extension(value = "AdmissionFilter", order = InboundFilter.ORDER_ADMISSION)
+@ConditionalOnFlowControlEnabled
+public class AdmissionFilter implements InboundFilter, PolicyFilter {
+
+    @Inject
+    private Timer timer;
+
+    @Inject(GovernanceConfig.COMPONENT_GOVERNANCE_CONFIG)
+    private GovernanceConfig governanceConfig;
+
+    private final Map<Long, AdmissionController> controllers = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean recycled = new AtomicBoolean(false);
+
+    @Override
+    public boolean isApplicable(ServicePolicy policy) {
+        AdmissionPolicy admissionPolicy = policy == null ? null : policy.getAdmissionPolicy();
+        return admissionPolicy != null && admissionPolicy.isEnabled();
+    }
+
+    @Override
+    public <T extends InboundRequest> CompletionStage<Object> filter(InboundInvocation<T> invocation, InboundFilterChain chain) {
+        ServicePolicy servicePolicy = invocation.getServiceMetadata().getServicePolicy();
+        AdmissionPolicy policy = servicePolicy == null ? null : servicePolicy.getAdmissionPolicy();
+        if (policy == null || !policy.isEnabled()) {
+            return chain.filter(invocation);
+        }
+        AdmissionController controller = getController(policy);
+        int priority = policy.getPriority(invocation);
+        invocation.addPolicyTag(TrafficEvent.KEY_ADMISSION_TIER, String.valueOf(priority));
+        CompletableFuture<Void> admission = controller.acquire(priority);
+        if (!admission.isDone() && invocation.getRequest().isAsync()) {
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            admission.whenComplete((v, t) -> {
+                if (t != null) {
+                    result.completeExceptionally(t);
+                } else {
+                    try {
+                        proceed(invocation, chain, controller).whenComplete((o, e) -> {
+                            if (e != null) {
+                                result.completeExceptionally(e);
+                            } else {
+                                result.complete(o);
+                            }
+                        });
+                    } catch (Throwable e) {
+                        result.completeExceptionally(e);
+                    }
+                }
+            });
+            return result;
+        }
+        try {
+            admission.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (!admission.cancel(false) && !admission.isCompletedExceptionally()) {
+                // the permit is granted before the cancellation.
+                controller.release();
+            }
+            invocation.reject(FaultType.LIMIT, "The request is interrupted while waiting for admission.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            invocation.reject(FaultType.LIMIT, cause.getMessage());
+        }
+        return proceed(invocation, chain, controller);
+    }
+
+    /**
+     * Continues the filter chain with the admitted permit, which is released when the request is completed.
+     *
+     * @param invocation the inbound invocation
+     * @param chain      the filter chain
+     * @param controller the admission controller
+     * @return the result of the filter chain
+     */
+    private <T extends InboundRequest> CompletionStage<Object> proceed(InboundInvocation<T> invocation,
+                                                                       InboundFilterChain chain,
+                                                                       AdmissionController controller) {
+        CompletionStage<Object> stage;
+        try {
+            stage = chain.filter(invocation);
+        } catch (Throwable e) {
+            controller.release();
+            throw e;
+        }
+        return stage.whenComplete((o, t) -> controller.release());
+    }
+
+    /**
+     * Returns the admission controllers, which are keyed by the policy id.
+     *
+     * @return the admission controllers
+     */
+    public Collection<AdmissionController> getControllers() {
+        return controllers.values();
+    }
+
+    /**
+     * Returns the admission controller of the policy, which is reconfigured in place when the policy is updated,
+     * so the admitted requests are still accounted.
+     *
+     * @param policy the admission policy
+     * @return the admission controller
+     */
+    private AdmissionController getController(AdmissionPolicy policy) {
+        Long id = policy.getId() == null ? 0L : policy.getId();
+        AdmissionController controller = controllers.get(id);
+        if (controller == null) {
+            controller = controllers.computeIfAbsent(id, k -> new AdmissionController(policy, timer));
+            if (recycled.compareAndSet(false, true)) {
+                addRecycler();
+            }
+        }
+        if (controller.getPolicy() != policy) {
+            controller.update(policy);
+        }
+        return controller;
+    }
+
+    /**
+     * Schedules a recurring task to remove the idle controllers, such as the ones of the removed policies.
+     */
+    private void addRecycler() {
+        RecyclerConfig config = governanceConfig.getServiceConfig().getConcurrencyLimiter();
+        timer.delay("Recycle-Admission", config.getCleanInterval(), () -> {
+            controllers.entrySet().removeIf(entry -> entry.getValue().isIdle(config.getExpireTime()));
+            addRecycler();
+        });
+    }
+}
@@ -24,6 +24,7 @@ import com.jd.live.agent.governance.invoke.auth.AuthResult;
 import com.jd.live.agent.governance.invoke.auth.Authenticate;
 import com.jd.live.agent.governance.invoke.filter.InboundFilter;
 import com.jd.live.agent.governance.invoke.filter.InboundFilterChain;
+import com.jd.live.agent.governance.invoke.filter.PolicyFilter;
 import com.jd.live.agent.governance.policy.live.FaultType;
 import com.jd.live.agent.governance.policy.service.ServicePolicy;
 import com.jd.live.agent.governance.policy.service.auth.AuthPolicy;
@@ -40,11 +41,17 @@ import java.util.concurrent.CompletionStage;
 @Injectable
 @Extension(value = "AuthFilter", order = InboundFilter.ORDER_AUTH)
 @ConditionalOnFlowControlEnabled
-public class AuthFilter implements InboundFilter {
+public class AuthFilter implements InboundFilter, PolicyFilter {
 
     @Inject
     private Map<String, Authenticate> authenticates;
 
+    @Override
+    public boolean isApplicable(ServicePolicy policy) {
+        AuthPolicy authPolicy = policy == null ? null : policy.getAuthPolicy();
+        return authPolicy != null && authPolicy.getType() != null;
+    }
+
     @Override
     public <T extends InboundRequest> CompletionStage<Object> filter(InboundInvocation<T> invocation, InboundFilterChain chain) {
         ServicePolicy servicePolicy = invocation.getServiceMetadata().getServicePolicy();
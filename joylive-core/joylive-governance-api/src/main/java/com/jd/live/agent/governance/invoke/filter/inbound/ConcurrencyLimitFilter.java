@@ -26,6 +26,7 @@ import com.jd.live.agent.governance.invoke.concurrencylimit.ConcurrencyLimiter;
 import com.jd.live.agent.governance.invoke.concurrencylimit.ConcurrencyLimiterFactory;
 import com.jd.live.agent.governance.invoke.filter.InboundFilter;
 import com.jd.live.agent.governance.invoke.filter.InboundFilterChain;
+import com.jd.live.agent.governance.invoke.filter.PolicyFilter;
 import com.jd.live.agent.governance.policy.live.FaultType;
 import com.jd.live.agent.governance.policy.service.ServicePolicy;
 import com.jd.live.agent.governance.policy.service.limit.ConcurrencyLimitPolicy;
@@ -44,7 +45,7 @@ import java.util.concurrent.CompletionStage;
 @Injectable
 @Extension(value = "ConcurrencyLimitFilter", order = InboundFilter.ORDER_CONCURRENCY_LIMITER)
 @ConditionalOnFlowControlEnabled
-public class ConcurrencyLimitFilter implements InboundFilter, ExtensionInitializer {
+public class ConcurrencyLimitFilter implements InboundFilter, PolicyFilter, ExtensionInitializer {
 
     @Inject
     private Map<String, ConcurrencyLimiterFactory> factories;
@@ -62,6 +63,12 @@ public class ConcurrencyLimitFilter implements InboundFilter, ExtensionInitializ
         defaultType = governanceConfig.getServiceConfig().getConcurrencyLimiter().getType();
     }
 
+    @Override
+    public boolean isApplicable(ServicePolicy policy) {
+        List<ConcurrencyLimitPolicy> policies = policy == null ? null : policy.getConcurrencyLimitPolicies();
+        return policies != null && !policies.isEmpty();
+    }
+
     @Override
     public <T extends InboundRequest> CompletionStage<Object> filter(InboundInvocation<T> invocation, InboundFilterChain chain) {
         ServicePolicy servicePolicy = invocation.getServiceMetadata().getServicePolicy();
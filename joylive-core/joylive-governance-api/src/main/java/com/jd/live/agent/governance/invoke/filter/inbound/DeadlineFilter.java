@@ -0,0 +1,53 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.filter.inbound;
+
+import com.jd.live.agent.core.extension.annotation.Extension;
+import com.jd.live.agent.core.inject.annotation.Injectable;
+import com.jd.live.agent.governance.annotation.ConditionalOnGovernanceEnabled;
+import com.jd.live.agent.governance.context.RequestContext;
+import com.jd.live.agent.governance.invoke.InboundInvocation;
+import com.jd.live.agent.governance.invoke.filter.InboundFilter;
+import com.jd.live.agent.governance.invoke.filter.InboundFilterChain;
+import com.jd.live.agent.governance.policy.live.FaultType;
+import com.jd.live.agent.governance.request.ServiceRequest.InboundRequest;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * DeadlineFilter rejects the inbound requests whose deadline propagated by the caller is already exceeded,
+ * because the caller has abandoned them.
+ *
+ * @since 1.6.0
+ */
+@Injectable
+@Extension(value = "DeadlineFilter", order = InboundFilter.ORDER_DEADLINE)
+@ConditionalOnGovernanceEnabled
+public class DeadlineFilter implements InboundFilter {
+
+    @Override
+    public <T extends InboundRequest> CompletionStage<Object> filter(InboundInvocation<T> invocation, InboundFilterChain chain) {
+        long deadline = RequestContext.getDeadline();
+        if (deadline > 0) {
+            long now = System.currentTimeMillis();
+            if (now > deadline) {
+                invocation.reject(FaultType.DEADLINE, "The request is rejected because its deadline is exceeded by "
+                        + (now - deadline) + "ms.");
+            }
+        }
+        return chain.filter(invocation);
+    }
+}
@@ -21,6 +21,7 @@ import com.jd.live.agent.governance.annotation.ConditionalOnFlowControlEnabled;
 import com.jd.live.agent.governance.invoke.InboundInvocation;
 import com.jd.live.agent.governance.invoke.filter.InboundFilter;
 import com.jd.live.agent.governance.invoke.filter.InboundFilterChain;
+import com.jd.live.agent.governance.invoke.filter.PolicyFilter;
 import com.jd.live.agent.governance.policy.live.FaultType;
 import com.jd.live.agent.governance.policy.service.ServicePolicy;
 import com.jd.live.agent.governance.policy.service.auth.AllowResult;
@@ -38,7 +39,13 @@ import java.util.concurrent.CompletionStage;
 @Injectable
 @Extension(value = "PermissionFilter", order = InboundFilter.ORDER_PERMISSION)
 @ConditionalOnFlowControlEnabled
-public class PermissionFilter implements InboundFilter {
+public class PermissionFilter implements InboundFilter, PolicyFilter {
+
+    @Override
+    public boolean isApplicable(ServicePolicy policy) {
+        List<PermissionPolicy> policies = policy == null ? null : policy.getPermissionPolicies();
+        return policies != null && !policies.isEmpty();
+    }
 
     @Override
     public <T extends InboundRequest> CompletionStage<Object> filter(InboundInvocation<T> invocation, InboundFilterChain chain) {
@@ -24,6 +24,7 @@ import com.jd.live.agent.governance.config.GovernanceConfig;
 import com.jd.live.agent.governance.invoke.InboundInvocation;
 import com.jd.live.agent.governance.invoke.filter.InboundFilter;
 import com.jd.live.agent.governance.invoke.filter.InboundFilterChain;
+import com.jd.live.agent.governance.invoke.filter.PolicyFilter;
 import com.jd.live.agent.governance.invoke.ratelimit.RateLimiter;
 import com.jd.live.agent.governance.invoke.ratelimit.RateLimiterFactory;
 import com.jd.live.agent.governance.policy.live.FaultType;
@@ -41,7 +42,7 @@ import java.util.concurrent.CompletionStage;
 @Injectable
 @Extension(value = "RateLimitFilter", order = InboundFilter.ORDER_RATE_LIMITER)
 @ConditionalOnFlowControlEnabled
-public class RateLimitFilter implements InboundFilter, ExtensionInitializer {
+public class RateLimitFilter implements InboundFilter, PolicyFilter, ExtensionInitializer {
 
     @Inject
     private Map<String, RateLimiterFactory> factories;
@@ -59,6 +60,12 @@ public class RateLimitFilter implements InboundFilter, ExtensionInitializer {
         defaultType = governanceConfig.getServiceConfig().getRateLimiter().getType();
     }
 
+    @Override
+    public boolean isApplicable(ServicePolicy policy) {
+        List<RateLimitPolicy> policies = policy == null ? null : policy.getRateLimitPolicies();
+        return policies != null && !policies.isEmpty();
+    }
+
     @Override
     public <T extends InboundRequest> CompletionStage<Object> filter(InboundInvocation<T> invocation, InboundFilterChain chain) {
         ServicePolicy servicePolicy = invocation.getServiceMetadata().getServicePolicy();
@@ -24,6 +24,7 @@ import com.jd.live.agent.governance.invoke.OutboundInvocation;
 import com.jd.live.agent.governance.invoke.auth.Authenticate;
 import com.jd.live.agent.governance.invoke.filter.OutboundFilter;
 import com.jd.live.agent.governance.invoke.filter.OutboundFilterChain;
+import com.jd.live.agent.governance.invoke.filter.PolicyFilter;
 import com.jd.live.agent.governance.policy.service.ServicePolicy;
 import com.jd.live.agent.governance.policy.service.auth.AuthPolicy;
 import com.jd.live.agent.governance.request.ServiceRequest.OutboundRequest;
@@ -43,11 +44,17 @@ import java.util.concurrent.CompletionStage;
 @Injectable
 @Extension(value = "AuthFilter", order = OutboundFilter.ORDER_AUTH)
 @ConditionalOnFlowControlEnabled
-public class AuthFilter implements OutboundFilter {
+public class AuthFilter implements OutboundFilter, PolicyFilter {
 
     @Inject
     private Map<String, Authenticate> authenticates;
 
+    @Override
+    public boolean isApplicable(ServicePolicy policy) {
+        AuthPolicy authPolicy = policy == null ? null : policy.getAuthPolicy();
+        return authPolicy != null && authPolicy.getType() != null;
+    }
+
     @Override
     public <R extends OutboundRequest,
             O extends OutboundResponse,
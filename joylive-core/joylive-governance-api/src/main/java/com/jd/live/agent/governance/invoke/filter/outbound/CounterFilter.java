@@ -17,13 +17,19 @@ package com.jd.live.agent.governance.invoke.filter.outbound;
 
 import com.jd.live.agent.core.extension.annotation.Extension;
 import com.jd.live.agent.core.util.Futures;
+import com.jd.live.agent.core.util.URI;
 import com.jd.live.agent.governance.annotation.ConditionalOnFlowControlEnabled;
 import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.invoke.InvocationContext;
 import com.jd.live.agent.governance.invoke.OutboundInvocation;
 import com.jd.live.agent.governance.invoke.counter.Counter;
+import com.jd.live.agent.governance.invoke.counter.EndpointCounter;
+import com.jd.live.agent.governance.invoke.counter.ServiceCounter;
 import com.jd.live.agent.governance.invoke.filter.OutboundFilter;
 import com.jd.live.agent.governance.invoke.filter.OutboundFilterChain;
 import com.jd.live.agent.governance.policy.live.FaultType;
+import com.jd.live.agent.governance.policy.service.ServicePolicy;
+import com.jd.live.agent.governance.policy.service.outlier.OutlierPolicy;
 import com.jd.live.agent.governance.request.ServiceRequest.OutboundRequest;
 import com.jd.live.agent.governance.response.ServiceResponse.OutboundResponse;
 
@@ -43,7 +49,8 @@ public class CounterFilter implements OutboundFilter {
     public <R extends OutboundRequest,
             O extends OutboundResponse,
             E extends Endpoint> CompletionStage<O> filter(OutboundInvocation<R> invocation, E endpoint, OutboundFilterChain chain) {
-        Counter counter = endpoint == null ? null : endpoint.getAttribute(Endpoint.ATTRIBUTE_COUNTER);
+        Counter bound = endpoint == null ? null : invocation.getRequest().removeAttribute(Endpoint.ATTRIBUTE_COUNTER);
+        Counter counter = bound == null && endpoint != null ? getOutlierCounter(invocation, endpoint) : bound;
         if (counter != null) {
             counter.getService().tryClean(invocation.getInstances());
             if (!counter.begin(0)) {
@@ -53,7 +60,7 @@ public class CounterFilter implements OutboundFilter {
             CompletionStage<O> stage = chain.filter(invocation, endpoint);
             return stage.whenComplete((o, r) -> {
                 long elapsed = System.currentTimeMillis() - startTime;
-                if (r == null) {
+                if (r == null && (o == null || o.isSuccess())) {
                     counter.success(elapsed);
                 } else {
                     counter.fail(elapsed);
@@ -65,4 +72,27 @@ public class CounterFilter implements OutboundFilter {
 
     }
 
+    /**
+     * Returns the counter of the endpoint when the service has an outlier policy, and watches the service
+     * in the outlier detector.
+     *
+     * @param invocation the outbound invocation
+     * @param endpoint   the endpoint
+     * @return the counter of the endpoint, or null if the service has no outlier policy
+     */
+    private Counter getOutlierCounter(OutboundInvocation<?> invocation, Endpoint endpoint) {
+        ServicePolicy policy = invocation.getServiceMetadata().getServicePolicy();
+        OutlierPolicy outlierPolicy = policy == null ? null : policy.getOutlierPolicy();
+        if (outlierPolicy == null) {
+            return null;
+        }
+        InvocationContext context = invocation.getContext();
+        URI uri = invocation.getServiceMetadata().getUri();
+        ServiceCounter serviceCounter = context.getCounterManager().getOrCreate(uri);
+        context.getOutlierDetector().watch(serviceCounter, outlierPolicy);
+        EndpointCounter endpointCounter = serviceCounter.getOrCreate(endpoint.getId());
+        endpointCounter.setAccessTime(System.currentTimeMillis());
+        return endpointCounter.getOrCreate(uri);
+    }
+
 }
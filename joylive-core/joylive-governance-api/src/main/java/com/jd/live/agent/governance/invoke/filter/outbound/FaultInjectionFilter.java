@@ -24,6 +24,7 @@ import com.jd.live.agent.governance.invoke.OutboundInvocation;
 import com.jd.live.agent.governance.invoke.fault.FaultInjection;
 import com.jd.live.agent.governance.invoke.filter.OutboundFilter;
 import com.jd.live.agent.governance.invoke.filter.OutboundFilterChain;
+import com.jd.live.agent.governance.invoke.filter.PolicyFilter;
 import com.jd.live.agent.governance.policy.service.ServicePolicy;
 import com.jd.live.agent.governance.policy.service.fault.FaultInjectionPolicy;
 import com.jd.live.agent.governance.request.ServiceRequest.OutboundRequest;
@@ -42,11 +43,17 @@ import java.util.concurrent.CompletionStage;
 @Injectable
 @Extension(value = "FaultInjectionFilter", order = OutboundFilter.ORDER_FAULT_INJECTION)
 @ConditionalOnFlowControlEnabled
-public class FaultInjectionFilter implements OutboundFilter {
+public class FaultInjectionFilter implements OutboundFilter, PolicyFilter {
 
     @Inject
     private Map<String, FaultInjection> faultInjections;
 
+    @Override
+    public boolean isApplicable(ServicePolicy policy) {
+        List<FaultInjectionPolicy> policies = policy == null ? null : policy.getFaultInjectionPolicies();
+        return policies != null && !policies.isEmpty();
+    }
+
     @Override
     public <R extends OutboundRequest,
             O extends OutboundResponse,
@@ -28,13 +28,12 @@ import com.jd.live.agent.governance.exception.ErrorCause;
 import com.jd.live.agent.governance.instance.Endpoint;
 import com.jd.live.agent.governance.invoke.OutboundInvocation;
 import com.jd.live.agent.governance.invoke.OutboundListener;
-import com.jd.live.agent.governance.invoke.RouteTarget;
 import com.jd.live.agent.governance.invoke.circuitbreak.CircuitBreaker;
 import com.jd.live.agent.governance.invoke.circuitbreak.CircuitBreakerFactory;
+import com.jd.live.agent.governance.invoke.filter.PolicyFilter;
 import com.jd.live.agent.governance.invoke.filter.RouteFilter;
 import com.jd.live.agent.governance.invoke.filter.RouteFilterChain;
 import com.jd.live.agent.governance.invoke.metadata.ServiceMetadata;
-import com.jd.live.agent.governance.policy.PolicyId;
 import com.jd.live.agent.governance.policy.live.FaultType;
 import com.jd.live.agent.governance.policy.service.ServicePolicy;
 import com.jd.live.agent.governance.policy.service.circuitbreak.*;
@@ -59,7 +58,7 @@ import static com.jd.live.agent.governance.util.Predicates.isError;
 @Injectable
 @Extension(value = "CircuitBreakerFilter", order = RouteFilter.ORDER_CIRCUIT_BREAKER)
 @ConditionalOnFlowControlEnabled
-public class CircuitBreakerFilter implements RouteFilter, ExtensionInitializer {
+public class CircuitBreakerFilter implements RouteFilter, PolicyFilter, ExtensionInitializer {
 
     @Inject
     private Map<String, CircuitBreakerFactory> factories;
@@ -80,6 +79,12 @@ public class CircuitBreakerFilter implements RouteFilter, ExtensionInitializer {
         defaultType = governanceConfig.getServiceConfig().getCircuitBreaker().getType();
     }
 
+    @Override
+    public boolean isApplicable(ServicePolicy policy) {
+        List<CircuitBreakPolicy> policies = policy == null ? null : policy.getCircuitBreakPolicies();
+        return policies != null && !policies.isEmpty();
+    }
+
     @Override
     public <T extends OutboundRequest> void filter(OutboundInvocation<T> invocation, RouteFilterChain chain) {
         ServiceMetadata metadata = invocation.getServiceMetadata();
@@ -96,8 +101,7 @@ public class CircuitBreakerFilter implements RouteFilter, ExtensionInitializer {
                         addCircuitBreaker(breakers, policy, policy.getUri());
                         break;
                     case API:
-                        URI api = policy.getUri().path(metadata.getPath()).parameter(PolicyId.KEY_SERVICE_METHOD, metadata.getMethod());
-                        addCircuitBreaker(breakers, policy, api);
+                        addCircuitBreaker(breakers, policy, policy.getUri(metadata.getPath(), metadata.getMethod()));
                         break;
                     default:
                         instancePolicies = addPolicy(policy, instancePolicies);
@@ -137,9 +141,18 @@ public class CircuitBreakerFilter implements RouteFilter, ExtensionInitializer {
     private <T extends OutboundRequest> void filterHealthy(OutboundInvocation<T> invocation,
                                                            List<CircuitBreakPolicy> policies) {
         if (policies != null && !policies.isEmpty()) {
-            RouteTarget target = invocation.getRouteTarget();
-            long now = System.currentTimeMillis();
-            target.filter(endpoint -> isHealthy(endpoint, policies, now));
+            List<CircuitBreakPolicy> inspects = null;
+            for (CircuitBreakPolicy policy : policies) {
+                if (policy.hasInspector()) {
+                    inspects = addPolicy(policy, inspects);
+                }
+            }
+            if (inspects != null) {
+                // only walk the endpoints when some instance is broken or recovering.
+                List<CircuitBreakPolicy> candidates = inspects;
+                long now = System.currentTimeMillis();
+                invocation.filterAvailable(endpoint -> isHealthy(endpoint, candidates, now));
+            }
         }
     }
 
@@ -177,9 +190,8 @@ public class CircuitBreakerFilter implements RouteFilter, ExtensionInitializer {
                 }
             }
         }
-        if (minRatio != null) {
-            endpoint.setWeightRatio(minRatio);
-        }
+        // clear the ratio of the recovered endpoint, which may be shared by the requests.
+        endpoint.setWeightRatio(minRatio);
         return true;
     }
 
@@ -351,9 +363,8 @@ public class CircuitBreakerFilter implements RouteFilter, ExtensionInitializer {
         public boolean onElect(Endpoint endpoint, OutboundInvocation<?> invocation) {
             if (endpoint != null && policies != null && !policies.isEmpty()) {
                 for (CircuitBreakPolicy policy : policies) {
-                    URI uri = policy.getUri().parameter(PolicyId.KEY_SERVICE_ENDPOINT, endpoint.getId());
                     // The circuit breaker, if in a healthy state and not accessed for 1 minute, will be recycled.
-                    CircuitBreaker breaker = factory.get(policy, uri);
+                    CircuitBreaker breaker = factory.get(policy, policy.getUri(endpoint.getId()));
                     if (breaker != null) {
                         // append instance circuit breaker
                         circuitBreakers.add(breaker);
@@ -17,17 +17,28 @@ package com.jd.live.agent.governance.invoke.filter.route;
 
 import com.jd.live.agent.core.extension.annotation.Extension;
 import com.jd.live.agent.governance.annotation.ConditionalOnFlowControlEnabled;
+import com.jd.live.agent.governance.config.GovernanceConfig;
+import com.jd.live.agent.governance.config.HealthCheckConfig;
+import com.jd.live.agent.governance.config.RegistryConfig;
 import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.instance.health.HealthIndex;
+import com.jd.live.agent.governance.invoke.InvocationContext;
 import com.jd.live.agent.governance.invoke.OutboundInvocation;
-import com.jd.live.agent.governance.invoke.RouteTarget;
+import com.jd.live.agent.governance.invoke.counter.ServiceCounter;
 import com.jd.live.agent.governance.invoke.filter.RouteFilter;
 import com.jd.live.agent.governance.invoke.filter.RouteFilterChain;
+import com.jd.live.agent.governance.invoke.outlier.OutlierEjection;
+import com.jd.live.agent.governance.policy.service.ServicePolicy;
 import com.jd.live.agent.governance.request.ServiceRequest.OutboundRequest;
 
+import java.util.List;
+
 /**
  * A filter that removes unhealthy instances from the list of route targets. This filter
  * is applied during the routing process to ensure that only instances in a healthy or
- * acceptable state are considered for routing requests.
+ * acceptable state are considered for routing requests. The endpoints ejected by the
+ * outlier detector or marked as unhealthy by the active health checking are removed as well,
+ * unless the healthy fraction falls below the panic threshold of the health checking.
  *
  * @since 1.0.0
  */
@@ -37,8 +48,59 @@ public class HealthyFilter implements RouteFilter {
 
     @Override
     public <T extends OutboundRequest> void filter(OutboundInvocation<T> invocation, RouteFilterChain chain) {
-        RouteTarget target = invocation.getRouteTarget();
-        target.filter(Endpoint::isAccessible);
+        OutlierEjection ejection = getEjection(invocation);
+        HealthIndex healthIndex = invocation.getContext().getHealthIndex();
+        if (healthIndex != null && !healthIndex.isEmpty() && !isPanic(invocation, healthIndex)) {
+            invocation.filterAvailable(healthIndex::isHealthy);
+        }
+        if (ejection == null || ejection.isEmpty()) {
+            invocation.filterAvailable(Endpoint::isAccessible);
+        } else {
+            invocation.filterAvailable(e -> e.isAccessible() && !ejection.isEjected(e.getId()));
+        }
         chain.filter(invocation);
     }
+
+    /**
+     * Checks whether the healthy fraction of the endpoints is below the panic threshold, in which case the
+     * active health checking results are ignored and the endpoints fail open.
+     *
+     * @param invocation  the outbound invocation
+     * @param healthIndex the health index
+     * @return true if the health checking results should be ignored
+     */
+    private boolean isPanic(OutboundInvocation<?> invocation, HealthIndex healthIndex) {
+        GovernanceConfig governanceConfig = invocation.getContext().getGovernanceConfig();
+        RegistryConfig registryConfig = governanceConfig == null ? null : governanceConfig.getRegistryConfig();
+        HealthCheckConfig config = registryConfig == null ? null : registryConfig.getHealthCheckConfig();
+        double threshold = config == null ? 0 : config.getPanicThreshold();
+        List<? extends Endpoint> endpoints = invocation.getRouteTarget().getEndpoints();
+        int size = endpoints.size();
+        if (threshold <= 0 || size == 0) {
+            return false;
+        }
+        int healthy = 0;
+        for (Endpoint endpoint : endpoints) {
+            if (healthIndex.isHealthy(endpoint)) {
+                healthy++;
+            }
+        }
+        return healthy < size * threshold;
+    }
+
+    /**
+     * Returns the endpoints ejected by the outlier detector.
+     *
+     * @param invocation the outbound invocation
+     * @return the ejected endpoints, or null if the service is not watched by the outlier detector
+     */
+    private OutlierEjection getEjection(OutboundInvocation<?> invocation) {
+        ServicePolicy policy = invocation.getServiceMetadata().getServicePolicy();
+        if (policy == null || policy.getOutlierPolicy() == null) {
+            return null;
+        }
+        InvocationContext context = invocation.getContext();
+        ServiceCounter counter = context.getCounterManager().get(invocation.getServiceMetadata().getUri());
+        return counter == null ? null : context.getOutlierDetector().getEjection(counter.getName());
+    }
 }
@@ -0,0 +1,238 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.filter.route;
+
+import com.jd.live.agent.core.extension.annotation.Extension;
+import com.jd.live.agent.core.instance.Location;
+import com.jd.live.agent.core.util.URI;
+import com.jd.live.agent.governance.annotation.ConditionalOnFlowControlEnabled;
+import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.invoke.OutboundInvocation;
+import com.jd.live.agent.governance.invoke.RouteTarget;
+import com.jd.live.agent.governance.invoke.counter.EndpointCounter;
+import com.jd.live.agent.governance.invoke.counter.ServiceCounter;
+import com.jd.live.agent.governance.invoke.filter.PolicyFilter;
+import com.jd.live.agent.governance.invoke.filter.RouteFilter;
+import com.jd.live.agent.governance.invoke.filter.RouteFilterChain;
+import com.jd.live.agent.governance.policy.service.ServicePolicy;
+import com.jd.live.agent.governance.policy.service.locality.LocalityPolicy;
+import com.jd.live.agent.governance.request.ServiceRequest.OutboundRequest;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.jd.live.agent.core.util.StringUtils.isEmpty;
+
+/**
+ * LocalityFilter prefers the endpoints in the caller's zone, then the ones in the caller's region.
+ * <p>
+ * When the available endpoints of a locality fall below the configured fraction of its endpoints,
+ * the traffic is proportionally spilled to the next locality instead of being switched at once.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+@Extension(value = "LocalityFilter", order = RouteFilter.ORDER_LOCALITY)
+@ConditionalOnFlowControlEnabled
+public class LocalityFilter implements RouteFilter, PolicyFilter {
+
+    private static final int ZONE = 0;
+
+    private static final int REGION = 1;
+
+    private static final int REMOTE = 2;
+
+    @Override
+    public boolean isApplicable(ServicePolicy policy) {
+        return policy != null && policy.getLocalityPolicy() != null;
+    }
+
+    @Override
+    public <T extends OutboundRequest> void filter(OutboundInvocation<T> invocation, RouteFilterChain chain) {
+        RouteTarget target = invocation.getRouteTarget();
+        ServicePolicy servicePolicy = invocation.getServiceMetadata().getServicePolicy();
+        LocalityPolicy policy = servicePolicy == null ? null : servicePolicy.getLocalityPolicy();
+        Location location = invocation.getContext().getLocation();
+        Locality locality = policy == null || location == null || target.isEmpty() ? null : Locality.of(location, policy);
+        if (locality != null) {
+            int[] totals = new int[3];
+            int[] availables = count(invocation, locality, policy, totals);
+            if (totals[ZONE] + totals[REGION] > 0) {
+                int tier = choose(totals, availables, policy.getThresholdOrDefault());
+                if (tier >= 0) {
+                    target.filter(e -> locality.getTier(e) == tier);
+                }
+            }
+        }
+        chain.filter(invocation);
+    }
+
+    /**
+     * Counts the endpoints of each locality in the candidates of the route target.
+     * <p>
+     * The candidates are the endpoints of the route target, which have been filtered by the health and circuit
+     * breaker filters, and by the unit, lane and cell filters. They're all counted in the totals, together with
+     * the unavailable endpoints removed by the health and circuit breaker filters which are in the same unit,
+     * cell and lane as the candidates. When the load factor is greater than 1, the candidates whose active
+     * requests exceed the factor times the average are not counted as available.
+     * </p>
+     *
+     * @param invocation the outbound invocation
+     * @param locality   the locality of the caller
+     * @param policy     the locality policy
+     * @param totals     the endpoints of each locality to be counted
+     * @return the available endpoints of each locality
+     */
+    private int[] count(OutboundInvocation<?> invocation, Locality locality, LocalityPolicy policy, int[] totals) {
+        List<? extends Endpoint> endpoints = invocation.getRouteTarget().getEndpoints();
+        int size = endpoints.size();
+        int[] result = new int[3];
+        for (Endpoint endpoint : endpoints) {
+            totals[locality.getTier(endpoint)]++;
+        }
+        List<Endpoint> unavailables = invocation.getUnavailables();
+        if (unavailables != null && !unavailables.isEmpty()) {
+            Set<String> partitions = new HashSet<>();
+            for (Endpoint endpoint : endpoints) {
+                partitions.add(getPartition(endpoint));
+            }
+            for (Endpoint endpoint : unavailables) {
+                if (partitions.contains(getPartition(endpoint))) {
+                    totals[locality.getTier(endpoint)]++;
+                }
+            }
+        }
+        Double loadFactor = policy.getLoadFactor();
+        if (loadFactor == null || loadFactor <= 1 || size <= 1) {
+            for (Endpoint endpoint : endpoints) {
+                result[locality.getTier(endpoint)]++;
+            }
+            return result;
+        }
+        URI uri = invocation.getServiceMetadata().getUri();
+        ServiceCounter serviceCounter = invocation.getContext().getCounterManager().getOrCreate(uri);
+        long accessTime = System.currentTimeMillis();
+        long[] actives = new long[size];
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            EndpointCounter counter = serviceCounter.getOrCreate(endpoints.get(i).getId());
+            counter.setAccessTime(accessTime);
+            actives[i] = counter.getOrCreate(uri).getActive();
+            total += actives[i];
+        }
+        double limit = loadFactor * total / size + 1;
+        for (int i = 0; i < size; i++) {
+            if (actives[i] <= limit) {
+                result[locality.getTier(endpoints.get(i))]++;
+            }
+        }
+        return result;
+    }
+
+    private static String getPartition(Endpoint endpoint) {
+        return endpoint.getUnit() + "/" + endpoint.getCell() + "/" + endpoint.getLane();
+    }
+
+    /**
+     * Chooses a locality. The zone takes its healthy fraction of the traffic, the region takes its
+     * healthy fraction of the rest, and the remote endpoints take what is left.
+     *
+     * @param totals     the endpoints of each locality
+     * @param availables the available endpoints of each locality
+     * @param threshold  the healthy fraction below which the traffic is spilled
+     * @return the chosen locality, or -1 if there is no available endpoint
+     */
+    protected static int choose(int[] totals, int[] availables, double threshold) {
+        double[] shares = new double[3];
+        double remain = 1;
+        for (int i = ZONE; i < REMOTE; i++) {
+            int total = totals[i];
+            double health = total == 0 ? 0 : Math.min(1, availables[i] / (total * threshold));
+            shares[i] = remain * health;
+            remain -= shares[i];
+        }
+        shares[REMOTE] = remain;
+        double sum = 0;
+        for (int i = ZONE; i <= REMOTE; i++) {
+            if (availables[i] == 0) {
+                shares[i] = 0;
+            }
+            sum += shares[i];
+        }
+        if (sum <= 0) {
+            return -1;
+        }
+        double random = ThreadLocalRandom.current().nextDouble() * sum;
+        for (int i = ZONE; i < REMOTE; i++) {
+            random -= shares[i];
+            if (random < 0 && shares[i] > 0) {
+                return i;
+            }
+        }
+        return shares[REMOTE] > 0 ? REMOTE : (shares[REGION] > 0 ? REGION : ZONE);
+    }
+
+    /**
+     * The locality of the caller.
+     */
+    protected static class Locality {
+
+        private final String zone;
+
+        private final String region;
+
+        private final boolean regionPreferred;
+
+        Locality(String zone, String region, boolean regionPreferred) {
+            this.zone = zone;
+            this.region = region;
+            this.regionPreferred = regionPreferred;
+        }
+
+        /**
+         * Returns the locality of the endpoint. The zone names may be reused in different regions,
+         * so the endpoint is in the caller's zone only if it's also in the caller's region.
+         *
+         * @param endpoint the endpoint
+         * @return the locality of the endpoint
+         */
+        public int getTier(Endpoint endpoint) {
+            boolean sameRegion = region != null && region.equals(endpoint.getRegion());
+            if (zone != null && zone.equals(endpoint.getZone()) && (region == null || sameRegion)) {
+                return ZONE;
+            } else if (regionPreferred && sameRegion) {
+                return REGION;
+            }
+            return REMOTE;
+        }
+
+        /**
+         * Returns the locality of the caller.
+         *
+         * @param location the location of the caller
+         * @param policy   the locality policy
+         * @return the locality, or null if the caller has no zone or preferred region
+         */
+        public static Locality of(Location location, LocalityPolicy policy) {
+            String zone = isEmpty(location.getZone()) ? null : location.getZone();
+            String region = isEmpty(location.getRegion()) ? null : location.getRegion();
+            boolean regionPreferred = policy.isRegionPreferred() && region != null;
+            return zone == null && !regionPreferred ? null : new Locality(zone, region, regionPreferred);
+        }
+    }
+}
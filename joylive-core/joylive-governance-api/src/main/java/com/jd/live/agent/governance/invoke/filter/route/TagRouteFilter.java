@@ -17,12 +17,14 @@ package com.jd.live.agent.governance.invoke.filter.route;
 
 import com.jd.live.agent.core.extension.annotation.Extension;
 import com.jd.live.agent.core.inject.annotation.Injectable;
+import com.jd.live.agent.core.util.cache.WeakCache;
 import com.jd.live.agent.governance.annotation.ConditionalOnFlowControlEnabled;
 import com.jd.live.agent.governance.invoke.OutboundInvocation;
 import com.jd.live.agent.governance.invoke.RouteTarget;
+import com.jd.live.agent.governance.invoke.filter.PolicyFilter;
 import com.jd.live.agent.governance.invoke.filter.RouteFilter;
 import com.jd.live.agent.governance.invoke.filter.RouteFilterChain;
-import com.jd.live.agent.governance.invoke.loadbalance.randomweight.RandomWeight;
+import com.jd.live.agent.governance.invoke.loadbalance.randomweight.AliasTable;
 import com.jd.live.agent.governance.policy.service.ServicePolicy;
 import com.jd.live.agent.governance.policy.service.route.RoutePolicy;
 import com.jd.live.agent.governance.request.ServiceRequest.OutboundRequest;
@@ -42,7 +44,15 @@ import java.util.List;
 @Injectable
 @Extension(value = "TagRouteFilter", order = RouteFilter.ORDER_TAG_ROUTE)
 @ConditionalOnFlowControlEnabled
-public class TagRouteFilter implements RouteFilter {
+public class TagRouteFilter implements RouteFilter, PolicyFilter {
+
+    private final WeakCache<TagRule, AliasTable<TagDestination>> tables = new WeakCache<>(1024);
+
+    @Override
+    public boolean isApplicable(ServicePolicy policy) {
+        List<RoutePolicy> policies = policy == null ? null : policy.getRoutePolicies();
+        return policies != null && !policies.isEmpty();
+    }
 
     @Override
     public <T extends OutboundRequest> void filter(OutboundInvocation<T> invocation, RouteFilterChain chain) {
@@ -75,7 +85,7 @@ public class TagRouteFilter implements RouteFilter {
         RouteTarget target = invocation.getRouteTarget();
         for (TagRule rule : policy.getTagRules()) {
             if (rule.match(invocation)) {
-                TagDestination destination = RandomWeight.choose(rule.getDestinations(), TagDestination::getWeight);
+                TagDestination destination = getTable(rule).choose();
                 if (destination != null) {
                     target.filter(destination::match);
                 }
@@ -84,4 +94,20 @@ public class TagRouteFilter implements RouteFilter {
         }
         return false;
     }
+
+    /**
+     * Returns the alias table of the destinations, which is built once and reused until the destinations are replaced.
+     *
+     * @param rule the tag rule
+     * @return the alias table of the destinations
+     */
+    private AliasTable<TagDestination> getTable(TagRule rule) {
+        List<TagDestination> destinations = rule.getDestinations();
+        AliasTable<TagDestination> table = tables.get(rule);
+        if (table == null || !table.isBuiltFrom(destinations)) {
+            table = AliasTable.of(destinations, TagDestination::getWeight);
+            tables.put(rule, table);
+        }
+        return table;
+    }
 }
@@ -45,6 +45,21 @@ public interface LoadBalancer {
      */
     int ORDER_SHORTEST_RESPONSE = ORDER_ROUND_ROBIN + 1;
 
+    /**
+     * Order value for consistent hash strategy.
+     */
+    int ORDER_CONSISTENT_HASH = ORDER_SHORTEST_RESPONSE + 1;
+
+    /**
+     * Order value for maglev strategy.
+     */
+    int ORDER_MAGLEV = ORDER_CONSISTENT_HASH + 1;
+
+    /**
+     * Order value for rendezvous strategy.
+     */
+    int ORDER_RENDEZVOUS = ORDER_MAGLEV + 1;
+
     /**
      * Chooses an endpoint from the list based on the invocation.
      *
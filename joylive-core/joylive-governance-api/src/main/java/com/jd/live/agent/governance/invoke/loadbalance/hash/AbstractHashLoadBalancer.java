@@ -0,0 +1,306 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.loadbalance.hash;
+
+import com.jd.live.agent.core.util.URI;
+import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.invoke.Invocation;
+import com.jd.live.agent.governance.invoke.InvocationContext;
+import com.jd.live.agent.governance.invoke.counter.Counter;
+import com.jd.live.agent.governance.invoke.counter.EndpointCounter;
+import com.jd.live.agent.governance.invoke.counter.ServiceCounter;
+import com.jd.live.agent.governance.invoke.loadbalance.AbstractLoadBalancer;
+import com.jd.live.agent.governance.invoke.loadbalance.Candidate;
+import com.jd.live.agent.governance.invoke.loadbalance.randomweight.RandomWeight;
+import com.jd.live.agent.governance.invoke.metadata.ServiceMetadata;
+import com.jd.live.agent.governance.policy.service.ServicePolicy;
+import com.jd.live.agent.governance.policy.service.loadbalance.HashKey;
+import com.jd.live.agent.governance.policy.service.loadbalance.LoadBalancePolicy;
+import com.jd.live.agent.governance.policy.variable.VariableParser;
+import com.jd.live.agent.governance.policy.variable.VariableSource.ExpressionVariableSource;
+import com.jd.live.agent.governance.policy.variable.VariableSource.HttpVariableSource;
+import com.jd.live.agent.governance.policy.variable.VariableSource.MethodVariableSource;
+import com.jd.live.agent.governance.request.HttpRequest;
+import com.jd.live.agent.governance.request.RpcRequest;
+import com.jd.live.agent.governance.request.ServiceRequest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * An abstract load balancer which selects the endpoint by the hash of a request variable, so that the requests
+ * with the same key are routed to the same endpoint as long as the endpoints are not changed.
+ * <p>
+ * The hash key is parsed by the {@link VariableParser} according to the {@link HashKey} of the load balance
+ * policy. The requests without hash key are balanced by random weight.
+ * </p>
+ * <p>
+ * The lookup tables are built from the endpoints and their weights, and they're kept in the state of the load
+ * balance policy, or of the service when there is no policy, one for each of the recent endpoint sets. A table is
+ * rebuilt only when its weights change, and the weights are evaluated again every {@link #WEIGHT_REFRESH_MILLIS}
+ * to take warm-up into account.
+ * </p>
+ * <p>
+ * When the load factor of the policy is greater than 1, the selection is bounded by the active requests of the
+ * endpoints. An endpoint whose active requests reach {@code ceil(loadFactor * (total + 1) / n)} is skipped
+ * for the next one in the order of the table.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+public abstract class AbstractHashLoadBalancer extends AbstractLoadBalancer {
+
+    /**
+     * The interval to evaluate the weights again.
+     */
+    private static final long WEIGHT_REFRESH_MILLIS = 1000L;
+
+    /**
+     * A function that creates a new {@code HashState} instance.
+     */
+    private static final Function<Object, HashState> STATE_FUNC = s -> new HashState();
+
+    /**
+     * A map of states, keyed by load balance policy IDs.
+     */
+    private final Map<Long, HashState> policies = new ConcurrentHashMap<>();
+
+    /**
+     * A map of states, keyed by service names, for the services without load balance policy.
+     */
+    private final Map<String, HashState> services = new ConcurrentHashMap<>();
+
+    /**
+     * A global state.
+     */
+    private final HashState global = new HashState();
+
+    @Override
+    protected <T extends Endpoint> Candidate<T> doElect(List<T> endpoints, Invocation<?> invocation) {
+        ServiceMetadata metadata = invocation.getServiceMetadata();
+        ServicePolicy servicePolicy = metadata.getServicePolicy();
+        LoadBalancePolicy policy = servicePolicy == null ? null : servicePolicy.getLoadBalancePolicy();
+        ServiceRequest request = invocation.getRequest();
+        String key = getHashKey(invocation, policy == null ? null : policy.getHashKey());
+        if (key == null) {
+            return RandomWeight.elect(endpoints, e -> e.reweight(request));
+        }
+        HashTable table = getState(policy, metadata).getTable(endpoints, request, this::build);
+        long hash = HashTable.hash(key);
+        Double loadFactor = policy == null ? null : policy.getLoadFactor();
+        int index;
+        if (loadFactor == null || loadFactor <= 1) {
+            index = table.select(hash, null);
+        } else {
+            Counter[] counters = getCounters(endpoints, invocation);
+            long total = 0;
+            for (Counter counter : counters) {
+                total += counter.getActive();
+            }
+            long capacity = (long) Math.ceil(loadFactor * (total + 1) / counters.length);
+            index = table.select(hash, i -> counters[i].getActive() < capacity);
+            // the endpoint may be shared by concurrent requests, so the counter is bound to the request.
+            request.setAttribute(Endpoint.ATTRIBUTE_COUNTER, counters[index]);
+        }
+        return new Candidate<>(endpoints.get(index), index);
+    }
+
+    /**
+     * Builds the lookup table.
+     *
+     * @param ids     the ids of the endpoints
+     * @param weights the weights of the endpoints, at least one of them is positive
+     * @return the lookup table
+     */
+    protected abstract HashTable build(String[] ids, int[] weights);
+
+    /**
+     * Parses the hash key of the request.
+     *
+     * @param invocation the invocation
+     * @param hashKey    the source of the hash key
+     * @return the hash key, or null if it's not available
+     */
+    @SuppressWarnings("unchecked")
+    protected String getHashKey(Invocation<?> invocation, HashKey hashKey) {
+        if (hashKey == null) {
+            return null;
+        }
+        ServiceRequest request = invocation.getRequest();
+        InvocationContext context = invocation.getContext();
+        String result = null;
+        if (request instanceof HttpRequest) {
+            if (hashKey.getKey() != null && !hashKey.getKey().isEmpty()) {
+                VariableParser<HttpRequest, HttpVariableSource> parser =
+                        (VariableParser<HttpRequest, HttpVariableSource>) context.getVariableParser(VariableParser.TYPE_HTTP);
+                result = parser == null ? null : parser.parse((HttpRequest) request, hashKey);
+            }
+        } else if (request instanceof RpcRequest) {
+            if (hashKey.getExpression() != null && !hashKey.getExpression().isEmpty()) {
+                VariableParser<RpcRequest, ExpressionVariableSource> parser =
+                        (VariableParser<RpcRequest, ExpressionVariableSource>) context.getVariableParser(VariableParser.TYPE_EXPRESSION);
+                result = parser == null ? null : parser.parse((RpcRequest) request, hashKey);
+            } else if (hashKey.getArgument() >= 0) {
+                VariableParser<RpcRequest, MethodVariableSource> parser =
+                        (VariableParser<RpcRequest, MethodVariableSource>) context.getVariableParser(VariableParser.TYPE_METHOD);
+                result = parser == null ? null : parser.parse((RpcRequest) request, hashKey);
+            }
+        }
+        return result == null || result.isEmpty() ? null : result;
+    }
+
+    /**
+     * Returns the counters of the endpoints.
+     *
+     * @param endpoints  the endpoints
+     * @param invocation the invocation
+     * @return the counters
+     */
+    private Counter[] getCounters(List<? extends Endpoint> endpoints, Invocation<?> invocation) {
+        URI uri = invocation.getServiceMetadata().getUri();
+        ServiceCounter serviceCounter = invocation.getContext().getCounterManager().getOrCreate(uri);
+        long accessTime = System.currentTimeMillis();
+        Counter[] result = new Counter[endpoints.size()];
+        for (int i = 0; i < result.length; i++) {
+            EndpointCounter endpointCounter = serviceCounter.getOrCreate(endpoints.get(i).getId());
+            endpointCounter.setAccessTime(accessTime);
+            result[i] = endpointCounter.getOrCreate(uri);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the state of the load balance policy or service.
+     *
+     * @param policy   the load balance policy
+     * @param metadata the service metadata
+     * @return the state
+     */
+    private HashState getState(LoadBalancePolicy policy, ServiceMetadata metadata) {
+        Long policyId = policy == null ? null : policy.getId();
+        if (policyId != null) {
+            return policies.computeIfAbsent(policyId, STATE_FUNC);
+        }
+        String serviceName = metadata.getServiceName();
+        return serviceName == null ? global : services.computeIfAbsent(serviceName, STATE_FUNC);
+    }
+
+    /**
+     * The state of a hash load balancer, which keeps the lookup tables of the latest endpoint sets.
+     * <p>
+     * The endpoints are usually filtered by the route filters before load balancing, such as the unit, cell,
+     * lane or locality filters, so the requests of the same service come with different subsets. A small
+     * number of tables are kept, the most recently built one first, so that the subsets do not rebuild the
+     * table of each other.
+     * </p>
+     */
+    static class HashState {
+
+        private static final int MAX_TABLES = 8;
+
+        private static final HashTable[] EMPTY_TABLES = new HashTable[0];
+
+        private volatile HashTable[] tables = EMPTY_TABLES;
+
+        /**
+         * Returns the lookup table of the endpoints, and rebuilds it if the endpoints or their weights change.
+         *
+         * @param endpoints the endpoints
+         * @param request   the request to evaluate the weights
+         * @param builder   the builder of the table
+         * @return the lookup table
+         */
+        public HashTable getTable(List<? extends Endpoint> endpoints,
+                                  ServiceRequest request,
+                                  BiFunction<String[], int[], HashTable> builder) {
+            long now = System.currentTimeMillis();
+            HashTable current = find(tables, endpoints);
+            if (current != null && now < current.expireTime) {
+                return current;
+            }
+            synchronized (this) {
+                HashTable[] olds = tables;
+                current = find(olds, endpoints);
+                if (current != null && now < current.expireTime) {
+                    return current;
+                }
+                int size = endpoints.size();
+                String[] ids = new String[size];
+                int[] weights = new int[size];
+                boolean positive = false;
+                for (int i = 0; i < size; i++) {
+                    Endpoint endpoint = endpoints.get(i);
+                    Integer weight = endpoint.reweight(request);
+                    ids[i] = endpoint.getId();
+                    weights[i] = weight == null || weight < 0 ? 0 : weight;
+                    positive = positive || weights[i] > 0;
+                }
+                if (!positive) {
+                    Arrays.fill(weights, 1);
+                }
+                if (current == null || !Arrays.equals(weights, current.weights)) {
+                    HashTable table = builder.apply(ids, weights);
+                    tables = add(olds, current, table);
+                    current = table;
+                }
+                current.expireTime = now + WEIGHT_REFRESH_MILLIS;
+                return current;
+            }
+        }
+
+        /**
+         * Finds the table built from the endpoints.
+         *
+         * @param tables    the tables
+         * @param endpoints the endpoints
+         * @return the table, or null if it's not found
+         */
+        private static HashTable find(HashTable[] tables, List<? extends Endpoint> endpoints) {
+            for (HashTable table : tables) {
+                if (table.isBuiltFrom(endpoints)) {
+                    return table;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the new tables with the table in the first place, the replaced table or the least recently
+         * built table is removed.
+         *
+         * @param tables   the tables
+         * @param replaced the table to be replaced, or null
+         * @param table    the new table
+         * @return the new tables
+         */
+        private static HashTable[] add(HashTable[] tables, HashTable replaced, HashTable table) {
+            int size = replaced != null || tables.length < MAX_TABLES ? tables.length : tables.length - 1;
+            HashTable[] result = new HashTable[replaced == null ? size + 1 : size];
+            result[0] = table;
+            int index = 1;
+            for (int i = 0; i < tables.length && index < result.length; i++) {
+                if (tables[i] != replaced) {
+                    result[index++] = tables[i];
+                }
+            }
+            return result;
+        }
+    }
+}
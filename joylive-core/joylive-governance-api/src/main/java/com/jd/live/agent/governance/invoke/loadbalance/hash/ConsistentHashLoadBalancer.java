@@ -0,0 +1,113 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.loadbalance.hash;
+
+import com.jd.live.agent.core.extension.annotation.Extension;
+import com.jd.live.agent.governance.invoke.loadbalance.LoadBalancer;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * A consistent hash load balancer based on a hash ring with virtual nodes.
+ * <p>
+ * Every endpoint has up to {@link #VIRTUAL_NODES} virtual nodes in proportion to its weight. The selection
+ * is a binary search of the ring, which is O(log n).
+ * </p>
+ *
+ * @since 1.6.0
+ */
+@Extension(value = ConsistentHashLoadBalancer.LOAD_BALANCER_NAME, order = LoadBalancer.ORDER_CONSISTENT_HASH)
+public class ConsistentHashLoadBalancer extends AbstractHashLoadBalancer {
+
+    /**
+     * The name assigned to this load balancer.
+     */
+    public static final String LOAD_BALANCER_NAME = "CONSISTENT_HASH";
+
+    /**
+     * The number of the virtual nodes of the endpoint with the max weight.
+     */
+    public static final int VIRTUAL_NODES = 160;
+
+    @Override
+    protected HashTable build(String[] ids, int[] weights) {
+        return new Ring(ids, weights);
+    }
+
+    /**
+     * The hash ring.
+     */
+    private static class Ring extends HashTable {
+
+        private final long[] points;
+
+        private final int[] owners;
+
+        Ring(String[] ids, int[] weights) {
+            super(ids, weights);
+            int max = 0;
+            for (int weight : weights) {
+                max = Math.max(max, weight);
+            }
+            int[] replicas = new int[ids.length];
+            int total = 0;
+            for (int i = 0; i < ids.length; i++) {
+                replicas[i] = weights[i] <= 0 ? 0 : Math.max(1, (int) Math.round((double) VIRTUAL_NODES * weights[i] / max));
+                total += replicas[i];
+            }
+            long[] hashes = new long[total];
+            int[] indexes = new int[total];
+            int pos = 0;
+            for (int i = 0; i < ids.length; i++) {
+                long seed = hash(ids[i]);
+                for (int j = 0; j < replicas[i]; j++) {
+                    hashes[pos] = mix(seed + j * 0x9e3779b97f4a7c15L);
+                    indexes[pos++] = i;
+                }
+            }
+            Integer[] orders = new Integer[total];
+            for (int i = 0; i < total; i++) {
+                orders[i] = i;
+            }
+            Arrays.sort(orders, (a, b) -> Long.compare(hashes[a], hashes[b]));
+            points = new long[total];
+            owners = new int[total];
+            for (int i = 0; i < total; i++) {
+                points[i] = hashes[orders[i]];
+                owners[i] = indexes[orders[i]];
+            }
+        }
+
+        @Override
+        public int select(long hash, IntPredicate predicate) {
+            int pos = Arrays.binarySearch(points, hash);
+            pos = pos >= 0 ? pos : -pos - 1;
+            pos = pos == points.length ? 0 : pos;
+            int first = owners[pos];
+            if (predicate == null || predicate.test(first)) {
+                return first;
+            }
+            for (int i = 1; i < points.length; i++) {
+                int owner = owners[(pos + i) % points.length];
+                if (owner != first && predicate.test(owner)) {
+                    return owner;
+                }
+            }
+            return first;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.loadbalance.hash;
+
+import com.jd.live.agent.governance.instance.Endpoint;
+
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * An immutable lookup table of the hash load balancers, which is built from the ids and weights of the endpoints.
+ * The selected indexes are the indexes of the endpoints.
+ *
+ * @since 1.6.0
+ */
+public abstract class HashTable {
+
+    /**
+     * The ids of the endpoints.
+     */
+    protected final String[] ids;
+
+    /**
+     * The weights of the endpoints.
+     */
+    protected final int[] weights;
+
+    /**
+     * The time after which the weights are evaluated again.
+     */
+    volatile long expireTime;
+
+    protected HashTable(String[] ids, int[] weights) {
+        this.ids = ids;
+        this.weights = weights;
+    }
+
+    /**
+     * Selects the endpoint of the hash.
+     *
+     * @param hash      the hash of the key
+     * @param predicate the predicate to accept the endpoint, or null to accept any endpoint.
+     *                  If no endpoint is accepted, the first endpoint in the order of the table is returned.
+     * @return the index of the endpoint
+     */
+    public abstract int select(long hash, IntPredicate predicate);
+
+    /**
+     * Returns the number of the endpoints.
+     *
+     * @return the number of the endpoints
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Checks whether this table is built from the endpoints with the same ids in the same order.
+     *
+     * @param endpoints the endpoints
+     * @return true if it's built from the endpoints
+     */
+    public boolean isBuiltFrom(List<? extends Endpoint> endpoints) {
+        if (endpoints.size() != ids.length) {
+            return false;
+        }
+        for (int i = 0; i < ids.length; i++) {
+            String id = endpoints.get(i).getId();
+            if (id != ids[i] && (id == null || !id.equals(ids[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the 64-bit hash of the value.
+     *
+     * @param value the value
+     * @return the hash
+     */
+    public static long hash(String value) {
+        // FNV-1a, then mixed to spread the bits.
+        long h = 0xcbf29ce484222325L;
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+        }
+        return mix(h);
+    }
+
+    /**
+     * Mixes the bits of the value (the finalizer of MurmurHash3).
+     *
+     * @param value the value
+     * @return the mixed value
+     */
+    public static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+}
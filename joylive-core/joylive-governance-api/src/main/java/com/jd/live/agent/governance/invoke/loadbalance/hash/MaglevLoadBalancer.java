@@ -0,0 +1,128 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.loadbalance.hash;
+
+import com.jd.live.agent.core.extension.annotation.Extension;
+import com.jd.live.agent.governance.invoke.loadbalance.LoadBalancer;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * A consistent hash load balancer based on the Maglev lookup table.
+ * <p>
+ * The endpoints fill the slots of a prime sized table by their own permutations, taking turns in proportion to
+ * their weights. The selection is a single lookup, which is O(1).
+ * </p>
+ *
+ * @since 1.6.0
+ */
+@Extension(value = MaglevLoadBalancer.LOAD_BALANCER_NAME, order = LoadBalancer.ORDER_MAGLEV)
+public class MaglevLoadBalancer extends AbstractHashLoadBalancer {
+
+    /**
+     * The name assigned to this load balancer.
+     */
+    public static final String LOAD_BALANCER_NAME = "MAGLEV";
+
+    /**
+     * The candidate sizes of the table, which are primes.
+     */
+    private static final int[] SIZES = {251, 509, 1021, 2039, 4093, 8191, 16381, 32749, 65521, 131071};
+
+    /**
+     * The minimum number of slots for every endpoint.
+     */
+    private static final int SLOTS_PER_ENDPOINT = 100;
+
+    @Override
+    protected HashTable build(String[] ids, int[] weights) {
+        return new Maglev(ids, weights);
+    }
+
+    /**
+     * The Maglev lookup table.
+     */
+    private static class Maglev extends HashTable {
+
+        private final int[] slots;
+
+        Maglev(String[] ids, int[] weights) {
+            super(ids, weights);
+            int size = getSize(ids.length * SLOTS_PER_ENDPOINT);
+            int[] table = new int[size];
+            Arrays.fill(table, -1);
+            int count = ids.length;
+            long[] offsets = new long[count];
+            long[] skips = new long[count];
+            long[] nexts = new long[count];
+            double[] credits = new double[count];
+            int max = 0;
+            for (int i = 0; i < count; i++) {
+                long h = hash(ids[i]);
+                offsets[i] = (h >>> 1) % size;
+                skips[i] = (mix(h) >>> 1) % (size - 1) + 1;
+                max = Math.max(max, weights[i]);
+            }
+            int filled = 0;
+            while (filled < size) {
+                for (int i = 0; i < count && filled < size; i++) {
+                    if (weights[i] <= 0) {
+                        continue;
+                    }
+                    credits[i] += (double) weights[i] / max;
+                    while (credits[i] >= 1 && filled < size) {
+                        credits[i] -= 1;
+                        int slot = (int) ((offsets[i] + nexts[i] * skips[i]) % size);
+                        while (table[slot] >= 0) {
+                            nexts[i]++;
+                            slot = (int) ((offsets[i] + nexts[i] * skips[i]) % size);
+                        }
+                        table[slot] = i;
+                        nexts[i]++;
+                        filled++;
+                    }
+                }
+            }
+            this.slots = table;
+        }
+
+        @Override
+        public int select(long hash, IntPredicate predicate) {
+            int pos = (int) ((hash >>> 1) % slots.length);
+            int first = slots[pos];
+            if (predicate == null || predicate.test(first)) {
+                return first;
+            }
+            for (int i = 1; i < slots.length; i++) {
+                int owner = slots[(pos + i) % slots.length];
+                if (owner != first && predicate.test(owner)) {
+                    return owner;
+                }
+            }
+            return first;
+        }
+
+        private static int getSize(int expected) {
+            for (int size : SIZES) {
+                if (size >= expected) {
+                    return size;
+                }
+            }
+            return SIZES[SIZES.length - 1];
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.loadbalance.hash;
+
+import com.jd.live.agent.core.extension.annotation.Extension;
+import com.jd.live.agent.governance.invoke.loadbalance.LoadBalancer;
+
+import java.util.function.IntPredicate;
+
+/**
+ * A consistent hash load balancer based on the weighted rendezvous (highest random weight) hashing.
+ * <p>
+ * Every endpoint scores {@code -weight / ln(u)}, where {@code u} is the uniform hash of the key and the endpoint,
+ * and the endpoint with the highest score wins. It needs no table, and it moves the least keys when the endpoints
+ * change, at the cost of O(n) for every selection.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+@Extension(value = RendezvousLoadBalancer.LOAD_BALANCER_NAME, order = LoadBalancer.ORDER_RENDEZVOUS)
+public class RendezvousLoadBalancer extends AbstractHashLoadBalancer {
+
+    /**
+     * The name assigned to this load balancer.
+     */
+    public static final String LOAD_BALANCER_NAME = "RENDEZVOUS";
+
+    @Override
+    protected HashTable build(String[] ids, int[] weights) {
+        return new Rendezvous(ids, weights);
+    }
+
+    /**
+     * The seeds of the endpoints.
+     */
+    private static class Rendezvous extends HashTable {
+
+        private final long[] seeds;
+
+        Rendezvous(String[] ids, int[] weights) {
+            super(ids, weights);
+            seeds = new long[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                seeds[i] = hash(ids[i]);
+            }
+        }
+
+        @Override
+        public int select(long hash, IntPredicate predicate) {
+            int first = -1;
+            int accepted = -1;
+            double firstScore = 0;
+            double acceptedScore = 0;
+            for (int i = 0; i < seeds.length; i++) {
+                if (weights[i] <= 0) {
+                    continue;
+                }
+                // uniform in (0, 1)
+                double u = ((mix(hash ^ seeds[i]) >>> 11) + 0.5) / (1L << 53);
+                double score = -weights[i] / Math.log(u);
+                if (first < 0 || score > firstScore) {
+                    first = i;
+                    firstScore = score;
+                }
+                if (predicate != null && (accepted < 0 || score > acceptedScore) && predicate.test(i)) {
+                    accepted = i;
+                    acceptedScore = score;
+                }
+            }
+            return predicate == null || accepted < 0 ? first : accepted;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.loadbalance.randomweight;
+
+import com.jd.live.agent.governance.invoke.loadbalance.Candidate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * An immutable alias table (Vose's method) for weighted random selection in constant time.
+ * <p>
+ * The table is built in O(n) and should be reused as long as the targets and their weights do not change.
+ * When all weights are equal or not positive, the targets are selected uniformly.
+ * </p>
+ *
+ * @param <T> the type of the targets
+ * @since 1.6.0
+ */
+public class AliasTable<T> {
+
+    private final List<T> targets;
+
+    private final int size;
+
+    private final double[] probabilities;
+
+    private final int[] aliases;
+
+    private AliasTable(List<T> targets, double[] probabilities, int[] aliases) {
+        this.targets = targets;
+        this.size = targets.size();
+        this.probabilities = probabilities;
+        this.aliases = aliases;
+    }
+
+    /**
+     * Returns the number of targets.
+     *
+     * @return the number of targets
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether this table was built from the given list.
+     *
+     * @param targets the list of targets
+     * @return true if the table was built from the same list instance with the same size
+     */
+    public boolean isBuiltFrom(List<T> targets) {
+        return targets == null ? size == 0 : this.targets == targets && targets.size() == size;
+    }
+
+    /**
+     * Randomly selects a target.
+     *
+     * @return the selected target, or null if the table is empty
+     */
+    public T choose() {
+        Candidate<T> candidate = elect();
+        return candidate == null ? null : candidate.getTarget();
+    }
+
+    /**
+     * Randomly selects a candidate.
+     *
+     * @return the selected candidate, or null if the table is empty
+     */
+    public Candidate<T> elect() {
+        switch (size) {
+            case 0:
+                return null;
+            case 1:
+                return new Candidate<>(targets.get(0), 0);
+            default:
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int index = random.nextInt(size);
+                if (probabilities != null && random.nextDouble() >= probabilities[index]) {
+                    index = aliases[index];
+                }
+                return new Candidate<>(targets.get(index), index);
+        }
+    }
+
+    /**
+     * Builds an alias table.
+     *
+     * @param targets    the targets
+     * @param weightFunc a function that provides the weight for each target
+     * @param <T>        the type of the targets
+     * @return the alias table
+     */
+    public static <T> AliasTable<T> of(List<T> targets, Function<T, Integer> weightFunc) {
+        int size = targets == null ? 0 : targets.size();
+        int[] weights = new int[size];
+        int i = 0;
+        if (targets != null) {
+            for (T target : targets) {
+                Integer weight = weightFunc.apply(target);
+                weights[i++] = weight == null ? 0 : Math.max(weight, 0);
+            }
+        }
+        return of(targets == null ? new ArrayList<>(0) : targets, weights);
+    }
+
+    /**
+     * Builds an alias table.
+     *
+     * @param targets the targets
+     * @param weights the weights of the targets, negative values are treated as zero
+     * @param <T>     the type of the targets
+     * @return the alias table
+     */
+    public static <T> AliasTable<T> of(List<T> targets, int[] weights) {
+        int size = targets.size();
+        long total = 0;
+        boolean uniform = true;
+        for (int i = 0; i < size; i++) {
+            int weight = Math.max(weights[i], 0);
+            total += weight;
+            if (weight != Math.max(weights[0], 0)) {
+                uniform = false;
+            }
+        }
+        if (size <= 1 || uniform || total <= 0) {
+            return new AliasTable<>(targets, null, null);
+        }
+        double[] probabilities = new double[size];
+        int[] aliases = new int[size];
+        int[] small = new int[size];
+        int[] large = new int[size];
+        int smalls = 0;
+        int larges = 0;
+        for (int i = 0; i < size; i++) {
+            // scaled so that the average probability is 1
+            probabilities[i] = (double) Math.max(weights[i], 0) * size / total;
+            if (probabilities[i] < 1.0) {
+                small[smalls++] = i;
+            } else {
+                large[larges++] = i;
+            }
+        }
+        while (smalls > 0 && larges > 0) {
+            int less = small[--smalls];
+            int more = large[--larges];
+            aliases[less] = more;
+            probabilities[more] = probabilities[more] + probabilities[less] - 1.0;
+            if (probabilities[more] < 1.0) {
+                small[smalls++] = more;
+            } else {
+                large[larges++] = more;
+            }
+        }
+        // remaining entries are full because of rounding errors
+        while (larges > 0) {
+            probabilities[large[--larges]] = 1.0;
+        }
+        while (smalls > 0) {
+            probabilities[small[--smalls]] = 1.0;
+        }
+        return new AliasTable<>(targets, probabilities, aliases);
+    }
+}
@@ -61,7 +61,7 @@ public class RandomWeight {
                     int random = ThreadLocalRandom.current().nextInt(weights);
                     for (T target : targets) {
                         weight += Math.max(weightFunc.apply(target), 0);
-                        if (weight >= random) {
+                        if (weight > random) {
                             return target;
                         }
                     }
@@ -86,51 +86,57 @@ public class RandomWeight {
             case 1:
                 return new Candidate<>(targets.get(0), 0);
             default:
+                // evaluate every weight only once, the weight function may be expensive.
+                int[] sums = new int[size];
                 int totalWeight = 0;
-                int halfWeight = 0;
-                int half = size / 2;
-                int pos = 0;
-
-                boolean uniformWeights = true;
                 int firstWeight = -1;
+                boolean uniformWeights = true;
+                int pos = 0;
                 int weight;
-
-                // Calculate total weight and check for uniform weights
                 for (T target : targets) {
-                    weight = Math.max(weightFunc.apply(target), 0);
+                    Integer value = weightFunc.apply(target);
+                    weight = value == null ? 0 : Math.max(value, 0);
                     totalWeight += weight;
-                    if (++pos == half) {
-                        halfWeight = totalWeight;
-                    }
-                    if (pos == 1) {
+                    sums[pos] = totalWeight;
+                    if (pos == 0) {
                         firstWeight = weight;
                     } else if (weight != firstWeight) {
                         uniformWeights = false;
                     }
+                    pos++;
                 }
 
                 // If weights are uniform or total weight is zero, select randomly
                 if (uniformWeights || totalWeight <= 0) {
-                    int index = ThreadLocalRandom.current().nextInt(targets.size());
+                    int index = ThreadLocalRandom.current().nextInt(size);
                     return new Candidate<>(targets.get(index), index);
                 }
 
-                // Select based on weight
+                // Select the first target whose cumulative weight exceeds the random value
                 int random = ThreadLocalRandom.current().nextInt(totalWeight);
-                int start = random >= halfWeight ? half : 0;
-                int cumulativeWeight = start == 0 ? 0 : halfWeight;
-                List<T> halfTargets = start == 0 ? targets : targets.subList(start, targets.size());
-                for (T target : halfTargets) {
-                    cumulativeWeight += Math.max(weightFunc.apply(target), 0);
-                    if (cumulativeWeight >= random) {
-                        return new Candidate<>(target, start);
-                    }
-                    start++;
-                }
-                // Fallback, though this should not be reached
-                int fallbackIndex = ThreadLocalRandom.current().nextInt(targets.size());
-                return new Candidate<>(targets.get(fallbackIndex), fallbackIndex);
+                int index = binarySearch(sums, random);
+                return new Candidate<>(targets.get(index), index);
         }
     }
-}
 
+    /**
+     * Finds the index of the first cumulative weight which is greater than the value.
+     *
+     * @param sums  the ascending cumulative weights
+     * @param value the value in the range of [0, total weight)
+     * @return the index
+     */
+    private static int binarySearch(int[] sums, int value) {
+        int low = 0;
+        int high = sums.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sums[mid] > value) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
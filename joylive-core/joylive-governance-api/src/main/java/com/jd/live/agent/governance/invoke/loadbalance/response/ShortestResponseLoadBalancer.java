@@ -55,6 +55,8 @@ public class ShortestResponseLoadBalancer extends AbstractLoadBalancer {
         int[] shortestIndexes = new int[length];
         // the weight of every invoker
         int[] weights = new int[length];
+        // the counter of every invoker
+        Counter[] counters = new Counter[length];
         // The sum of the warmup weights of all the shortest response  invokers
         int totalWeight = 0;
         // The weight of the first shortest response invokers
@@ -74,7 +76,7 @@ public class ShortestResponseLoadBalancer extends AbstractLoadBalancer {
             EndpointCounter endpointCounter = serviceCounter.getOrCreate(endpoint.getId());
             endpointCounter.setAccessTime(accessTime);
             Counter counter = endpointCounter.getOrCreate(uri);
-            endpoint.setAttribute(Endpoint.ATTRIBUTE_COUNTER, counter);
+            counters[i] = counter;
 
             // Calculate the estimated response time from the product of active connections and succeeded average
             // elapsed time.
@@ -98,21 +100,26 @@ public class ShortestResponseLoadBalancer extends AbstractLoadBalancer {
             }
         }
 
+        int selected = -1;
         if (shortestCount == 1) {
-            return new Candidate<>(endpoints.get(shortestIndexes[0]), shortestIndexes[0]);
-        }
-        if (!sameWeight && totalWeight > 0) {
+            selected = shortestIndexes[0];
+        } else if (!sameWeight && totalWeight > 0) {
             int offsetWeight = ThreadLocalRandom.current().nextInt(totalWeight);
             for (int i = 0; i < shortestCount; i++) {
                 int shortestIndex = shortestIndexes[i];
                 offsetWeight -= weights[shortestIndex];
                 if (offsetWeight < 0) {
-                    return new Candidate<>(endpoints.get(shortestIndex), shortestIndex);
+                    selected = shortestIndex;
+                    break;
                 }
             }
         }
-        int index = ThreadLocalRandom.current().nextInt(shortestCount);
-        return new Candidate<>(endpoints.get(shortestIndexes[index]), shortestIndexes[index]);
+        if (selected < 0) {
+            selected = shortestIndexes[ThreadLocalRandom.current().nextInt(shortestCount)];
+        }
+        // the endpoint may be shared by concurrent requests, so the counter is bound to the request.
+        request.setAttribute(Endpoint.ATTRIBUTE_COUNTER, counters[selected]);
+        return new Candidate<>(endpoints.get(selected), selected);
     }
 
 }
@@ -21,22 +21,32 @@ import com.jd.live.agent.governance.invoke.Invocation;
 import com.jd.live.agent.governance.invoke.loadbalance.AbstractLoadBalancer;
 import com.jd.live.agent.governance.invoke.loadbalance.Candidate;
 import com.jd.live.agent.governance.invoke.loadbalance.LoadBalancer;
+import com.jd.live.agent.governance.invoke.loadbalance.hash.HashTable;
+import com.jd.live.agent.governance.invoke.metadata.ServiceMetadata;
 import com.jd.live.agent.governance.policy.service.ServicePolicy;
 import com.jd.live.agent.governance.policy.service.loadbalance.LoadBalancePolicy;
+import com.jd.live.agent.governance.request.ServiceRequest;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 /**
  * RoundRobinLoadBalancer is an implementation of the {@link LoadBalancer} interface that
- * provides a simple round-robin load balancing strategy. It iterates through a list of
- * available endpoints and selects the next one in sequence for handling a request.
- * If a service policy with a specific load balance policy is associated with the request,
- * the round-robin counter is scoped to that policy, ensuring that balancing is consistent
- * within the context of the policy.
+ * provides a smooth weighted round-robin load balancing strategy (the same as nginx).
+ * When all the endpoints have the same weight, it iterates through the endpoints in sequence.
+ * Otherwise, the weights after warm-up and circuit-breaker recovery are taken into account,
+ * and the endpoints are interleaved smoothly according to their weights.
+ * <p>
+ * The state is scoped to the load balance policy, or to the service when there is no policy.
+ * The counter is split into stripes selected by the thread, so that the concurrent requests do not
+ * contend on it, and the schedules of the recent endpoint sets are cached, so that the selection
+ * does not take any lock unless the weights are evaluated again.
+ * </p>
  */
 @Extension(value = RoundRobinLoadBalancer.LOAD_BALANCER_NAME, order = LoadBalancer.ORDER_ROUND_ROBIN)
 public class RoundRobinLoadBalancer extends AbstractLoadBalancer {
@@ -47,37 +57,415 @@ public class RoundRobinLoadBalancer extends AbstractLoadBalancer {
     public static final String LOAD_BALANCER_NAME = "ROUND_ROBIN";
 
     /**
-     * A function that creates a new {@code AtomicLong} instance set to 0L.
+     * The number of stripes, a power of two.
      */
-    private static final Function<Long, AtomicLong> COUNTER_FUNC = s -> new AtomicLong(0L);
+    private static final int STRIPES = Integer.highestOneBit(Math.min(Math.max(Runtime.getRuntime().availableProcessors(), 1), 16) * 2 - 1);
 
     /**
-     * A map of counters, keyed by load balance policy IDs, for maintaining the round-robin state
-     * specific to a load balance policy.
+     * A function that creates a new {@code RoundRobinState} instance.
      */
-    private final Map<Long, AtomicLong> counters = new ConcurrentHashMap<>();
+    private static final Function<Object, RoundRobinState> STATE_FUNC = s -> new RoundRobinState();
 
     /**
-     * A global counter for the round-robin load balancing algorithm.
+     * A map of states, keyed by load balance policy IDs.
      */
-    private final AtomicLong global = new AtomicLong(0);
+    private final Map<Long, RoundRobinState> policies = new ConcurrentHashMap<>();
+
+    /**
+     * A map of states, keyed by service names, for the services without load balance policy.
+     */
+    private final Map<String, RoundRobinState> services = new ConcurrentHashMap<>();
+
+    /**
+     * A global state for the round-robin load balancing algorithm.
+     */
+    private final RoundRobinState global = new RoundRobinState();
 
     @Override
     public <T extends Endpoint> Candidate<T> doElect(List<T> endpoints, Invocation<?> invocation) {
-        AtomicLong counter = global;
-        ServicePolicy servicePolicy = invocation.getServiceMetadata().getServicePolicy();
+        int index = getState(invocation).select(endpoints, invocation.getRequest());
+        return new Candidate<>(endpoints.get(index), index);
+    }
+
+    /**
+     * Returns the state of the load balance policy or service of the invocation.
+     *
+     * @param invocation the invocation context
+     * @return the state
+     */
+    private RoundRobinState getState(Invocation<?> invocation) {
+        ServiceMetadata metadata = invocation.getServiceMetadata();
+        ServicePolicy servicePolicy = metadata.getServicePolicy();
         LoadBalancePolicy loadBalancePolicy = servicePolicy == null ? null : servicePolicy.getLoadBalancePolicy();
-        if (loadBalancePolicy != null) {
-            counter = counters.computeIfAbsent(loadBalancePolicy.getId(), COUNTER_FUNC);
+        Long policyId = loadBalancePolicy == null ? null : loadBalancePolicy.getId();
+        if (policyId != null) {
+            return policies.computeIfAbsent(policyId, STATE_FUNC);
         }
-        long count = counter.getAndIncrement();
-        if (count < 0) {
-            counter.set(0);
-            count = counter.getAndIncrement();
+        String serviceName = metadata.getServiceName();
+        return serviceName == null ? global : services.computeIfAbsent(serviceName, STATE_FUNC);
+    }
+
+    /**
+     * The round-robin state of a load balance policy or service, which keeps the schedules of the latest
+     * endpoint sets.
+     * <p>
+     * The endpoints are usually filtered by the route filters before load balancing, such as the unit, cell,
+     * lane or locality filters, so the requests of the same service come with different subsets. A small
+     * number of schedules are kept, the most recently built one first, so that the subsets do not rebuild the
+     * schedule or advance the counters of each other. A schedule is found by the identity of the endpoint list
+     * first, which is usually cached by the registry, and then by the hash of the endpoint keys confirmed by
+     * equality, without allocation.
+     * </p>
+     */
+    private static class RoundRobinState {
+
+        private static final int MAX_SCHEDULES = 8;
+
+        private static final Schedule[] EMPTY_SCHEDULES = new Schedule[0];
+
+        private volatile Schedule[] schedules = EMPTY_SCHEDULES;
+
+        /**
+         * Selects the next endpoint.
+         *
+         * @param targets the endpoints
+         * @param request the request
+         * @return the index of the selected endpoint
+         */
+        public int select(List<? extends Endpoint> targets, ServiceRequest request) {
+            Schedule schedule = getSchedule(targets, request, System.currentTimeMillis());
+            long count = schedule.next();
+            int[] sequence = schedule.sequence;
+            return sequence == null ? (int) (count % targets.size()) : sequence[(int) (count % sequence.length)];
+        }
+
+        /**
+         * Returns the schedule of the endpoints, and evaluates the weights again if it's expired.
+         *
+         * @param targets the endpoints
+         * @param request the request
+         * @param now     the current time
+         * @return the schedule
+         */
+        private Schedule getSchedule(List<? extends Endpoint> targets, ServiceRequest request, long now) {
+            String method = request == null ? null : request.getMethod();
+            Schedule current = find(schedules, targets, method);
+            if (current != null && now < current.expireTime) {
+                return current;
+            }
+            synchronized (this) {
+                Schedule[] olds = schedules;
+                current = find(olds, targets, method);
+                if (current != null && now < current.expireTime) {
+                    return current;
+                }
+                int[] weights = Schedule.getWeights(targets, request);
+                if (current == null || !Arrays.equals(weights, current.weights)) {
+                    // the counters are kept, so that the sequence goes on smoothly.
+                    Schedule schedule = current == null
+                            ? Schedule.build(targets, Schedule.getKeys(targets), weights, method, Stripe.create(STRIPES))
+                            : Schedule.build(targets, current.keys, weights, method, current.stripes);
+                    schedules = add(olds, current, schedule);
+                    current = schedule;
+                }
+                current.expireTime = now + Schedule.WEIGHT_REFRESH_MILLIS;
+                return current;
+            }
+        }
+
+        /**
+         * Finds the schedule of the endpoints and method.
+         *
+         * @param schedules the schedules
+         * @param targets   the endpoints
+         * @param method    the method
+         * @return the schedule, or null if it's not found
+         */
+        private static Schedule find(Schedule[] schedules, List<? extends Endpoint> targets, String method) {
+            for (Schedule schedule : schedules) {
+                if (schedule.targets == targets && Objects.equals(schedule.method, method)) {
+                    return schedule;
+                }
+            }
+            if (schedules.length == 0) {
+                return null;
+            }
+            // the endpoints may be recreated by the framework.
+            long hash = Schedule.hash(targets);
+            for (Schedule schedule : schedules) {
+                if (schedule.hash == hash && Objects.equals(schedule.method, method) && schedule.isBuiltFrom(targets)) {
+                    // a concurrent update may be overwritten, which is harmless.
+                    schedule.targets = targets;
+                    return schedule;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the new schedules with the schedule in the first place, the replaced schedule or the least
+         * recently built schedule is removed.
+         *
+         * @param schedules the schedules
+         * @param replaced  the schedule to be replaced, or null
+         * @param schedule  the new schedule
+         * @return the new schedules
+         */
+        private static Schedule[] add(Schedule[] schedules, Schedule replaced, Schedule schedule) {
+            int size = replaced != null || schedules.length < MAX_SCHEDULES ? schedules.length : schedules.length - 1;
+            Schedule[] result = new Schedule[replaced == null ? size + 1 : size];
+            result[0] = schedule;
+            int index = 1;
+            for (int i = 0; i < schedules.length && index < result.length; i++) {
+                if (schedules[i] != replaced) {
+                    result[index++] = schedules[i];
+                }
+            }
+            return result;
         }
-        // Ensure the index is within the bounds of the endpoints list.
-        int index = (int) (count % endpoints.size());
-        return new Candidate<>(endpoints.get(index), index);
     }
-}
 
+    /**
+     * A stripe of the round-robin state, which keeps a sequence counter.
+     * <p>
+     * The counter is advanced atomically, and it is used directly as the index when all the endpoints have
+     * the same weight, or as the position in the precomputed smooth weighted round-robin sequence otherwise.
+     * </p>
+     */
+    private static class Stripe {
+
+        private final AtomicLong counter;
+
+        Stripe(long seed) {
+            this.counter = new AtomicLong(seed);
+        }
+
+        /**
+         * Creates the stripes.
+         *
+         * @param size the number of the stripes, a power of two
+         * @return the stripes
+         */
+        public static Stripe[] create(int size) {
+            Stripe[] result = new Stripe[size];
+            for (int i = 0; i < size; i++) {
+                // each stripe starts at a different position, so that they do not pick the same endpoint in step.
+                result[i] = new Stripe(i);
+            }
+            return result;
+        }
+
+        /**
+         * Returns the next position of the sequence.
+         *
+         * @return the next position, a non-negative value
+         */
+        public long next() {
+            return counter.getAndIncrement() & Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * A schedule of an endpoint set, which keeps the keys, the weights, the sequence of the smooth weighted
+     * round-robin and the stripes of the sequence counters.
+     * <p>
+     * The weights are evaluated again when they are older than {@link #WEIGHT_REFRESH_MILLIS}, so that the
+     * warm-up and circuit-breaker recovery take effect. The sequence is only built again when the weights change.
+     * </p>
+     */
+    private static class Schedule {
+
+        private static final long WEIGHT_REFRESH_MILLIS = 100L;
+
+        private static final int MAX_SEQUENCE = 1024;
+
+        private final String[] keys;
+
+        private final long hash;
+
+        private final int[] weights;
+
+        private final int[] sequence;
+
+        private final String method;
+
+        private final Stripe[] stripes;
+
+        /**
+         * The latest endpoint list of this schedule.
+         */
+        private volatile List<? extends Endpoint> targets;
+
+        /**
+         * The time after which the weights are evaluated again.
+         */
+        private volatile long expireTime;
+
+        Schedule(List<? extends Endpoint> targets, String[] keys, long hash, int[] weights, int[] sequence, String method, Stripe[] stripes) {
+            this.targets = targets;
+            this.keys = keys;
+            this.hash = hash;
+            this.weights = weights;
+            this.sequence = sequence;
+            this.method = method;
+            this.stripes = stripes;
+        }
+
+        /**
+         * Returns the next position of the sequence from the stripe of the current thread.
+         *
+         * @return the next position, a non-negative value
+         */
+        public long next() {
+            return stripes[(int) (Thread.currentThread().getId() & (stripes.length - 1))].next();
+        }
+
+        /**
+         * Checks whether this schedule is built from the endpoints with the same keys in the same order.
+         *
+         * @param targets the endpoints
+         * @return true if it's built from the endpoints
+         */
+        public boolean isBuiltFrom(List<? extends Endpoint> targets) {
+            int size = targets.size();
+            if (size != keys.length) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (!Objects.equals(keys[i], getKey(targets.get(i)))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Builds the schedule of the endpoints.
+         *
+         * @param targets the endpoints
+         * @param keys    the keys of the endpoints
+         * @param weights the weights of the endpoints
+         * @param method  the method of the request
+         * @param stripes the stripes of the sequence counters
+         * @return the schedule
+         */
+        public static Schedule build(List<? extends Endpoint> targets, String[] keys, int[] weights, String method, Stripe[] stripes) {
+            long total = 0;
+            boolean uniform = true;
+            for (int weight : weights) {
+                total += weight;
+                uniform = uniform && weight == weights[0];
+            }
+            int[] sequence = uniform || total <= 0 ? null : build(weights, total);
+            return new Schedule(targets, keys, hash(keys), weights, sequence, method, stripes);
+        }
+
+        /**
+         * Evaluates the weights of the endpoints.
+         *
+         * @param targets the endpoints
+         * @param request the request
+         * @return the weights
+         */
+        public static int[] getWeights(List<? extends Endpoint> targets, ServiceRequest request) {
+            int size = targets.size();
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) {
+                Integer value = targets.get(i).reweight(request);
+                result[i] = value == null ? 0 : Math.max(value, 0);
+            }
+            return result;
+        }
+
+        /**
+         * Builds the smooth weighted round-robin sequence (the same as nginx) of the weights.
+         * The weights are reduced by their greatest common divisor, and scaled down when the sequence is too long.
+         *
+         * @param weights the weights
+         * @param total   the total weight
+         * @return the sequence of the endpoint indexes
+         */
+        private static int[] build(int[] weights, long total) {
+            int size = weights.length;
+            int[] values = new int[size];
+            int gcd = 0;
+            for (int weight : weights) {
+                gcd = gcd(gcd, weight);
+            }
+            int length = 0;
+            for (int i = 0; i < size; i++) {
+                int weight = weights[i] / gcd;
+                if (total / gcd > MAX_SEQUENCE && weight > 0) {
+                    weight = (int) Math.max(1L, Math.round((double) weights[i] * MAX_SEQUENCE / total));
+                }
+                values[i] = weight;
+                length += weight;
+            }
+            int[] result = new int[length];
+            long[] currents = new long[size];
+            for (int n = 0; n < length; n++) {
+                int best = 0;
+                for (int i = 0; i < size; i++) {
+                    currents[i] += values[i];
+                    if (currents[i] > currents[best]) {
+                        best = i;
+                    }
+                }
+                currents[best] -= length;
+                result[n] = best;
+            }
+            return result;
+        }
+
+        private static int gcd(int a, int b) {
+            while (b != 0) {
+                int t = a % b;
+                a = b;
+                b = t;
+            }
+            return a;
+        }
+
+        /**
+         * Computes the hash of the endpoint keys, without allocating them.
+         *
+         * @param targets the endpoints
+         * @return the hash
+         */
+        public static long hash(List<? extends Endpoint> targets) {
+            long h = targets.size();
+            for (int i = 0, size = targets.size(); i < size; i++) {
+                h = h * 0x100000001b3L + Objects.hashCode(getKey(targets.get(i)));
+            }
+            return HashTable.mix(h);
+        }
+
+        private static long hash(String[] keys) {
+            long h = keys.length;
+            for (String key : keys) {
+                h = h * 0x100000001b3L + Objects.hashCode(key);
+            }
+            return HashTable.mix(h);
+        }
+
+        private static String[] getKeys(List<? extends Endpoint> targets) {
+            int size = targets.size();
+            String[] result = new String[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = getKey(targets.get(i));
+            }
+            return result;
+        }
+
+        /**
+         * Returns the key of the endpoint, its id or its address when the id is missing.
+         *
+         * @param endpoint the endpoint
+         * @return the key
+         */
+        private static String getKey(Endpoint endpoint) {
+            String id = endpoint.getId();
+            return id != null ? id : endpoint.getAddress();
+        }
+    }
+}
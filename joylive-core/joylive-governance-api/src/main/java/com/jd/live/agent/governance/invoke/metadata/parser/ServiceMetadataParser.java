@@ -3,6 +3,7 @@ package com.jd.live.agent.governance.invoke.metadata.parser;
 import com.jd.live.agent.core.Constants;
 import com.jd.live.agent.core.instance.Application;
 import com.jd.live.agent.core.util.URI;
+import com.jd.live.agent.core.util.cache.WeakCache;
 import com.jd.live.agent.core.util.http.HttpMethod;
 import com.jd.live.agent.governance.config.ServiceConfig;
 import com.jd.live.agent.governance.context.bag.Cargo;
@@ -19,12 +20,8 @@ import com.jd.live.agent.governance.policy.service.live.UnitPolicy;
 import com.jd.live.agent.governance.request.HttpRequest;
 import com.jd.live.agent.governance.request.ServiceRequest;
 
-import java.util.HashMap;
 import java.util.Map;
 
-import static com.jd.live.agent.governance.policy.PolicyId.KEY_SERVICE_GROUP;
-import static com.jd.live.agent.governance.policy.PolicyId.KEY_SERVICE_METHOD;
-
 /**
  * The {@code AbstractServiceMetadataParser} class is responsible for parsing and constructing the metadata
  * for a service request based on the provided configuration, application context, and governance policy.
@@ -80,14 +77,7 @@ public abstract class ServiceMetadataParser implements ServiceParser {
         String method = parseMethod();
         ServicePolicy servicePolicy = parseServicePolicy(service, serviceGroup, path, method);
         boolean writeProtect = parseWriteProtect(servicePolicy);
-
-        Map<String, String> parameters = new HashMap<>(4);
-        parameters.put(KEY_SERVICE_METHOD, method);
-        if (serviceGroup != null && !serviceGroup.isEmpty()) {
-            parameters.put(KEY_SERVICE_GROUP, serviceGroup);
-        }
-        URI uri = new URI(null, serviceName, null, path, parameters);
-
+        URI uri = parseUri(service, serviceName, serviceGroup, path, method);
         return new ServiceMetadata(serviceConfig, serviceName, serviceGroup, path, method, writeProtect, service, consumer, servicePolicy, uri);
     }
 
@@ -154,6 +144,23 @@ public abstract class ServiceMetadataParser implements ServiceParser {
         return service == null ? null : service.getPath(serviceGroup, path, method);
     }
 
+    /**
+     * Returns the uri of the service method, which is shared by the requests of the same method.
+     *
+     * @param service      the service object, or null if it's not found
+     * @param serviceName  the service name
+     * @param serviceGroup the service group
+     * @param path         the path
+     * @param method       the method
+     * @return the service uri
+     */
+    protected URI parseUri(Service service, String serviceName, String serviceGroup, String path, String method) {
+        // the uris are cached by the service policy, and are released with it.
+        return service == null
+                ? Service.createUri(serviceName, serviceGroup, path, method)
+                : service.getUri(serviceGroup, path, method);
+    }
+
     /**
      * Parses the write protection status from the given service policy.
      *
@@ -292,14 +299,56 @@ public abstract class ServiceMetadataParser implements ServiceParser {
             super(request, serviceConfig, application, governancePolicy);
         }
 
+        /**
+         * Gateway policies derived from the service policies, which are rebuilt when the service version changes.
+         */
+        private static final WeakCache<ServicePolicy, GatewayPolicy> POLICIES = new WeakCache<>(1024);
+
+        private static final GatewayPolicy DEFAULT_POLICY = new GatewayPolicy(null, 0);
+
         @Override
         protected ServicePolicy parseServicePolicy(Service service, String serviceGroup, String path, String method) {
-            ServicePolicy result = super.parseServicePolicy(service, serviceGroup, path, method);
-            result = result != null ? result.clone() : new ServicePolicy();
+            ServicePolicy policy = super.parseServicePolicy(service, serviceGroup, path, method);
+            GatewayPolicy result = DEFAULT_POLICY;
+            if (policy != null) {
+                long version = service.getVersion();
+                result = POLICIES.get(policy);
+                if (result == null || result.version != version) {
+                    result = new GatewayPolicy(policy, version);
+                    POLICIES.put(policy, result);
+                }
+            }
+            return result.getPolicy(isWriteMethod());
+        }
+    }
+
+    /**
+     * The gateway derivatives of a service policy for read and write requests.
+     */
+    private static class GatewayPolicy {
+
+        private final long version;
+
+        private final ServicePolicy readPolicy;
+
+        private final ServicePolicy writePolicy;
+
+        GatewayPolicy(ServicePolicy policy, long version) {
+            this.version = version;
+            this.readPolicy = create(policy, false);
+            this.writePolicy = create(policy, true);
+        }
+
+        ServicePolicy getPolicy(boolean write) {
+            return write ? writePolicy : readPolicy;
+        }
+
+        private static ServicePolicy create(ServicePolicy policy, boolean write) {
+            ServicePolicy result = policy != null ? policy.clone() : new ServicePolicy();
             ServiceLivePolicy livePolicy = new ServiceLivePolicy();
             livePolicy.setUnitPolicy(UnitPolicy.NONE);
             livePolicy.setCellPolicy(CellPolicy.ANY);
-            livePolicy.setWriteProtect(isWriteMethod());
+            livePolicy.setWriteProtect(write);
             result.setLivePolicy(livePolicy);
             return result;
         }
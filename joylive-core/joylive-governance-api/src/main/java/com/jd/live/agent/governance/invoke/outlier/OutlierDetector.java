@@ -0,0 +1,397 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.outlier;
+
+import com.jd.live.agent.bootstrap.logger.Logger;
+import com.jd.live.agent.bootstrap.logger.LoggerFactory;
+import com.jd.live.agent.core.util.time.Timer;
+import com.jd.live.agent.governance.invoke.counter.EndpointCounter;
+import com.jd.live.agent.governance.invoke.counter.ServiceCounter;
+import com.jd.live.agent.governance.invoke.outlier.OutlierEvent.OutlierEventType;
+import com.jd.live.agent.governance.invoke.outlier.OutlierEvent.OutlierReason;
+import com.jd.live.agent.governance.policy.service.outlier.OutlierPolicy;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * A passive outlier detector, which periodically scans the endpoint counters of the watched services on the timer,
+ * and ejects the endpoints with consecutive errors or a latency far above the median of the service for an
+ * exponential backoff period. The ejected percentage of a service is capped by its policy.
+ *
+ * @since 1.6.0
+ */
+public class OutlierDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutlierDetector.class);
+
+    private static final long KEEP_TIME = 60000L;
+
+    private static final long ACCESS_PRECISION = 1000L;
+
+    private static final int MIN_LATENCY_ENDPOINTS = 3;
+
+    private final Timer timer;
+
+    private final Map<String, OutlierState> states = new ConcurrentHashMap<>();
+
+    private final List<Consumer<OutlierEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    public OutlierDetector(Timer timer) {
+        this.timer = timer;
+    }
+
+    /**
+     * Watches the service with the outlier policy. The service is scanned periodically until it's not
+     * watched for a while.
+     *
+     * @param counter the counter of the service
+     * @param policy  the outlier policy
+     */
+    public void watch(ServiceCounter counter, OutlierPolicy policy) {
+        long now = System.currentTimeMillis();
+        OutlierState state = states.get(counter.getName());
+        if (state == null) {
+            state = new OutlierState(counter.getName(), counter, policy, now);
+            OutlierState old = states.putIfAbsent(counter.getName(), state);
+            if (old == null) {
+                schedule(state);
+                return;
+            }
+            state = old;
+        }
+        state.access(policy, now);
+    }
+
+    /**
+     * Returns the ejected endpoints of the service.
+     *
+     * @param service the name of the service counter
+     * @return the ejected endpoints, or null if the service is not watched
+     */
+    public OutlierEjection getEjection(String service) {
+        OutlierState state = service == null ? null : states.get(service);
+        return state == null ? null : state.ejection;
+    }
+
+    /**
+     * Adds a listener of the ejection events, such as the exporter counting them.
+     *
+     * @param listener the listener
+     */
+    public void addListener(Consumer<OutlierEvent> listener) {
+        if (listener != null) {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * Returns the number of the currently ejected endpoints of all services.
+     *
+     * @return the number of the ejected endpoints
+     */
+    public int getEjected() {
+        int result = 0;
+        for (OutlierState state : states.values()) {
+            result += state.ejection.getSize();
+        }
+        return result;
+    }
+
+    private void schedule(OutlierState state) {
+        timer.delay("outlier-detect-" + state.name, state.policy.getIntervalOrDefault(), () -> {
+            long now = System.currentTimeMillis();
+            if (now - state.accessTime > KEEP_TIME) {
+                states.remove(state.name, state);
+                return;
+            }
+            try {
+                List<EndpointCounter> endpoints = new ArrayList<>();
+                state.counter.forEach(endpoints::add);
+                publish(state.scan(endpoints, now));
+            } catch (Throwable e) {
+                logger.warn("Failed to detect outliers of " + state.name + ", caused by " + e.getMessage(), e);
+            }
+            schedule(state);
+        });
+    }
+
+    private void publish(List<OutlierEvent> events) {
+        for (OutlierEvent event : events) {
+            logger.info(event.toString());
+            for (Consumer<OutlierEvent> listener : listeners) {
+                try {
+                    listener.accept(event);
+                } catch (Throwable e) {
+                    logger.warn("Failed to handle outlier event, caused by " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * The outlier state of a service. It's only scanned by the timer, and publishes an immutable ejection
+     * for the route filters.
+     */
+    static class OutlierState {
+
+        private final String name;
+
+        private final ServiceCounter counter;
+
+        private volatile OutlierPolicy policy;
+
+        private volatile long accessTime;
+
+        private volatile OutlierEjection ejection = OutlierEjection.EMPTY;
+
+        private final Map<String, Host> hosts = new HashMap<>();
+
+        private final BitSet freeSlots = new BitSet();
+
+        private int nextSlot;
+
+        private Map<String, Integer> slots = Collections.emptyMap();
+
+        private long round;
+
+        OutlierState(String name, ServiceCounter counter, OutlierPolicy policy, long now) {
+            this.name = name;
+            this.counter = counter;
+            this.policy = policy;
+            this.accessTime = now;
+        }
+
+        void access(OutlierPolicy policy, long now) {
+            if (policy != this.policy) {
+                this.policy = policy;
+            }
+            if (now - accessTime >= ACCESS_PRECISION) {
+                accessTime = now;
+            }
+        }
+
+        OutlierEjection getEjection() {
+            return ejection;
+        }
+
+        /**
+         * Scans the endpoint counters, restores the endpoints whose ejection time is over, and ejects the outliers.
+         *
+         * @param endpoints the endpoint counters of the service
+         * @param now       the current time
+         * @return the ejection events
+         */
+        List<OutlierEvent> scan(Collection<EndpointCounter> endpoints, long now) {
+            OutlierPolicy policy = this.policy;
+            List<OutlierEvent> events = new ArrayList<>();
+            boolean slotChanged = update(endpoints);
+            boolean changed = slotChanged;
+            int ejected = 0;
+            for (Host host : hosts.values()) {
+                if (host.isEjected()) {
+                    if (now >= host.ejectTime + host.duration) {
+                        host.ejectTime = 0;
+                        changed = true;
+                    } else {
+                        ejected++;
+                    }
+                } else if (host.multiplier > 0 && host.errors == 0) {
+                    // decrease the backoff after a healthy interval
+                    host.multiplier--;
+                }
+            }
+            if (changed) {
+                for (Host host : hosts.values()) {
+                    if (host.restored()) {
+                        events.add(new OutlierEvent(name, host.id, OutlierEventType.RESTORE, null, 0, ejected, now));
+                    }
+                }
+            }
+            int limit = hosts.size() * policy.getMaxEjectionPercentOrDefault();
+            int threshold = policy.getConsecutiveErrorsOrDefault();
+            for (Host host : hosts.values()) {
+                if (ejected * 100 >= limit) {
+                    break;
+                } else if (!host.isEjected() && host.errors >= threshold) {
+                    events.add(eject(host, OutlierReason.CONSECUTIVE_ERRORS, policy, now, ++ejected));
+                    changed = true;
+                }
+            }
+            if (policy.isLatencyEnabled() && ejected * 100 < limit) {
+                List<Host> candidates = new ArrayList<>();
+                int minimumRequests = policy.getMinimumRequestsOrDefault();
+                for (Host host : hosts.values()) {
+                    if (!host.isEjected() && host.requests >= minimumRequests) {
+                        candidates.add(host);
+                    }
+                }
+                if (candidates.size() >= MIN_LATENCY_ENDPOINTS) {
+                    candidates.sort(Comparator.comparingDouble(h -> h.latency));
+                    double median = candidates.get(candidates.size() / 2).latency;
+                    double max = median * policy.getLatencyFactor();
+                    for (int i = candidates.size() - 1; i >= 0 && ejected * 100 < limit; i--) {
+                        Host host = candidates.get(i);
+                        if (host.latency <= max) {
+                            break;
+                        }
+                        events.add(eject(host, OutlierReason.LATENCY, policy, now, ++ejected));
+                        changed = true;
+                    }
+                }
+            }
+            if (changed) {
+                publish(slotChanged, ejected);
+            }
+            return events;
+        }
+
+        /**
+         * Synchronizes the hosts with the endpoint counters, and computes the requests and latency in the interval.
+         *
+         * @param endpoints the endpoint counters
+         * @return true if the hosts are changed
+         */
+        private boolean update(Collection<EndpointCounter> endpoints) {
+            boolean result = false;
+            long current = ++round;
+            for (EndpointCounter endpoint : endpoints) {
+                Host host = hosts.get(endpoint.getName());
+                if (host == null) {
+                    host = new Host(endpoint.getName(), allocate());
+                    hosts.put(host.id, host);
+                    result = true;
+                }
+                host.update(endpoint, current);
+            }
+            Iterator<Host> iterator = hosts.values().iterator();
+            while (iterator.hasNext()) {
+                Host host = iterator.next();
+                if (host.round != current) {
+                    iterator.remove();
+                    freeSlots.set(host.slot);
+                    result = true;
+                }
+            }
+            return result;
+        }
+
+        private int allocate() {
+            int slot = freeSlots.nextSetBit(0);
+            if (slot >= 0) {
+                freeSlots.clear(slot);
+                return slot;
+            }
+            return nextSlot++;
+        }
+
+        private OutlierEvent eject(Host host, OutlierReason reason, OutlierPolicy policy, long now, int ejected) {
+            host.multiplier++;
+            long base = policy.getBaseEjectionTimeOrDefault();
+            host.duration = Math.min(base * host.multiplier, policy.getMaxEjectionTimeOrDefault());
+            host.ejectTime = now;
+            host.wasEjected = true;
+            if (host.counter != null) {
+                host.counter.resetConsecutiveFailed();
+            }
+            return new OutlierEvent(name, host.id, OutlierEventType.EJECT, reason, host.duration, ejected, now);
+        }
+
+        private void publish(boolean slotChanged, int ejected) {
+            if (slotChanged) {
+                Map<String, Integer> newSlots = new HashMap<>(hosts.size() * 4 / 3 + 1);
+                for (Host host : hosts.values()) {
+                    newSlots.put(host.id, host.slot);
+                }
+                slots = newSlots;
+            }
+            if (ejected == 0) {
+                ejection = OutlierEjection.EMPTY;
+                return;
+            }
+            long[] bits = new long[(nextSlot >>> 6) + 1];
+            for (Host host : hosts.values()) {
+                if (host.isEjected()) {
+                    bits[host.slot >>> 6] |= 1L << host.slot;
+                }
+            }
+            ejection = new OutlierEjection(slots, bits, ejected);
+        }
+    }
+
+    /**
+     * The outlier state of an endpoint.
+     */
+    private static class Host {
+
+        private final String id;
+
+        private final int slot;
+
+        private EndpointCounter counter;
+
+        private long round;
+
+        private long total;
+
+        private long elapsed;
+
+        private long requests;
+
+        private double latency;
+
+        private int errors;
+
+        private int multiplier;
+
+        private long ejectTime;
+
+        private long duration;
+
+        private boolean wasEjected;
+
+        Host(String id, int slot) {
+            this.id = id;
+            this.slot = slot;
+        }
+
+        void update(EndpointCounter counter, long round) {
+            long newTotal = counter.getTotal();
+            long newElapsed = counter.getTotalElapsed();
+            this.counter = counter;
+            this.round = round;
+            this.requests = Math.max(0, newTotal - total);
+            this.latency = requests == 0 ? 0 : (double) (newElapsed - elapsed) / requests;
+            this.total = newTotal;
+            this.elapsed = newElapsed;
+            this.errors = counter.getConsecutiveFailed();
+        }
+
+        boolean isEjected() {
+            return ejectTime > 0;
+        }
+
+        boolean restored() {
+            if (wasEjected && !isEjected()) {
+                wasEjected = false;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.outlier;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * An immutable set of the ejected endpoints of a service. Every endpoint of the service is assigned
+ * a stable slot, and the ejected ones are marked in a bitset, so that the lookup is O(1).
+ *
+ * @since 1.6.0
+ */
+public class OutlierEjection {
+
+    public static final OutlierEjection EMPTY = new OutlierEjection(null, null, 0);
+
+    private final Map<String, Integer> slots;
+
+    private final long[] bits;
+
+    @Getter
+    private final int size;
+
+    public OutlierEjection(Map<String, Integer> slots, long[] bits, int size) {
+        this.slots = slots;
+        this.bits = bits;
+        this.size = size;
+    }
+
+    /**
+     * Checks whether the endpoint is ejected.
+     *
+     * @param id the endpoint id
+     * @return true if the endpoint is ejected
+     */
+    public boolean isEjected(String id) {
+        if (size == 0 || id == null) {
+            return false;
+        }
+        Integer slot = slots.get(id);
+        return slot != null && (bits[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Checks whether there is no ejected endpoint.
+     *
+     * @return true if there is no ejected endpoint
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.outlier;
+
+import lombok.Getter;
+
+/**
+ * An event of ejecting an endpoint from a service or restoring it.
+ *
+ * @since 1.6.0
+ */
+@Getter
+public class OutlierEvent {
+
+    private final String service;
+
+    private final String endpoint;
+
+    private final OutlierEventType type;
+
+    private final OutlierReason reason;
+
+    /**
+     * The ejection time in milliseconds.
+     */
+    private final long duration;
+
+    /**
+     * The number of the ejected endpoints of the service after this event.
+     */
+    private final int ejected;
+
+    private final long timestamp;
+
+    public OutlierEvent(String service,
+                        String endpoint,
+                        OutlierEventType type,
+                        OutlierReason reason,
+                        long duration,
+                        int ejected,
+                        long timestamp) {
+        this.service = service;
+        this.endpoint = endpoint;
+        this.type = type;
+        this.reason = reason;
+        this.duration = duration;
+        this.ejected = ejected;
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return type == OutlierEventType.EJECT
+                ? "Outlier endpoint " + endpoint + " of " + service + " is ejected for " + duration + "ms, reason=" + reason + ", ejected=" + ejected
+                : "Outlier endpoint " + endpoint + " of " + service + " is restored, ejected=" + ejected;
+    }
+
+    /**
+     * The type of the outlier event.
+     */
+    public enum OutlierEventType {
+
+        EJECT,
+
+        RESTORE
+    }
+
+    /**
+     * The reason of the ejection.
+     */
+    public enum OutlierReason {
+
+        /**
+         * The endpoint has reached the consecutive errors.
+         */
+        CONSECUTIVE_ERRORS,
+
+        /**
+         * The average latency of the endpoint is far above the median of the service.
+         */
+        LATENCY
+    }
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.ratelimit.lease;
+
+import com.jd.live.agent.bootstrap.logger.Logger;
+import com.jd.live.agent.bootstrap.logger.LoggerFactory;
+import com.jd.live.agent.governance.invoke.ratelimit.AbstractRateLimiter;
+import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
+import com.jd.live.agent.governance.policy.service.limit.SlidingWindow;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A distributed rate limiter, which leases token batches of the time window from the shared store,
+ * and consumes them locally without locks.
+ * <p>
+ * The lease is renewed asynchronously when the remaining permits fall below a watermark, and its size
+ * is adapted to the recent consumption rate of the node. The lease of the next window is prefetched
+ * shortly before the window ends. The permits left at the end of a window are consumed until the lease
+ * of the next window arrives, so the overshoot is bounded by a lease per node. A request which misses
+ * while a lease is on the way, such as the first one, waits for it for a bounded time.
+ * When the store is unreachable, the node falls back to a local share of the limit until the store recovers.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+public class LeaseRateLimiter extends AbstractRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaseRateLimiter.class);
+
+    /**
+     * The key of the parameter, which is the maximum ratio of a lease to the limit.
+     */
+    public static final String KEY_LEASE_RATIO = "leaseRatio";
+
+    /**
+     * The key of the parameter, which is the ratio of the limit applied locally when the store is unreachable.
+     */
+    public static final String KEY_FALLBACK_RATIO = "fallbackRatio";
+
+    /**
+     * The key of the parameter, which is the maximum time in milliseconds to wait for a lease on the way.
+     */
+    public static final String KEY_LEASE_WAIT = "leaseWait";
+
+    private static final double DEFAULT_LEASE_RATIO = 0.1;
+
+    private static final double RENEW_RATIO = 0.25;
+
+    private static final long RETRY_INTERVAL = 1000L;
+
+    private static final long MIN_RATE_INTERVAL = 10L;
+
+    private static final long DEFAULT_LEASE_WAIT = 50L;
+
+    private static final double PREFETCH_RATIO = 0.1;
+
+    private static final long MAX_PREFETCH = 1000L;
+
+    private final LeaseStore store;
+
+    private final String key;
+
+    private final long limit;
+
+    private final long windowMs;
+
+    private final double leaseRatio;
+
+    private final long maxLease;
+
+    private final Double fallbackRatio;
+
+    private final long leaseWait;
+
+    private final long prefetchTime;
+
+    private final AtomicReference<Lease> lease = new AtomicReference<>(Lease.EMPTY);
+
+    private final AtomicReference<Lease> prefetched = new AtomicReference<>(Lease.EMPTY);
+
+    private final AtomicBoolean renewing = new AtomicBoolean();
+
+    private final AtomicLong consumed = new AtomicLong();
+
+    private volatile CompletableFuture<Void> renewal = CompletableFuture.completedFuture(null);
+
+    private volatile long exhaustedEpoch = -1;
+
+    private volatile long retryTime;
+
+    private volatile boolean degraded;
+
+    private volatile double rate;
+
+    private long lastConsumed;
+
+    private long lastRenewTime;
+
+    public LeaseRateLimiter(LeaseStore store, RateLimitPolicy policy, SlidingWindow window) {
+        super(policy, TimeUnit.MILLISECONDS);
+        this.store = store;
+        this.key = "LiveAgent-lease-" + policy.getId() + "-" + window.getThreshold() + "-" + window.getTimeWindowInMs();
+        this.limit = window.getThreshold();
+        this.windowMs = window.getTimeWindowInMs();
+        Double ratio = option.getDouble(KEY_LEASE_RATIO);
+        this.leaseRatio = ratio == null || ratio <= 0 || ratio > 1 ? DEFAULT_LEASE_RATIO : ratio;
+        this.maxLease = Math.max(1, (long) Math.ceil(limit * leaseRatio));
+        ratio = option.getDouble(KEY_FALLBACK_RATIO);
+        this.fallbackRatio = ratio == null || ratio <= 0 ? null : Math.min(1, ratio);
+        Long wait = option.getLong(KEY_LEASE_WAIT);
+        this.leaseWait = wait == null || wait < 0 ? Math.min(DEFAULT_LEASE_WAIT, windowMs / 4) : wait;
+        this.prefetchTime = Math.min(MAX_PREFETCH, (long) (windowMs * PREFETCH_RATIO));
+    }
+
+    @Override
+    protected boolean doAcquire(int permits, long timeout, TimeUnit timeUnit) {
+        if (tryAcquire(permits)) {
+            return true;
+        }
+        long wait = timeout <= 0 ? 0 : timeUnit.toMillis(timeout);
+        if (renewing.get()) {
+            // the lease is on the way, such as the first lease of the window.
+            wait = Math.max(wait, leaseWait);
+        }
+        if (wait <= 0) {
+            return false;
+        }
+        try {
+            renewal.get(wait, TimeUnit.MILLISECONDS);
+        } catch (Throwable ignored) {
+        }
+        return tryAcquire(permits);
+    }
+
+    @Override
+    protected void doClose() {
+        store.close();
+    }
+
+    /**
+     * Returns whether the limiter falls back to the local share as the store is unreachable.
+     *
+     * @return true if the limiter is degraded
+     */
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    /**
+     * Tries to consume the permits from the current lease, and renews the lease if necessary.
+     *
+     * @param permits the permits
+     * @return true if the permits are acquired
+     */
+    private boolean tryAcquire(int permits) {
+        long now = System.currentTimeMillis();
+        long epoch = now / windowMs;
+        Lease current = lease.get();
+        if (current.epoch != epoch) {
+            current = degraded ? fallback(current, epoch) : roll(current, epoch, now);
+        }
+        long remaining = current.acquire(permits);
+        if (remaining < 0) {
+            renew(epoch, now);
+            return false;
+        }
+        consumed.addAndGet(permits);
+        if (remaining <= current.watermark) {
+            renew(epoch, now);
+        } else if (!current.local && current.epoch == epoch && now >= (epoch + 1) * windowMs - prefetchTime
+                && prefetched.get().epoch <= epoch) {
+            // prefetch the lease of the next window, so that the window switches without a miss.
+            renew(epoch + 1, now);
+        }
+        return true;
+    }
+
+    /**
+     * Switches to the lease of the new time window, which is the prefetched one, or the one leased inline
+     * by a synchronous store. Otherwise the current lease is kept until the new one arrives.
+     *
+     * @param current the current lease
+     * @param epoch   the new time window
+     * @param now     the current time
+     * @return the lease to acquire from
+     */
+    private Lease roll(Lease current, long epoch, long now) {
+        Lease next = prefetched.get();
+        if (next.epoch == epoch) {
+            if (lease.compareAndSet(current, next)) {
+                prefetched.compareAndSet(next, Lease.EMPTY);
+                return next;
+            }
+            return lease.get();
+        }
+        renew(epoch, now);
+        return lease.get();
+    }
+
+    /**
+     * Leases a batch of permits asynchronously, there is at most one renewal in flight.
+     *
+     * @param epoch the time window
+     * @param now   the current time
+     */
+    private void renew(long epoch, long now) {
+        if (epoch == exhaustedEpoch || now < retryTime || !renewing.compareAndSet(false, true)) {
+            return;
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        renewal = future;
+        long size = getLeaseSize(now);
+        try {
+            store.lease(key + ":" + epoch, size, limit, windowMs * 2).whenComplete((granted, e) -> {
+                try {
+                    if (e != null || granted == null) {
+                        onFailure(epoch, e);
+                    } else {
+                        onSuccess(epoch, size, granted);
+                    }
+                } finally {
+                    renewing.set(false);
+                    future.complete(null);
+                }
+            });
+        } catch (Throwable e) {
+            onFailure(epoch, e);
+            renewing.set(false);
+            future.complete(null);
+        }
+    }
+
+    private void onSuccess(long epoch, long size, long granted) {
+        if (degraded) {
+            degraded = false;
+            logger.info("Lease store is recovered, rate limiter=" + key);
+        }
+        retryTime = 0;
+        if (granted < size) {
+            // the window is exhausted, stop leasing until the next window.
+            exhaustedEpoch = epoch;
+        }
+        long watermark = (long) (size * RENEW_RATIO);
+        // the prefetched lease is kept aside until its window begins.
+        AtomicReference<Lease> target = epoch > System.currentTimeMillis() / windowMs ? prefetched : lease;
+        while (true) {
+            Lease current = target.get();
+            if (current.epoch == epoch && !current.local) {
+                current.add(granted, watermark);
+                return;
+            } else if (current.epoch > epoch && !current.local) {
+                // the window has passed.
+                return;
+            } else if (target.compareAndSet(current, new Lease(epoch, granted, watermark, false))) {
+                return;
+            }
+        }
+    }
+
+    private void onFailure(long epoch, Throwable e) {
+        retryTime = System.currentTimeMillis() + Math.min(windowMs, RETRY_INTERVAL);
+        if (!degraded) {
+            degraded = true;
+            logger.warn("Lease store is unreachable, fall back to the local share, rate limiter=" + key
+                    + (e == null ? "" : ", caused by " + e.getMessage()));
+        }
+        fallback(lease.get(), epoch);
+    }
+
+    /**
+     * Installs the local share of the time window if the current lease is not a local one of the window.
+     *
+     * @param current the current lease
+     * @param epoch   the time window
+     * @return the lease of the time window
+     */
+    private Lease fallback(Lease current, long epoch) {
+        while (current.epoch != epoch || !current.local) {
+            Lease local = new Lease(epoch, getFallbackPermits(), 0, true);
+            if (lease.compareAndSet(current, local)) {
+                return local;
+            }
+            current = lease.get();
+        }
+        return current;
+    }
+
+    /**
+     * Returns the local share of the limit, which is configured or estimated from the recent consumption rate.
+     *
+     * @return the permits of the local share
+     */
+    private long getFallbackPermits() {
+        if (fallbackRatio != null) {
+            return Math.max(1, (long) Math.ceil(limit * fallbackRatio));
+        }
+        double r = rate;
+        return r <= 0 ? limit : Math.max(1, Math.min(limit, (long) Math.ceil(r * windowMs * 2)));
+    }
+
+    /**
+     * Returns the size of the next lease, which covers the consumption of a fraction of the window at the recent rate.
+     *
+     * @param now the current time
+     * @return the size of the next lease
+     */
+    private long getLeaseSize(long now) {
+        long total = consumed.get();
+        long elapsed = now - lastRenewTime;
+        if (lastRenewTime == 0) {
+            lastRenewTime = now;
+            lastConsumed = total;
+        } else if (elapsed >= MIN_RATE_INTERVAL) {
+            double current = (double) (total - lastConsumed) / elapsed;
+            rate = rate <= 0 ? current : (rate + current) / 2;
+            lastRenewTime = now;
+            lastConsumed = total;
+        }
+        double r = rate;
+        long size = r <= 0 ? maxLease : (long) Math.ceil(r * windowMs * leaseRatio);
+        return Math.max(1, Math.min(maxLease, size));
+    }
+
+    /**
+     * A batch of permits of a time window.
+     */
+    private static class Lease {
+
+        static final Lease EMPTY = new Lease(-1, 0, 0, false);
+
+        private final long epoch;
+
+        private final AtomicLong remaining;
+
+        private final boolean local;
+
+        private volatile long watermark;
+
+        Lease(long epoch, long permits, long watermark, boolean local) {
+            this.epoch = epoch;
+            this.remaining = new AtomicLong(permits);
+            this.watermark = watermark;
+            this.local = local;
+        }
+
+        /**
+         * Consumes the permits.
+         *
+         * @param permits the permits
+         * @return the remaining permits, or -1 if the permits are not enough
+         */
+        long acquire(int permits) {
+            while (true) {
+                long value = remaining.get();
+                if (value < permits) {
+                    return -1;
+                } else if (remaining.compareAndSet(value, value - permits)) {
+                    return value - permits;
+                }
+            }
+        }
+
+        void add(long permits, long watermark) {
+            this.watermark = watermark;
+            remaining.addAndGet(permits);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.ratelimit.lease;
+
+import com.jd.live.agent.governance.invoke.ratelimit.AbstractRateLimiterGroup;
+import com.jd.live.agent.governance.invoke.ratelimit.RateLimiter;
+import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
+import com.jd.live.agent.governance.policy.service.limit.SlidingWindow;
+
+import java.util.function.Supplier;
+
+/**
+ * LeaseRateLimiterGroup
+ *
+ * @since 1.6.0
+ */
+public class LeaseRateLimiterGroup extends AbstractRateLimiterGroup {
+
+    private final Supplier<LeaseStore> storeSupplier;
+
+    public LeaseRateLimiterGroup(Supplier<LeaseStore> storeSupplier, RateLimitPolicy policy) {
+        super(policy);
+        this.storeSupplier = storeSupplier;
+        init();
+    }
+
+    @Override
+    protected RateLimiter create(SlidingWindow window, String name) {
+        return new LeaseRateLimiter(storeSupplier.get(), policy, window);
+    }
+
+    @Override
+    protected void doClose() {
+        limiters.forEach(RateLimiter::close);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.ratelimit.lease;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A shared store of the distributed rate limiter, from which the nodes lease token batches.
+ * <p>
+ * The store keeps a counter for every key, which identifies a rate limiter and a time window. A lease
+ * grants at most the remaining permits of the window, so that the total permits of all the nodes don't
+ * exceed the limit.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+public interface LeaseStore extends AutoCloseable {
+
+    /**
+     * Leases a batch of permits asynchronously.
+     *
+     * @param key     the key of the rate limiter and time window
+     * @param permits the requested permits
+     * @param limit   the limit of the permits in the time window
+     * @param expire  the expiration time of the key in milliseconds
+     * @return the granted permits, which is in [0, permits]
+     */
+    CompletionStage<Long> lease(String key, long permits, long limit, long expire);
+
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Computes the granted permits from the counter after adding the requested permits.
+     *
+     * @param permits the requested permits
+     * @param limit   the limit of the permits
+     * @param used    the counter after adding the requested permits
+     * @return the granted permits
+     */
+    static long grant(long permits, long limit, long used) {
+        return Math.max(0, Math.min(permits, limit - (used - permits)));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.ratelimit.lease;
+
+import com.jd.live.agent.core.util.Futures;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An in-memory lease store, which stands in for the shared store in a single process.
+ *
+ * @since 1.6.0
+ */
+public class MemoryLeaseStore implements LeaseStore {
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong leases = new AtomicLong();
+
+    private volatile boolean available = true;
+
+    @Override
+    public CompletionStage<Long> lease(String key, long permits, long limit, long expire) {
+        if (!available) {
+            return Futures.future(new IOException("lease store is not available."));
+        }
+        long now = System.currentTimeMillis();
+        leases.incrementAndGet();
+        buckets.values().removeIf(b -> b.expireTime <= now);
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(now + expire));
+        return CompletableFuture.completedFuture(LeaseStore.grant(permits, limit, bucket.used.addAndGet(permits)));
+    }
+
+    /**
+     * Returns the number of leases.
+     *
+     * @return the number of leases
+     */
+    public long getLeases() {
+        return leases.get();
+    }
+
+    /**
+     * Sets whether the store is available, which simulates the outage of the shared store.
+     *
+     * @param available whether the store is available
+     */
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+
+    private static class Bucket {
+
+        private final AtomicLong used = new AtomicLong();
+
+        private final long expireTime;
+
+        Bucket(long expireTime) {
+            this.expireTime = expireTime;
+        }
+    }
+}
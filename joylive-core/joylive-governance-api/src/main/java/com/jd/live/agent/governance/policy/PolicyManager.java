@@ -15,6 +15,7 @@
  */
 package com.jd.live.agent.governance.policy;
 
+import com.jd.live.agent.core.config.AgentPath;
 import com.jd.live.agent.core.event.AgentEvent;
 import com.jd.live.agent.core.event.AgentEvent.EventType;
 import com.jd.live.agent.core.event.Event;
@@ -37,29 +38,36 @@ import com.jd.live.agent.governance.config.*;
 import com.jd.live.agent.governance.context.bag.AutoDetect;
 import com.jd.live.agent.governance.context.bag.Propagation;
 import com.jd.live.agent.governance.context.bag.Propagation.AutoPropagation;
+import com.jd.live.agent.governance.event.TrafficAggregator;
 import com.jd.live.agent.governance.event.TrafficEvent;
 import com.jd.live.agent.governance.event.TrafficEvent.ActionType;
+import com.jd.live.agent.governance.instance.health.HealthIndex;
 import com.jd.live.agent.governance.invoke.InvocationContext;
 import com.jd.live.agent.governance.invoke.cluster.ClusterInvoker;
 import com.jd.live.agent.governance.invoke.counter.CounterManager;
+import com.jd.live.agent.governance.invoke.filter.FilterChains;
 import com.jd.live.agent.governance.invoke.filter.InboundFilter;
 import com.jd.live.agent.governance.invoke.filter.OutboundFilter;
 import com.jd.live.agent.governance.invoke.filter.RouteFilter;
 import com.jd.live.agent.governance.invoke.loadbalance.LoadBalancer;
 import com.jd.live.agent.governance.invoke.matcher.TagMatcher;
+import com.jd.live.agent.governance.invoke.outlier.OutlierDetector;
+import com.jd.live.agent.governance.policy.service.Service;
+import com.jd.live.agent.governance.policy.snapshot.PolicySnapshotStore;
 import com.jd.live.agent.governance.policy.variable.UnitFunction;
 import com.jd.live.agent.governance.policy.variable.VariableFunction;
 import com.jd.live.agent.governance.policy.variable.VariableParser;
 import com.jd.live.agent.governance.service.PolicyService;
 import com.jd.live.agent.governance.subscription.config.ConfigCenter;
 import com.jd.live.agent.governance.subscription.policy.PolicyWatcher;
+import com.jd.live.agent.governance.subscription.policy.PolicyApplier;
 import com.jd.live.agent.governance.subscription.policy.PolicyWatcherManager;
-import com.jd.live.agent.governance.subscription.policy.PolicyWatcherSupervisor;
 import com.jd.live.agent.governance.subscription.policy.listener.LaneSpaceListener;
 import com.jd.live.agent.governance.subscription.policy.listener.LiveSpaceListener;
 import com.jd.live.agent.governance.subscription.policy.listener.ServiceListener;
 import lombok.Getter;
 
+import java.io.File;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -100,6 +108,9 @@ public class PolicyManager implements PolicySupervisor, InjectSourceSupplier, Ex
     @Inject(ObjectParser.JSON)
     private ObjectParser objectParser;
 
+    @Inject(value = AgentPath.COMPONENT_AGENT_PATH, nullable = true)
+    private AgentPath agentPath;
+
     @Getter
     @Config(GovernanceConfig.CONFIG_LIVE_ENABLED)
     private boolean liveEnabled;
@@ -176,14 +187,38 @@ public class PolicyManager implements PolicySupervisor, InjectSourceSupplier, Ex
     @Getter
     private CounterManager counterManager;
 
+    @Getter
+    private OutlierDetector outlierDetector;
+
+    @Getter
+    private final HealthIndex healthIndex = new HealthIndex();
+
+    @Getter
+    private FilterChains filterChains;
+
+    private final TrafficAggregator trafficAggregator = new TrafficAggregator();
+
     private List<String> serviceSyncers;
 
     private ConfigCenter configCenter;
 
-    private final PolicyWatcherSupervisor policyWatcherSupervisor = new PolicyWatcherManager();
+    private final PolicyWatcherManager policyWatcherSupervisor = new PolicyWatcherManager(this);
 
     private final AtomicBoolean warmup = new AtomicBoolean(false);
 
+    @Getter
+    private PolicySnapshotStore snapshotStore;
+
+    private final AtomicBoolean snapshotDirty = new AtomicBoolean(false);
+
+    // the policy restored from the snapshot is serving until it's reconciled with the syncers.
+    private volatile boolean snapshotPending;
+
+    @Override
+    public PolicyApplier getPolicyApplier() {
+        return policyWatcherSupervisor.getApplier();
+    }
+
     @Override
     public PolicySupplier getPolicySupplier() {
         return this;
@@ -227,7 +262,11 @@ public class PolicyManager implements PolicySupervisor, InjectSourceSupplier, Ex
             update.locate(application);
         }
         // live policy is updated by a few services.
-        return policy.compareAndSet(expect, update);
+        if (policy.compareAndSet(expect, update)) {
+            saveSnapshot();
+            return true;
+        }
+        return false;
     }
 
     @Override
@@ -238,6 +277,7 @@ public class PolicyManager implements PolicySupervisor, InjectSourceSupplier, Ex
             source.add(InvocationContext.COMPONENT_INVOCATION_CONTEXT, this);
             source.add(Propagation.COMPONENT_PROPAGATION, propagation);
             source.add(ConfigCenter.COMPONENT_CONFIG_CENTER, configCenter);
+            source.add(HealthIndex.COMPONENT_HEALTH_INDEX, healthIndex);
             if (governanceConfig != null) {
                 source.add(GovernanceConfig.COMPONENT_GOVERNANCE_CONFIG, governanceConfig);
                 source.add(ServiceConfig.COMPONENT_SERVICE_CONFIG, governanceConfig.getServiceConfig());
@@ -262,12 +302,30 @@ public class PolicyManager implements PolicySupervisor, InjectSourceSupplier, Ex
 
     @Override
     public void waitReady() {
-        if (!subscriptions.isEmpty()) {
+        GovernancePolicy restored = snapshotPending ? policy.get() : null;
+        if (restored != null) {
+            // reconcile the restored policy after all subscriptions are synchronized.
             List<CompletableFuture<Void>> futures = new ArrayList<>(subscriptions.size());
             subscriptions.forEach((k, v) -> futures.add(v.watch()));
+            Futures.allOf(futures).whenComplete((v, t) -> {
+                if (t == null) {
+                    reconcileSnapshot();
+                }
+            });
+        }
+        if (!subscriptions.isEmpty()) {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(subscriptions.size());
+            // the services restored from the snapshot are served without waiting for the syncers.
+            subscriptions.forEach((k, v) -> {
+                if (restored == null || restored.getService(k) == null) {
+                    futures.add(v.watch());
+                }
+            });
             try {
                 Futures.allOf(futures).get(governanceConfig.getInitializeTimeout(), TimeUnit.MILLISECONDS);
-                systemPublisher.offer(AgentEvent.onServicePolicyReady("Application service policies are ready."));
+                systemPublisher.offer(AgentEvent.onServicePolicyReady(futures.size() == subscriptions.size()
+                        ? "Application service policies are ready."
+                        : "Application service policies are ready, restored from snapshot."));
             } catch (Throwable e) {
                 Throwable cause = e instanceof ExecutionException ? e.getCause() : null;
                 cause = cause != null ? cause : e;
@@ -284,7 +342,11 @@ public class PolicyManager implements PolicySupervisor, InjectSourceSupplier, Ex
             MonitorConfig monitorConfig = governanceConfig.getServiceConfig().getMonitor();
             if (event.getActionType() == ActionType.FORWARD && monitorConfig.isForward()
                     || event.getActionType() == ActionType.REJECT && monitorConfig.isReject()) {
-                trafficPublisher.offer(event);
+                if (monitorConfig.isAggregateEnabled()) {
+                    trafficAggregator.add(event);
+                } else {
+                    trafficPublisher.offer(event);
+                }
             }
         }
     }
@@ -294,6 +356,10 @@ public class PolicyManager implements PolicySupervisor, InjectSourceSupplier, Ex
         governanceConfig = governanceConfig == null ? new GovernanceConfig() : governanceConfig;
         governanceConfig.initialize(application);
         counterManager = new CounterManager(timer);
+        outlierDetector = new OutlierDetector(timer);
+        filterChains = new FilterChains(inboundFilters, routeFilters, outboundFilters);
+        restoreSnapshot();
+        scheduleTrafficFlush();
         propagation = buildPropagation();
         systemPublisher.addHandler(events -> {
             for (Event<AgentEvent> event : events) {
@@ -305,9 +371,11 @@ public class PolicyManager implements PolicySupervisor, InjectSourceSupplier, Ex
             }
         });
 
-        policyWatcherSupervisor.addListener(TYPE_LIVE_SPACE, new LiveSpaceListener(this, objectParser));
-        policyWatcherSupervisor.addListener(TYPE_LANE_SPACE, new LaneSpaceListener(this, objectParser));
-        policyWatcherSupervisor.addListener(TYPE_SERVICE_SPACE, new ServiceListener(this, objectParser, policyPublisher));
+        PolicyApplier applier = policyWatcherSupervisor.getApplier();
+        applier.setCoalesceWindow(governanceConfig.getPolicyCoalesceWindow());
+        policyWatcherSupervisor.addListener(TYPE_LIVE_SPACE, new LiveSpaceListener(this, objectParser, applier));
+        policyWatcherSupervisor.addListener(TYPE_LANE_SPACE, new LaneSpaceListener(this, objectParser, applier));
+        policyWatcherSupervisor.addListener(TYPE_SERVICE_SPACE, new ServiceListener(this, objectParser, policyPublisher, applier));
     }
 
     @Override
@@ -375,6 +443,98 @@ public class PolicyManager implements PolicySupervisor, InjectSourceSupplier, Ex
         return result;
     }
 
+    /**
+     * Schedules a task to flush the aggregated traffic events to the traffic publisher periodically.
+     */
+    private void scheduleTrafficFlush() {
+        long interval = governanceConfig.getServiceConfig().getMonitor().getAggregateInterval();
+        interval = interval <= 0 ? MonitorConfig.DEFAULT_AGGREGATE_INTERVAL : interval;
+        timer.delay("traffic-flush", interval, () -> {
+            try {
+                trafficAggregator.flush(trafficPublisher::offer);
+            } finally {
+                scheduleTrafficFlush();
+            }
+        });
+    }
+
+    /**
+     * Restores the last-known-good policy from the snapshot if it's enabled and not stale.
+     * The restored services are marked as unconfirmed, so that the syncers always take them over.
+     */
+    private void restoreSnapshot() {
+        SnapshotConfig config = governanceConfig.getSnapshotConfig();
+        File file = config == null || !config.isEnabled() ? null : getSnapshotFile(config);
+        if (file == null) {
+            return;
+        }
+        snapshotStore = new PolicySnapshotStore(file, objectParser, config);
+        GovernancePolicy restored = snapshotStore.load();
+        if (restored != null) {
+            if (restored.getServices() != null) {
+                restored.getServices().forEach(o -> o.setVersion(PolicySnapshotStore.UNCONFIRMED_VERSION));
+            }
+            restored.cache();
+            snapshotPending = true;
+            if (!update(null, restored)) {
+                snapshotPending = false;
+            }
+        }
+    }
+
+    /**
+     * Removes the restored services which are not confirmed by the syncers, and resumes saving the snapshot.
+     */
+    private void reconcileSnapshot() {
+        if (snapshotPending) {
+            snapshotPending = false;
+            policyWatcherSupervisor.getApplier().apply(p -> {
+                List<Service> services = p.getServices();
+                if (services != null) {
+                    List<Service> confirmed = new ArrayList<>(services.size());
+                    for (Service service : services) {
+                        if (service.getVersion() != PolicySnapshotStore.UNCONFIRMED_VERSION) {
+                            confirmed.add(service);
+                        }
+                    }
+                    p.setServices(confirmed);
+                }
+            });
+        }
+    }
+
+    /**
+     * Schedules to save the current policy to the snapshot, the updates in the flush interval are coalesced.
+     */
+    private void saveSnapshot() {
+        if (snapshotStore != null && !snapshotPending && snapshotDirty.compareAndSet(false, true)) {
+            long interval = governanceConfig.getSnapshotConfig().getFlushInterval();
+            interval = interval <= 0 ? SnapshotConfig.DEFAULT_FLUSH_INTERVAL : interval;
+            timer.delay("policy-snapshot", interval, () -> {
+                snapshotDirty.set(false);
+                snapshotStore.save(policy.get());
+            });
+        }
+    }
+
+    /**
+     * Returns the snapshot file of this application.
+     *
+     * @param config the snapshot config
+     * @return the snapshot file, or null if the directory is not available
+     */
+    private File getSnapshotFile(SnapshotConfig config) {
+        String path = config.getPath();
+        File dir = path != null && !path.isEmpty() ? new File(path)
+                : (agentPath == null || agentPath.getOutputPath() == null ? null : new File(agentPath.getOutputPath(), "snapshot"));
+        if (dir == null) {
+            return null;
+        }
+        String name = application.getName();
+        name = name == null || name.isEmpty() ? "application" : name.replaceAll("[^a-zA-Z0-9._-]", "_");
+        return new File(dir, name + ".policy");
+    }
+
     /**
      * Initiates the warmup process.
      */
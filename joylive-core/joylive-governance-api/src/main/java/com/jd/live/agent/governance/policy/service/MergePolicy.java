@@ -35,6 +35,9 @@ public enum MergePolicy implements PolicyMerger {
                 oldPolicy.setLanePolicies(null);
                 oldPolicy.setRoutePolicies(null);
                 oldPolicy.setLoadBalancePolicy(null);
+                oldPolicy.setLocalityPolicy(null);
+                oldPolicy.setOutlierPolicy(null);
+                oldPolicy.setAdmissionPolicy(null);
                 oldPolicy.setConcurrencyLimitPolicies(null);
                 oldPolicy.setRateLimitPolicies(null);
                 oldPolicy.setLoadLimitPolicies(null);
@@ -53,6 +56,9 @@ public enum MergePolicy implements PolicyMerger {
                 oldPolicy.setLanePolicies(newPolicy.getLanePolicies());
                 oldPolicy.setRoutePolicies(newPolicy.getRoutePolicies());
                 oldPolicy.setLoadBalancePolicy(newPolicy.getLoadBalancePolicy());
+                oldPolicy.setLocalityPolicy(newPolicy.getLocalityPolicy());
+                oldPolicy.setOutlierPolicy(newPolicy.getOutlierPolicy());
+                oldPolicy.setAdmissionPolicy(newPolicy.getAdmissionPolicy());
                 oldPolicy.setConcurrencyLimitPolicies(newPolicy.getConcurrencyLimitPolicies());
                 oldPolicy.setRateLimitPolicies(newPolicy.getRateLimitPolicies());
                 oldPolicy.setLoadLimitPolicies(newPolicy.getLoadLimitPolicies());
@@ -84,6 +90,9 @@ public enum MergePolicy implements PolicyMerger {
                 oldPolicy.setLanePolicies(null);
                 oldPolicy.setRoutePolicies(null);
                 oldPolicy.setLoadBalancePolicy(null);
+                oldPolicy.setLocalityPolicy(null);
+                oldPolicy.setOutlierPolicy(null);
+                oldPolicy.setAdmissionPolicy(null);
                 oldPolicy.setConcurrencyLimitPolicies(null);
                 oldPolicy.setRateLimitPolicies(null);
                 oldPolicy.setLoadLimitPolicies(null);
@@ -101,6 +110,9 @@ public enum MergePolicy implements PolicyMerger {
                 oldPolicy.setLanePolicies(newPolicy.getLanePolicies());
                 oldPolicy.setRoutePolicies(newPolicy.getRoutePolicies());
                 oldPolicy.setLoadBalancePolicy(newPolicy.getLoadBalancePolicy());
+                oldPolicy.setLocalityPolicy(newPolicy.getLocalityPolicy());
+                oldPolicy.setOutlierPolicy(newPolicy.getOutlierPolicy());
+                oldPolicy.setAdmissionPolicy(newPolicy.getAdmissionPolicy());
                 oldPolicy.setConcurrencyLimitPolicies(newPolicy.getConcurrencyLimitPolicies());
                 oldPolicy.setRateLimitPolicies(newPolicy.getRateLimitPolicies());
                 oldPolicy.setLoadLimitPolicies(newPolicy.getLoadLimitPolicies());
@@ -122,6 +134,9 @@ public enum MergePolicy implements PolicyMerger {
             newPolicy.setLanePolicies(null);
             newPolicy.setRoutePolicies(null);
             newPolicy.setLoadBalancePolicy(null);
+            newPolicy.setLocalityPolicy(null);
+            newPolicy.setOutlierPolicy(null);
+            newPolicy.setAdmissionPolicy(null);
             newPolicy.setConcurrencyLimitPolicies(null);
             newPolicy.setRateLimitPolicies(null);
             newPolicy.setLoadLimitPolicies(null);
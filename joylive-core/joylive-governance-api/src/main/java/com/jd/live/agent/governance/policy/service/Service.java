@@ -24,9 +24,12 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 
 /**
@@ -39,6 +42,8 @@ public class Service extends PolicyOwner implements ServiceName {
 
     private static final URI SERVICE_URI = URI.builder().schema("service").build();
 
+    private static final int MAX_URI_CACHE_SIZE = 4096;
+
     @Getter
     @Setter
     private String name;
@@ -64,6 +69,11 @@ public class Service extends PolicyOwner implements ServiceName {
 
     private transient final Cache<String, ServiceGroup> groupCache = new MapCache<>(new ListBuilder<>(() -> groups, ServiceGroup::getName));
 
+    /**
+     * Cache of request uris, keyed by group, path and method. It's cleared when it's full.
+     */
+    private transient final Map<String, Map<String, Map<String, URI>>> uris = new ConcurrentHashMap<>();
+
     public Service() {
     }
 
@@ -148,6 +158,55 @@ public class Service extends PolicyOwner implements ServiceName {
         return serviceGroup == null ? null : serviceGroup.getServicePolicy(path, method);
     }
 
+    /**
+     * Returns the request uri of the group, path and method, which is shared by the requests of the same method.
+     * The uri is built once and cached, so it can be reused across requests.
+     *
+     * @param group  The name of the service group.
+     * @param path   The service path.
+     * @param method The service method.
+     * @return The request uri.
+     */
+    public URI getUri(String group, String path, String method) {
+        String groupKey = group == null ? "" : group;
+        String pathKey = path == null ? "" : path;
+        String methodKey = method == null ? "" : method;
+        Map<String, Map<String, URI>> paths = uris.get(groupKey);
+        Map<String, URI> methods = paths == null ? null : paths.get(pathKey);
+        URI result = methods == null ? null : methods.get(methodKey);
+        if (result == null) {
+            result = createUri(name, group, path, method);
+            if (uris.size() >= MAX_URI_CACHE_SIZE) {
+                uris.clear();
+            }
+            paths = uris.computeIfAbsent(groupKey, k -> new ConcurrentHashMap<>());
+            if (paths.size() >= MAX_URI_CACHE_SIZE) {
+                // clear on full, so the high cardinality paths such as rest paths with variables don't stop caching.
+                paths.clear();
+            }
+            paths.computeIfAbsent(pathKey, k -> new ConcurrentHashMap<>()).putIfAbsent(methodKey, result);
+        }
+        return result;
+    }
+
+    /**
+     * Creates the request uri of the service, group, path and method.
+     *
+     * @param service The name of the service.
+     * @param group   The name of the service group.
+     * @param path    The service path.
+     * @param method  The service method.
+     * @return The request uri.
+     */
+    public static URI createUri(String service, String group, String path, String method) {
+        Map<String, String> parameters = new HashMap<>(4);
+        parameters.put(KEY_SERVICE_METHOD, method);
+        if (group != null && !group.isEmpty()) {
+            parameters.put(KEY_SERVICE_GROUP, group);
+        }
+        return new URI(null, service, null, path, parameters);
+    }
+
     /**
      * Supplements the service with default values and updates service groups accordingly.
      */
@@ -22,6 +22,7 @@ import com.jd.live.agent.core.util.map.ListBuilder;
 import com.jd.live.agent.governance.policy.PolicyId;
 import com.jd.live.agent.governance.policy.PolicyInherit;
 import com.jd.live.agent.governance.policy.PolicyInherit.PolicyInheritWithIdGen;
+import com.jd.live.agent.governance.policy.service.admission.AdmissionPolicy;
 import com.jd.live.agent.governance.policy.service.auth.AuthPolicy;
 import com.jd.live.agent.governance.policy.service.auth.PermissionPolicy;
 import com.jd.live.agent.governance.policy.service.circuitbreak.CircuitBreakPolicy;
@@ -33,6 +34,8 @@ import com.jd.live.agent.governance.policy.service.limit.LoadLimitPolicy;
 import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
 import com.jd.live.agent.governance.policy.service.live.ServiceLivePolicy;
 import com.jd.live.agent.governance.policy.service.loadbalance.LoadBalancePolicy;
+import com.jd.live.agent.governance.policy.service.locality.LocalityPolicy;
+import com.jd.live.agent.governance.policy.service.outlier.OutlierPolicy;
 import com.jd.live.agent.governance.policy.service.route.RoutePolicy;
 import lombok.Getter;
 import lombok.Setter;
@@ -50,6 +53,18 @@ public class ServicePolicy extends PolicyId implements Cloneable, PolicyInheritW
     @Getter
     private LoadBalancePolicy loadBalancePolicy;
 
+    @Setter
+    @Getter
+    private LocalityPolicy localityPolicy;
+
+    @Setter
+    @Getter
+    private OutlierPolicy outlierPolicy;
+
+    @Setter
+    @Getter
+    private AdmissionPolicy admissionPolicy;
+
     @Setter
     @Getter
     private ClusterPolicy clusterPolicy;
@@ -104,6 +119,15 @@ public class ServicePolicy extends PolicyId implements Cloneable, PolicyInheritW
         if (loadBalancePolicy != null && loadBalancePolicy.getId() == null) {
             loadBalancePolicy.setId(id);
         }
+        if (localityPolicy != null && localityPolicy.getId() == null) {
+            localityPolicy.setId(id);
+        }
+        if (outlierPolicy != null && outlierPolicy.getId() == null) {
+            outlierPolicy.setId(id);
+        }
+        if (admissionPolicy != null && admissionPolicy.getId() == null) {
+            admissionPolicy.setId(id);
+        }
         if (clusterPolicy != null && clusterPolicy.getId() == null) {
             clusterPolicy.setId(id);
         }
@@ -143,6 +167,9 @@ public class ServicePolicy extends PolicyId implements Cloneable, PolicyInheritW
             livePolicy = copy(source.livePolicy, livePolicy, s -> new ServiceLivePolicy());
             clusterPolicy = copy(source.clusterPolicy, clusterPolicy, s -> new ClusterPolicy());
             loadBalancePolicy = copy(source.loadBalancePolicy, loadBalancePolicy, s -> new LoadBalancePolicy());
+            localityPolicy = copy(source.localityPolicy, localityPolicy, s -> new LocalityPolicy());
+            outlierPolicy = copy(source.outlierPolicy, outlierPolicy, s -> new OutlierPolicy());
+            admissionPolicy = copy(source.admissionPolicy, admissionPolicy, s -> new AdmissionPolicy());
             authPolicy = copy(source.authPolicy, authPolicy, s -> new AuthPolicy());
 
             if ((rateLimitPolicies == null || rateLimitPolicies.isEmpty()) &&
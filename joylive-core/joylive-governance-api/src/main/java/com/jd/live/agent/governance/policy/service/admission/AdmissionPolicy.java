@@ -0,0 +1,195 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.policy.service.admission;
+
+import com.jd.live.agent.core.util.matcher.Matcher;
+import com.jd.live.agent.governance.policy.PolicyInherit.PolicyInheritWithId;
+import com.jd.live.agent.governance.policy.service.annotation.Provider;
+import com.jd.live.agent.governance.rule.tag.TagCondition;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Represents a policy for priority aware admission control of the inbound requests.
+ * <p>
+ * The requests are classified into priority tiers by the rules. When the concurrency is saturated,
+ * the requests wait in a bounded queue per tier, and are admitted strictly by priority. The queued requests
+ * are dropped when their sojourn time stays above the target delay for an interval, or exceeds the maximum wait time.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+@Getter
+@Setter
+@Provider
+public class AdmissionPolicy implements PolicyInheritWithId<AdmissionPolicy> {
+
+    public static final int DEFAULT_TIERS = 3;
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 100;
+
+    public static final long DEFAULT_TARGET_DELAY = 5;
+
+    public static final long DEFAULT_INTERVAL = 100;
+
+    public static final long DEFAULT_MAX_WAIT_TIME = 1000;
+
+    /**
+     * The unique identifier of the admission policy.
+     */
+    private Long id;
+
+    /**
+     * The maximum number of concurrently admitted requests.
+     */
+    private Integer maxConcurrency;
+
+    /**
+     * The number of the priority tiers.
+     */
+    private Integer tiers;
+
+    /**
+     * The priority tier of the requests which don't match any rule, which defaults to the lowest tier.
+     */
+    private Integer defaultPriority;
+
+    /**
+     * The maximum number of waiting requests in each tier.
+     */
+    private Integer queueCapacity;
+
+    /**
+     * The acceptable sojourn time of the queued requests in milliseconds.
+     */
+    private Long targetDelay;
+
+    /**
+     * The interval in milliseconds, during which the sojourn time must stay above the target delay to start dropping.
+     */
+    private Long interval;
+
+    /**
+     * The maximum time in milliseconds a request can wait in the queue.
+     */
+    private Long maxWaitTime;
+
+    /**
+     * The rules to classify the requests into priority tiers.
+     */
+    private List<AdmissionRule> rules;
+
+    @Override
+    public void supplement(AdmissionPolicy source) {
+        if (source == null) {
+            return;
+        }
+        if (id == null) {
+            id = source.getId();
+        }
+        if (maxConcurrency == null) {
+            maxConcurrency = source.maxConcurrency;
+        }
+        if (tiers == null) {
+            tiers = source.tiers;
+        }
+        if (defaultPriority == null) {
+            defaultPriority = source.defaultPriority;
+        }
+        if (queueCapacity == null) {
+            queueCapacity = source.queueCapacity;
+        }
+        if (targetDelay == null) {
+            targetDelay = source.targetDelay;
+        }
+        if (interval == null) {
+            interval = source.interval;
+        }
+        if (maxWaitTime == null) {
+            maxWaitTime = source.maxWaitTime;
+        }
+        if (rules == null) {
+            rules = source.rules;
+        }
+    }
+
+    /**
+     * Returns whether the admission control is enabled.
+     *
+     * @return true if the maximum concurrency is positive
+     */
+    public boolean isEnabled() {
+        return maxConcurrency != null && maxConcurrency > 0;
+    }
+
+    /**
+     * Returns the number of the priority tiers, or the default value if it's not set.
+     */
+    public int getTiersOrDefault() {
+        return tiers == null || tiers <= 0 ? DEFAULT_TIERS : tiers;
+    }
+
+    /**
+     * Returns the queue capacity of each tier, or the default value if it's not set.
+     */
+    public int getQueueCapacityOrDefault() {
+        return queueCapacity == null || queueCapacity < 0 ? DEFAULT_QUEUE_CAPACITY : queueCapacity;
+    }
+
+    /**
+     * Returns the target delay in milliseconds, or the default value if it's not set.
+     */
+    public long getTargetDelayOrDefault() {
+        return targetDelay == null || targetDelay <= 0 ? DEFAULT_TARGET_DELAY : targetDelay;
+    }
+
+    /**
+     * Returns the interval in milliseconds, or the default value if it's not set.
+     */
+    public long getIntervalOrDefault() {
+        return interval == null || interval <= 0 ? DEFAULT_INTERVAL : interval;
+    }
+
+    /**
+     * Returns the maximum wait time in milliseconds, or the default value if it's not set.
+     */
+    public long getMaxWaitTimeOrDefault() {
+        return maxWaitTime == null || maxWaitTime <= 0 ? DEFAULT_MAX_WAIT_TIME : maxWaitTime;
+    }
+
+    /**
+     * Classifies the request into a priority tier by the first matched rule.
+     *
+     * @param matcher the matcher of the request
+     * @return the priority tier in [0, tiers)
+     */
+    public int getPriority(Matcher<TagCondition> matcher) {
+        int size = getTiersOrDefault();
+        Integer priority = null;
+        if (rules != null) {
+            for (AdmissionRule rule : rules) {
+                if (rule.getPriority() != null && rule.match(matcher)) {
+                    priority = rule.getPriority();
+                    break;
+                }
+            }
+        }
+        priority = priority == null ? defaultPriority : priority;
+        return priority == null || priority >= size ? size - 1 : Math.max(priority, 0);
+    }
+}
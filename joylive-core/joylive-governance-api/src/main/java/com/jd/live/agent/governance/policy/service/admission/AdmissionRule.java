@@ -0,0 +1,37 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.policy.service.admission;
+
+import com.jd.live.agent.governance.rule.tag.TagGroup;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Represents a rule which classifies the matched inbound requests into a priority tier.
+ * The tier 0 is the highest priority.
+ *
+ * @since 1.6.0
+ */
+@Getter
+@Setter
+public class AdmissionRule extends TagGroup {
+
+    /**
+     * The priority tier of the matched requests.
+     */
+    private Integer priority;
+
+}
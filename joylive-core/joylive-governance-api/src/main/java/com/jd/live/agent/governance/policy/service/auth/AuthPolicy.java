@@ -15,6 +15,7 @@
  */
 package com.jd.live.agent.governance.policy.service.auth;
 
+import com.jd.live.agent.core.util.option.Converts;
 import com.jd.live.agent.governance.policy.PolicyId;
 import com.jd.live.agent.governance.policy.PolicyInherit;
 import lombok.Getter;
@@ -25,6 +26,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static com.jd.live.agent.governance.invoke.auth.Authenticate.KEY_AUTH;
+import static com.jd.live.agent.governance.policy.service.auth.JwtPolicy.*;
 import static com.jd.live.agent.governance.policy.service.auth.TokenPolicy.KEY_TOKEN;
 import static com.jd.live.agent.governance.policy.service.auth.TokenPolicy.KEY_TOKEN_KEY;
 
@@ -48,6 +50,8 @@ public class AuthPolicy extends PolicyId implements PolicyInherit.PolicyInheritW
 
     private volatile transient TokenPolicy tokenPolicy;
 
+    private volatile transient JwtPolicy jwtPolicy;
+
     public AuthPolicy() {
     }
 
@@ -93,4 +97,19 @@ public class AuthPolicy extends PolicyId implements PolicyInherit.PolicyInheritW
         }
         return tokenPolicy;
     }
+
+    public JwtPolicy getJwtPolicy() {
+        if (jwtPolicy == null) {
+            synchronized (this) {
+                if (jwtPolicy == null) {
+                    String key = getParameter(KEY_JWT_KEY, KEY_AUTH);
+                    String algorithm = getParameter(KEY_JWT_ALGORITHM, ALGORITHM_HS256);
+                    long expireTime = Converts.getLong(getParameter(KEY_JWT_EXPIRE_TIME), DEFAULT_EXPIRE_TIME);
+                    jwtPolicy = new JwtPolicy(key, algorithm, getParameter(KEY_JWT_SECRET), getParameter(KEY_JWT_PUBLIC_KEY),
+                            getParameter(KEY_JWT_PRIVATE_KEY), getParameter(KEY_JWT_ISSUER), expireTime);
+                }
+            }
+        }
+        return jwtPolicy;
+    }
 }
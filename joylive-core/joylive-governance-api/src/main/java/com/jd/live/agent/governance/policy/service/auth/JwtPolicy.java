@@ -0,0 +1,117 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.policy.service.auth;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * The policy of the signed json web tokens between the services.
+ *
+ * @since 1.6.0
+ */
+@Getter
+@Setter
+public class JwtPolicy {
+
+    public static final String KEY_JWT_KEY = "jwt.key";
+
+    public static final String KEY_JWT_ALGORITHM = "jwt.algorithm";
+
+    public static final String KEY_JWT_SECRET = "jwt.secret";
+
+    public static final String KEY_JWT_PUBLIC_KEY = "jwt.publicKey";
+
+    public static final String KEY_JWT_PRIVATE_KEY = "jwt.privateKey";
+
+    public static final String KEY_JWT_ISSUER = "jwt.issuer";
+
+    public static final String KEY_JWT_EXPIRE_TIME = "jwt.expireTime";
+
+    public static final String ALGORITHM_HS256 = "HS256";
+
+    public static final String ALGORITHM_RS256 = "RS256";
+
+    public static final long DEFAULT_EXPIRE_TIME = 10 * 60 * 1000L;
+
+    /**
+     * The header key of the token.
+     */
+    private String key;
+
+    /**
+     * The signature algorithm, HS256 or RS256.
+     */
+    private String algorithm;
+
+    /**
+     * The shared secret of HS256.
+     */
+    private String secret;
+
+    /**
+     * The base64 encoded X.509 public key of RS256, which is used to verify the tokens.
+     */
+    private String publicKey;
+
+    /**
+     * The base64 encoded PKCS#8 private key of RS256, which is used to sign the tokens.
+     */
+    private String privateKey;
+
+    /**
+     * The expected issuer of the inbound tokens, the issuer is not checked if it's empty.
+     */
+    private String issuer;
+
+    /**
+     * The lifetime of the outbound tokens in milliseconds.
+     */
+    private long expireTime;
+
+    public JwtPolicy() {
+    }
+
+    public JwtPolicy(String key, String algorithm, String secret, String publicKey, String privateKey, String issuer, long expireTime) {
+        this.key = key;
+        this.algorithm = algorithm;
+        this.secret = secret;
+        this.publicKey = publicKey;
+        this.privateKey = privateKey;
+        this.issuer = issuer;
+        this.expireTime = expireTime;
+    }
+
+    public boolean isHmac() {
+        return ALGORITHM_HS256.equalsIgnoreCase(algorithm);
+    }
+
+    public boolean isRsa() {
+        return ALGORITHM_RS256.equalsIgnoreCase(algorithm);
+    }
+
+    public boolean isValid() {
+        if (key == null || key.isEmpty()) {
+            return false;
+        } else if (isHmac()) {
+            return secret != null && !secret.isEmpty();
+        } else if (isRsa()) {
+            return publicKey != null && !publicKey.isEmpty() || privateKey != null && !privateKey.isEmpty();
+        }
+        return false;
+    }
+
+}
@@ -15,6 +15,7 @@
  */
 package com.jd.live.agent.governance.policy.service.circuitbreak;
 
+import com.jd.live.agent.core.util.URI;
 import com.jd.live.agent.governance.exception.ErrorPolicy;
 import com.jd.live.agent.governance.policy.PolicyId;
 import com.jd.live.agent.governance.policy.PolicyInherit;
@@ -24,10 +25,13 @@ import com.jd.live.agent.governance.util.RecoverRatio;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * CircuitBreakPolicy
@@ -49,6 +53,7 @@ public class CircuitBreakPolicy extends PolicyId
     public static final int DEFAULT_RECOVER_DURATION = 1000 * 15;
     public static final int DEFAULT_MAX_WAIT_DURATION_IN_HALF_OPEN_STATE = 0;
     public static final int DEFAULT_RECOVER_PHASE = 10;
+    private static final int MAX_URI_CACHE_SIZE = 4096;
 
     /**
      * Name of this policy
@@ -199,9 +204,19 @@ public class CircuitBreakPolicy extends PolicyId
     private transient RecoverRatio recoverRatio;
 
     /**
-     * Map of temporarily blocked endpoints
+     * Copy-on-write snapshot of temporarily blocked endpoints, rebuilt only on state transitions.
      */
-    private transient Map<String, CircuitBreakInspector> inspectors = new ConcurrentHashMap<>();
+    private transient AtomicReference<Map<String, CircuitBreakInspector>> inspectors = new AtomicReference<>(Collections.emptyMap());
+
+    /**
+     * Cache of api level resource uris, keyed by path and method.
+     */
+    private transient Map<String, Map<String, URI>> apiUris = new ConcurrentHashMap<>();
+
+    /**
+     * Cache of instance level resource uris, keyed by endpoint id. It's cleared when it's full.
+     */
+    private transient Map<String, URI> instanceUris = new ConcurrentHashMap<>();
 
     public CircuitBreakLevel getLevel() {
         return level == null ? CircuitBreakLevel.INSTANCE : level;
@@ -359,7 +374,16 @@ public class CircuitBreakPolicy extends PolicyId
      * @return the circuit break inspector, or null if not found or ID is null
      */
     public CircuitBreakInspector getInspector(String id) {
-        return id == null ? null : inspectors.get(id);
+        return id == null ? null : inspectors.get().get(id);
+    }
+
+    /**
+     * Checks if there is any endpoint inspected by this policy.
+     *
+     * @return true if there is at least one inspector, false otherwise
+     */
+    public boolean hasInspector() {
+        return !inspectors.get().isEmpty();
     }
 
     /**
@@ -370,7 +394,14 @@ public class CircuitBreakPolicy extends PolicyId
      */
     public void addInspector(String id, CircuitBreakInspector inspector) {
         if (id != null && inspector != null) {
-            inspectors.put(id, inspector);
+            inspectors.updateAndGet(old -> {
+                if (old.get(id) == inspector) {
+                    return old;
+                }
+                Map<String, CircuitBreakInspector> result = new HashMap<>(old);
+                result.put(id, inspector);
+                return result;
+            });
         }
     }
 
@@ -381,9 +412,61 @@ public class CircuitBreakPolicy extends PolicyId
      * @param inspector the circuit breaker inspector to be removed
      */
     public void removeInspector(String id, CircuitBreakInspector inspector) {
-        if (id != null) {
-            inspectors.computeIfPresent(id, (k, v) -> v == inspector ? null : v);
+        if (id != null && inspector != null) {
+            inspectors.updateAndGet(old -> {
+                if (old.get(id) != inspector) {
+                    return old;
+                }
+                Map<String, CircuitBreakInspector> result = new HashMap<>(old);
+                result.remove(id);
+                return result.isEmpty() ? Collections.emptyMap() : result;
+            });
+        }
+    }
+
+    /**
+     * Returns the api level resource uri for the specified path and method.
+     * The uri is built once and cached, so it can be reused across requests.
+     *
+     * @param path   the path of the service
+     * @param method the method of the service
+     * @return the resource uri
+     */
+    public URI getUri(String path, String method) {
+        String pathKey = path == null ? "" : path;
+        String methodKey = method == null ? "" : method;
+        Map<String, URI> methods = apiUris.get(pathKey);
+        URI result = methods == null ? null : methods.get(methodKey);
+        if (result == null) {
+            result = uri.path(path).parameter(KEY_SERVICE_METHOD, method);
+            if (apiUris.size() >= MAX_URI_CACHE_SIZE) {
+                // clear on full, so the stale paths don't stop caching the new ones.
+                apiUris.clear();
+            }
+            apiUris.computeIfAbsent(pathKey, k -> new ConcurrentHashMap<>()).putIfAbsent(methodKey, result);
         }
+        return result;
+    }
+
+    /**
+     * Returns the instance level resource uri for the specified endpoint.
+     * The uri is built once and cached, so it can be reused across requests.
+     *
+     * @param endpointId the id of the endpoint
+     * @return the resource uri
+     */
+    public URI getUri(String endpointId) {
+        String key = endpointId == null ? "" : endpointId;
+        URI result = instanceUris.get(key);
+        if (result == null) {
+            result = uri.parameter(KEY_SERVICE_ENDPOINT, endpointId);
+            if (instanceUris.size() >= MAX_URI_CACHE_SIZE) {
+                // clear on full, so the endpoints left by churn don't stop caching the new ones.
+                instanceUris.clear();
+            }
+            instanceUris.putIfAbsent(key, result);
+        }
+        return result;
     }
 
     /**
@@ -396,6 +479,12 @@ public class CircuitBreakPolicy extends PolicyId
         if (inspectors != policy.inspectors) {
             inspectors = policy.inspectors;
         }
+        if (apiUris != policy.apiUris) {
+            apiUris = policy.apiUris;
+        }
+        if (instanceUris != policy.instanceUris) {
+            instanceUris = policy.instanceUris;
+        }
     }
 
     /**
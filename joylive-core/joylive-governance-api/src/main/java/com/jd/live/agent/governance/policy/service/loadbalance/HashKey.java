@@ -0,0 +1,63 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.policy.service.loadbalance;
+
+import com.jd.live.agent.governance.policy.HttpScope;
+import com.jd.live.agent.governance.policy.variable.VariableSource.ExpressionVariableSource;
+import com.jd.live.agent.governance.policy.variable.VariableSource.HttpVariableSource;
+import com.jd.live.agent.governance.policy.variable.VariableSource.MethodVariableSource;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Represents the source of the hash key used by the consistent hash load balancers.
+ * <p>
+ * The key is parsed from the header, query or cookie of the http requests, and from the
+ * argument path or the expression of the rpc requests.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+@Getter
+@Setter
+public class HashKey implements HttpVariableSource, MethodVariableSource, ExpressionVariableSource {
+
+    /**
+     * The scope of the http variable.
+     */
+    private HttpScope scope = HttpScope.HEADER;
+
+    /**
+     * The key of the http variable.
+     */
+    private String key;
+
+    /**
+     * The argument index of the rpc variable.
+     */
+    private int argument = -1;
+
+    /**
+     * The path in the argument of the rpc variable.
+     */
+    private String path;
+
+    /**
+     * The expression of the rpc variable.
+     */
+    private String expression;
+
+}
@@ -60,6 +60,17 @@ public class LoadBalancePolicy implements PolicyInheritWithId<LoadBalancePolicy>
      */
     private StickyType stickyType = StickyType.NONE;
 
+    /**
+     * The source of the hash key for the consistent hash load balancers.
+     */
+    private HashKey hashKey;
+
+    /**
+     * The load factor of the consistent hash load balancers. When it's greater than 1, an endpoint whose
+     * active requests exceed the factor times the average is skipped for the next one.
+     */
+    private Double loadFactor;
+
     /**
      * Constructs a new, empty {@code LoadBalancePolicy}.
      */
@@ -92,6 +103,12 @@ public class LoadBalancePolicy implements PolicyInheritWithId<LoadBalancePolicy>
         if (stickyType == null) {
             stickyType = source.stickyType;
         }
+        if (hashKey == null) {
+            hashKey = source.hashKey;
+        }
+        if (loadFactor == null) {
+            loadFactor = source.loadFactor;
+        }
     }
 
 }
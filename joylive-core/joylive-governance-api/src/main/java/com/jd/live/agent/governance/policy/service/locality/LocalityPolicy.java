@@ -0,0 +1,95 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.policy.service.locality;
+
+import com.jd.live.agent.governance.policy.PolicyInherit.PolicyInheritWithId;
+import com.jd.live.agent.governance.policy.service.annotation.Consumer;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Represents a policy for locality aware routing, which prefers the endpoints in the caller's zone,
+ * then the ones in the caller's region, and spills the traffic outward when the local healthy capacity
+ * is not enough.
+ *
+ * @since 1.6.0
+ */
+@Getter
+@Setter
+@Consumer
+public class LocalityPolicy implements PolicyInheritWithId<LocalityPolicy> {
+
+    public static final double DEFAULT_THRESHOLD = 0.7;
+
+    /**
+     * The unique identifier of the locality policy.
+     */
+    private Long id;
+
+    /**
+     * Whether to prefer the endpoints in the caller's region when the zone can't take all the traffic.
+     */
+    private Boolean regionEnabled;
+
+    /**
+     * The fraction of healthy endpoints in a locality, below which the traffic is proportionally
+     * spilled to the next locality.
+     */
+    private Double threshold;
+
+    /**
+     * The load factor of the endpoints. When it's greater than 1, an endpoint whose active requests
+     * exceed the factor times the average is not counted as the local healthy capacity.
+     */
+    private Double loadFactor;
+
+    @Override
+    public void supplement(LocalityPolicy source) {
+        if (source == null) {
+            return;
+        }
+        if (id == null) {
+            id = source.getId();
+        }
+        if (regionEnabled == null) {
+            regionEnabled = source.regionEnabled;
+        }
+        if (threshold == null) {
+            threshold = source.threshold;
+        }
+        if (loadFactor == null) {
+            loadFactor = source.loadFactor;
+        }
+    }
+
+    /**
+     * Returns the threshold of the healthy fraction, which is limited in (0, 1].
+     *
+     * @return the threshold of the healthy fraction
+     */
+    public double getThresholdOrDefault() {
+        return threshold == null || threshold <= 0 || threshold > 1 ? DEFAULT_THRESHOLD : threshold;
+    }
+
+    /**
+     * Returns whether the region is preferred after the zone.
+     *
+     * @return true if the region is preferred
+     */
+    public boolean isRegionPreferred() {
+        return regionEnabled == null || regionEnabled;
+    }
+}
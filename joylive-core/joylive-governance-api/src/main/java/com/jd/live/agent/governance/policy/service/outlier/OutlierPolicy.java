@@ -0,0 +1,167 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.policy.service.outlier;
+
+import com.jd.live.agent.governance.policy.PolicyInherit.PolicyInheritWithId;
+import com.jd.live.agent.governance.policy.service.annotation.Consumer;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Represents a policy for passive outlier detection, which ejects the endpoints with consecutive errors
+ * or a latency far above the median of the service for an exponential backoff period.
+ *
+ * @since 1.6.0
+ */
+@Getter
+@Setter
+@Consumer
+public class OutlierPolicy implements PolicyInheritWithId<OutlierPolicy> {
+
+    public static final int DEFAULT_CONSECUTIVE_ERRORS = 5;
+
+    public static final long DEFAULT_INTERVAL = 10000L;
+
+    public static final long DEFAULT_BASE_EJECTION_TIME = 30000L;
+
+    public static final long DEFAULT_MAX_EJECTION_TIME = 300000L;
+
+    public static final int DEFAULT_MAX_EJECTION_PERCENT = 10;
+
+    public static final int DEFAULT_MINIMUM_REQUESTS = 10;
+
+    /**
+     * The unique identifier of the outlier policy.
+     */
+    private Long id;
+
+    /**
+     * The number of consecutive errors before an endpoint is ejected.
+     */
+    private Integer consecutiveErrors;
+
+    /**
+     * The interval in milliseconds between two scans.
+     */
+    private Long interval;
+
+    /**
+     * The base ejection time in milliseconds, which is multiplied by the number of times the endpoint is ejected.
+     */
+    private Long baseEjectionTime;
+
+    /**
+     * The maximum ejection time in milliseconds.
+     */
+    private Long maxEjectionTime;
+
+    /**
+     * The maximum percentage of the endpoints that can be ejected.
+     */
+    private Integer maxEjectionPercent;
+
+    /**
+     * The latency factor. An endpoint whose average latency in the interval exceeds the factor times
+     * the median of the service is ejected. It's disabled when it's not greater than 1.
+     */
+    private Double latencyFactor;
+
+    /**
+     * The minimum number of requests of an endpoint in the interval to take part in the latency detection.
+     */
+    private Integer minimumRequests;
+
+    @Override
+    public void supplement(OutlierPolicy source) {
+        if (source == null) {
+            return;
+        }
+        if (id == null) {
+            id = source.getId();
+        }
+        if (consecutiveErrors == null) {
+            consecutiveErrors = source.consecutiveErrors;
+        }
+        if (interval == null) {
+            interval = source.interval;
+        }
+        if (baseEjectionTime == null) {
+            baseEjectionTime = source.baseEjectionTime;
+        }
+        if (maxEjectionTime == null) {
+            maxEjectionTime = source.maxEjectionTime;
+        }
+        if (maxEjectionPercent == null) {
+            maxEjectionPercent = source.maxEjectionPercent;
+        }
+        if (latencyFactor == null) {
+            latencyFactor = source.latencyFactor;
+        }
+        if (minimumRequests == null) {
+            minimumRequests = source.minimumRequests;
+        }
+    }
+
+    /**
+     * Returns the number of consecutive errors, or the default value if it's not set.
+     */
+    public int getConsecutiveErrorsOrDefault() {
+        return consecutiveErrors == null || consecutiveErrors <= 0 ? DEFAULT_CONSECUTIVE_ERRORS : consecutiveErrors;
+    }
+
+    /**
+     * Returns the scan interval in milliseconds, or the default value if it's not set.
+     */
+    public long getIntervalOrDefault() {
+        return interval == null || interval <= 0 ? DEFAULT_INTERVAL : interval;
+    }
+
+    /**
+     * Returns the base ejection time in milliseconds, or the default value if it's not set.
+     */
+    public long getBaseEjectionTimeOrDefault() {
+        return baseEjectionTime == null || baseEjectionTime <= 0 ? DEFAULT_BASE_EJECTION_TIME : baseEjectionTime;
+    }
+
+    /**
+     * Returns the maximum ejection time in milliseconds, which is not less than the base ejection time.
+     */
+    public long getMaxEjectionTimeOrDefault() {
+        long base = getBaseEjectionTimeOrDefault();
+        return maxEjectionTime == null || maxEjectionTime <= 0 ? Math.max(base, DEFAULT_MAX_EJECTION_TIME) : Math.max(base, maxEjectionTime);
+    }
+
+    /**
+     * Returns the maximum ejection percentage in [0, 100], or the default value if it's not set.
+     */
+    public int getMaxEjectionPercentOrDefault() {
+        return maxEjectionPercent == null || maxEjectionPercent < 0 ? DEFAULT_MAX_EJECTION_PERCENT : Math.min(100, maxEjectionPercent);
+    }
+
+    /**
+     * Returns the minimum number of requests for the latency detection, or the default value if it's not set.
+     */
+    public int getMinimumRequestsOrDefault() {
+        return minimumRequests == null || minimumRequests <= 0 ? DEFAULT_MINIMUM_REQUESTS : minimumRequests;
+    }
+
+    /**
+     * Returns whether the latency detection is enabled.
+     */
+    public boolean isLatencyEnabled() {
+        return latencyFactor != null && latencyFactor > 1;
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.policy.snapshot;
+
+import lombok.Getter;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A compact binary snapshot of the governance policy.
+ * <p>
+ * The layout is {@code magic, format, flags, timestamp, versions, sections, crc32}. Versions are length-prefixed
+ * resource names with their versions, sections are length-prefixed named payloads, which are gzip compressed
+ * when the compress flag is set. The file is written to a temporary file and atomically moved into place,
+ * and it's memory-mapped on reading.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+public class PolicySnapshot {
+
+    private static final int MAGIC = 0x4A4C5053;
+
+    private static final short FORMAT = 1;
+
+    private static final byte FLAG_COMPRESS = 1;
+
+    /**
+     * The time when the snapshot was taken.
+     */
+    @Getter
+    private final long timestamp;
+
+    /**
+     * The versions of the resources, keyed by resource.
+     */
+    @Getter
+    private final Map<String, Long> versions;
+
+    private final Map<String, byte[]> sections;
+
+    public PolicySnapshot(long timestamp, Map<String, Long> versions, Map<String, byte[]> sections) {
+        this.timestamp = timestamp;
+        this.versions = versions == null ? Collections.emptyMap() : versions;
+        this.sections = sections == null ? Collections.emptyMap() : sections;
+    }
+
+    /**
+     * Returns the payload of the specified section.
+     *
+     * @param name the section name
+     * @return the payload, or null if the section does not exist
+     */
+    public byte[] getSection(String name) {
+        return name == null ? null : sections.get(name);
+    }
+
+    /**
+     * Writes this snapshot to the specified file.
+     *
+     * @param file     the target file
+     * @param compress whether to compress the sections
+     * @return the size of the file in bytes
+     * @throws IOException if an I/O error occurs
+     */
+    public long write(File file, boolean compress) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(4096);
+        DataOutputStream dos = new DataOutputStream(bos);
+        dos.writeInt(MAGIC);
+        dos.writeShort(FORMAT);
+        dos.writeByte(compress ? FLAG_COMPRESS : 0);
+        dos.writeLong(timestamp);
+        dos.writeInt(versions.size());
+        for (Map.Entry<String, Long> entry : versions.entrySet()) {
+            writeBytes(dos, entry.getKey().getBytes(StandardCharsets.UTF_8));
+            dos.writeLong(entry.getValue());
+        }
+        dos.writeInt(sections.size());
+        for (Map.Entry<String, byte[]> entry : sections.entrySet()) {
+            writeBytes(dos, entry.getKey().getBytes(StandardCharsets.UTF_8));
+            writeBytes(dos, compress ? compress(entry.getValue()) : entry.getValue());
+        }
+        dos.flush();
+        CRC32 crc32 = new CRC32();
+        crc32.update(bos.toByteArray(), 0, bos.size());
+        dos.writeLong(crc32.getValue());
+        dos.flush();
+
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs() && !dir.exists()) {
+            throw new IOException("failed to create directory " + dir.getPath());
+        }
+        Path target = file.toPath();
+        Path temp = Files.createTempFile(dir == null ? null : dir.toPath(), file.getName(), ".tmp");
+        try {
+            try (FileOutputStream fos = new FileOutputStream(temp.toFile())) {
+                bos.writeTo(fos);
+                fos.getFD().sync();
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return bos.size();
+    }
+
+    /**
+     * Reads the snapshot from the specified file.
+     *
+     * @param file the snapshot file
+     * @return the snapshot, or null if the file does not exist
+     * @throws IOException if an I/O error occurs or the file is corrupted
+     */
+    public static PolicySnapshot read(File file) throws IOException {
+        if (file == null || !file.exists()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 8 || size > Integer.MAX_VALUE) {
+                throw new IOException("invalid snapshot size " + size + " of " + file.getPath());
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return read(buffer);
+        }
+    }
+
+    /**
+     * Reads the snapshot from the specified buffer.
+     *
+     * @param buffer the buffer
+     * @return the snapshot
+     * @throws IOException if the buffer is corrupted
+     */
+    protected static PolicySnapshot read(ByteBuffer buffer) throws IOException {
+        int limit = buffer.limit();
+        CRC32 crc32 = new CRC32();
+        ByteBuffer body = buffer.duplicate();
+        body.limit(limit - 8);
+        crc32.update(body);
+        if (crc32.getValue() != buffer.getLong(limit - 8)) {
+            throw new IOException("snapshot checksum mismatch");
+        }
+        buffer.limit(limit - 8);
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("invalid snapshot magic");
+            }
+            short format = buffer.getShort();
+            if (format != FORMAT) {
+                throw new IOException("unsupported snapshot format " + format);
+            }
+            boolean compress = (buffer.get() & FLAG_COMPRESS) != 0;
+            long timestamp = buffer.getLong();
+            int count = buffer.getInt();
+            Map<String, Long> versions = new LinkedHashMap<>(Math.max(16, count * 4 / 3 + 1));
+            for (int i = 0; i < count; i++) {
+                versions.put(new String(readBytes(buffer), StandardCharsets.UTF_8), buffer.getLong());
+            }
+            count = buffer.getInt();
+            Map<String, byte[]> sections = new LinkedHashMap<>(Math.max(16, count * 4 / 3 + 1));
+            for (int i = 0; i < count; i++) {
+                String name = new String(readBytes(buffer), StandardCharsets.UTF_8);
+                byte[] payload = readBytes(buffer);
+                sections.put(name, compress ? decompress(payload) : payload);
+            }
+            return new PolicySnapshot(timestamp, versions, sections);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("snapshot is truncated", e);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream dos, byte[] bytes) throws IOException {
+        dos.writeInt(bytes == null ? 0 : bytes.length);
+        if (bytes != null) {
+            dos.write(bytes);
+        }
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("invalid snapshot length " + length);
+        }
+        byte[] result = new byte[length];
+        buffer.get(result);
+        return result;
+    }
+
+    private static byte[] compress(byte[] bytes) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream gos = new GZIPOutputStream(bos)) {
+            gos.write(bytes);
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] bytes) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(bytes.length * 4);
+        try (GZIPInputStream gis = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = gis.read(buffer)) >= 0) {
+                bos.write(buffer, 0, n);
+            }
+        }
+        return bos.toByteArray();
+    }
+}
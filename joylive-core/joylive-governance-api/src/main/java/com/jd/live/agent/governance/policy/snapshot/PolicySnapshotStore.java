@@ -0,0 +1,320 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.policy.snapshot;
+
+import com.jd.live.agent.bootstrap.logger.Logger;
+import com.jd.live.agent.bootstrap.logger.LoggerFactory;
+import com.jd.live.agent.core.parser.ObjectParser;
+import com.jd.live.agent.core.parser.TypeReference;
+import com.jd.live.agent.governance.config.SnapshotConfig;
+import com.jd.live.agent.governance.policy.GovernancePolicy;
+import com.jd.live.agent.governance.policy.db.DatabaseCluster;
+import com.jd.live.agent.governance.policy.lane.LaneSpace;
+import com.jd.live.agent.governance.policy.live.LiveSpace;
+import com.jd.live.agent.governance.policy.live.LiveSpec;
+import com.jd.live.agent.governance.policy.service.Service;
+import lombok.Getter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stores the last-known-good governance policy as a {@link PolicySnapshot}.
+ *
+ * @since 1.6.0
+ */
+public class PolicySnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PolicySnapshotStore.class);
+
+    /**
+     * The version of the restored services which are not confirmed by the syncers yet.
+     */
+    public static final long UNCONFIRMED_VERSION = Long.MIN_VALUE;
+
+    public static final String SECTION_LIVE_SPACES = "liveSpaces";
+
+    public static final String SECTION_LANE_SPACES = "laneSpaces";
+
+    public static final String SECTION_SERVICES = "services";
+
+    public static final String SECTION_DB_CLUSTERS = "dbClusters";
+
+    public static final String PREFIX_LIVE_SPACE = "live:";
+
+    public static final String PREFIX_LANE_SPACE = "lane:";
+
+    public static final String PREFIX_SERVICE = "service:";
+
+    private static final TypeReference<List<LiveSpace>> LIVE_SPACES = new TypeReference<List<LiveSpace>>() {
+    };
+
+    private static final TypeReference<List<LaneSpace>> LANE_SPACES = new TypeReference<List<LaneSpace>>() {
+    };
+
+    private static final TypeReference<List<Service>> SERVICES = new TypeReference<List<Service>>() {
+    };
+
+    private static final TypeReference<List<DatabaseCluster>> DB_CLUSTERS = new TypeReference<List<DatabaseCluster>>() {
+    };
+
+    @Getter
+    private final File file;
+
+    private final ObjectParser parser;
+
+    private final SnapshotConfig config;
+
+    @Getter
+    private final PolicySnapshotMetric metric = new PolicySnapshotMetric();
+
+    public PolicySnapshotStore(File file, ObjectParser parser, SnapshotConfig config) {
+        this.file = file;
+        this.parser = parser;
+        this.config = config;
+    }
+
+    /**
+     * Loads the policy from the snapshot.
+     *
+     * @return the policy, or null if the snapshot does not exist, is stale or is corrupted.
+     */
+    public GovernancePolicy load() {
+        long start = System.nanoTime();
+        try {
+            PolicySnapshot snapshot = PolicySnapshot.read(file);
+            if (snapshot == null) {
+                return null;
+            }
+            long age = System.currentTimeMillis() - snapshot.getTimestamp();
+            metric.age = age;
+            long maxAge = config.getMaxAge();
+            if (maxAge > 0 && age > maxAge) {
+                metric.stales.incrementAndGet();
+                logger.info("Policy snapshot is stale, age=" + age + "ms, file=" + file.getPath());
+                return null;
+            }
+            GovernancePolicy result = new GovernancePolicy();
+            result.setLiveSpaces(read(snapshot, SECTION_LIVE_SPACES, LIVE_SPACES));
+            result.setLaneSpaces(read(snapshot, SECTION_LANE_SPACES, LANE_SPACES));
+            result.setServices(read(snapshot, SECTION_SERVICES, SERVICES));
+            result.setDbClusters(read(snapshot, SECTION_DB_CLUSTERS, DB_CLUSTERS));
+            metric.size = file.length();
+            metric.loadTime = System.nanoTime() - start;
+            metric.loads.incrementAndGet();
+            metric.versions = snapshot.getVersions();
+            logger.info("Policy snapshot is loaded in " + metric.loadTime / 1000000 + "ms, age=" + age
+                    + "ms, size=" + metric.size + ", file=" + file.getPath());
+            return result;
+        } catch (Throwable e) {
+            metric.failures.incrementAndGet();
+            logger.warn("Failed to load policy snapshot " + file.getPath() + ", caused by " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Saves the policy to the snapshot.
+     *
+     * @param policy the policy to save
+     * @return true if the snapshot is saved, false otherwise
+     */
+    public boolean save(GovernancePolicy policy) {
+        if (policy == null) {
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            Map<String, byte[]> sections = new LinkedHashMap<>(8);
+            sections.put(SECTION_LIVE_SPACES, write(policy.getLiveSpaces()));
+            sections.put(SECTION_LANE_SPACES, write(policy.getLaneSpaces()));
+            sections.put(SECTION_SERVICES, write(policy.getServices()));
+            sections.put(SECTION_DB_CLUSTERS, write(policy.getDbClusters()));
+            PolicySnapshot snapshot = new PolicySnapshot(System.currentTimeMillis(), getVersions(policy), sections);
+            long size = snapshot.write(file, config.isCompress());
+            metric.size = size;
+            metric.saveTime = System.nanoTime() - start;
+            metric.saves.incrementAndGet();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Policy snapshot is saved in " + metric.saveTime / 1000000 + "ms, size=" + size);
+            }
+            return true;
+        } catch (Throwable e) {
+            metric.failures.incrementAndGet();
+            logger.warn("Failed to save policy snapshot " + file.getPath() + ", caused by " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Collects the versions of the resources in the policy.
+     *
+     * @param policy the policy
+     * @return the versions keyed by resource
+     */
+    public static Map<String, Long> getVersions(GovernancePolicy policy) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        if (policy.getLiveSpaces() != null) {
+            for (LiveSpace space : policy.getLiveSpaces()) {
+                LiveSpec spec = space.getSpec();
+                if (spec != null && spec.getId() != null) {
+                    result.put(PREFIX_LIVE_SPACE + spec.getId(), spec.getVersion());
+                }
+            }
+        }
+        if (policy.getLaneSpaces() != null) {
+            for (LaneSpace space : policy.getLaneSpaces()) {
+                if (space.getId() != null) {
+                    result.put(PREFIX_LANE_SPACE + space.getId(), space.getVersion());
+                }
+            }
+        }
+        if (policy.getServices() != null) {
+            for (Service service : policy.getServices()) {
+                if (service.getName() != null) {
+                    result.put(PREFIX_SERVICE + service.getName(), service.getVersion());
+                }
+            }
+        }
+        return result;
+    }
+
+    private byte[] write(Object value) {
+        if (value == null) {
+            return null;
+        }
+        StringWriter writer = new StringWriter(4096);
+        parser.write(writer, value);
+        return writer.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private <T> T read(PolicySnapshot snapshot, String section, TypeReference<T> reference) {
+        byte[] payload = snapshot.getSection(section);
+        if (payload == null || payload.length == 0) {
+            return null;
+        }
+        return parser.read(new InputStreamReader(new ByteArrayInputStream(payload), StandardCharsets.UTF_8), reference);
+    }
+
+    /**
+     * Metrics of the policy snapshot.
+     */
+    public static class PolicySnapshotMetric {
+
+        private final AtomicLong loads = new AtomicLong();
+
+        private final AtomicLong saves = new AtomicLong();
+
+        private final AtomicLong failures = new AtomicLong();
+
+        private final AtomicLong stales = new AtomicLong();
+
+        private volatile long loadTime;
+
+        private volatile long saveTime;
+
+        private volatile long age;
+
+        private volatile long size;
+
+        private volatile Map<String, Long> versions;
+
+        /**
+         * Returns the number of the restored snapshots.
+         *
+         * @return the number of loads
+         */
+        public long getLoads() {
+            return loads.get();
+        }
+
+        /**
+         * Returns the number of the saved snapshots.
+         *
+         * @return the number of saves
+         */
+        public long getSaves() {
+            return saves.get();
+        }
+
+        /**
+         * Returns the number of the failed loads and saves.
+         *
+         * @return the number of failures
+         */
+        public long getFailures() {
+            return failures.get();
+        }
+
+        /**
+         * Returns the number of the snapshots rejected by the max age.
+         *
+         * @return the number of stale snapshots
+         */
+        public long getStales() {
+            return stales.get();
+        }
+
+        /**
+         * Returns the time in nanoseconds of the last load.
+         *
+         * @return the load time
+         */
+        public long getLoadTime() {
+            return loadTime;
+        }
+
+        /**
+         * Returns the time in nanoseconds of the last save.
+         *
+         * @return the save time
+         */
+        public long getSaveTime() {
+            return saveTime;
+        }
+
+        /**
+         * Returns the age in milliseconds of the last loaded snapshot.
+         *
+         * @return the age
+         */
+        public long getAge() {
+            return age;
+        }
+
+        /**
+         * Returns the size in bytes of the last loaded or saved snapshot.
+         *
+         * @return the size
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Returns the resource versions of the last loaded snapshot.
+         *
+         * @return the versions keyed by resource
+         */
+        public Map<String, Long> getVersions() {
+            return versions;
+        }
+    }
+}
@@ -32,4 +32,13 @@ public class EndpointEvent {
     private List<? extends Endpoint> adds;
 
     private List<? extends Endpoint> removes;
+
+    /**
+     * The version of the endpoints, which is increased whenever the endpoints are changed.
+     */
+    private long version;
+
+    public EndpointEvent(String service, List<? extends Endpoint> endpoints, List<? extends Endpoint> adds, List<? extends Endpoint> removes) {
+        this(service, endpoints, adds, removes, 0);
+    }
 }
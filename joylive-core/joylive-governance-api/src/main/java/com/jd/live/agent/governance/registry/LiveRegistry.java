@@ -28,14 +28,15 @@ import com.jd.live.agent.core.inject.annotation.Inject;
 import com.jd.live.agent.core.inject.annotation.Injectable;
 import com.jd.live.agent.core.service.AbstractService;
 import com.jd.live.agent.core.util.time.Timer;
+import com.jd.live.agent.governance.config.HealthCheckConfig;
 import com.jd.live.agent.governance.config.RegistryConfig;
 import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.instance.health.HealthChecker;
+import com.jd.live.agent.governance.instance.health.HealthIndex;
 import com.jd.live.agent.governance.policy.PolicySupplier;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.io.IOException;
+import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -72,6 +73,11 @@ public class LiveRegistry extends AbstractService implements RegistrySupervisor,
     @Inject(PolicySupplier.COMPONENT_POLICY_SUPPLIER)
     private PolicySupplier policySupplier;
 
+    @Inject(value = HealthIndex.COMPONENT_HEALTH_INDEX, nullable = true)
+    private HealthIndex healthIndex;
+
+    private HealthChecker healthChecker;
+
     private final Map<String, Registration> registrations = new ConcurrentHashMap<>();
 
     private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
@@ -80,6 +86,17 @@ public class LiveRegistry extends AbstractService implements RegistrySupervisor,
 
     @Override
     protected CompletableFuture<Void> doStart() {
+        HealthCheckConfig config = registryConfig.getHealthCheckConfig();
+        if (config != null && config.isEnabled() && healthIndex != null) {
+            HealthChecker checker = new HealthChecker(config, timer, healthIndex);
+            try {
+                checker.start();
+                healthChecker = checker;
+                subscriptions.values().forEach(subscription -> subscription.addChecker(checker));
+            } catch (IOException e) {
+                logger.error("Failed to start active health checking, caused by " + e.getMessage(), e);
+            }
+        }
         return CompletableFuture.completedFuture(null);
     }
 
@@ -87,6 +104,9 @@ public class LiveRegistry extends AbstractService implements RegistrySupervisor,
     protected CompletableFuture<Void> doStop() {
         ready.set(false);
         onApplicationStop();
+        if (healthChecker != null) {
+            healthChecker.stop();
+        }
         return CompletableFuture.completedFuture(null);
     }
 
@@ -138,7 +158,7 @@ public class LiveRegistry extends AbstractService implements RegistrySupervisor,
     @Override
     public void subscribe(String service, Consumer<EndpointEvent> consumer) {
         if (service != null && !service.isEmpty() && consumer != null) {
-            Subscription subscription = subscriptions.computeIfAbsent(service, Subscription::new);
+            Subscription subscription = subscriptions.computeIfAbsent(service, this::createSubscription);
             subscription.addConsumer(consumer);
         }
     }
@@ -153,11 +173,36 @@ public class LiveRegistry extends AbstractService implements RegistrySupervisor,
         }
     }
 
+    @Override
+    public void update(String service, List<? extends Endpoint> upserts, Collection<String> removes) {
+        if (service != null && !service.isEmpty()) {
+            Subscription subscription = subscriptions.get(service);
+            if (subscription != null) {
+                subscription.update(upserts, removes);
+            }
+        }
+    }
+
     @Override
     public boolean isSubscribed(String service) {
         return service != null && !service.isEmpty() && subscriptions.containsKey(service);
     }
 
+    /**
+     * Creates a subscription of the service, whose endpoints are checked by the active health checker if it's enabled.
+     *
+     * @param service the service
+     * @return the subscription
+     */
+    private Subscription createSubscription(String service) {
+        Subscription subscription = new Subscription(service);
+        HealthChecker checker = healthChecker;
+        if (checker != null) {
+            subscription.addChecker(checker);
+        }
+        return subscription;
+    }
+
     /**
      * Called when the application is ready to start. This method iterates through all registered services and calls their register method.
      */
@@ -331,6 +376,7 @@ public class LiveRegistry extends AbstractService implements RegistrySupervisor,
 
     /**
      * A private static class that represents a subscription to endpoint events for a specific service group.
+     * The endpoints are kept in an immutable versioned snapshot, which is replaced on every change.
      */
     private static class Subscription {
 
@@ -345,9 +391,9 @@ public class LiveRegistry extends AbstractService implements RegistrySupervisor,
         private final List<Consumer<EndpointEvent>> consumers = new CopyOnWriteArrayList<>();
 
         /**
-         * A map of endpoints for the service group, keyed by their addresses.
+         * The current snapshot of the endpoints.
          */
-        private Map<String, Endpoint> endpoints;
+        private volatile Snapshot snapshot = Snapshot.EMPTY;
 
         /**
          * Creates a new subscription for the specified service.
@@ -369,38 +415,210 @@ public class LiveRegistry extends AbstractService implements RegistrySupervisor,
             }
         }
 
+        /**
+         * Adds the active health checker, which checks the current endpoints and follows the changes.
+         *
+         * @param checker the health checker
+         */
+        public synchronized void addChecker(HealthChecker checker) {
+            consumers.add(checker::onEvent);
+            checker.add(service, Arrays.asList(snapshot.endpoints));
+        }
+
         /**
          * Updates the endpoints for the service group and notifies the consumer of any changes.
+         * The full list is ignored if its endpoints are the same as the current ones.
          *
          * @param endpoints the new list of endpoints for the service group
          */
         public synchronized void update(List<? extends Endpoint> endpoints) {
-            Map<String, Endpoint> newEndpoints = new HashMap<>();
-            Map<String, Endpoint> oldEndpoints = this.endpoints;
+            Snapshot old = snapshot;
+            int size = endpoints == null ? 0 : endpoints.size();
+            if (old.version > 0 && old.isSame(endpoints, size)) {
+                return;
+            }
+            Map<String, Node> nodes = new LinkedHashMap<>(Math.max(16, size * 4 / 3 + 1));
             List<Endpoint> adds = new ArrayList<>();
             List<Endpoint> removes = new ArrayList<>();
+            boolean changed = false;
             if (endpoints != null) {
                 for (Endpoint endpoint : endpoints) {
-                    String address = endpoint.getAddress();
-                    if (oldEndpoints == null || !oldEndpoints.containsKey(address)) {
+                    Node node = new Node(endpoint);
+                    Node exist = old.nodes.get(node.id);
+                    if (exist == null) {
                         adds.add(endpoint);
+                        changed = true;
+                    } else if (!exist.isSame(node)) {
+                        changed = true;
                     }
-                    newEndpoints.put(address, endpoint);
+                    nodes.put(node.id, node);
+                }
+            }
+            for (Map.Entry<String, Node> entry : old.nodes.entrySet()) {
+                if (!nodes.containsKey(entry.getKey())) {
+                    removes.add(entry.getValue().endpoint);
+                    changed = true;
                 }
             }
-            if (oldEndpoints != null) {
-                oldEndpoints.forEach((k, v) -> {
-                    if (!newEndpoints.containsKey(k)) {
-                        removes.add(v);
+            if (changed || old.version == 0) {
+                publish(new Snapshot(old.version + 1, nodes), adds, removes);
+            }
+        }
+
+        /**
+         * Applies the incremental changes to the endpoints and notifies the consumer if anything is changed.
+         *
+         * @param upserts the endpoints to add or update
+         * @param removes the ids of the endpoints to remove
+         */
+        public synchronized void update(List<? extends Endpoint> upserts, Collection<String> removes) {
+            Snapshot old = snapshot;
+            Map<String, Node> nodes = new LinkedHashMap<>(old.nodes);
+            List<Endpoint> adds = new ArrayList<>();
+            List<Endpoint> deletes = new ArrayList<>();
+            boolean changed = false;
+            if (removes != null) {
+                for (String id : removes) {
+                    Node node = nodes.remove(id);
+                    if (node != null) {
+                        deletes.add(node.endpoint);
+                        changed = true;
                     }
-                });
+                }
             }
-            this.endpoints = newEndpoints;
-            logger.info("Service instance is changed, service=" + service + ", adds=" + adds.size() + ", removes=" + removes.size());
+            if (upserts != null) {
+                for (Endpoint endpoint : upserts) {
+                    Node node = new Node(endpoint);
+                    Node exist = nodes.get(node.id);
+                    if (exist == null) {
+                        adds.add(endpoint);
+                        nodes.put(node.id, node);
+                        changed = true;
+                    } else if (!exist.isSame(node)) {
+                        nodes.put(node.id, node);
+                        changed = true;
+                    }
+                }
+            }
+            if (changed || old.version == 0) {
+                publish(new Snapshot(old.version + 1, nodes), adds, deletes);
+            }
+        }
+
+        /**
+         * Publishes the snapshot and notifies the consumers.
+         *
+         * @param snapshot the new snapshot
+         * @param adds     the added endpoints
+         * @param removes  the removed endpoints
+         */
+        private void publish(Snapshot snapshot, List<Endpoint> adds, List<Endpoint> removes) {
+            this.snapshot = snapshot;
+            logger.info("Service instance is changed, service=" + service + ", version=" + snapshot.version
+                    + ", adds=" + adds.size() + ", removes=" + removes.size());
+            List<Endpoint> endpoints = Collections.unmodifiableList(Arrays.asList(snapshot.endpoints));
             for (Consumer<EndpointEvent> consumer : consumers) {
-                consumer.accept(new EndpointEvent(service, endpoints, adds, removes));
+                consumer.accept(new EndpointEvent(service, endpoints, adds, removes, snapshot.version));
             }
         }
     }
-}
 
+    /**
+     * An immutable snapshot of the endpoints of a service.
+     */
+    private static class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(0, Collections.emptyMap());
+
+        /**
+         * The version of the snapshot.
+         */
+        private final long version;
+
+        /**
+         * The endpoints keyed by their ids.
+         */
+        private final Map<String, Node> nodes;
+
+        /**
+         * The nodes in order.
+         */
+        private final Node[] items;
+
+        /**
+         * The endpoints in order.
+         */
+        private final Endpoint[] endpoints;
+
+        Snapshot(long version, Map<String, Node> nodes) {
+            this.version = version;
+            this.nodes = nodes;
+            this.items = nodes.values().toArray(new Node[0]);
+            this.endpoints = new Endpoint[items.length];
+            for (int i = 0; i < items.length; i++) {
+                endpoints[i] = items[i].endpoint;
+            }
+        }
+
+        /**
+         * Determines if the endpoints are the same as this snapshot in the same order,
+         * which is the common case of the registries, and does not allocate any map.
+         *
+         * @param others the endpoints
+         * @param size   the size of the endpoints
+         * @return {@code true} if the endpoints are the same
+         */
+        boolean isSame(List<? extends Endpoint> others, int size) {
+            if (size != items.length) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (!items[i].isSame(others.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * An endpoint with its id and fingerprint.
+     */
+    private static class Node {
+
+        private final String id;
+
+        private final long fingerprint;
+
+        private final Endpoint endpoint;
+
+        Node(Endpoint endpoint) {
+            this.id = endpoint.getId();
+            this.fingerprint = endpoint.getFingerprint();
+            this.endpoint = endpoint;
+        }
+
+        /**
+         * Determines if the endpoint is the same as this node. The fingerprints reject the changed endpoints
+         * quickly, and the equal fingerprints are confirmed by comparing all the attributes.
+         *
+         * @param other the other endpoint
+         * @return {@code true} if the endpoint is the same
+         */
+        boolean isSame(Endpoint other) {
+            return Objects.equals(id, other.getId())
+                    && fingerprint == other.getFingerprint()
+                    && endpoint.isSame(other);
+        }
+
+        /**
+         * Determines if the other node holds the same endpoint as this node.
+         *
+         * @param other the other node
+         * @return {@code true} if the endpoint is the same
+         */
+        boolean isSame(Node other) {
+            return fingerprint == other.fingerprint && endpoint.isSame(other.endpoint);
+        }
+    }
+}
@@ -17,6 +17,7 @@ package com.jd.live.agent.governance.registry;
 
 import com.jd.live.agent.governance.instance.Endpoint;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -32,6 +33,15 @@ public interface RegistrySupervisor extends Registry {
      */
     void update(String service, List<? extends Endpoint> endpoints);
 
+    /**
+     * Applies the incremental changes to the endpoints of a specific service group in the registry.
+     *
+     * @param service the service
+     * @param upserts the endpoints to add or update, identified by their ids
+     * @param removes the ids of the endpoints to remove
+     */
+    void update(String service, List<? extends Endpoint> upserts, Collection<String> removes);
+
     /**
      * Checks if the registry is subscribed to a specific service.
      *
@@ -15,6 +15,8 @@
  */
 package com.jd.live.agent.governance.request;
 
+import com.jd.live.agent.governance.request.SqlClassifier.Dialect;
+
 import java.util.regex.Pattern;
 
 /**
@@ -82,7 +84,7 @@ public interface DbRequest extends Request {
      * Defines an interface for SQL database requests.
      * <p>
      * This interface extends {@link DbRequest} with functionality for handling SQL queries, including a method to
-     * determine if the SQL statement represents a write operation based on a defined pattern.
+     * determine if the SQL statement represents a write operation.
      * </p>
      */
     interface SQLRequest extends DbRequest {
@@ -90,8 +92,7 @@ public interface DbRequest extends Request {
         /**
          * Pattern to identify SQL write operations.
          */
-        Pattern WRITE_PATTERN = Pattern.compile(
-                "INSERT\\b|UPDATE\\b|DELETE\\b|CREATE\\b|ALTER\\b|DROP\\b|TRUNCATE\\b", Pattern.CASE_INSENSITIVE);
+        Pattern WRITE_PATTERN = SqlClassifier.WRITE_PATTERN;
 
         /**
          * Retrieves the SQL statement of the request.
@@ -101,14 +102,23 @@ public interface DbRequest extends Request {
         String getSql();
 
         /**
-         * Determines if the SQL request represents a write operation by matching the SQL statement against a predefined pattern.
+         * Retrieves the dialect of the SQL statement, which determines its comments and escapes.
+         *
+         * @return The dialect of the SQL statement.
+         */
+        default Dialect getDialect() {
+            return Dialect.GENERIC;
+        }
+
+        /**
+         * Determines if the SQL request represents a write operation by the leading keywords of its statements.
          *
          * @return {@code true} if the SQL statement is a write operation; {@code false} otherwise.
+         * @see SqlClassifier
          */
         @Override
         default boolean isWrite() {
-            String sql = getSql();
-            return sql != null && WRITE_PATTERN.matcher(sql).find();
+            return SqlClassifier.isWrite(getSql(), getDialect());
         }
     }
 }
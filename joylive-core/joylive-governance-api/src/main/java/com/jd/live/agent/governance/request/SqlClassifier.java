@@ -0,0 +1,591 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.request;
+
+import com.jd.live.agent.core.util.cache.WeakCache;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Classifies the sql statements by their leading keywords.
+ * <p>
+ * The classifier skips the whitespaces, comments, opening parentheses and common table expressions to locate
+ * the leading keyword of each statement, so it does not scan the whole text of a large write statement.
+ * The statements beginning with unknown keywords and the statements with a locking clause such as
+ * {@code SELECT ... FOR UPDATE} are classified as writes.
+ * </p>
+ * <p>
+ * The comments and escapes depend on the {@link Dialect}. When the text can not be tokenized unambiguously,
+ * such as an unterminated literal, or a {@code #} or backslash of a generic dialect, the classifier falls back
+ * to the write pattern over the whole text.
+ * </p>
+ * <p>
+ * The results of the prepared statements are cached in a bounded weak cache keyed by the statement objects,
+ * so a prepared statement is classified only once. The results of the sql texts are cached in a bounded map,
+ * because the texts are usually transient strings which would be collected from a weak cache at once.
+ * </p>
+ */
+public class SqlClassifier {
+
+    /**
+     * Pattern to identify SQL write operations.
+     */
+    public static final Pattern WRITE_PATTERN = Pattern.compile(
+            "INSERT\\b|UPDATE\\b|DELETE\\b|CREATE\\b|ALTER\\b|DROP\\b|TRUNCATE\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final String[] WRITE_KEYWORDS = {
+            "INSERT", "UPDATE", "DELETE", "CREATE", "ALTER", "DROP", "TRUNCATE",
+            "REPLACE", "MERGE", "UPSERT", "RENAME", "GRANT", "REVOKE", "LOAD"};
+
+    private static final String[] READ_KEYWORDS = {
+            "SELECT", "SHOW", "DESCRIBE", "DESC", "VALUES", "TABLE", "SET", "USE", "BEGIN", "START",
+            "COMMIT", "END", "ROLLBACK", "SAVEPOINT", "RELEASE", "FETCH", "CLOSE", "DEALLOCATE", "RESET"};
+
+    private static final String[] LOCKING_KEYWORDS = {"UPDATE", "SHARE", "NO", "KEY"};
+
+    private static final int MAX_CACHE_LENGTH = 4096;
+
+    private static final int MAX_TEXTS = 4096;
+
+    private static final Map<Dialect, Map<String, Boolean>> TEXTS = new EnumMap<>(Dialect.class);
+
+    private static final Map<Dialect, WeakCache<Object, Boolean>> STATEMENTS = new EnumMap<>(Dialect.class);
+
+    static {
+        for (Dialect dialect : Dialect.values()) {
+            TEXTS.put(dialect, new ConcurrentHashMap<>());
+            STATEMENTS.put(dialect, new WeakCache<>(4096));
+        }
+    }
+
+    /**
+     * Determines if the sql text of a generic dialect contains any write statement.
+     *
+     * @param sql the sql text
+     * @return {@code true} if any statement is a write operation; {@code false} otherwise.
+     */
+    public static boolean isWrite(String sql) {
+        return isWrite(sql, Dialect.GENERIC);
+    }
+
+    /**
+     * Determines if the sql text contains any write statement.
+     *
+     * @param sql     the sql text
+     * @param dialect the dialect of the sql text
+     * @return {@code true} if any statement is a write operation; {@code false} otherwise.
+     */
+    public static boolean isWrite(String sql, Dialect dialect) {
+        if (sql == null || sql.isEmpty()) {
+            return false;
+        } else if (sql.length() > MAX_CACHE_LENGTH) {
+            // the long texts are usually built with inline values, and hashing them costs more than classifying.
+            return classify(sql, dialect);
+        }
+        Map<String, Boolean> texts = TEXTS.get(dialect);
+        Boolean result = texts.get(sql);
+        if (result == null) {
+            result = classify(sql, dialect);
+            if (texts.size() >= MAX_TEXTS) {
+                // evict an arbitrary entry to keep the map bounded.
+                Iterator<String> iterator = texts.keySet().iterator();
+                if (iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+            texts.put(sql, result);
+        }
+        return result;
+    }
+
+    /**
+     * Determines if the statement of a generic dialect is a write operation,
+     * the result is cached by the identity of the statement.
+     *
+     * @param statement the statement object, such as a prepared query
+     * @param function  the function to render the sql text of the statement
+     * @param <T>       the type of the statement
+     * @return {@code true} if any statement is a write operation; {@code false} otherwise.
+     */
+    public static <T> boolean isWrite(T statement, Function<T, String> function) {
+        return isWrite(statement, function, Dialect.GENERIC);
+    }
+
+    /**
+     * Determines if the statement is a write operation, the result is cached by the identity of the statement.
+     *
+     * @param statement the statement object, such as a prepared query
+     * @param function  the function to render the sql text of the statement
+     * @param dialect   the dialect of the sql text
+     * @param <T>       the type of the statement
+     * @return {@code true} if any statement is a write operation; {@code false} otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> boolean isWrite(T statement, Function<T, String> function, Dialect dialect) {
+        if (statement == null) {
+            return false;
+        }
+        return STATEMENTS.get(dialect).computeIfAbsent(statement, s -> classify(function.apply((T) s), dialect));
+    }
+
+    /**
+     * Classifies the sql text of a generic dialect without the cache.
+     *
+     * @param sql the sql text
+     * @return {@code true} if any statement is a write operation; {@code false} otherwise.
+     */
+    public static boolean classify(String sql) {
+        return classify(sql, Dialect.GENERIC);
+    }
+
+    /**
+     * Classifies the sql text without the cache.
+     *
+     * @param sql     the sql text
+     * @param dialect the dialect of the sql text
+     * @return {@code true} if any statement is a write operation; {@code false} otherwise.
+     */
+    public static boolean classify(String sql, Dialect dialect) {
+        if (sql == null) {
+            return false;
+        }
+        Tokenizer tokenizer = new Tokenizer(sql, 0, sql.length(), dialect);
+        return tokenizer.isWrite() || tokenizer.ambiguous && WRITE_PATTERN.matcher(sql).find();
+    }
+
+    /**
+     * The sql dialects which differ in comments and escapes.
+     */
+    public enum Dialect {
+
+        /**
+         * The dialect is unknown, the {@code #} comments and backslash escapes are treated as ambiguous.
+         */
+        GENERIC,
+
+        /**
+         * MySQL and MariaDB, which support {@code #} comments and backslash escapes in the quoted strings.
+         */
+        MYSQL,
+
+        /**
+         * PostgreSQL and its derivatives, which support backslash escapes only in the {@code E'...'} strings.
+         */
+        POSTGRESQL
+    }
+
+    /**
+     * A tokenizer which walks the statements in a range of the sql text.
+     */
+    private static class Tokenizer {
+
+        private final String sql;
+
+        private final int limit;
+
+        private final Dialect dialect;
+
+        private int pos;
+
+        private boolean locking;
+
+        private boolean ambiguous;
+
+        Tokenizer(String sql, int from, int to, Dialect dialect) {
+            this.sql = sql;
+            this.pos = from;
+            this.limit = to;
+            this.dialect = dialect;
+        }
+
+        /**
+         * Determines if any statement in the range is a write operation.
+         *
+         * @return {@code true} if any statement is a write operation
+         */
+        boolean isWrite() {
+            while (pos < limit) {
+                int start = pos;
+                locking = false;
+                Boolean write = statement();
+                if (write == Boolean.TRUE) {
+                    return true;
+                }
+                int end = skipStatement(Math.max(start, pos));
+                if (locking || write == null && WRITE_PATTERN.matcher(sql).region(start, end).find()) {
+                    return true;
+                }
+                pos = end + 1;
+            }
+            return false;
+        }
+
+        /**
+         * Classifies the statement at the current position by its leading keyword.
+         *
+         * @return the classification, or {@code null} if the keyword is unknown
+         */
+        private Boolean statement() {
+            skipBlanks(true);
+            if (pos >= limit || sql.charAt(pos) == ';') {
+                return false;
+            }
+            int start = pos;
+            int end = word();
+            if (end == start) {
+                return null;
+            } else if (is(start, end, "WITH")) {
+                return with();
+            } else if (in(start, end, WRITE_KEYWORDS)) {
+                return true;
+            } else if (in(start, end, READ_KEYWORDS)) {
+                return false;
+            }
+            return null;
+        }
+
+        /**
+         * Classifies the common table expressions and the main statement.
+         *
+         * @return the classification, or {@code null} if the expressions can not be parsed
+         */
+        private Boolean with() {
+            skipBlanks(false);
+            int start = pos;
+            int end = word();
+            if (is(start, end, "RECURSIVE")) {
+                skipBlanks(false);
+                start = pos;
+                end = word();
+            }
+            while (true) {
+                if (end == start && !quoted()) {
+                    return null;
+                }
+                skipBlanks(false);
+                if (current() == '(') {
+                    skipParentheses();
+                    skipBlanks(false);
+                }
+                start = pos;
+                if (!is(start, word(), "AS")) {
+                    return null;
+                }
+                skipBlanks(false);
+                start = pos;
+                end = word();
+                if (is(start, end, "NOT")) {
+                    skipBlanks(false);
+                    start = pos;
+                    end = word();
+                }
+                if (end > start && !is(start, end, "MATERIALIZED")) {
+                    return null;
+                }
+                skipBlanks(false);
+                if (current() != '(') {
+                    return null;
+                }
+                int bodyStart = pos + 1;
+                skipParentheses();
+                // the data-modifying statements are allowed in the expressions.
+                Tokenizer body = new Tokenizer(sql, bodyStart, Math.max(bodyStart, pos - 1), dialect);
+                boolean write = body.isWrite();
+                ambiguous |= body.ambiguous;
+                if (write) {
+                    return true;
+                }
+                skipBlanks(false);
+                if (current() != ',') {
+                    break;
+                }
+                pos++;
+                skipBlanks(false);
+                start = pos;
+                end = word();
+            }
+            return statement();
+        }
+
+        private char current() {
+            return pos < limit ? sql.charAt(pos) : 0;
+        }
+
+        /**
+         * Skips the whitespaces and comments, and the opening parentheses if required.
+         *
+         * @param parentheses whether to skip the opening parentheses
+         */
+        private void skipBlanks(boolean parentheses) {
+            while (pos < limit) {
+                char ch = sql.charAt(pos);
+                if (Character.isWhitespace(ch) || parentheses && ch == '(') {
+                    pos++;
+                } else if (!skipComment()) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Skips the comment at the current position.
+         * <p>
+         * The {@code #} starts a comment only in mysql, and a double dash starts a comment in mysql only if it is
+         * followed by a whitespace. Both of them are ambiguous in a generic dialect.
+         * </p>
+         *
+         * @return {@code true} if a comment is skipped
+         */
+        private boolean skipComment() {
+            char ch = sql.charAt(pos);
+            char next = pos + 1 < limit ? sql.charAt(pos + 1) : 0;
+            boolean line;
+            if (ch == '-' && next == '-') {
+                boolean space = pos + 2 >= limit || Character.isWhitespace(sql.charAt(pos + 2));
+                ambiguous |= !space && dialect == Dialect.GENERIC;
+                line = space || dialect != Dialect.MYSQL;
+            } else if (ch == '#') {
+                ambiguous |= dialect == Dialect.GENERIC;
+                line = dialect == Dialect.MYSQL;
+            } else if (ch == '/' && next == '*') {
+                int index = sql.indexOf("*/", pos + 2);
+                if (index < 0 || index + 2 > limit) {
+                    ambiguous = true;
+                    pos = limit;
+                } else {
+                    pos = index + 2;
+                }
+                return true;
+            } else {
+                line = false;
+            }
+            if (line) {
+                int index = sql.indexOf('\n', pos);
+                pos = index < 0 || index >= limit ? limit : index + 1;
+            }
+            return line;
+        }
+
+        /**
+         * Reads a word at the current position.
+         *
+         * @return the end position of the word
+         */
+        private int word() {
+            while (pos < limit && isIdentifier(sql.charAt(pos))) {
+                pos++;
+            }
+            return pos;
+        }
+
+        /**
+         * Skips a quoted identifier at the current position.
+         *
+         * @return {@code true} if a quoted identifier is skipped
+         */
+        private boolean quoted() {
+            char ch = current();
+            if (ch == '"' || ch == '`') {
+                skipQuote(ch);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Skips the quoted text which starts at the current position.
+         * <p>
+         * The backslash escapes the next character in the strings of mysql and in the {@code E'...'} strings
+         * of postgresql. It is ambiguous in the strings of a generic dialect.
+         * </p>
+         *
+         * @param quote the quote character
+         */
+        private void skipQuote(char quote) {
+            boolean escape = isEscapable(quote);
+            pos++;
+            while (pos < limit) {
+                char ch = sql.charAt(pos++);
+                if (ch == '\\' && quote == '\'' && dialect == Dialect.GENERIC) {
+                    ambiguous = true;
+                } else if (ch == '\\' && escape) {
+                    pos++;
+                } else if (ch == quote) {
+                    if (pos < limit && sql.charAt(pos) == quote) {
+                        pos++;
+                    } else {
+                        return;
+                    }
+                }
+            }
+            // the text is not terminated.
+            ambiguous = true;
+            pos = limit;
+        }
+
+        /**
+         * Determines if the backslash is an escape character in the text quoted at the current position.
+         *
+         * @param quote the quote character
+         * @return {@code true} if the backslash is an escape character
+         */
+        private boolean isEscapable(char quote) {
+            switch (dialect) {
+                case MYSQL:
+                    return quote == '\'' || quote == '"';
+                case POSTGRESQL:
+                    return quote == '\'' && pos > 0 && (sql.charAt(pos - 1) == 'E' || sql.charAt(pos - 1) == 'e')
+                            && (pos == 1 || !isIdentifier(sql.charAt(pos - 2)));
+                default:
+                    return false;
+            }
+        }
+
+        /**
+         * Skips the dollar quoted text of postgresql which starts at the current position.
+         *
+         * @return {@code true} if a dollar quoted text is skipped
+         */
+        private boolean skipDollarQuote() {
+            int end = pos + 1;
+            while (end < limit && (Character.isLetterOrDigit(sql.charAt(end)) || sql.charAt(end) == '_')) {
+                end++;
+            }
+            if (end >= limit || sql.charAt(end) != '$') {
+                return false;
+            }
+            String tag = sql.substring(pos, end + 1);
+            int index = sql.indexOf(tag, end + 1);
+            if (index < 0 || index + tag.length() > limit) {
+                ambiguous = true;
+                pos = limit;
+            } else {
+                pos = index + tag.length();
+            }
+            return true;
+        }
+
+        /**
+         * Skips the balanced parentheses which start at the current position.
+         */
+        private void skipParentheses() {
+            int depth = 0;
+            while (pos < limit) {
+                char ch = sql.charAt(pos);
+                if (ch == '(') {
+                    depth++;
+                    pos++;
+                } else if (ch == ')') {
+                    pos++;
+                    if (--depth == 0) {
+                        return;
+                    }
+                } else if (!skipLiteral()) {
+                    pos++;
+                }
+            }
+        }
+
+        /**
+         * Skips the literal or comment at the current position.
+         *
+         * @return {@code true} if a literal or comment is skipped
+         */
+        private boolean skipLiteral() {
+            char ch = sql.charAt(pos);
+            switch (ch) {
+                case '\'':
+                case '"':
+                case '`':
+                    skipQuote(ch);
+                    return true;
+                case '$':
+                    // the dollar sign is a part of the identifiers in mysql.
+                    return dialect != Dialect.MYSQL
+                            && (pos == 0 || !Character.isLetterOrDigit(sql.charAt(pos - 1)))
+                            && skipDollarQuote();
+                default:
+                    return skipComment();
+            }
+        }
+
+        /**
+         * Finds the end of the statement which contains the position, and detects its locking clause,
+         * such as {@code FOR UPDATE}, {@code FOR SHARE}, {@code FOR NO KEY UPDATE} and {@code LOCK IN SHARE MODE}.
+         *
+         * @param from the position
+         * @return the position of the semicolon, or the limit
+         */
+        private int skipStatement(int from) {
+            pos = from;
+            while (pos < limit) {
+                char ch = sql.charAt(pos);
+                if (ch == ';') {
+                    return pos;
+                } else if (Character.isLetter(ch) || ch == '_') {
+                    if (pos > 0 && isIdentifier(sql.charAt(pos - 1))) {
+                        word();
+                    } else {
+                        lockingClause();
+                    }
+                } else if (!skipLiteral()) {
+                    pos++;
+                }
+            }
+            return limit;
+        }
+
+        /**
+         * Reads a word at the current position, and detects the locking clause which starts with it.
+         */
+        private void lockingClause() {
+            int start = pos;
+            int end = word();
+            if (is(start, end, "FOR")) {
+                skipBlanks(false);
+                start = pos;
+                locking |= in(start, word(), LOCKING_KEYWORDS);
+            } else if (is(start, end, "LOCK")) {
+                skipBlanks(false);
+                start = pos;
+                locking |= is(start, word(), "IN");
+            }
+        }
+
+        private boolean isIdentifier(char ch) {
+            return Character.isLetterOrDigit(ch) || ch == '_' || ch == '$';
+        }
+
+        private boolean is(int start, int end, String keyword) {
+            return end - start == keyword.length() && sql.regionMatches(true, start, keyword, 0, keyword.length());
+        }
+
+        private boolean in(int start, int end, String[] keywords) {
+            for (String keyword : keywords) {
+                if (is(start, end, keyword)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -16,6 +16,8 @@
 package com.jd.live.agent.governance.rule;
 
 import com.jd.live.agent.core.parser.json.JsonAlias;
+import com.jd.live.agent.core.util.cache.WeakCache;
+import com.jd.live.agent.core.util.network.IpRanges;
 import lombok.Getter;
 
 import java.util.Arrays;
@@ -170,12 +172,39 @@ public enum OpType {
             }
             return true;
         }
+    },
+
+    /**
+     * Represents an ip range match operation, the values are cidr, range, wildcard or single addresses.
+     * It matches if any argument is in the ranges.
+     */
+    @JsonAlias("cidr")
+    CIDR("cidr", "cidr") {
+        @Override
+        public boolean isMatch(List<String> values, List<String> args) {
+            if (values == null || values.isEmpty() || args == null || args.isEmpty()) {
+                return false;
+            }
+            return isMatch(RANGES.computeIfAbsent(values, this::compile), values, args);
+        }
+
+        @Override
+        public Object compile(List<String> values) {
+            return IpRanges.parse(values, true);
+        }
+
+        @Override
+        public boolean isMatch(Object compiled, List<String> values, List<String> args) {
+            return compiled instanceof IpRanges ? ((IpRanges) compiled).containsAny(args) : isMatch(values, args);
+        }
     };
 
     private static final Map<String, OpType> TYPES = Arrays.stream(values()).collect(Collectors.toMap(OpType::getCode, o -> o));
 
     private static final Map<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
 
+    private static final WeakCache<List<String>, Object> RANGES = new WeakCache<>(1024);
+
     /**
      * The code associated with this operation type.
      */
@@ -209,6 +238,29 @@ public enum OpType {
         return false;
     }
 
+    /**
+     * Compiles the values into a form that can be matched without parsing them again.
+     * The result is cached by the caller and passed to {@link #isMatch(Object, List, List)}.
+     *
+     * @param values the list of values to match against
+     * @return the compiled values, or null if this operation type doesn't need compilation
+     */
+    public Object compile(List<String> values) {
+        return null;
+    }
+
+    /**
+     * Determines if the specified argument matches the criteria with the compiled values.
+     *
+     * @param compiled the result of {@link #compile(List)} for the values
+     * @param values   the list of values to match against
+     * @param args     the list of arguments to test for a match
+     * @return true if the argument matches the criteria, false otherwise
+     */
+    public boolean isMatch(Object compiled, List<String> values, List<String> args) {
+        return isMatch(values, args);
+    }
+
     /**
      * Returns the OpType associated with the given code.
      *
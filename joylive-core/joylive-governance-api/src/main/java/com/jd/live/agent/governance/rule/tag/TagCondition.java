@@ -19,8 +19,8 @@ import com.jd.live.agent.bootstrap.logger.Logger;
 import com.jd.live.agent.bootstrap.logger.LoggerFactory;
 import com.jd.live.agent.core.util.tag.Tag;
 import com.jd.live.agent.governance.rule.OpType;
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.Setter;
 
 import java.util.List;
 
@@ -42,7 +42,6 @@ public class TagCondition extends Tag {
     /**
      * The operation type for matching the condition.
      */
-    @Setter
     private OpType opType = OpType.EQUAL;
 
     /**
@@ -50,6 +49,12 @@ public class TagCondition extends Tag {
      */
     private String type;
 
+    /**
+     * The values compiled by the operation type, which is reset when the values or operation type change.
+     */
+    @Getter(AccessLevel.NONE)
+    private transient volatile Compiled compiled;
+
     /**
      * Default constructor for {@code TagCondition}.
      */
@@ -83,6 +88,11 @@ public class TagCondition extends Tag {
         setType(type);
     }
 
+    public void setOpType(OpType opType) {
+        this.opType = opType;
+        this.compiled = null;
+    }
+
     public void setType(String type) {
         this.type = type == null ? null : type.toLowerCase();
     }
@@ -105,6 +115,7 @@ public class TagCondition extends Tag {
     @Override
     public void setValues(List<String> values) {
         super.setValues(values);
+        this.compiled = null;
     }
 
     /**
@@ -117,7 +128,46 @@ public class TagCondition extends Tag {
         if (logger.isDebugEnabled()) {
             logger.debug("Matching opType:{}, tag value:{}, request value:{}", opType, values, targets);
         }
-        return opType.isMatch(values, targets);
+        return opType.isMatch(getCompiled(), values, targets);
+    }
+
+    /**
+     * Returns the values compiled by the operation type, compiling them on first use.
+     *
+     * @return the compiled values, or null if the operation type doesn't need compilation.
+     */
+    private Object getCompiled() {
+        Compiled result = compiled;
+        if (result == null || result.opType != opType || result.values != values || result.size != size(values)) {
+            result = new Compiled(opType, values, size(values), opType == null ? null : opType.compile(values));
+            compiled = result;
+        }
+        return result.value;
+    }
+
+    private static int size(List<String> values) {
+        return values == null ? 0 : values.size();
+    }
+
+    /**
+     * The compiled values bound to the operation type and values they are compiled from.
+     */
+    private static class Compiled {
+
+        private final OpType opType;
+
+        private final List<String> values;
+
+        private final int size;
+
+        private final Object value;
+
+        Compiled(OpType opType, List<String> values, int size, Object value) {
+            this.opType = opType;
+            this.values = values;
+            this.size = size;
+            this.value = value;
+        }
     }
 }
 
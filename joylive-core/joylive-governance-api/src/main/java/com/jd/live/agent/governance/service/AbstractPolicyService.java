@@ -32,9 +32,14 @@ public abstract class AbstractPolicyService extends AbstractService implements P
      * Publishes a ConfigEvent to all registered listeners.
      *
      * @param event The ConfigEvent to publish.
+     * @return true if all the listeners have applied the event, false otherwise.
      */
-    protected void publish(PolicyEvent event) {
-        listeners.forEach(o -> o.onUpdate(event));
+    protected boolean publish(PolicyEvent event) {
+        boolean result = true;
+        for (PolicyListener listener : listeners) {
+            result = listener.onUpdate(event) && result;
+        }
+        return result;
     }
 
 }
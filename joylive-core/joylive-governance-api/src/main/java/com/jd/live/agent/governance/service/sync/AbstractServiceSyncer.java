@@ -194,18 +194,21 @@ public abstract class AbstractServiceSyncer<K extends ServiceKey> extends Abstra
      *
      * @param subscription The subscription for which an error occurred.
      * @param service      The new service data to update the subscriber with.
+     * @return true if the service data is applied, false otherwise.
      */
-    protected void onSuccess(Subscription<K, Service> subscription, Service service) {
+    protected boolean onSuccess(Subscription<K, Service> subscription, Service service) {
         if (service == null) {
             onNotFound(subscription);
-        } else {
-            PolicySubscription subscriber = subscription.getKey().getSubscriber();
-            if (update(subscriber.getName(), service)) {
-                subscription.setVersion(service.getVersion());
-                subscriber.complete(subscription.getOwner());
-                logger.info(subscription.getSuccessMessage(SyncStatus.SUCCESS));
-            }
+            return false;
+        }
+        PolicySubscription subscriber = subscription.getKey().getSubscriber();
+        if (update(subscriber.getName(), service)) {
+            subscription.setVersion(service.getVersion());
+            subscriber.complete(subscription.getOwner());
+            logger.info(subscription.getSuccessMessage(SyncStatus.SUCCESS));
+            return true;
         }
+        return false;
     }
 
     /**
@@ -0,0 +1,104 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.service.sync.file;
+
+import com.jd.live.agent.governance.service.sync.SyncKey.FileKey;
+import com.jd.live.agent.governance.service.sync.Syncer;
+import com.jd.live.agent.governance.service.sync.file.IncrementalListParser.ListDelta;
+import com.jd.live.agent.governance.subscription.policy.PolicyEvent;
+import com.jd.live.agent.governance.subscription.policy.PolicyEvent.EventType;
+
+import java.io.File;
+
+/**
+ * An abstract file syncer for the files whose content is a json array of entries.
+ * <p>
+ * The file is parsed by {@link IncrementalListParser}, so only the changed entries are parsed again. The whole list
+ * is published on the first load, and the changed and deleted entries are published as item events afterward.
+ * </p>
+ *
+ * @param <T> The type of the entries.
+ * @since 1.6.0
+ */
+public abstract class AbstractListFileSyncer<T> extends AbstractFileSyncer<ListDelta<T>> {
+
+    protected IncrementalListParser<T> listParser;
+
+    @Override
+    protected Syncer<FileKey, ListDelta<T>> createSyncer() {
+        fileWatcher = new FileWatcher(getName(), getSyncConfig(), publisher);
+        listParser = new IncrementalListParser<>(reader -> parser.read(reader, getItemType()), this::getKey);
+        return fileWatcher.createSyncer(file, listParser);
+    }
+
+    @Override
+    protected void onSuccess(ListDelta<T> data) {
+        boolean success;
+        if (data.isFull()) {
+            success = publish(createEvent(EventType.UPDATE_ALL, "", data.getUpdates()));
+        } else {
+            success = true;
+            for (T item : data.getUpdates()) {
+                success = publish(createEvent(EventType.UPDATE_ITEM, getKey(item), item)) && success;
+            }
+            for (String key : data.getDeletes()) {
+                success = publish(createEvent(EventType.DELETE_ITEM, key, null)) && success;
+            }
+        }
+        if (!success) {
+            // publish the whole list on the next change.
+            listParser.reset();
+        }
+    }
+
+    @Override
+    protected void onNotFound(File file) {
+        listParser.reset();
+        publish(createEvent(EventType.UPDATE_ALL, "", null));
+    }
+
+    @Override
+    protected PolicyEvent createEvent(ListDelta<T> data) {
+        return createEvent(EventType.UPDATE_ALL, "", data == null ? null : data.getUpdates());
+    }
+
+    /**
+     * Creates a policy event.
+     *
+     * @param type  The type of the event.
+     * @param name  The key of the entry, or empty for the whole list.
+     * @param value The entry or the list of entries.
+     * @return The policy event.
+     */
+    protected PolicyEvent createEvent(EventType type, String name, Object value) {
+        return new PolicyEvent(type, name, value, getType(), getName());
+    }
+
+    /**
+     * Returns the type of the entries.
+     *
+     * @return The type of the entries.
+     */
+    protected abstract Class<T> getItemType();
+
+    /**
+     * Returns the key of the entry, which is used by the listener to update or delete it.
+     *
+     * @param item The entry.
+     * @return The key of the entry.
+     */
+    protected abstract String getKey(T item);
+}
@@ -15,19 +15,43 @@
  */
 package com.jd.live.agent.governance.service.sync.file;
 
-import lombok.Getter;
+import java.nio.ByteBuffer;
 
 /**
  * Inner class representing the content of a file including its last modified timestamp,
  * the bytes of its content, and the CRC32 digest of the content.
+ * <p>
+ * The content may be backed by a memory-mapped buffer, it is copied into a byte array only when it is requested.
+ * </p>
  */
-@Getter
 public class FileContent extends FileDigest {
 
-    private final byte[] bytes;
+    private final ByteBuffer buffer;
+
+    private byte[] bytes;
 
     public FileContent(long lastModified, long crc32, byte[] bytes) {
-        super(lastModified, crc32);
+        super(lastModified, bytes.length, crc32);
+        this.buffer = null;
         this.bytes = bytes;
     }
+
+    public FileContent(long lastModified, long crc32, ByteBuffer buffer) {
+        super(lastModified, buffer.remaining(), crc32);
+        this.buffer = buffer;
+    }
+
+    /**
+     * Returns the bytes of the content.
+     *
+     * @return the bytes of the content
+     */
+    public byte[] getBytes() {
+        if (bytes == null) {
+            byte[] result = new byte[buffer.remaining()];
+            buffer.duplicate().get(result);
+            bytes = result;
+        }
+        return bytes;
+    }
 }
@@ -18,25 +18,63 @@ package com.jd.live.agent.governance.service.sync.file;
 import lombok.Getter;
 
 /**
- * Inner class representing a digest of a file, which includes the last modified timestamp
- * and the CRC32 digest of the file's content.
+ * Inner class representing a digest of a file, which includes the last modified timestamp,
+ * the length and the CRC32 digest of the file's content.
  */
 @Getter
 public class FileDigest {
 
+    /**
+     * The interval in which the last modified timestamp of a file is not trusted,
+     * because the file system may not record the modifications in the same tick.
+     */
+    protected static final long RACY_INTERVAL = 2000L;
+
     private final long lastModified;
 
+    private final long length;
+
     private final long crc32;
 
-    public FileDigest(long lastModified, long crc32) {
+    /**
+     * The file was modified right before it was read, so the timestamp and length are not enough to detect changes.
+     */
+    private final boolean racy;
+
+    public FileDigest(long lastModified, long length, long crc32) {
         this.lastModified = lastModified;
+        this.length = length;
         this.crc32 = crc32;
+        this.racy = System.currentTimeMillis() - lastModified < RACY_INTERVAL;
     }
 
     public FileDigest(FileDigest digest) {
         this.lastModified = digest == null ? 0 : digest.lastModified;
+        this.length = digest == null ? 0 : digest.length;
         this.crc32 = digest == null ? 0 : digest.crc32;
+        this.racy = digest != null && digest.racy;
+    }
+
+    /**
+     * Checks whether the file is unchanged by its last modified timestamp and length,
+     * without reading its content.
+     *
+     * @param lastModified the last modified timestamp of the file
+     * @param length       the length of the file
+     * @return true if the file is considered unchanged
+     */
+    public boolean isUnchanged(long lastModified, long length) {
+        return !racy && this.lastModified == lastModified && this.length == length;
+    }
 
+    /**
+     * Checks whether the content is different from this digest.
+     *
+     * @param digest the digest of the new content
+     * @return true if the content is different
+     */
+    public boolean isModified(FileDigest digest) {
+        return digest.length != length || digest.crc32 != crc32;
     }
 
 }
@@ -22,7 +22,6 @@ import com.jd.live.agent.core.event.FileEvent;
 import com.jd.live.agent.core.event.Publisher;
 import com.jd.live.agent.core.util.Close;
 import com.jd.live.agent.core.util.Daemon;
-import com.jd.live.agent.core.util.IOUtils;
 import com.jd.live.agent.core.util.Waiter;
 import com.jd.live.agent.governance.service.sync.SyncKey.FileKey;
 import com.jd.live.agent.governance.service.sync.SyncResponse;
@@ -30,14 +29,14 @@ import com.jd.live.agent.governance.service.sync.SyncStatus;
 import com.jd.live.agent.governance.service.sync.Syncer;
 import com.jd.live.agent.governance.service.sync.file.FileWatchEvent.EventType;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.util.LinkedList;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -47,9 +46,20 @@ import java.util.zip.CRC32;
 
 /**
  * A class for watching changes to files and notifying listeners of those changes.
+ * <p>
+ * The files are checked by their last modified timestamp and length on every tick, and their content is
+ * only read when these are changed or a file event is received from the watch service.
+ * </p>
  */
 public class FileWatcher implements AutoCloseable {
 
+    /**
+     * Files larger than this threshold are memory-mapped.
+     */
+    protected static final long MAPPED_THRESHOLD = 1024 * 1024;
+
+    protected static final FileDigest MISSING = new FileDigest(null);
+
     protected String name;
 
     protected SyncConfig config;
@@ -62,6 +72,8 @@ public class FileWatcher implements AutoCloseable {
 
     protected final Map<File, FileDigest> digests = new ConcurrentHashMap<>();
 
+    protected final Set<File> changes = ConcurrentHashMap.newKeySet();
+
     protected final Waiter.MutexWaiter waiter = new Waiter.MutexWaiter();
 
     protected final AtomicBoolean started = new AtomicBoolean(true);
@@ -132,7 +144,7 @@ public class FileWatcher implements AutoCloseable {
      * @param events a list of file events to process
      */
     protected void onFileEvent(List<Event<FileEvent>> events) {
-        List<File> files = new LinkedList<>();
+        boolean changed = false;
         for (Event<FileEvent> event : events) {
             FileEvent fileEvent = event.getData();
             File file = fileEvent.getFile();
@@ -141,12 +153,14 @@ public class FileWatcher implements AutoCloseable {
                     case CREATE:
                     case MODIFY:
                     case DELETE:
-                        files.add(file);
+                        // the content must be verified, the timestamp may be not changed in the same tick.
+                        changes.add(file);
+                        changed = true;
                 }
 
             }
         }
-        if (!files.isEmpty()) {
+        if (changed) {
             waiter.wakeup();
         }
     }
@@ -162,7 +176,7 @@ public class FileWatcher implements AutoCloseable {
                 for (Map.Entry<File, FileListener> entry : subscriptions.entrySet()) {
                     File file = entry.getKey();
                     FileListener listener = entry.getValue();
-                    load(file, listener);
+                    load(file, listener, changes.remove(file));
                 }
                 waiter.await(config.getInterval(), TimeUnit.MILLISECONDS, null);
             } catch (InterruptedException ignored) {
@@ -172,6 +186,9 @@ public class FileWatcher implements AutoCloseable {
 
     /**
      * Reads the file and calculates its digest.
+     * <p>
+     * Large files are memory-mapped, so the digest is calculated without copying the content to the heap.
+     * </p>
      *
      * @param file the file.
      * @return a FileContent object with the file's last modified timestamp, bytes, and CRC32 digest
@@ -182,14 +199,28 @@ public class FileWatcher implements AutoCloseable {
             return null;
         }
         long lastModified = file.lastModified();
-        ByteArrayOutputStream bos = new ByteArrayOutputStream(4096);
-        try (BufferedInputStream bis = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
-            IOUtils.copy(bis, bos);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File is too large. " + file.getPath());
+            }
+            ByteBuffer buffer;
+            if (size >= MAPPED_THRESHOLD) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                byte[] bytes = new byte[(int) size];
+                buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        break;
+                    }
+                }
+                buffer = ByteBuffer.wrap(bytes, 0, bytes.length - buffer.remaining());
+            }
+            CRC32 crc32 = new CRC32();
+            crc32.update(buffer.duplicate());
+            return new FileContent(lastModified, crc32.getValue(), buffer);
         }
-        byte[] bytes = bos.toByteArray();
-        CRC32 crc32 = new CRC32();
-        crc32.update(bytes, 0, bytes.length);
-        return new FileContent(lastModified, crc32.getValue(), bytes);
     }
 
     /**
@@ -199,17 +230,37 @@ public class FileWatcher implements AutoCloseable {
      * @param listener The listener to notify of any changes.
      */
     protected void load(File file, FileListener listener) {
+        load(file, listener, true);
+    }
+
+    /**
+     * Loads the content of a file and notifies the specified listener of any changes.
+     * <p>
+     * The content is not read if the last modified timestamp and length of the file are not changed,
+     * unless it's forced by a file event.
+     * </p>
+     *
+     * @param file     The file to load.
+     * @param listener The listener to notify of any changes.
+     * @param force    True to verify the content even if the timestamp and length are not changed.
+     */
+    protected void load(File file, FileListener listener, boolean force) {
         try {
+            FileDigest digest = digests.get(file);
+            if (!force && digest != null && digest != MISSING && digest.isUnchanged(file.lastModified(), file.length())) {
+                return;
+            }
             FileContent content = load(file);
-            FileDigest digest = digests.put(file, new FileDigest(content));
-            if (digest == null) {
-                listener.onUpdate(content == null
-                        ? new FileWatchEvent(EventType.DELETE, file, null)
-                        : new FileWatchEvent(EventType.UPDATE, file, content.getBytes()));
-            } else if (content == null) {
-                listener.onUpdate(new FileWatchEvent(EventType.DELETE, file, null));
-            } else if (content.getLastModified() != digest.getLastModified() || content.getCrc32() != digest.getCrc32()) {
-                listener.onUpdate(new FileWatchEvent(EventType.UPDATE, file, content.getBytes()));
+            if (content == null) {
+                digests.put(file, MISSING);
+                if (digest != MISSING) {
+                    listener.onUpdate(new FileWatchEvent(EventType.DELETE, file, null));
+                }
+            } else {
+                digests.put(file, new FileDigest(content));
+                if (digest == null || digest == MISSING || digest.isModified(content)) {
+                    listener.onUpdate(new FileWatchEvent(EventType.UPDATE, file, content.getBytes()));
+                }
             }
         } catch (IOException e) {
             listener.onUpdate(new FileWatchEvent(file, e));
@@ -220,17 +271,24 @@ public class FileWatcher implements AutoCloseable {
      * Creates a new Syncer object that can be used to synchronize data between a local file and a remote source.
      *
      * @param file     The file object to synchronize.
-     * @param function A function that takes the content of the file as input and returns a list of objects of type T.
-     * @param <T>      The type of the objects in the list returned by the parser function.
+     * @param function A function that takes the content of the file as input and returns the parsed data.
+     * @param <T>      The type of the data returned by the parser function.
      * @return A new Syncer object that can be used to synchronize data between a local file and a remote source.
      */
-    public <T> Syncer<FileKey, List<T>> createSyncer(File file, Function<byte[], List<T>> function) {
+    public <T> Syncer<FileKey, T> createSyncer(File file, Function<byte[], T> function) {
         return subscription -> {
             try {
                 subscribe(file, event -> {
                     switch (event.getType()) {
                         case UPDATE:
-                            subscription.onUpdate(new SyncResponse<>(SyncStatus.SUCCESS, function.apply(event.getContent())));
+                            T data;
+                            try {
+                                data = function.apply(event.getContent());
+                            } catch (Throwable e) {
+                                subscription.onUpdate(new SyncResponse<>(e));
+                                break;
+                            }
+                            subscription.onUpdate(new SyncResponse<>(SyncStatus.SUCCESS, data));
                             break;
                         case DELETE:
                             subscription.onUpdate(new SyncResponse<>(SyncStatus.NOT_FOUND, null));
@@ -0,0 +1,240 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.service.sync.file;
+
+import lombok.Getter;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+
+/**
+ * A parser for the files whose content is a json array of top-level entries, such as services or spaces.
+ * <p>
+ * The array is split into its entries without materializing them, and only the entries whose bytes have changed
+ * since the last parse are parsed again. The result is a delta of the changed and deleted entries, the unchanged
+ * entries are not returned at all. Every returned entry is a new instance, because the entries are merged into
+ * the live policy and kept by it.
+ * </p>
+ *
+ * @param <T> The type of the entries.
+ */
+public class IncrementalListParser<T> implements Function<byte[], IncrementalListParser.ListDelta<T>> {
+
+    private final Function<Reader, T> parser;
+
+    private final Function<T, String> keyFunc;
+
+    /**
+     * The keys of the entries of the last parse, or null to parse the whole list on the next parse.
+     */
+    private volatile Map<EntryKey, String> entries;
+
+    public IncrementalListParser(Function<Reader, T> parser, Function<T, String> keyFunc) {
+        this.parser = parser;
+        this.keyFunc = keyFunc;
+    }
+
+    @Override
+    public ListDelta<T> apply(byte[] bytes) {
+        List<int[]> ranges = split(bytes);
+        Map<EntryKey, String> olds = entries;
+        Map<EntryKey, String> news = new HashMap<>(ranges.size() * 4 / 3 + 1);
+        Set<String> keys = new HashSet<>(ranges.size() * 4 / 3 + 1);
+        List<T> updates = new ArrayList<>(olds == null ? ranges.size() : 4);
+        for (int[] range : ranges) {
+            EntryKey entryKey = new EntryKey(bytes, range[0], range[1]);
+            String key = olds == null ? null : olds.get(entryKey);
+            if (key == null) {
+                key = news.get(entryKey);
+                if (key == null) {
+                    T entry = parser.apply(new InputStreamReader(new ByteArrayInputStream(bytes, range[0], range[1]), StandardCharsets.UTF_8));
+                    key = entry == null ? null : keyFunc.apply(entry);
+                    if (key == null) {
+                        continue;
+                    }
+                    updates.add(entry);
+                }
+            }
+            news.put(entryKey, key);
+            keys.add(key);
+        }
+        Set<String> deletes = new HashSet<>();
+        if (olds != null) {
+            for (String key : olds.values()) {
+                if (!keys.contains(key)) {
+                    deletes.add(key);
+                }
+            }
+        }
+        entries = news;
+        return new ListDelta<>(olds == null, updates, deletes);
+    }
+
+    /**
+     * Resets the parser, so the whole list is parsed and returned on the next parse.
+     * It should be called when the last delta is not applied.
+     */
+    public void reset() {
+        entries = null;
+    }
+
+    /**
+     * Splits the json array into the ranges of its top-level entries.
+     *
+     * @param bytes the content of the json array
+     * @return the ranges, each of which is an array of offset and length
+     * @throws IllegalArgumentException if the content is not a json array
+     */
+    protected static List<int[]> split(byte[] bytes) {
+        List<int[]> result = new ArrayList<>();
+        int length = bytes == null ? 0 : bytes.length;
+        int pos = skipWhitespace(bytes, skipBom(bytes), length);
+        if (pos == length) {
+            return result;
+        } else if (bytes[pos] != '[') {
+            throw new IllegalArgumentException("Content is not a json array.");
+        }
+        pos = skipWhitespace(bytes, pos + 1, length);
+        if (pos < length && bytes[pos] == ']') {
+            return result;
+        }
+        int depth = 0;
+        int start = pos;
+        boolean quoted = false;
+        for (; pos < length; pos++) {
+            byte b = bytes[pos];
+            if (quoted) {
+                if (b == '\\') {
+                    pos++;
+                } else if (b == '"') {
+                    quoted = false;
+                }
+            } else if (b == '"') {
+                quoted = true;
+            } else if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                if (depth-- == 0) {
+                    // the end of the array
+                    addEntry(bytes, start, pos, result);
+                    return result;
+                }
+            } else if (b == ',' && depth == 0) {
+                addEntry(bytes, start, pos, result);
+                start = skipWhitespace(bytes, pos + 1, length);
+            }
+        }
+        throw new IllegalArgumentException("Content is not a complete json array.");
+    }
+
+    private static void addEntry(byte[] bytes, int start, int end, List<int[]> ranges) {
+        while (end > start && isWhitespace(bytes[end - 1])) {
+            end--;
+        }
+        if (end > start) {
+            ranges.add(new int[]{start, end - start});
+        }
+    }
+
+    private static int skipBom(byte[] bytes) {
+        return bytes != null && bytes.length >= 3 && (bytes[0] & 0xFF) == 0xEF && (bytes[1] & 0xFF) == 0xBB && (bytes[2] & 0xFF) == 0xBF ? 3 : 0;
+    }
+
+    private static int skipWhitespace(byte[] bytes, int pos, int length) {
+        while (pos < length && isWhitespace(bytes[pos])) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    /**
+     * The key of an entry, which is composed of the length and two checksums of its bytes.
+     */
+    private static class EntryKey {
+
+        private final int length;
+
+        private final long crc32;
+
+        private final long adler32;
+
+        EntryKey(byte[] bytes, int offset, int length) {
+            CRC32 crc = new CRC32();
+            crc.update(bytes, offset, length);
+            Adler32 adler = new Adler32();
+            adler.update(bytes, offset, length);
+            this.length = length;
+            this.crc32 = crc.getValue();
+            this.adler32 = adler.getValue();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (!(o instanceof EntryKey)) {
+                return false;
+            }
+            EntryKey that = (EntryKey) o;
+            return length == that.length && crc32 == that.crc32 && adler32 == that.adler32;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (crc32 ^ (adler32 << 7)) * 31 + length;
+        }
+    }
+
+    /**
+     * The delta of a parse.
+     *
+     * @param <T> The type of the entries.
+     */
+    @Getter
+    public static class ListDelta<T> {
+
+        /**
+         * Whether the updates are the whole list.
+         */
+        private final boolean full;
+
+        /**
+         * The added or changed entries, which are new instances.
+         */
+        private final List<T> updates;
+
+        /**
+         * The keys of the deleted entries.
+         */
+        private final Set<String> deletes;
+
+        public ListDelta(boolean full, List<T> updates, Set<String> deletes) {
+            this.full = full;
+            this.updates = updates;
+            this.deletes = deletes;
+        }
+    }
+}
@@ -29,6 +29,7 @@ import com.jd.live.agent.governance.service.sync.api.ApiResponse;
 import com.jd.live.agent.governance.service.sync.api.ApiSpace;
 import lombok.Getter;
 
+import java.io.Reader;
 import java.io.StringReader;
 import java.util.HashMap;
 import java.util.List;
@@ -95,13 +96,13 @@ public abstract class AbstractLaneSpaceHttpSyncer extends AbstractLaneSpaceSynce
     @Override
     protected Syncer<HttpLaneSpaceKey, List<ApiSpace>> createSpaceListSyncer() {
         // This is called after createSyncer
-        return watcher.createSyncer(this::parseSpaceList);
+        return watcher.createSyncer(this::readSpaceList);
     }
 
     @Override
     protected Syncer<HttpLaneSpaceKey, LaneSpace> createSyncer() {
         watcher = new HttpWatcher(getType(), getSyncConfig(), application);
-        return watcher.createSyncer(this::parseSpace);
+        return watcher.createSyncer(this::readSpace);
     }
 
     @Override
@@ -109,9 +110,19 @@ public abstract class AbstractLaneSpaceHttpSyncer extends AbstractLaneSpaceSynce
         if (config == null || config.isEmpty()) {
             return new SyncResponse<>(SyncStatus.NOT_FOUND, null);
         }
-        ApiResponse<List<ApiSpace>> response = parser.read(new StringReader(config), new TypeReference<ApiResponse<List<ApiSpace>>>() {
+        return readSpaceList(new StringReader(config));
+    }
+
+    /**
+     * Parses the space list directly from the reader without buffering the content.
+     *
+     * @param reader the reader of the content
+     * @return the sync response
+     */
+    protected SyncResponse<List<ApiSpace>> readSpaceList(Reader reader) {
+        ApiResponse<List<ApiSpace>> response = parser.read(reader, new TypeReference<ApiResponse<List<ApiSpace>>>() {
         });
-        return response.asSyncResponse();
+        return response == null ? new SyncResponse<>(SyncStatus.NOT_FOUND, null) : response.asSyncResponse();
     }
 
     @Override
@@ -119,9 +130,19 @@ public abstract class AbstractLaneSpaceHttpSyncer extends AbstractLaneSpaceSynce
         if (config == null || config.isEmpty()) {
             return new SyncResponse<>(SyncStatus.NOT_FOUND, null);
         }
-        ApiResponse<LaneSpace> response = parser.read(new StringReader(config), new TypeReference<ApiResponse<LaneSpace>>() {
+        return readSpace(new StringReader(config));
+    }
+
+    /**
+     * Parses the space directly from the reader without buffering the content.
+     *
+     * @param reader the reader of the content
+     * @return the sync response
+     */
+    protected SyncResponse<LaneSpace> readSpace(Reader reader) {
+        ApiResponse<LaneSpace> response = parser.read(reader, new TypeReference<ApiResponse<LaneSpace>>() {
         });
-        return response.asSyncResponse();
+        return response == null ? new SyncResponse<>(SyncStatus.NOT_FOUND, null) : response.asSyncResponse();
     }
 
     @Getter
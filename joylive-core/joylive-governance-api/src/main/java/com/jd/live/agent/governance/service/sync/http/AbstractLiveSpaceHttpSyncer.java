@@ -29,6 +29,7 @@ import com.jd.live.agent.governance.service.sync.api.ApiResponse;
 import com.jd.live.agent.governance.service.sync.api.ApiSpace;
 import lombok.Getter;
 
+import java.io.Reader;
 import java.io.StringReader;
 import java.util.HashMap;
 import java.util.List;
@@ -95,13 +96,13 @@ public abstract class AbstractLiveSpaceHttpSyncer extends AbstractLiveSpaceSynce
     @Override
     protected Syncer<HttpLiveSpaceKey, List<ApiSpace>> createSpaceListSyncer() {
         // This is called after createSyncer
-        return watcher.createSyncer(this::parseSpaceList);
+        return watcher.createSyncer(this::readSpaceList);
     }
 
     @Override
     protected Syncer<HttpLiveSpaceKey, LiveSpace> createSyncer() {
         watcher = creatWatcher();
-        return watcher.createSyncer(this::parseSpace);
+        return watcher.createSyncer(this::readSpace);
     }
 
     @Override
@@ -109,9 +110,19 @@ public abstract class AbstractLiveSpaceHttpSyncer extends AbstractLiveSpaceSynce
         if (config == null || config.isEmpty()) {
             return new SyncResponse<>(SyncStatus.NOT_FOUND, null);
         }
-        ApiResponse<List<ApiSpace>> response = parser.read(new StringReader(config), new TypeReference<ApiResponse<List<ApiSpace>>>() {
+        return readSpaceList(new StringReader(config));
+    }
+
+    /**
+     * Parses the space list directly from the reader without buffering the content.
+     *
+     * @param reader the reader of the content
+     * @return the sync response
+     */
+    protected SyncResponse<List<ApiSpace>> readSpaceList(Reader reader) {
+        ApiResponse<List<ApiSpace>> response = parser.read(reader, new TypeReference<ApiResponse<List<ApiSpace>>>() {
         });
-        return response.asSyncResponse();
+        return response == null ? new SyncResponse<>(SyncStatus.NOT_FOUND, null) : response.asSyncResponse();
     }
 
     @Override
@@ -119,9 +130,19 @@ public abstract class AbstractLiveSpaceHttpSyncer extends AbstractLiveSpaceSynce
         if (config == null || config.isEmpty()) {
             return new SyncResponse<>(SyncStatus.NOT_FOUND, null);
         }
-        ApiResponse<LiveSpace> response = parser.read(new StringReader(config), new TypeReference<ApiResponse<LiveSpace>>() {
+        return readSpace(new StringReader(config));
+    }
+
+    /**
+     * Parses the space directly from the reader without buffering the content.
+     *
+     * @param reader the reader of the content
+     * @return the sync response
+     */
+    protected SyncResponse<LiveSpace> readSpace(Reader reader) {
+        ApiResponse<LiveSpace> response = parser.read(reader, new TypeReference<ApiResponse<LiveSpace>>() {
         });
-        return response.asSyncResponse();
+        return response == null ? new SyncResponse<>(SyncStatus.NOT_FOUND, null) : response.asSyncResponse();
     }
 
     protected HttpWatcher creatWatcher() {
@@ -18,9 +18,11 @@ package com.jd.live.agent.governance.service.sync.http;
 import com.jd.live.agent.governance.config.SyncConfig;
 import com.jd.live.agent.core.inject.annotation.Inject;
 import com.jd.live.agent.core.parser.ObjectParser;
+import com.jd.live.agent.core.parser.ObjectReader;
 import com.jd.live.agent.core.parser.TypeReference;
 import com.jd.live.agent.core.util.http.HttpResponse;
 import com.jd.live.agent.core.util.http.HttpUtils;
+import com.jd.live.agent.core.util.http.HttpValidator;
 import com.jd.live.agent.core.util.time.Timer;
 import com.jd.live.agent.governance.policy.service.Service;
 import com.jd.live.agent.governance.service.sync.AbstractServiceSyncer;
@@ -31,9 +33,11 @@ import com.jd.live.agent.governance.service.sync.Syncer;
 import com.jd.live.agent.governance.service.sync.api.ApiResponse;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.net.HttpURLConnection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
@@ -55,6 +59,10 @@ public abstract class AbstractServiceHttpSyncer<K extends ServiceKey> extends Ab
     @Inject(ObjectParser.JSON)
     protected ObjectParser jsonParser;
 
+    protected final Map<String, HttpValidator> validators = new ConcurrentHashMap<>();
+
+    protected final Map<String, HttpValidator> pendingValidators = new ConcurrentHashMap<>();
+
     @Override
     protected Syncer<K, Service> createSyncer() {
         return subscription -> {
@@ -88,7 +96,7 @@ public abstract class AbstractServiceHttpSyncer<K extends ServiceKey> extends Ab
         context.put(SERVICE_NAME, key.getName());
         context.put(SERVICE_VERSION, String.valueOf(subscription.getVersion()));
         String uri = template.evaluate(context);
-        return getResponse(config, uri);
+        return getResponse(config, uri, key.getSubscriber().getUniqueName());
     }
 
     /**
@@ -96,17 +104,93 @@ public abstract class AbstractServiceHttpSyncer<K extends ServiceKey> extends Ab
      *
      * @param config The SyncConfig object used to configure the connection.
      * @param uri    The URI to send the GET request to.
+     * @param name   The name of the subscription, used to keep the cache validators.
      * @return The SyncResponse object containing the response.
      * @throws IOException If an I/O error occurs while sending the request or parsing the response.
      */
-    protected SyncResponse<Service> getResponse(SyncConfig config, String uri) throws IOException {
-        HttpResponse<ApiResponse<Service>> response = HttpUtils.get(uri,
-                conn -> configure(config, conn),
+    protected SyncResponse<Service> getResponse(SyncConfig config, String uri, String name) throws IOException {
+        HttpResponse<ApiResponse<Service>> response = request(config, uri, name,
                 reader -> jsonParser.read(reader, new TypeReference<ApiResponse<Service>>() {
                 }));
         return ApiResponse.from(response).asSyncResponse();
     }
 
+    /**
+     * Sends a conditional GET request with the cache validators of the last applied response.
+     * The validators of a new response are kept as pending until the response is applied.
+     *
+     * @param config The SyncConfig object used to configure the connection.
+     * @param uri    The URI to send the GET request to.
+     * @param name   The name of the subscription.
+     * @param reader The reader used to parse the response from the stream.
+     * @param <T>    The type of the response data.
+     * @return The HttpResponse object containing the response.
+     * @throws IOException If an I/O error occurs while sending the request or parsing the response.
+     */
+    protected <T> HttpResponse<T> request(SyncConfig config, String uri, String name, ObjectReader<Reader, T> reader) throws IOException {
+        HttpValidator validator = validators.get(name);
+        HttpResponse<T> response;
+        try {
+            response = HttpUtils.get(uri, conn -> {
+                configure(config, conn);
+                if (validator != null) {
+                    validator.configure(conn);
+                }
+            }, reader);
+        } catch (IOException | RuntimeException e) {
+            removeValidator(name);
+            throw e;
+        }
+        switch (response.getStatus()) {
+            case OK:
+                validators.remove(name);
+                if (response.getValidator() != null) {
+                    pendingValidators.put(name, response.getValidator());
+                } else {
+                    pendingValidators.remove(name);
+                }
+                break;
+            case NOT_FOUND:
+                removeValidator(name);
+                break;
+        }
+        return response;
+    }
+
+    @Override
+    protected boolean onSuccess(Subscription<K, Service> subscription, Service service) {
+        String name = subscription.getKey().getSubscriber().getUniqueName();
+        HttpValidator validator = pendingValidators.remove(name);
+        boolean applied = super.onSuccess(subscription, service);
+        if (applied && validator != null) {
+            validators.put(name, validator);
+        }
+        return applied;
+    }
+
+    @Override
+    protected void onError(Subscription<K, Service> subscription, String error, Throwable e) {
+        removeValidator(subscription.getKey().getSubscriber().getUniqueName());
+        super.onError(subscription, error, e);
+    }
+
+    @Override
+    protected void stopSync() {
+        super.stopSync();
+        validators.clear();
+        pendingValidators.clear();
+    }
+
+    /**
+     * Removes the applied and pending cache validators of the subscription.
+     *
+     * @param name The name of the subscription.
+     */
+    protected void removeValidator(String name) {
+        validators.remove(name);
+        pendingValidators.remove(name);
+    }
+
     /**
      * Configures the HTTP connection with the specified synchronization configuration.
      *
@@ -17,13 +17,16 @@ package com.jd.live.agent.governance.service.sync.http;
 
 /**
  * An interface for listening to HTTP events.
+ *
+ * @param <T> the type of the content
  */
-public interface HttpListener {
+public interface HttpListener<T> {
 
     /**
      * Called when an HTTP event occurs.
      *
      * @param event The event object representing the HTTP event.
+     * @return true if the event is applied, false if it failed to apply and the content should be fetched again.
      */
-    void onUpdate(HttpWatchEvent event);
+    boolean onUpdate(HttpWatchEvent<T> event);
 }
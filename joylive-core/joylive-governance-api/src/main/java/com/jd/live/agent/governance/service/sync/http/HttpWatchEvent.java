@@ -21,9 +21,11 @@ import java.io.IOException;
 
 /**
  * A class representing an HTTP event.
+ *
+ * @param <T> the type of the content
  */
 @Getter
-public class HttpWatchEvent {
+public class HttpWatchEvent<T> {
     /**
      * The type of the HTTP event.
      */
@@ -37,7 +39,7 @@ public class HttpWatchEvent {
     /**
      * The content of the HTTP response, if applicable.
      */
-    private final String data;
+    private final T data;
 
     /**
      * The exception that occurred during the HTTP request, if applicable.
@@ -45,7 +47,7 @@ public class HttpWatchEvent {
     private final IOException throwable;
 
 
-    public HttpWatchEvent(EventType type, String id, String data) {
+    public HttpWatchEvent(EventType type, String id, T data) {
         this(type, id, data, null);
     }
 
@@ -53,7 +55,7 @@ public class HttpWatchEvent {
         this(EventType.ERROR, id, null, throwable);
     }
 
-    public HttpWatchEvent(EventType type, String id, String data, IOException throwable) {
+    public HttpWatchEvent(EventType type, String id, T data, IOException throwable) {
         this.type = type;
         this.id = id;
         this.data = data;
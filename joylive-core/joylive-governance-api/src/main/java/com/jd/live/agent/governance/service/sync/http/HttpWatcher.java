@@ -15,13 +15,18 @@
  */
 package com.jd.live.agent.governance.service.sync.http;
 
+import com.jd.live.agent.bootstrap.logger.Logger;
+import com.jd.live.agent.bootstrap.logger.LoggerFactory;
 import com.jd.live.agent.core.instance.Application;
+import com.jd.live.agent.core.parser.ObjectReader;
 import com.jd.live.agent.core.parser.ObjectReader.StringReader;
+import com.jd.live.agent.core.thread.NamedThreadFactory;
 import com.jd.live.agent.core.util.Close;
 import com.jd.live.agent.core.util.Daemon;
 import com.jd.live.agent.core.util.Waiter;
 import com.jd.live.agent.core.util.http.HttpResponse;
 import com.jd.live.agent.core.util.http.HttpUtils;
+import com.jd.live.agent.core.util.http.HttpValidator;
 import com.jd.live.agent.governance.config.SyncConfig;
 import com.jd.live.agent.governance.service.sync.SyncKey.HttpSyncKey;
 import com.jd.live.agent.governance.service.sync.SyncResponse;
@@ -30,26 +35,36 @@ import com.jd.live.agent.governance.service.sync.Syncer;
 import com.jd.live.agent.governance.service.sync.http.HttpWatchEvent.EventType;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 /**
  * A class that watches for changes to HTTP resources and notifies listeners of those changes.
+ * <p>
+ * The resources are polled concurrently with bounded parallelism, conditional requests are sent with
+ * the stored cache validators, and the response bodies are parsed directly from the stream.
+ * </p>
  */
 public class HttpWatcher implements AutoCloseable {
 
+    private static final Logger logger = LoggerFactory.getLogger(HttpWatcher.class);
+
+    protected static final int CONCURRENCY = 5;
+
     protected final String name;
 
     protected final SyncConfig config;
 
     protected final Application application;
 
-    protected final Map<HttpResource, HttpListener> subscriptions = new ConcurrentHashMap<>();
+    protected final Map<HttpResource, HttpTask<?>> subscriptions = new ConcurrentHashMap<>();
 
     protected final Waiter.MutexWaiter waiter = new Waiter.MutexWaiter();
 
@@ -57,12 +72,17 @@ public class HttpWatcher implements AutoCloseable {
 
     protected final AtomicLong counter = new AtomicLong();
 
+    protected final int concurrency;
+
     protected final Daemon daemon;
 
+    protected volatile ExecutorService executorService;
+
     public HttpWatcher(String name, SyncConfig config, Application application) {
         this.name = name;
         this.config = config;
         this.application = application;
+        this.concurrency = config.getConcurrency() <= 0 ? CONCURRENCY : config.getConcurrency();
         this.daemon = Daemon.builder()
                 .name(name)
                 .delay(config.getDelay())
@@ -79,7 +99,7 @@ public class HttpWatcher implements AutoCloseable {
     public void close() throws Exception {
         if (started.compareAndSet(true, false)) {
             waiter.wakeup();
-            Close.instance().close(daemon);
+            Close.instance().close(daemon).closeIfExists(executorService, ExecutorService::shutdownNow);
         }
     }
 
@@ -89,10 +109,24 @@ public class HttpWatcher implements AutoCloseable {
      * @param resource The resource to subscribe to.
      * @param listener The listener to notify of changes.
      */
-    public void subscribe(HttpResource resource, HttpListener listener) {
-        if (resource != null && listener != null) {
-            if (subscriptions.putIfAbsent(resource, listener) == null) {
-                request(resource, listener);
+    public void subscribe(HttpResource resource, HttpListener<String> listener) {
+        subscribe(resource, new StringReader<>(), listener);
+    }
+
+    /**
+     * Subscribes the specified listener to changes for the specified resource.
+     * The response body is parsed directly from the stream by the specified reader.
+     *
+     * @param resource The resource to subscribe to.
+     * @param reader   The reader to parse the response body.
+     * @param listener The listener to notify of changes.
+     * @param <T>      The type of the parsed content.
+     */
+    public <T> void subscribe(HttpResource resource, ObjectReader<Reader, T> reader, HttpListener<T> listener) {
+        if (resource != null && reader != null && listener != null) {
+            HttpTask<T> task = new HttpTask<>(resource, reader, listener);
+            if (subscriptions.putIfAbsent(resource, task) == null) {
+                request(task);
             }
         }
     }
@@ -120,37 +154,68 @@ public class HttpWatcher implements AutoCloseable {
     /**
      * Sends an HTTP request to the specified resource and returns the response.
      *
-     * @param resource The resource to request.
+     * @param url       The url of the resource.
+     * @param validator The cache validators of the resource, may be null.
+     * @param reader    The reader to parse the response body.
+     * @param <T>       The type of the parsed content.
      * @return The HTTP response.
      * @throws IOException If an I/O error occurs during the request.
      */
-    protected HttpResponse<String> request(HttpResource resource) throws IOException {
-        return HttpUtils.get(resource.getUrl(), this::configure, new StringReader<>());
+    protected <T> HttpResponse<T> request(String url, HttpValidator validator, ObjectReader<Reader, T> reader) throws IOException {
+        return HttpUtils.get(url, conn -> {
+            configure(conn);
+            if (validator != null) {
+                validator.configure(conn);
+            }
+        }, reader);
     }
 
     /**
-     * Sends an HTTP request to the specified resource and notifies the specified listener of the response.
+     * Sends an HTTP request to the resource of the task and notifies its listener of the response.
+     * The cache validators of the response are stored only after the listener has applied it successfully.
+     * If the listener fails to apply it, the validators of the last applied content are kept, so that the
+     * next poll fetches the content again. They are cleared on request or parse errors.
      *
-     * @param resource The resource to request.
-     * @param listener The listener to notify of the response.
+     * @param task The task to request.
+     * @param <T>  The type of the parsed content.
      */
-    protected void request(HttpResource resource, HttpListener listener) {
+    protected <T> void request(HttpTask<T> task) {
+        HttpResource resource = task.resource;
+        HttpListener<T> listener = task.listener;
+        String url = resource.getUrl();
+        HttpResponse<T> response;
         try {
-            HttpResponse<String> response = request(resource);
-            switch (response.getStatus()) {
-                case OK:
-                    listener.onUpdate(new HttpWatchEvent(EventType.UPDATE, resource.getId(), response.getData()));
-                    break;
-                case NOT_FOUND:
-                    listener.onUpdate(new HttpWatchEvent(resource.getId(), new IOException("Failed to request " + resource.getUrl() + ", caused by it's not found.")));
-                case NOT_MODIFIED:
-                    break;
-                default:
-                    listener.onUpdate(new HttpWatchEvent(resource.getId(), new IOException("Failed to request " + resource.getUrl() + ", caused by " + response.getMessage())));
-                    break;
-            }
+            response = request(url, task.getValidator(url), task.reader);
         } catch (IOException e) {
-            listener.onUpdate(new HttpWatchEvent(resource.getId(), new IOException("Failed to request " + resource.getUrl() + ", caused by " + e.getMessage(), e)));
+            task.setValidator(url, null);
+            listener.onUpdate(new HttpWatchEvent<>(resource.getId(), new IOException("Failed to request " + url + ", caused by " + e.getMessage(), e)));
+            return;
+        } catch (Throwable e) {
+            task.setValidator(url, null);
+            listener.onUpdate(new HttpWatchEvent<>(resource.getId(), new IOException("Failed to parse " + url + ", caused by " + e.getMessage(), e)));
+            return;
+        }
+        switch (response.getStatus()) {
+            case OK:
+                boolean applied;
+                try {
+                    applied = listener.onUpdate(new HttpWatchEvent<>(EventType.UPDATE, resource.getId(), response.getData()));
+                } catch (Throwable e) {
+                    logger.warn("Failed to apply " + url + ", caused by " + e.getMessage(), e);
+                    applied = false;
+                }
+                if (applied) {
+                    task.setValidator(url, response.getValidator());
+                }
+                break;
+            case NOT_FOUND:
+                task.setValidator(url, null);
+                listener.onUpdate(new HttpWatchEvent<>(resource.getId(), new IOException("Failed to request " + url + ", caused by it's not found.")));
+            case NOT_MODIFIED:
+                break;
+            default:
+                listener.onUpdate(new HttpWatchEvent<>(resource.getId(), new IOException("Failed to request " + url + ", caused by " + response.getMessage())));
+                break;
         }
     }
 
@@ -162,10 +227,12 @@ public class HttpWatcher implements AutoCloseable {
         while (isStarted()) {
             counter.incrementAndGet();
             try {
-                for (Map.Entry<HttpResource, HttpListener> entry : subscriptions.entrySet()) {
-                    HttpResource resource = entry.getKey();
-                    HttpListener listener = entry.getValue();
-                    request(resource, listener);
+                if (concurrency <= 1 || subscriptions.size() <= 1) {
+                    for (HttpTask<?> task : subscriptions.values()) {
+                        request(task);
+                    }
+                } else {
+                    requestConcurrently();
                 }
                 waiter.await(config.getInterval(), TimeUnit.MILLISECONDS, null);
             } catch (InterruptedException ignored) {
@@ -173,6 +240,49 @@ public class HttpWatcher implements AutoCloseable {
         }
     }
 
+    /**
+     * Requests all the subscribed resources concurrently, and waits for all of them to complete.
+     *
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    protected void requestConcurrently() throws InterruptedException {
+        ExecutorService executor = getExecutorService();
+        List<HttpTask<?>> tasks = new ArrayList<>(subscriptions.values());
+        CountDownLatch latch = new CountDownLatch(tasks.size());
+        for (HttpTask<?> task : tasks) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        if (isStarted()) {
+                            request(task);
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                latch.countDown();
+            }
+        }
+        latch.await();
+    }
+
+    /**
+     * Returns the executor service which is created on demand.
+     *
+     * @return the executor service
+     */
+    protected ExecutorService getExecutorService() {
+        if (executorService == null) {
+            synchronized (this) {
+                if (executorService == null) {
+                    executorService = Executors.newFixedThreadPool(concurrency, new NamedThreadFactory(name, true));
+                }
+            }
+        }
+        return executorService;
+    }
+
     /**
      * Configures the HTTP connection with the necessary headers and timeout settings.
      *
@@ -194,19 +304,35 @@ public class HttpWatcher implements AutoCloseable {
      * @return A new Syncer instance.
      */
     public <K extends HttpSyncKey, T> Syncer<K, T> createSyncer(Function<String, SyncResponse<T>> function) {
+        StringReader<Reader> stringReader = new StringReader<>();
+        return createSyncer((Reader reader) -> function.apply(stringReader.read(reader)));
+    }
+
+    /**
+     * Creates a new Syncer instance, which parses the response body directly from the stream.
+     *
+     * @param reader The reader to parse the response body.
+     * @param <K>    The type of the synchronization key.
+     * @param <T>    The type of the data to synchronize.
+     * @return A new Syncer instance.
+     */
+    public <K extends HttpSyncKey, T> Syncer<K, T> createSyncer(ObjectReader<Reader, SyncResponse<T>> reader) {
         return subscription -> {
             try {
-                subscribe(subscription.getKey(), event -> {
+                subscribe(subscription.getKey(), reader, event -> {
                     switch (event.getType()) {
                         case UPDATE:
-                            subscription.onUpdate(function.apply(event.getData()));
-                            break;
+                            SyncResponse<T> response = event.getData();
+                            subscription.onUpdate(response == null ? new SyncResponse<>(SyncStatus.NOT_FOUND, null) : response);
+                            // the cache validators of the content are not kept on error.
+                            return response == null || response.getStatus() != SyncStatus.ERROR;
                         case DELETE:
                             subscription.onUpdate(new SyncResponse<>(SyncStatus.NOT_FOUND, null));
-                            break;
+                            return true;
                         case ERROR:
+                        default:
                             subscription.onUpdate(new SyncResponse<>(event.getThrowable()));
-                            break;
+                            return true;
                     }
                 });
             } catch (Throwable e) {
@@ -214,4 +340,49 @@ public class HttpWatcher implements AutoCloseable {
             }
         };
     }
+
+    /**
+     * A subscribed resource with its reader, listener and cache validators.
+     *
+     * @param <T> The type of the parsed content.
+     */
+    protected static class HttpTask<T> {
+
+        private final HttpResource resource;
+
+        private final ObjectReader<Reader, T> reader;
+
+        private final HttpListener<T> listener;
+
+        private String url;
+
+        private HttpValidator validator;
+
+        HttpTask(HttpResource resource, ObjectReader<Reader, T> reader, HttpListener<T> listener) {
+            this.resource = resource;
+            this.reader = reader;
+            this.listener = listener;
+        }
+
+        /**
+         * Returns the cache validators if they belong to the specified url.
+         *
+         * @param url the url of the resource
+         * @return the cache validators, or null
+         */
+        synchronized HttpValidator getValidator(String url) {
+            return validator != null && url.equals(this.url) ? validator : null;
+        }
+
+        /**
+         * Stores the cache validators of the specified url.
+         *
+         * @param url       the url of the resource
+         * @param validator the cache validators
+         */
+        synchronized void setValidator(String url, HttpValidator validator) {
+            this.url = url;
+            this.validator = validator;
+        }
+    }
 }
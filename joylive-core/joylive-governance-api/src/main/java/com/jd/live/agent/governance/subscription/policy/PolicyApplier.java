@@ -0,0 +1,264 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.subscription.policy;
+
+import com.jd.live.agent.bootstrap.logger.Logger;
+import com.jd.live.agent.bootstrap.logger.LoggerFactory;
+import com.jd.live.agent.governance.policy.GovernancePolicy;
+import com.jd.live.agent.governance.policy.PolicySupervisor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A single-writer applier of the policy updates.
+ * <p>
+ * The callers queue their updates, and one of them applies all the queued updates on one copy of the policy
+ * and publishes it with one compare-and-set, while the others wait for the completion of their updates.
+ * The updates arriving during the publishing are coalesced into the next batch, so a burst of events results
+ * in a few copies instead of one per event, and the listeners no longer compete with each other.
+ * </p>
+ * <p>
+ * The updaters may be called more than once when the compare-and-set fails, so they should modify the policy
+ * with fresh objects on each call.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+public class PolicyApplier {
+
+    private static final Logger logger = LoggerFactory.getLogger(PolicyApplier.class);
+
+    /**
+     * Maximum number of retries for publishing a batch.
+     */
+    private static final int UPDATE_MAX_RETRY = 100;
+
+    /**
+     * Maximum number of updates in a batch.
+     */
+    private static final int MAX_BATCH_SIZE = 1024;
+
+    private final PolicySupervisor supervisor;
+
+    private final Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The time in milliseconds to wait for more updates before applying a batch, 0 to apply at once.
+     */
+    @Getter
+    @Setter
+    private volatile long coalesceWindow;
+
+    @Getter
+    private final PolicyApplierMetric metric = new PolicyApplierMetric();
+
+    public PolicyApplier(PolicySupervisor supervisor) {
+        this.supervisor = supervisor;
+    }
+
+    /**
+     * Applies the update to the policy, and waits until it is published.
+     *
+     * @param updater the updater which modifies the copy of the policy.
+     * @return true if the update was published, false otherwise.
+     */
+    public boolean apply(Consumer<GovernancePolicy> updater) {
+        if (updater == null) {
+            return false;
+        }
+        Task task = new Task(updater);
+        tasks.offer(task);
+        // the task is queued before trying the lock, and the writer checks the queue again after releasing the lock,
+        // so every queued task is applied by a writer while the others wait for their completion.
+        while (!tasks.isEmpty() && lock.tryLock()) {
+            try {
+                while (!tasks.isEmpty()) {
+                    flush();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return task.result.join();
+    }
+
+    /**
+     * Applies a batch of the queued updates.
+     */
+    private void flush() {
+        long window = coalesceWindow;
+        if (window > 0) {
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(window));
+        }
+        List<Task> batch = new ArrayList<>();
+        Task task;
+        while (batch.size() < MAX_BATCH_SIZE && (task = tasks.poll()) != null) {
+            batch.add(task);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        int size = batch.size();
+        long startTime = System.nanoTime();
+        int retries = 0;
+        boolean success = false;
+        while (!batch.isEmpty() && retries < UPDATE_MAX_RETRY) {
+            GovernancePolicy old = supervisor.getPolicy();
+            GovernancePolicy update = old == null ? new GovernancePolicy() : old.copy();
+            if (!modify(update, batch)) {
+                // restart from a clean copy without the failed update.
+                continue;
+            }
+            update.cache();
+            if (supervisor.update(old, update)) {
+                success = true;
+                break;
+            }
+            retries++;
+        }
+        for (Task t : batch) {
+            t.result.complete(success);
+        }
+        long latency = System.nanoTime() - startTime;
+        metric.record(size, latency, retries);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Applied " + size + " policy updates in " + TimeUnit.NANOSECONDS.toMicros(latency)
+                    + "us with " + retries + " retries.");
+        }
+    }
+
+    /**
+     * Modifies the policy with the updates, the failed update is removed from the batch.
+     *
+     * @param policy the copy of the policy.
+     * @param batch  the updates.
+     * @return true if all the updates are applied.
+     */
+    private boolean modify(GovernancePolicy policy, List<Task> batch) {
+        Iterator<Task> iterator = batch.iterator();
+        while (iterator.hasNext()) {
+            Task task = iterator.next();
+            try {
+                task.updater.accept(policy);
+            } catch (Throwable e) {
+                logger.error("Failed to apply policy update, caused by " + e.getMessage(), e);
+                iterator.remove();
+                task.result.complete(false);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A queued update.
+     */
+    private static class Task {
+
+        private final Consumer<GovernancePolicy> updater;
+
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        Task(Consumer<GovernancePolicy> updater) {
+            this.updater = updater;
+        }
+    }
+
+    /**
+     * Statistics of the policy applier, which are cumulative and exported by the event exporter.
+     */
+    public static class PolicyApplierMetric {
+
+        private final AtomicLong batches = new AtomicLong();
+
+        private final AtomicLong updates = new AtomicLong();
+
+        private final AtomicLong retries = new AtomicLong();
+
+        private final AtomicLong latency = new AtomicLong();
+
+        private volatile int maxBatchSize;
+
+        void record(int size, long nanos, int retry) {
+            batches.incrementAndGet();
+            updates.addAndGet(size);
+            retries.addAndGet(retry);
+            latency.addAndGet(nanos);
+            if (size > maxBatchSize) {
+                maxBatchSize = size;
+            }
+        }
+
+        /**
+         * Returns the number of the published batches.
+         *
+         * @return the number of batches
+         */
+        public long getBatches() {
+            return batches.get();
+        }
+
+        /**
+         * Returns the number of the applied updates.
+         *
+         * @return the number of updates
+         */
+        public long getUpdates() {
+            return updates.get();
+        }
+
+        /**
+         * Returns the number of the failed compare-and-set attempts.
+         *
+         * @return the number of retries
+         */
+        public long getRetries() {
+            return retries.get();
+        }
+
+        /**
+         * Returns the largest batch size.
+         *
+         * @return the largest batch size
+         */
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        /**
+         * Returns the total latency of applying the batches in microseconds.
+         *
+         * @return the total latency
+         */
+        public long getLatencyMicros() {
+            return latency.get() / 1000;
+        }
+    }
+}
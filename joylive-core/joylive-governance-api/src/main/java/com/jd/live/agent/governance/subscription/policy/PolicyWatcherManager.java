@@ -1,5 +1,8 @@
 package com.jd.live.agent.governance.subscription.policy;
 
+import com.jd.live.agent.governance.policy.PolicySupervisor;
+import lombok.Getter;
+
 import java.util.*;
 
 /**
@@ -11,10 +14,22 @@ public class PolicyWatcherManager implements PolicyWatcherSupervisor {
 
     private final Map<String, List<PolicyListener>> listeners = new HashMap<>();
 
+    /**
+     * The single-writer applier shared by the listeners, null if there is no supervisor.
+     */
+    @Getter
+    private final PolicyApplier applier;
+
     public PolicyWatcherManager() {
+        this.applier = null;
+    }
+
+    public PolicyWatcherManager(PolicySupervisor supervisor) {
+        this.applier = supervisor == null ? null : new PolicyApplier(supervisor);
     }
 
     public PolicyWatcherManager(List<PolicyWatcher> watchers) {
+        this.applier = null;
         if (watchers != null) {
             this.watchers.addAll(watchers);
         }
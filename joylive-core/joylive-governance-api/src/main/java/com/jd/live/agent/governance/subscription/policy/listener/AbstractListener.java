@@ -17,6 +17,7 @@ package com.jd.live.agent.governance.subscription.policy.listener;
 
 import com.jd.live.agent.bootstrap.logger.Logger;
 import com.jd.live.agent.bootstrap.logger.LoggerFactory;
+import com.jd.live.agent.governance.subscription.policy.PolicyApplier;
 import com.jd.live.agent.governance.subscription.policy.PolicyEvent;
 import com.jd.live.agent.governance.subscription.policy.PolicyListener;
 import com.jd.live.agent.core.parser.ObjectParser;
@@ -25,8 +26,11 @@ import com.jd.live.agent.governance.policy.GovernancePolicy;
 import com.jd.live.agent.governance.policy.PolicySupervisor;
 
 import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * An abstract class for a configuration listener that implements the ConfigListener interface.
@@ -54,6 +58,11 @@ public abstract class AbstractListener<T> implements PolicyListener {
 
     protected final ObjectParser parser;
 
+    /**
+     * The applier which coalesces the updates, or null to update the policy directly.
+     */
+    protected final PolicyApplier applier;
+
     /**
      * Creates a new instance of the AbstractListener class.
      *
@@ -62,9 +71,22 @@ public abstract class AbstractListener<T> implements PolicyListener {
      * @param parser     The JSON parser to use for parsing event data.
      */
     public AbstractListener(Class<T> type, PolicySupervisor supervisor, ObjectParser parser) {
+        this(type, supervisor, parser, null);
+    }
+
+    /**
+     * Creates a new instance of the AbstractListener class.
+     *
+     * @param type       The class type of the items being listened for.
+     * @param supervisor The policy supervisor to use for updating policies.
+     * @param parser     The JSON parser to use for parsing event data.
+     * @param applier    The applier which coalesces the updates.
+     */
+    public AbstractListener(Class<T> type, PolicySupervisor supervisor, ObjectParser parser, PolicyApplier applier) {
         this.type = type;
         this.supervisor = supervisor;
         this.parser = parser;
+        this.applier = applier;
     }
 
     @Override
@@ -84,8 +106,17 @@ public abstract class AbstractListener<T> implements PolicyListener {
      * @return true if the update was successful, false otherwise.
      */
     protected boolean update(PolicyEvent event) {
+        Consumer<GovernancePolicy> updater = createUpdater(event);
+        if (applier != null) {
+            if (applier.apply(updater)) {
+                logger.info("Success " + event.getType().getName() + " " + event.getDescription());
+                onSuccess(event);
+                return true;
+            }
+            return false;
+        }
         for (int i = 0; i < UPDATE_MAX_RETRY; i++) {
-            if (supervisor.update(policy -> newPolicy(policy, event))) {
+            if (supervisor.update(policy -> newPolicy(policy, updater))) {
                 logger.info("Success " + event.getType().getName() + " " + event.getDescription());
                 onSuccess(event);
                 return true;
@@ -96,25 +127,101 @@ public abstract class AbstractListener<T> implements PolicyListener {
     }
 
     /**
-     * Creates a new policy based on the given policy and configuration.
+     * Creates an updater which modifies a copy of the policy with the parsed configuration.
+     * <p>
+     * The updater is called again when the policy fails to be published, and the parsed items may have been
+     * modified by the policy in the failed attempt, so the first attempt uses the items parsed in advance,
+     * and each retry uses the fresh items parsed from the event again.
+     * </p>
      *
-     * @param policy The existing policy.
-     * @param event  The configuration update.
-     * @return The new policy.
+     * @param event The configuration update.
+     * @return The updater.
      */
-    protected GovernancePolicy newPolicy(GovernancePolicy policy, PolicyEvent event) {
-        GovernancePolicy result = policy == null ? new GovernancePolicy() : policy.copy();
+    protected Consumer<GovernancePolicy> createUpdater(PolicyEvent event) {
         switch (event.getType()) {
             case DELETE_ITEM:
-                deleteItem(result, event);
-                break;
+                return policy -> deleteItem(policy, event);
             case UPDATE_ITEM:
-                updateItem(result, parseItem(event, type), event);
-                break;
+                Supplier<T> item = attempts(parseItem(event, type), () -> parseItem(event, type), event);
+                return policy -> updateItem(policy, item.get(), event);
             case UPDATE_ALL:
-                updateItems(result, parseList(event, type), event);
-                break;
+                Supplier<List<T>> items = attempts(parseList(event, type), () -> parseList(event, type), event);
+                return policy -> updateItems(policy, items.get(), event);
+            default:
+                return policy -> {
+                };
+        }
+    }
+
+    /**
+     * Creates a supplier of the parsed value for the attempts.
+     *
+     * @param value  The value parsed in advance.
+     * @param parser The parser to parse the value again.
+     * @param event  The configuration update.
+     * @param <M>    The type of the value.
+     * @return The supplier for the attempts.
+     */
+    @SuppressWarnings("unchecked")
+    private <M> Supplier<M> attempts(M value, Supplier<M> parser, PolicyEvent event) {
+        if (event.getValue() instanceof String) {
+            return new Attempts<>(value, parser);
+        } else if (value instanceof List) {
+            return new Attempts<>(value, (Supplier<M>) copier((List<T>) value));
         }
+        return new Attempts<>(value, (Supplier<M>) copier((T) value));
+    }
+
+    /**
+     * Creates a supplier of the fresh copies of the item, the item is written before it is modified.
+     *
+     * @param item The parsed item.
+     * @return The supplier of the copies.
+     */
+    private Supplier<T> copier(T item) {
+        if (item == null) {
+            return () -> null;
+        }
+        String text = write(item);
+        return () -> parser.read(new StringReader(text), type);
+    }
+
+    /**
+     * Creates a supplier of the fresh copies of the items, the items are written before they are modified.
+     *
+     * @param items The parsed items.
+     * @return The supplier of the copies.
+     */
+    private Supplier<List<T>> copier(List<T> items) {
+        List<Supplier<T>> copiers = new ArrayList<>(items.size());
+        for (T item : items) {
+            copiers.add(copier(item));
+        }
+        return () -> {
+            List<T> result = new ArrayList<>(copiers.size());
+            for (Supplier<T> copier : copiers) {
+                result.add(copier.get());
+            }
+            return result;
+        };
+    }
+
+    private String write(Object value) {
+        StringWriter writer = new StringWriter();
+        parser.write(writer, value);
+        return writer.toString();
+    }
+
+    /**
+     * Creates a new policy based on the given policy and updater.
+     *
+     * @param policy  The existing policy.
+     * @param updater The updater to modify the copy of the policy.
+     * @return The new policy.
+     */
+    protected GovernancePolicy newPolicy(GovernancePolicy policy, Consumer<GovernancePolicy> updater) {
+        GovernancePolicy result = policy == null ? new GovernancePolicy() : policy.copy();
+        updater.accept(result);
         return result;
     }
 
@@ -200,4 +307,33 @@ public abstract class AbstractListener<T> implements PolicyListener {
 
     }
 
+    /**
+     * Supplies the value parsed in advance to the first attempt, and the fresh values to the retries.
+     *
+     * @param <M> The type of the value.
+     */
+    private static class Attempts<M> implements Supplier<M> {
+
+        private final Supplier<M> retry;
+
+        private M first;
+
+        private boolean attempted;
+
+        Attempts(M first, Supplier<M> retry) {
+            this.first = first;
+            this.retry = retry;
+        }
+
+        @Override
+        public M get() {
+            if (!attempted) {
+                attempted = true;
+                M result = first;
+                first = null;
+                return result;
+            }
+            return retry.get();
+        }
+    }
 }
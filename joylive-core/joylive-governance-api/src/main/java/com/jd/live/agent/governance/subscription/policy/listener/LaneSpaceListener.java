@@ -15,6 +15,7 @@
  */
 package com.jd.live.agent.governance.subscription.policy.listener;
 
+import com.jd.live.agent.governance.subscription.policy.PolicyApplier;
 import com.jd.live.agent.governance.subscription.policy.PolicyEvent;
 import com.jd.live.agent.core.parser.ObjectParser;
 import com.jd.live.agent.governance.policy.GovernancePolicy;
@@ -35,6 +36,10 @@ public class LaneSpaceListener extends AbstractListener<LaneSpace> {
         super(LaneSpace.class, supervisor, parser);
     }
 
+    public LaneSpaceListener(PolicySupervisor supervisor, ObjectParser parser, PolicyApplier applier) {
+        super(LaneSpace.class, supervisor, parser, applier);
+    }
+
     @Override
     protected void updateItems(GovernancePolicy policy, List<LaneSpace> items, PolicyEvent event) {
         policy.setLaneSpaces(items);
@@ -22,6 +22,7 @@ import com.jd.live.agent.governance.policy.GovernancePolicy;
 import com.jd.live.agent.governance.policy.PolicySubscription;
 import com.jd.live.agent.governance.policy.PolicySupervisor;
 import com.jd.live.agent.governance.policy.service.Service;
+import com.jd.live.agent.governance.subscription.policy.PolicyApplier;
 import com.jd.live.agent.governance.subscription.policy.PolicyEvent;
 import com.jd.live.agent.governance.subscription.policy.PolicyEvent.EventType;
 import com.jd.live.agent.governance.subscription.policy.PolicyWatcher;
@@ -43,7 +44,11 @@ public class ServiceListener extends AbstractListener<Service> {
     private final Object mutex = new Object();
 
     public ServiceListener(PolicySupervisor supervisor, ObjectParser parser, Publisher<PolicySubscription> publisher) {
-        super(Service.class, supervisor, parser);
+        this(supervisor, parser, publisher, null);
+    }
+
+    public ServiceListener(PolicySupervisor supervisor, ObjectParser parser, Publisher<PolicySubscription> publisher, PolicyApplier applier) {
+        super(Service.class, supervisor, parser, applier);
         // Register the listener with the publisher
         publisher.addHandler(this::onEvent);
         // Subscribe to all policies
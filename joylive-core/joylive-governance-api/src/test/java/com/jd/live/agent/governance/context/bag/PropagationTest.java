@@ -115,4 +115,42 @@ public class PropagationTest {
         Assertions.assertEquals("x-live-unit=unit1,x-live-cell=[cell1|cell2]", Label.join(w3cMultiWriter.get("baggage")));
     }
 
+    @Test
+    void testDeadline() {
+        try {
+            Carrier carrier = RequestContext.create();
+            Map<String, String> headers = new HashMap<>();
+            headers.put(Carrier.CARGO_TIMEOUT, "5000");
+            headers.put("x-live-unit", "unit1");
+            long now = System.currentTimeMillis();
+            livePropagation.read(carrier, new StringMapReader(headers));
+            Assertions.assertNull(carrier.getCargo(Carrier.CARGO_TIMEOUT));
+            long deadline = RequestContext.getDeadline();
+            Assertions.assertTrue(deadline >= now + 5000 && deadline <= System.currentTimeMillis() + 5000);
+            Assertions.assertFalse(RequestContext.isTimeout());
+
+            // the earlier deadline is kept
+            w3cPropagation.read(carrier, new StringMapReader(Collections.singletonMap("baggage", "x-live-timeout=10000")));
+            Assertions.assertEquals(deadline, RequestContext.getDeadline());
+            w3cPropagation.read(carrier, new StringMapReader(Collections.singletonMap("baggage", "x-live-timeout=0")));
+            Assertions.assertTrue(RequestContext.getDeadline() < deadline);
+
+            // the remaining budget is propagated
+            carrier.setAttribute(Carrier.ATTRIBUTE_DEADLINE, System.currentTimeMillis() + 3000);
+            livePropagation.write(carrier, new StringMapWriter(liveSingleWriter));
+            long timeout = Long.parseLong(liveSingleWriter.get(Carrier.CARGO_TIMEOUT));
+            Assertions.assertTrue(timeout > 2000 && timeout <= 3000);
+            Assertions.assertEquals("unit1", liveSingleWriter.get("x-live-unit"));
+            w3cPropagation.write(carrier, new StringMapWriter(w3cSingleWriter));
+            Assertions.assertTrue(w3cSingleWriter.get("baggage").startsWith("x-live-unit=unit1,x-live-timeout="));
+
+            carrier.setAttribute(Carrier.ATTRIBUTE_DEADLINE, System.currentTimeMillis() - 10);
+            Assertions.assertTrue(RequestContext.isTimeout());
+            livePropagation.write(carrier, new StringMapWriter(liveSingleWriter));
+            Assertions.assertEquals("0", liveSingleWriter.get(Carrier.CARGO_TIMEOUT));
+        } finally {
+            RequestContext.remove();
+        }
+    }
+
 }
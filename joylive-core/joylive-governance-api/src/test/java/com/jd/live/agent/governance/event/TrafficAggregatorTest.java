@@ -0,0 +1,58 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.event;
+
+import com.jd.live.agent.governance.event.TrafficEvent.ActionType;
+import com.jd.live.agent.governance.event.TrafficEvent.RejectType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TrafficAggregatorTest
+ *
+ * @since 1.6.0
+ */
+public class TrafficAggregatorTest {
+
+    @Test
+    void testAggregate() {
+        TrafficAggregator aggregator = new TrafficAggregator();
+        for (int i = 0; i < 100; i++) {
+            aggregator.add(TrafficEvent.builder().service("a").method("get").actionType(ActionType.FORWARD).requests(1).build());
+            aggregator.add(TrafficEvent.builder().service("b").method("get").actionType(ActionType.FORWARD).requests(1).build());
+        }
+        aggregator.add(TrafficEvent.builder().service("a").method("get").actionType(ActionType.REJECT)
+                .rejectType(RejectType.REJECT_CIRCUIT_BREAK).requests(1).build());
+        List<TrafficEvent> events = new ArrayList<>();
+        aggregator.flush(events::add);
+        Assertions.assertEquals(3, events.size());
+        Assertions.assertEquals(201, events.stream().mapToInt(TrafficEvent::getRequests).sum());
+        for (TrafficEvent event : events) {
+            if (event.getActionType() == ActionType.REJECT) {
+                Assertions.assertEquals(1, event.getRequests());
+                Assertions.assertEquals(RejectType.REJECT_CIRCUIT_BREAK, event.getRejectType());
+            } else {
+                Assertions.assertEquals(100, event.getRequests());
+            }
+        }
+        events.clear();
+        aggregator.flush(events::add);
+        Assertions.assertTrue(events.isEmpty());
+    }
+}
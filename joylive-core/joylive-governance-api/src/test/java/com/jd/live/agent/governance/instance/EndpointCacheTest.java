@@ -0,0 +1,176 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.instance;
+
+import com.jd.live.agent.core.Constants;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * EndpointCacheTest
+ *
+ * @since 1.6.0
+ */
+public class EndpointCacheTest {
+
+    @Test
+    void testReuse() {
+        EndpointCache<Instance, TestEndpoint> cache = new EndpointCache<>(TestEndpoint::new);
+        Instance a = new Instance("a");
+        Instance b = new Instance("b");
+        Instance c = new Instance("c");
+        List<TestEndpoint> first = cache.get(Arrays.asList(a, b, c));
+        Assertions.assertEquals(3, first.size());
+        Assertions.assertSame(first, cache.get(new ArrayList<>(Arrays.asList(a, b, c))));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> first.remove(0));
+
+        // a subset reuses the endpoints by identity
+        List<TestEndpoint> second = cache.get(Arrays.asList(a, c));
+        Assertions.assertNotSame(first, second);
+        Assertions.assertSame(first.get(0), second.get(0));
+        Assertions.assertSame(first.get(2), second.get(1));
+        Assertions.assertSame(first.get(1), cache.getEndpoint(b));
+
+        // an equal but different instance is adapted again
+        Instance a2 = new Instance("a");
+        List<TestEndpoint> third = cache.get(Arrays.asList(a2, c));
+        Assertions.assertNotSame(first.get(0), third.get(0));
+        Assertions.assertSame(first.get(2), third.get(1));
+
+        Assertions.assertTrue(cache.get(null).isEmpty());
+    }
+
+    @Test
+    void testKeyed() {
+        EndpointCache<Instance, TestEndpoint> cache = new EndpointCache<>(TestEndpoint::new, i -> i.host);
+        List<TestEndpoint> first = cache.get(Arrays.asList(new Instance("a"), new Instance("b")));
+
+        // the refreshed but equal instances reuse the endpoints and the list
+        List<TestEndpoint> second = cache.get(Arrays.asList(new Instance("a"), new Instance("b")));
+        Assertions.assertSame(first, second);
+        Assertions.assertSame(first.get(0), cache.getEndpoint(new Instance("a")));
+
+        // the changed instance is adapted again
+        List<TestEndpoint> third = cache.get(Arrays.asList(new Instance("a", "unit2"), new Instance("b")));
+        Assertions.assertNotSame(first, third);
+        Assertions.assertNotSame(first.get(0), third.get(0));
+        Assertions.assertEquals("unit2", third.get(0).getUnit());
+        Assertions.assertSame(first.get(1), third.get(1));
+    }
+
+    @Test
+    void testThroughput() {
+        int size = 50;
+        int rounds = 20000;
+        EndpointCache<Instance, TestEndpoint> cache = new EndpointCache<>(TestEndpoint::new, i -> i.host);
+        // warm up
+        adapt(cache, size, rounds);
+        adapt(null, size, rounds);
+        long cached = adapt(cache, size, rounds);
+        long uncached = adapt(null, size, rounds);
+        System.out.printf("[endpoint cache] cached: %d rounds/ms, uncached: %d rounds/ms%n",
+                rounds / Math.max(1, cached), rounds / Math.max(1, uncached));
+    }
+
+    /**
+     * Adapts the refreshed instances as a discovery client does, and reads the labels as the routers do.
+     *
+     * @return the elapsed time in milliseconds
+     */
+    private long adapt(EndpointCache<Instance, TestEndpoint> cache, int size, int rounds) {
+        long start = System.nanoTime();
+        int units = 0;
+        for (int r = 0; r < rounds; r++) {
+            List<Instance> instances = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                instances.add(new Instance("10.0.0." + i));
+            }
+            List<TestEndpoint> endpoints;
+            if (cache != null) {
+                endpoints = cache.get(instances);
+            } else {
+                endpoints = new ArrayList<>(size);
+                for (Instance instance : instances) {
+                    endpoints.add(new TestEndpoint(instance));
+                }
+            }
+            for (TestEndpoint endpoint : endpoints) {
+                units += endpoint.getUnit().length();
+            }
+        }
+        Assertions.assertEquals(size * rounds * "unit1".length(), units);
+        return (System.nanoTime() - start) / 1000000;
+    }
+
+    private static class Instance {
+
+        private final String host;
+
+        private final String unit;
+
+        Instance(String host) {
+            this(host, "unit1");
+        }
+
+        Instance(String host, String unit) {
+            this.host = host;
+            this.unit = unit;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Instance && ((Instance) o).host.equals(host) && ((Instance) o).unit.equals(unit);
+        }
+
+        @Override
+        public int hashCode() {
+            return host.hashCode();
+        }
+    }
+
+    private static class TestEndpoint extends AbstractEndpoint {
+
+        private final Instance instance;
+
+        TestEndpoint(Instance instance) {
+            this.instance = instance;
+        }
+
+        @Override
+        public String getHost() {
+            return instance.host;
+        }
+
+        @Override
+        public int getPort() {
+            return 8080;
+        }
+
+        @Override
+        public String getLabel(String key) {
+            return Constants.LABEL_UNIT.equals(key) ? instance.unit : null;
+        }
+
+        @Override
+        public EndpointState getState() {
+            return EndpointState.HEALTHY;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.instance.health;
+
+import com.jd.live.agent.core.util.time.TimeScheduler;
+import com.jd.live.agent.governance.config.HealthCheckConfig;
+import com.jd.live.agent.governance.instance.AbstractEndpoint;
+import com.jd.live.agent.governance.instance.EndpointState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.BooleanSupplier;
+
+/**
+ * HealthCheckerTest
+ *
+ * @since 1.6.0
+ */
+public class HealthCheckerTest {
+
+    private TimeScheduler timer;
+
+    private ServerSocket healthy;
+
+    private ServerSocket unhealthy;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        timer = new TimeScheduler("health-check-test", 10, 100, 2);
+        timer.start();
+        healthy = serve("HTTP/1.1 200 OK\r\nContent-Length: 0\r\n\r\n");
+        unhealthy = serve("HTTP/1.1 503 Service Unavailable\r\nContent-Length: 0\r\n\r\n");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        healthy.close();
+        unhealthy.close();
+        timer.close();
+    }
+
+    @Test
+    void testTcp() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            closedPort = socket.getLocalPort();
+        }
+        HealthIndex index = new HealthIndex();
+        HealthChecker checker = new HealthChecker(config(HealthCheckConfig.TYPE_TCP), timer, index);
+        checker.start();
+        try {
+            TestEndpoint up = new TestEndpoint(healthy.getLocalPort());
+            TestEndpoint down = new TestEndpoint(closedPort);
+            checker.add("order", Arrays.asList(up, down));
+            // the endpoints are shared by the services
+            checker.add("user", Collections.singletonList(up));
+            Assertions.assertEquals(2, checker.size());
+            Assertions.assertTrue(await(() -> !index.isHealthy(down)));
+            Assertions.assertTrue(index.isHealthy(up));
+
+            checker.remove("order", Arrays.asList(up, down));
+            Assertions.assertEquals(1, checker.size());
+            Assertions.assertTrue(index.isEmpty());
+        } finally {
+            checker.stop();
+        }
+    }
+
+    @Test
+    void testHttp() throws Exception {
+        HealthIndex index = new HealthIndex();
+        HealthChecker checker = new HealthChecker(config(HealthCheckConfig.TYPE_HTTP), timer, index);
+        checker.start();
+        try {
+            TestEndpoint up = new TestEndpoint(healthy.getLocalPort());
+            TestEndpoint down = new TestEndpoint(unhealthy.getLocalPort());
+            checker.add("order", Arrays.asList(up, down));
+            Assertions.assertTrue(await(() -> !index.isHealthy(down)));
+            Assertions.assertTrue(index.isHealthy(up));
+        } finally {
+            checker.stop();
+        }
+    }
+
+    @Test
+    void testGrpc() throws Exception {
+        ServerSocket serving = serve(grpcResponse(1));
+        ServerSocket notServing = serve(grpcResponse(2));
+        HealthIndex index = new HealthIndex();
+        // the probe is chosen by the protocol of the endpoints
+        HealthChecker checker = new HealthChecker(config(HealthCheckConfig.TYPE_TCP), timer, index);
+        checker.start();
+        try {
+            TestEndpoint up = new TestEndpoint("localhost", serving.getLocalPort(), "grpc");
+            TestEndpoint down = new TestEndpoint("127.0.0.1", notServing.getLocalPort(), "grpc");
+            checker.add("order", Arrays.asList(up, down));
+            Assertions.assertTrue(await(() -> !index.isHealthy(down)));
+            Assertions.assertTrue(index.isHealthy(up));
+        } finally {
+            checker.stop();
+            serving.close();
+            notServing.close();
+        }
+    }
+
+    @Test
+    void testGrpcParse() {
+        byte[] bytes = grpcResponse(1);
+        Assertions.assertEquals(Boolean.TRUE, GrpcHealthProbe.parse(bytes, bytes.length));
+        Assertions.assertNull(GrpcHealthProbe.parse(bytes, bytes.length - 1));
+        bytes = grpcResponse(2);
+        Assertions.assertEquals(Boolean.FALSE, GrpcHealthProbe.parse(bytes, bytes.length));
+        // a trailers-only response, such as unimplemented
+        bytes = new byte[]{0, 0, 1, 1, 5, 0, 0, 0, 1, (byte) 0x88};
+        Assertions.assertEquals(Boolean.TRUE, GrpcHealthProbe.parse(bytes, bytes.length));
+    }
+
+    @Test
+    void testParseStatus() {
+        byte[] bytes = "HTTP/1.1 204 No Content\r\n".getBytes(StandardCharsets.US_ASCII);
+        Assertions.assertEquals(204, HttpHealthProbe.parseStatus(bytes, bytes.length));
+        Assertions.assertEquals(0, HttpHealthProbe.parseStatus(bytes, 10));
+        bytes = "SSH-2.0-OpenSSH\r\n".getBytes(StandardCharsets.US_ASCII);
+        Assertions.assertEquals(-1, HttpHealthProbe.parseStatus(bytes, bytes.length));
+    }
+
+    private HealthCheckConfig config(String type) {
+        HealthCheckConfig config = new HealthCheckConfig();
+        config.setEnabled(true);
+        config.setType(type);
+        config.setInterval(100);
+        config.setTimeout(1000);
+        config.setUnhealthyThreshold(1);
+        return config;
+    }
+
+    private boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return condition.getAsBoolean();
+    }
+
+    private byte[] grpcResponse(int status) {
+        return new byte[]{
+                // settings
+                0, 0, 0, 4, 0, 0, 0, 0, 0,
+                // headers ":status: 200" with end headers
+                0, 0, 1, 1, 4, 0, 0, 0, 1, (byte) 0x88,
+                // data of HealthCheckResponse
+                0, 0, 7, 0, 0, 0, 0, 0, 1, 0, 0, 0, 0, 2, 0x08, (byte) status};
+    }
+
+    private ServerSocket serve(String response) throws IOException {
+        return serve(response.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private ServerSocket serve(byte[] response) throws IOException {
+        ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread thread = new Thread(() -> {
+            while (!server.isClosed()) {
+                try (Socket socket = server.accept()) {
+                    InputStream in = socket.getInputStream();
+                    byte[] buffer = new byte[1024];
+                    if (in.read(buffer) > 0) {
+                        OutputStream out = socket.getOutputStream();
+                        out.write(response);
+                        out.flush();
+                    }
+                } catch (IOException ignored) {
+                }
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return server;
+    }
+
+    private static class TestEndpoint extends AbstractEndpoint {
+
+        private final String host;
+
+        private final int port;
+
+        private final String protocol;
+
+        TestEndpoint(int port) {
+            this("127.0.0.1", port, null);
+        }
+
+        TestEndpoint(String host, int port, String protocol) {
+            this.host = host;
+            this.port = port;
+            this.protocol = protocol;
+        }
+
+        @Override
+        public String getHost() {
+            return host;
+        }
+
+        @Override
+        public int getPort() {
+            return port;
+        }
+
+        @Override
+        public String getLabel(String key) {
+            return "protocol".equals(key) ? protocol : null;
+        }
+
+        @Override
+        public EndpointState getState() {
+            return EndpointState.HEALTHY;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.admission;
+
+import com.jd.live.agent.bootstrap.exception.RejectException.RejectLimitException;
+import com.jd.live.agent.core.util.time.TimeScheduler;
+import com.jd.live.agent.governance.policy.service.admission.AdmissionPolicy;
+import com.jd.live.agent.governance.policy.service.admission.AdmissionRule;
+import com.jd.live.agent.governance.rule.OpType;
+import com.jd.live.agent.governance.rule.tag.TagCondition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AdmissionControllerTest
+ *
+ * @since 1.6.0
+ */
+public class AdmissionControllerTest {
+
+    private TimeScheduler timer;
+
+    @BeforeEach
+    void setUp() {
+        timer = new TimeScheduler("admission-test", 10, 100, 1);
+        timer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        timer.close();
+    }
+
+    @Test
+    void testStrictPriority() {
+        AdmissionController controller = new AdmissionController(createPolicy(1, 10, 1000), timer);
+        Assertions.assertTrue(controller.acquire(2).isDone());
+        CompletableFuture<Void> low = controller.acquire(2);
+        CompletableFuture<Void> high = controller.acquire(0);
+        Assertions.assertFalse(low.isDone());
+        Assertions.assertFalse(high.isDone());
+        Assertions.assertEquals(2, controller.getWaiting());
+
+        controller.release();
+        Assertions.assertTrue(high.isDone());
+        Assertions.assertFalse(low.isDone());
+        controller.release();
+        Assertions.assertTrue(low.isDone());
+        Assertions.assertFalse(low.isCompletedExceptionally());
+        Assertions.assertEquals(1, controller.getConcurrency());
+        Assertions.assertEquals(0, controller.getWaiting());
+        Assertions.assertEquals(2, controller.getMetric(2).getAdmitted());
+        Assertions.assertEquals(1, controller.getMetric(0).getQueued());
+    }
+
+    @Test
+    void testQueueFull() {
+        AdmissionController controller = new AdmissionController(createPolicy(1, 1, 1000), timer);
+        Assertions.assertTrue(controller.acquire(1).isDone());
+        Assertions.assertFalse(controller.acquire(1).isDone());
+        CompletableFuture<Void> rejected = controller.acquire(1);
+        Assertions.assertTrue(rejected.isCompletedExceptionally());
+        assertReject(rejected);
+        Assertions.assertEquals(1, controller.getMetric(1).getRejected());
+        // the other tiers have their own queues
+        Assertions.assertFalse(controller.acquire(0).isDone());
+    }
+
+    @Test
+    void testMaxWaitTime() {
+        AdmissionController controller = new AdmissionController(createPolicy(1, 10, 50), timer);
+        Assertions.assertTrue(controller.acquire(0).isDone());
+        CompletableFuture<Void> waiter = controller.acquire(0);
+        assertReject(waiter);
+        Assertions.assertEquals(0, controller.getWaiting());
+        Assertions.assertEquals(1, controller.getMetric(0).getDropped());
+        controller.release();
+        Assertions.assertEquals(0, controller.getConcurrency());
+    }
+
+    @Test
+    void testCoDel() throws InterruptedException {
+        AdmissionPolicy policy = createPolicy(1, 10, 5000);
+        policy.setTargetDelay(1L);
+        policy.setInterval(10L);
+        AdmissionController controller = new AdmissionController(policy, timer);
+        Assertions.assertTrue(controller.acquire(0).isDone());
+        CompletableFuture<Void> first = controller.acquire(0);
+        CompletableFuture<Void> second = controller.acquire(0);
+        CompletableFuture<Void> third = controller.acquire(0);
+        Thread.sleep(20);
+        // the sojourn time is above the target delay for the first time
+        controller.release();
+        Assertions.assertTrue(first.isDone());
+        Assertions.assertFalse(first.isCompletedExceptionally());
+        Thread.sleep(20);
+        // the sojourn time stays above the target delay for an interval
+        controller.release();
+        Assertions.assertTrue(second.isCompletedExceptionally());
+        Assertions.assertTrue(third.isDone());
+        Assertions.assertFalse(third.isCompletedExceptionally());
+        Assertions.assertEquals(1, controller.getMetric(0).getDropped());
+        Assertions.assertEquals(3, controller.getMetric(0).getQueued());
+        Assertions.assertTrue(controller.getMetric(0).getMaxQueueTime() >= 40);
+    }
+
+    @Test
+    void testUpdate() {
+        AdmissionController controller = new AdmissionController(createPolicy(1, 10, 1000), timer);
+        Assertions.assertTrue(controller.acquire(0).isDone());
+        // the admitted request is still accounted by the updated policy
+        controller.update(createPolicy(1, 10, 1000));
+        CompletableFuture<Void> waiter = controller.acquire(0);
+        Assertions.assertFalse(waiter.isDone());
+        // the new permits are handed to the queued requests
+        controller.update(createPolicy(2, 10, 1000));
+        Assertions.assertTrue(waiter.isDone());
+        Assertions.assertEquals(2, controller.getConcurrency());
+        Assertions.assertEquals(1, controller.getMetric(0).getQueued());
+        controller.release();
+        controller.release();
+        Assertions.assertEquals(0, controller.getConcurrency());
+        Assertions.assertFalse(controller.isIdle(60000));
+        Assertions.assertTrue(controller.isIdle(-1));
+    }
+
+    @Test
+    void testPriority() {
+        AdmissionPolicy policy = createPolicy(1, 10, 1000);
+        AdmissionRule rule = new AdmissionRule();
+        rule.setPriority(0);
+        rule.setConditions(Collections.singletonList(new TagCondition("x-priority", Arrays.asList("critical"), OpType.EQUAL)));
+        policy.setRules(Collections.singletonList(rule));
+        Assertions.assertEquals(0, policy.getPriority(c -> c.match(Collections.singletonList("critical"))));
+        Assertions.assertEquals(2, policy.getPriority(c -> c.match(Collections.singletonList("batch"))));
+        policy.setDefaultPriority(1);
+        Assertions.assertEquals(1, policy.getPriority(c -> c.match(Collections.singletonList("batch"))));
+        policy.setDefaultPriority(5);
+        Assertions.assertEquals(2, policy.getPriority(c -> c.match(Collections.singletonList("batch"))));
+    }
+
+    private AdmissionPolicy createPolicy(int maxConcurrency, int queueCapacity, long maxWaitTime) {
+        AdmissionPolicy policy = new AdmissionPolicy();
+        policy.setMaxConcurrency(maxConcurrency);
+        policy.setQueueCapacity(queueCapacity);
+        policy.setMaxWaitTime(maxWaitTime);
+        policy.setTargetDelay(1000L);
+        return policy;
+    }
+
+    private void assertReject(CompletableFuture<Void> future) {
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+        Assertions.assertTrue(e.getCause() instanceof RejectLimitException);
+    }
+}
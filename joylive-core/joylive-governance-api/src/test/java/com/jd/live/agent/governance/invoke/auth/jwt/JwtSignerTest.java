@@ -0,0 +1,74 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.auth.jwt;
+
+import com.jd.live.agent.governance.policy.service.auth.JwtPolicy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+
+/**
+ * JwtSignerTest
+ *
+ * @since 1.6.0
+ */
+public class JwtSignerTest {
+
+    private static final String PAYLOAD = "{\"iss\":\"consumer\",\"aud\":\"provider\",\"exp\":4102444800}";
+
+    @Test
+    void testHmac() throws GeneralSecurityException {
+        JwtPolicy policy = new JwtPolicy("Authorization", JwtPolicy.ALGORITHM_HS256, "secret", null, null, null, 0);
+        JwtSigner signer = new JwtSigner(policy);
+        String token = signer.sign(PAYLOAD);
+        int dot = token.lastIndexOf('.');
+        Assertions.assertTrue(signer.verify(token, dot));
+        Assertions.assertTrue(signer.verify(token, dot));
+        Assertions.assertEquals(PAYLOAD, JwtSigner.decode(token, token.indexOf('.') + 1, dot));
+        // the signature of HS256 is deterministic
+        Assertions.assertEquals(token, signer.sign(PAYLOAD));
+
+        JwtSigner other = new JwtSigner(new JwtPolicy("Authorization", JwtPolicy.ALGORITHM_HS256, "other", null, null, null, 0));
+        Assertions.assertFalse(other.verify(token, dot));
+        String tampered = token.substring(0, dot - 1) + (token.charAt(dot - 1) == 'A' ? 'B' : 'A') + token.substring(dot);
+        Assertions.assertFalse(signer.verify(tampered, dot));
+    }
+
+    @Test
+    void testRsa() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair pair = generator.generateKeyPair();
+        String publicKey = Base64.getEncoder().encodeToString(pair.getPublic().getEncoded());
+        String privateKey = Base64.getEncoder().encodeToString(pair.getPrivate().getEncoded());
+
+        JwtSigner consumer = new JwtSigner(new JwtPolicy("Authorization", JwtPolicy.ALGORITHM_RS256, null, null, privateKey, null, 0));
+        JwtSigner provider = new JwtSigner(new JwtPolicy("Authorization", JwtPolicy.ALGORITHM_RS256, null, publicKey, null, null, 0));
+        Assertions.assertTrue(consumer.isSignable());
+        Assertions.assertFalse(consumer.isVerifiable());
+        Assertions.assertFalse(provider.isSignable());
+        String token = consumer.sign(PAYLOAD);
+        int dot = token.lastIndexOf('.');
+        Assertions.assertTrue(provider.verify(token, dot));
+        Assertions.assertTrue(provider.verify(token, dot));
+        String forged = token.substring(0, token.indexOf('.') + 1) + "e30" + token.substring(dot);
+        Assertions.assertFalse(provider.verify(forged, forged.lastIndexOf('.')));
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.circuitbreak;
+
+import com.jd.live.agent.core.util.URI;
+import com.jd.live.agent.governance.invoke.circuitbreak.window.SlidingWindowCircuitBreaker;
+import com.jd.live.agent.governance.policy.PolicyId;
+import com.jd.live.agent.governance.policy.service.circuitbreak.CircuitBreakLevel;
+import com.jd.live.agent.governance.policy.service.circuitbreak.CircuitBreakPhase;
+import com.jd.live.agent.governance.policy.service.circuitbreak.CircuitBreakPolicy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * SlidingWindowCircuitBreakerTest
+ *
+ * @since 1.6.0
+ */
+public class SlidingWindowCircuitBreakerTest {
+
+    private static final URI URI = new URI().host("test");
+
+    private CircuitBreakPolicy createPolicy(String windowType) {
+        CircuitBreakPolicy policy = new CircuitBreakPolicy();
+        policy.setLevel(CircuitBreakLevel.SERVICE);
+        policy.setSlidingWindowType(windowType);
+        policy.setSlidingWindowSize(10);
+        policy.setMinCallsThreshold(5);
+        policy.setFailureRateThreshold(50F);
+        policy.setSlowCallDurationThreshold(100);
+        policy.setSlowCallRateThreshold(50F);
+        policy.setWaitDurationInOpenState(1);
+        policy.setAllowedCallsInHalfOpenState(2);
+        return policy;
+    }
+
+    @Test
+    void testOpenByFailureRate() {
+        SlidingWindowCircuitBreaker breaker = new SlidingWindowCircuitBreaker(createPolicy(CircuitBreakPolicy.SLIDING_WINDOW_COUNT), URI);
+        List<CircuitBreakerState> states = new ArrayList<>();
+        breaker.addListener(e -> states.add(e.getTo()));
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(breaker.acquire());
+            breaker.onError(1, new RuntimeException());
+        }
+        // less than min calls
+        Assertions.assertTrue(breaker.acquire());
+        breaker.onSuccess(1);
+        Assertions.assertFalse(breaker.acquire());
+        Assertions.assertEquals(CircuitBreakPhase.OPEN, breaker.getInfo(System.currentTimeMillis()).getPhase());
+        Assertions.assertEquals(1, states.size());
+        Assertions.assertEquals(CircuitBreakerState.OPEN, states.get(0));
+    }
+
+    @Test
+    void testOpenBySlowCallRate() {
+        SlidingWindowCircuitBreaker breaker = new SlidingWindowCircuitBreaker(createPolicy(CircuitBreakPolicy.DEFAULT_SLIDING_WINDOW_TIME), URI);
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertTrue(breaker.acquire());
+            breaker.onSuccess(200);
+        }
+        Assertions.assertFalse(breaker.acquire());
+    }
+
+    @Test
+    void testHalfOpenToClosed() throws InterruptedException {
+        SlidingWindowCircuitBreaker breaker = new SlidingWindowCircuitBreaker(createPolicy(CircuitBreakPolicy.SLIDING_WINDOW_COUNT), URI);
+        for (int i = 0; i < 5; i++) {
+            breaker.acquire();
+            breaker.onError(1, new RuntimeException());
+        }
+        Assertions.assertFalse(breaker.acquire());
+        Thread.sleep(1100);
+        // half open permits
+        Assertions.assertTrue(breaker.acquire());
+        Assertions.assertTrue(breaker.acquire());
+        Assertions.assertFalse(breaker.acquire());
+        breaker.onSuccess(1);
+        breaker.onSuccess(1);
+        Assertions.assertTrue(breaker.acquire());
+        Assertions.assertEquals(CircuitBreakPhase.CLOSED, breaker.getInfo(System.currentTimeMillis()).getPhase());
+    }
+
+    @Test
+    void testForceOpen() {
+        CircuitBreakPolicy policy = createPolicy(CircuitBreakPolicy.SLIDING_WINDOW_COUNT);
+        policy.setForceOpen(true);
+        SlidingWindowCircuitBreaker breaker = new SlidingWindowCircuitBreaker(policy, URI);
+        Assertions.assertFalse(breaker.acquire());
+    }
+
+    @Test
+    void testReleaseToIssuingPhase() throws InterruptedException {
+        SlidingWindowCircuitBreaker breaker = new SlidingWindowCircuitBreaker(createPolicy(CircuitBreakPolicy.SLIDING_WINDOW_COUNT), URI);
+        for (int i = 0; i < 5; i++) {
+            breaker.acquire();
+            breaker.onError(1, new RuntimeException());
+        }
+        Thread.sleep(1100);
+        // another thread holds a permit of the first half open phase
+        AtomicBoolean acquired = new AtomicBoolean();
+        Thread holder = new Thread(() -> acquired.set(breaker.acquire()));
+        holder.start();
+        holder.join();
+        Assertions.assertTrue(acquired.get());
+        Assertions.assertTrue(breaker.acquire());
+        breaker.onError(1, new RuntimeException());
+        breaker.onError(1, new RuntimeException());
+        Assertions.assertFalse(breaker.acquire());
+        Thread.sleep(1100);
+        Assertions.assertTrue(breaker.acquire());
+        // the permit is returned to the phase which issued it
+        Thread releaser = new Thread(breaker::release);
+        releaser.start();
+        releaser.join();
+        Assertions.assertTrue(breaker.acquire());
+        Assertions.assertFalse(breaker.acquire());
+    }
+
+    @Test
+    void testInspectorOnClose() throws InterruptedException {
+        CircuitBreakPolicy policy = createPolicy(CircuitBreakPolicy.SLIDING_WINDOW_COUNT);
+        policy.setLevel(CircuitBreakLevel.INSTANCE);
+        SlidingWindowCircuitBreaker breaker = new SlidingWindowCircuitBreaker(policy, URI.parameter(PolicyId.KEY_SERVICE_ENDPOINT, "10.0.0.1:8080"));
+        for (int i = 0; i < 5; i++) {
+            breaker.acquire();
+            breaker.onError(1, new RuntimeException());
+        }
+        Assertions.assertFalse(breaker.acquire());
+        Assertions.assertNull(policy.getInspector("10.0.0.1:8080"));
+        Thread.sleep(1100);
+        Assertions.assertTrue(breaker.acquire());
+        Assertions.assertNull(policy.getInspector("10.0.0.1:8080"));
+        Assertions.assertTrue(breaker.acquire());
+        breaker.onSuccess(1);
+        breaker.onSuccess(1);
+        Assertions.assertSame(breaker, policy.getInspector("10.0.0.1:8080"));
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.circuitbreak.window;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * CallWindowTest
+ *
+ * @since 1.6.0
+ */
+public class CallWindowTest {
+
+    private static final long FAILURE = CallCounter.of(true, false);
+
+    private static final long SLOW = CallCounter.of(false, true);
+
+    @Test
+    void testCountWindowEvictsOldest() {
+        CountCallWindow window = new CountCallWindow(3);
+        window.record(FAILURE, 0);
+        window.record(SLOW, 0);
+        window.record(CallCounter.SUCCESS, 0);
+        assertCounters(window.getCounters(0), 3, 1, 1);
+        // the failure is swapped out by a success
+        window.record(CallCounter.SUCCESS, 0);
+        assertCounters(window.getCounters(0), 3, 0, 1);
+        // the slow call is swapped out by a failure
+        window.record(FAILURE, 0);
+        assertCounters(window.getCounters(0), 3, 1, 0);
+    }
+
+    @Test
+    void testTimeWindowExpiresBuckets() {
+        TimeCallWindow window = new TimeCallWindow(2);
+        window.record(FAILURE, 1000);
+        window.record(CallCounter.SUCCESS, 1500);
+        window.record(SLOW, 2000);
+        assertCounters(window.getCounters(2999), 3, 1, 1);
+        // the bucket of the first second is out of the window
+        assertCounters(window.getCounters(3000), 1, 0, 1);
+        // the slot of the first second is reused
+        window.record(CallCounter.SUCCESS, 3100);
+        assertCounters(window.getCounters(3100), 2, 0, 1);
+        assertCounters(window.getCounters(5000), 0, 0, 0);
+    }
+
+    @Test
+    void testTimeWindowIgnoresFutureBuckets() {
+        TimeCallWindow window = new TimeCallWindow(2);
+        window.record(FAILURE, 5000);
+        assertCounters(window.getCounters(4000), 0, 0, 0);
+        assertCounters(window.getCounters(5000), 1, 1, 0);
+    }
+
+    private void assertCounters(long counters, int calls, int failures, int slows) {
+        Assertions.assertEquals(calls, CallCounter.getCalls(counters));
+        Assertions.assertEquals(failures, CallCounter.getFailures(counters));
+        Assertions.assertEquals(slows, CallCounter.getSlows(counters));
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.cluster;
+
+import com.jd.live.agent.bootstrap.exception.RejectException.RejectDeadlineException;
+import com.jd.live.agent.core.util.Futures;
+import com.jd.live.agent.governance.context.RequestContext;
+import com.jd.live.agent.governance.context.bag.Carrier;
+import com.jd.live.agent.governance.exception.ServiceError;
+import com.jd.live.agent.governance.instance.AbstractEndpoint;
+import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.instance.EndpointState;
+import com.jd.live.agent.governance.invoke.OutboundInvocation;
+import com.jd.live.agent.governance.invoke.metadata.ServiceMetadata;
+import com.jd.live.agent.governance.invoke.metadata.parser.MetadataParser.LiveParser;
+import com.jd.live.agent.governance.invoke.metadata.parser.MetadataParser.ServiceParser;
+import com.jd.live.agent.governance.policy.service.cluster.ClusterPolicy;
+import com.jd.live.agent.governance.policy.service.cluster.RetryPolicy;
+import com.jd.live.agent.governance.request.AbstractRpcRequest.AbstractRpcOutboundRequest;
+import com.jd.live.agent.governance.request.ServiceRequest.OutboundRequest;
+import com.jd.live.agent.governance.response.AbstractRpcResponse.AbstractRpcOutboundResponse;
+import com.jd.live.agent.governance.response.ServiceResponse.OutboundResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FailoverClusterInvokerTest
+ *
+ * @since 1.6.0
+ */
+public class FailoverClusterInvokerTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestContext.remove();
+    }
+
+    @Test
+    void testFailFast() {
+        TestCluster cluster = new TestCluster();
+        RequestContext.setAttribute(Carrier.ATTRIBUTE_DEADLINE, System.currentTimeMillis() - 10);
+        CompletableFuture<TestResponse> future = new FailoverClusterInvoker()
+                .invoke(cluster, new TestInvocation(), 0).toCompletableFuture();
+        Assertions.assertTrue(future.isCompletedExceptionally());
+        Throwable error = Assertions.assertThrows(Throwable.class, future::join);
+        Assertions.assertInstanceOf(RejectDeadlineException.class, error.getCause());
+        // the request is not routed to any endpoint.
+        Assertions.assertEquals(0, cluster.routes.get());
+    }
+
+    @Test
+    void testBudgetNotEnough() {
+        TestInvoker invoker = new TestInvoker(40);
+        RequestContext.setAttribute(Carrier.ATTRIBUTE_DEADLINE, System.currentTimeMillis() + 50);
+        TestResponse response = invoker.execute(new TestCluster(), new TestInvocation(), createPolicy())
+                .toCompletableFuture().join();
+        Assertions.assertNotNull(response.getError());
+        // another attempt cannot complete before the deadline.
+        Assertions.assertEquals(1, invoker.attempts.get());
+    }
+
+    @Test
+    void testNoDeadline() {
+        TestInvoker invoker = new TestInvoker(0);
+        TestResponse response = invoker.execute(new TestCluster(), new TestInvocation(), createPolicy())
+                .toCompletableFuture().join();
+        Assertions.assertNotNull(response.getError());
+        Assertions.assertEquals(4, invoker.attempts.get());
+    }
+
+    private static ClusterPolicy createPolicy() {
+        RetryPolicy retryPolicy = new RetryPolicy();
+        retryPolicy.setRetry(3);
+        retryPolicy.setExceptions(Collections.singleton(IllegalStateException.class.getName()));
+        return new ClusterPolicy(ClusterInvoker.TYPE_FAILOVER, retryPolicy);
+    }
+
+    private static class TestInvoker extends FailoverClusterInvoker {
+
+        private final long elapsed;
+
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        TestInvoker(long elapsed) {
+            this.elapsed = elapsed;
+        }
+
+        @Override
+        protected <R extends OutboundRequest,
+                O extends OutboundResponse,
+                E extends Endpoint> CompletionStage<O> invoke(LiveCluster<R, O, E> cluster,
+                                                              OutboundInvocation<R> invocation,
+                                                              int counter,
+                                                              long deadline) {
+            attempts.incrementAndGet();
+            if (elapsed > 0) {
+                try {
+                    Thread.sleep(elapsed);
+                } catch (InterruptedException ignored) {
+                }
+            }
+            return Futures.future(new IllegalStateException("unavailable"));
+        }
+    }
+
+    private static class TestCluster implements LiveCluster<TestRequest, TestResponse, TestEndpoint> {
+
+        private final AtomicInteger routes = new AtomicInteger();
+
+        @Override
+        public CompletionStage<List<TestEndpoint>> route(TestRequest request) {
+            routes.incrementAndGet();
+            return CompletableFuture.completedFuture(Collections.singletonList(new TestEndpoint()));
+        }
+
+        @Override
+        public CompletionStage<TestResponse> invoke(TestRequest request, TestEndpoint endpoint) {
+            return Futures.future(new IllegalStateException("unavailable"));
+        }
+
+        @Override
+        public TestResponse createResponse(Throwable throwable, TestRequest request, TestEndpoint endpoint) {
+            return new TestResponse(new ServiceError(throwable, false));
+        }
+
+        @Override
+        public Throwable createException(Throwable throwable, TestRequest request) {
+            return throwable;
+        }
+
+        @Override
+        public Throwable createException(Throwable throwable, TestRequest request, TestEndpoint endpoint) {
+            return throwable;
+        }
+
+        @Override
+        public Throwable createException(Throwable throwable, OutboundInvocation<TestRequest> invocation) {
+            return throwable;
+        }
+    }
+
+    private static class TestInvocation extends OutboundInvocation<TestRequest> {
+
+        TestInvocation() {
+            this.request = new TestRequest();
+            this.serviceMetadata = ServiceMetadata.builder().build();
+            setInstances(Collections.singletonList(new TestEndpoint()));
+        }
+
+        @Override
+        protected LiveParser createLiveParser() {
+            return null;
+        }
+
+        @Override
+        protected ServiceParser createServiceParser() {
+            return null;
+        }
+    }
+
+    private static class TestRequest extends AbstractRpcOutboundRequest<Object> {
+
+        TestRequest() {
+            super(new Object(), "test-service", null, null, "echo", null, null);
+        }
+
+        @Override
+        public void setHeader(String key, String value) {
+        }
+    }
+
+    private static class TestResponse extends AbstractRpcOutboundResponse<Object> {
+
+        TestResponse(ServiceError error) {
+            super(null, error);
+        }
+    }
+
+    private static class TestEndpoint extends AbstractEndpoint {
+
+        @Override
+        public String getHost() {
+            return "127.0.0.1";
+        }
+
+        @Override
+        public int getPort() {
+            return 8080;
+        }
+
+        @Override
+        public String getLabel(String key) {
+            return null;
+        }
+
+        @Override
+        public EndpointState getState() {
+            return EndpointState.HEALTHY;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.filter;
+
+import com.jd.live.agent.governance.invoke.InboundInvocation;
+import com.jd.live.agent.governance.invoke.InvocationFrame;
+import com.jd.live.agent.governance.invoke.metadata.ServiceMetadata;
+import com.jd.live.agent.governance.invoke.metadata.parser.MetadataParser.LiveParser;
+import com.jd.live.agent.governance.invoke.metadata.parser.MetadataParser.ServiceParser;
+import com.jd.live.agent.governance.policy.service.Service;
+import com.jd.live.agent.governance.policy.service.ServicePolicy;
+import com.jd.live.agent.governance.request.ServiceRequest.InboundRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FilterChainsTest
+ *
+ * @since 1.6.0
+ */
+public class FilterChainsTest {
+
+    private final FilterChains chains = new FilterChains(
+            new InboundFilter[]{new NamedFilter("a"), new NamedPolicyFilter("p"), new NamedFilter("b")}, null, null);
+
+    @Test
+    void testPrune() {
+        Service service = new Service("test");
+        Assertions.assertEquals(3, chains.getInboundChain(invocation(service, policy(1L))).size());
+        Assertions.assertEquals(2, chains.getInboundChain(invocation(service, policy(null))).size());
+        Assertions.assertEquals(2, chains.getInboundChain(invocation(service, null)).size());
+    }
+
+    @Test
+    void testRebuild() {
+        Service service = new Service("test");
+        service.setVersion(1);
+        ServicePolicy policy = policy(1L);
+        InboundFilterChain.Chain chain = chains.getInboundChain(invocation(service, policy));
+        Assertions.assertSame(chain, chains.getInboundChain(invocation(service, policy)));
+        service.setVersion(2);
+        InboundFilterChain.Chain rebuilt = chains.getInboundChain(invocation(service, policy));
+        Assertions.assertNotSame(chain, rebuilt);
+        Assertions.assertSame(rebuilt, chains.getInboundChain(invocation(service, policy)));
+    }
+
+    @Test
+    void testShared() throws InterruptedException {
+        Service service = new Service("test");
+        ServicePolicy policy = policy(1L);
+        int threads = 8;
+        int rounds = 1000;
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    for (int i = 0; i < rounds; i++) {
+                        TestInvocation invocation = invocation(service, policy);
+                        InboundFilterChain.Chain chain = chains.getInboundChain(invocation);
+                        Object result = chain.start(invocation, () -> String.join(",", invocation.passed)).toCompletableFuture().join();
+                        if (!"a,p,b".equals(result)) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                } catch (Throwable e) {
+                    errors.incrementAndGet();
+                } finally {
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+        Assertions.assertEquals(0, errors.get());
+    }
+
+    @Test
+    void testNested() {
+        Service service = new Service("test");
+        TestInvocation invocation = invocation(service, policy(1L));
+        InboundFilterChain.Chain nested = new InboundFilterChain.Chain(new NamedFilter("x"), new NamedFilter("y"));
+        InboundFilterChain.Chain chain = new InboundFilterChain.Chain(new NamedFilter("a"), new InboundFilter() {
+            @Override
+            public <T extends InboundRequest> CompletionStage<Object> filter(InboundInvocation<T> invocation, InboundFilterChain chain) {
+                // a nested pass of the same invocation does not move the position of the enclosing pass.
+                Object result = nested.start(invocation, () -> "nested").toCompletableFuture().join();
+                ((TestInvocation) invocation).passed.add(String.valueOf(result));
+                return chain.filter(invocation);
+            }
+        }, new NamedFilter("b"));
+        Object result = chain.start(invocation, () -> String.join(",", invocation.passed)).toCompletableFuture().join();
+        Assertions.assertEquals("a,x,y,nested,b", result);
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    void testInvokerChain() {
+        Service service = new Service("test");
+        TestInvocation invocation = invocation(service, policy(1L));
+        InboundFilter[] filters = new InboundFilter[]{new NamedFilter("a"), new NamedFilter("b")};
+        InboundFilterChain chain = new InboundFilterChain.InvokerChain(filters, () -> String.join(",", invocation.passed));
+        Assertions.assertEquals("a,b", chain.filter(invocation).toCompletableFuture().join());
+        Assertions.assertEquals(0, invocation.getFrame().getFilterIndex());
+    }
+
+    @Test
+    void testAllocation() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        FilterChains passChains = new FilterChains(new InboundFilter[]{new PassFilter(), new PassFilter()}, null, null);
+        Service service = new Service("test");
+        TestInvocation invocation = invocation(service, policy(1L));
+        InvocationFrame frame = invocation.getFrame();
+        Callable<Object> invoker = () -> null;
+        int rounds = 100000;
+        for (int i = 0; i < rounds; i++) {
+            passChains.getInboundChain(invocation).start(invocation, invoker);
+        }
+        long threadId = Thread.currentThread().getId();
+        long start = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < rounds; i++) {
+            passChains.getInboundChain(invocation).start(invocation, invoker);
+        }
+        double bytes = (double) (threadBean.getThreadAllocatedBytes(threadId) - start) / rounds;
+        System.out.println("inbound pass: " + bytes + " bytes/op");
+        // the frame is recycled, only the completed result of the invoker is allocated.
+        Assertions.assertSame(frame, invocation.getFrame());
+        Assertions.assertTrue(bytes < 64);
+    }
+
+    private static ServicePolicy policy(Long id) {
+        ServicePolicy result = new ServicePolicy();
+        result.setId(id);
+        return result;
+    }
+
+    private static TestInvocation invocation(Service service, ServicePolicy policy) {
+        return new TestInvocation(ServiceMetadata.builder().service(service).servicePolicy(policy).build());
+    }
+
+    private static class TestInvocation extends InboundInvocation<InboundRequest> {
+
+        private final List<String> passed = new ArrayList<>();
+
+        TestInvocation(ServiceMetadata metadata) {
+            this.serviceMetadata = metadata;
+        }
+
+        @Override
+        protected LiveParser createLiveParser() {
+            return null;
+        }
+
+        @Override
+        protected ServiceParser createServiceParser() {
+            return null;
+        }
+    }
+
+    private static class NamedFilter implements InboundFilter {
+
+        private final String name;
+
+        NamedFilter(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public <T extends InboundRequest> CompletionStage<Object> filter(InboundInvocation<T> invocation, InboundFilterChain chain) {
+            ((TestInvocation) invocation).passed.add(name);
+            return chain.filter(invocation);
+        }
+    }
+
+    private static class PassFilter implements InboundFilter {
+
+        @Override
+        public <T extends InboundRequest> CompletionStage<Object> filter(InboundInvocation<T> invocation, InboundFilterChain chain) {
+            return chain.filter(invocation);
+        }
+    }
+
+    private static class NamedPolicyFilter extends NamedFilter implements PolicyFilter {
+
+        NamedPolicyFilter(String name) {
+            super(name);
+        }
+
+        @Override
+        public boolean isApplicable(ServicePolicy policy) {
+            return policy != null && policy.getId() != null;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.filter.inbound;
+
+import com.jd.live.agent.bootstrap.exception.RejectException.RejectDeadlineException;
+import com.jd.live.agent.governance.context.RequestContext;
+import com.jd.live.agent.governance.context.bag.Carrier;
+import com.jd.live.agent.governance.invoke.InboundInvocation;
+import com.jd.live.agent.governance.invoke.filter.InboundFilterChain;
+import com.jd.live.agent.governance.invoke.metadata.parser.MetadataParser.LiveParser;
+import com.jd.live.agent.governance.invoke.metadata.parser.MetadataParser.ServiceParser;
+import com.jd.live.agent.governance.request.AbstractRpcRequest.AbstractRpcInboundRequest;
+import com.jd.live.agent.governance.request.ServiceRequest.InboundRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DeadlineFilterTest
+ *
+ * @since 1.6.0
+ */
+public class DeadlineFilterTest {
+
+    private final DeadlineFilter filter = new DeadlineFilter();
+
+    @AfterEach
+    void tearDown() {
+        RequestContext.remove();
+    }
+
+    @Test
+    void testExceeded() {
+        TestChain chain = new TestChain();
+        RequestContext.setAttribute(Carrier.ATTRIBUTE_DEADLINE, System.currentTimeMillis() - 100);
+        Assertions.assertThrows(RejectDeadlineException.class, () -> filter.filter(new TestInvocation(), chain));
+        Assertions.assertEquals(0, chain.counter.get());
+    }
+
+    @Test
+    void testNotExceeded() {
+        TestChain chain = new TestChain();
+        RequestContext.setAttribute(Carrier.ATTRIBUTE_DEADLINE, System.currentTimeMillis() + 10000);
+        filter.filter(new TestInvocation(), chain);
+        Assertions.assertEquals(1, chain.counter.get());
+    }
+
+    @Test
+    void testNoDeadline() {
+        TestChain chain = new TestChain();
+        filter.filter(new TestInvocation(), chain);
+        Assertions.assertEquals(1, chain.counter.get());
+    }
+
+    private static class TestChain implements InboundFilterChain {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public <T extends InboundRequest> CompletionStage<Object> filter(InboundInvocation<T> invocation) {
+            counter.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private static class TestInvocation extends InboundInvocation<InboundRequest> {
+
+        TestInvocation() {
+            this.request = new AbstractRpcInboundRequest<Object>(new Object()) {
+            };
+        }
+
+        @Override
+        protected LiveParser createLiveParser() {
+            return null;
+        }
+
+        @Override
+        protected ServiceParser createServiceParser() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.filter.route;
+
+import com.jd.live.agent.core.Constants;
+import com.jd.live.agent.governance.instance.AbstractEndpoint;
+import com.jd.live.agent.governance.instance.EndpointState;
+import com.jd.live.agent.governance.invoke.filter.route.LocalityFilter.Locality;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * LocalityFilterTest
+ *
+ * @since 1.6.0
+ */
+public class LocalityFilterTest {
+
+    private static final int COUNT = 100000;
+
+    @Test
+    void testZoneFirst() {
+        int[] totals = {4, 4, 4};
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals(0, LocalityFilter.choose(totals, new int[]{3, 4, 4}, 0.7));
+        }
+    }
+
+    @Test
+    void testSpillover() {
+        int[] totals = {4, 4, 4};
+        int[] counts = new int[3];
+        for (int i = 0; i < COUNT; i++) {
+            counts[LocalityFilter.choose(totals, new int[]{2, 4, 4}, 1.0)]++;
+        }
+        // the zone takes half of the traffic and the region takes the rest
+        Assertions.assertEquals(0.5, counts[0] / (double) COUNT, 0.02);
+        Assertions.assertEquals(0.5, counts[1] / (double) COUNT, 0.02);
+        Assertions.assertEquals(0, counts[2]);
+
+        for (int i = 0; i < 3; i++) {
+            counts[i] = 0;
+        }
+        for (int i = 0; i < COUNT; i++) {
+            counts[LocalityFilter.choose(totals, new int[]{2, 1, 4}, 1.0)]++;
+        }
+        Assertions.assertEquals(0.5, counts[0] / (double) COUNT, 0.02);
+        Assertions.assertEquals(0.125, counts[1] / (double) COUNT, 0.02);
+        Assertions.assertEquals(0.375, counts[2] / (double) COUNT, 0.02);
+    }
+
+    @Test
+    void testNoAvailable() {
+        int[] totals = {4, 4, 0};
+        Assertions.assertEquals(1, LocalityFilter.choose(totals, new int[]{0, 1, 0}, 0.7));
+        Assertions.assertEquals(-1, LocalityFilter.choose(totals, new int[]{0, 0, 0}, 0.7));
+    }
+
+    @Test
+    void testTier() {
+        Locality locality = new Locality("z1", "r1", true);
+        Assertions.assertEquals(0, locality.getTier(new TestEndpoint("10.0.1.1", "z1", "r1")));
+        Assertions.assertEquals(1, locality.getTier(new TestEndpoint("10.0.2.1", "z2", "r1")));
+        // the zone name is reused in another region
+        Assertions.assertEquals(2, locality.getTier(new TestEndpoint("10.0.3.1", "z1", "r2")));
+        Assertions.assertEquals(2, locality.getTier(new TestEndpoint("10.0.3.2", "z3", "r2")));
+
+        locality = new Locality("z1", "r1", false);
+        Assertions.assertEquals(0, locality.getTier(new TestEndpoint("10.0.1.1", "z1", "r1")));
+        Assertions.assertEquals(2, locality.getTier(new TestEndpoint("10.0.2.1", "z2", "r1")));
+    }
+
+    private static class TestEndpoint extends AbstractEndpoint {
+
+        private final String host;
+
+        private final String zone;
+
+        private final String region;
+
+        TestEndpoint(String host, String zone, String region) {
+            this.host = host;
+            this.zone = zone;
+            this.region = region;
+        }
+
+        @Override
+        public String getHost() {
+            return host;
+        }
+
+        @Override
+        public int getPort() {
+            return 8080;
+        }
+
+        @Override
+        public String getLabel(String key) {
+            if (Constants.LABEL_ZONE.equals(key)) {
+                return zone;
+            } else if (Constants.LABEL_REGION.equals(key)) {
+                return region;
+            }
+            return null;
+        }
+
+        @Override
+        public EndpointState getState() {
+            return EndpointState.HEALTHY;
+        }
+    }
+}
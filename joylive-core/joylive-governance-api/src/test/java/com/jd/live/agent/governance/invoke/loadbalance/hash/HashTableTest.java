@@ -0,0 +1,164 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.loadbalance.hash;
+
+import com.jd.live.agent.governance.instance.AbstractEndpoint;
+import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.instance.EndpointState;
+import com.jd.live.agent.governance.invoke.loadbalance.hash.AbstractHashLoadBalancer.HashState;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HashTableTest
+ *
+ * @since 1.6.0
+ */
+public class HashTableTest {
+
+    private static final int KEYS = 20000;
+
+    private final AbstractHashLoadBalancer[] balancers = new AbstractHashLoadBalancer[]{
+            new ConsistentHashLoadBalancer(), new MaglevLoadBalancer(), new RendezvousLoadBalancer()};
+
+    @Test
+    void testWeight() {
+        String[] ids = {"10.0.0.1:80", "10.0.0.2:80", "10.0.0.3:80", "10.0.0.4:80"};
+        int[] weights = {100, 100, 200, 0};
+        for (AbstractHashLoadBalancer balancer : balancers) {
+            HashTable table = balancer.build(ids, weights);
+            int[] counts = new int[ids.length];
+            for (int i = 0; i < KEYS; i++) {
+                long hash = HashTable.hash("user-" + i);
+                int index = table.select(hash, null);
+                Assertions.assertEquals(index, table.select(hash, null));
+                counts[index]++;
+            }
+            String name = balancer.getClass().getSimpleName();
+            Assertions.assertEquals(0, counts[3], name);
+            Assertions.assertEquals(0.5, (double) counts[2] / KEYS, 0.08, name);
+            Assertions.assertEquals(0.25, (double) counts[0] / KEYS, 0.06, name);
+        }
+    }
+
+    @Test
+    void testConsistency() {
+        String[] ids = new String[10];
+        int[] weights = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = "10.0.0." + i + ":80";
+            weights[i] = 100;
+        }
+        String[] ids2 = new String[ids.length - 1];
+        int[] weights2 = new int[ids2.length];
+        // remove the endpoint 5
+        for (int i = 0, j = 0; i < ids.length; i++) {
+            if (i != 5) {
+                ids2[j] = ids[i];
+                weights2[j++] = weights[i];
+            }
+        }
+        for (AbstractHashLoadBalancer balancer : balancers) {
+            HashTable table = balancer.build(ids, weights);
+            HashTable table2 = balancer.build(ids2, weights2);
+            int kept = 0;
+            int total = 0;
+            for (int i = 0; i < KEYS; i++) {
+                long hash = HashTable.hash("user-" + i);
+                int index = table.select(hash, null);
+                if (index != 5) {
+                    total++;
+                    if (ids[index].equals(ids2[table2.select(hash, null)])) {
+                        kept++;
+                    }
+                }
+            }
+            Assertions.assertTrue(kept >= total * 0.9, balancer.getClass().getSimpleName() + " kept " + kept + "/" + total);
+        }
+    }
+
+    @Test
+    void testBounded() {
+        String[] ids = {"10.0.0.1:80", "10.0.0.2:80", "10.0.0.3:80"};
+        int[] weights = {100, 100, 100};
+        for (AbstractHashLoadBalancer balancer : balancers) {
+            HashTable table = balancer.build(ids, weights);
+            long hash = HashTable.hash("user");
+            int first = table.select(hash, null);
+            int second = table.select(hash, i -> i != first);
+            Assertions.assertNotEquals(first, second);
+            Assertions.assertEquals(first, table.select(hash, i -> false));
+        }
+    }
+
+    @Test
+    void testSubsets() {
+        List<Endpoint> all = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            all.add(new TestEndpoint("10.0.0." + i));
+        }
+        // the endpoints are filtered by the route filters, such as the unit and cell filters.
+        List<Endpoint> first = all.subList(0, 3);
+        List<Endpoint> second = all.subList(3, 6);
+        AtomicInteger builds = new AtomicInteger();
+        MaglevLoadBalancer balancer = new MaglevLoadBalancer();
+        HashState state = new HashState();
+        for (int i = 0; i < 100; i++) {
+            HashTable table = state.getTable(i % 2 == 0 ? first : second, null, (ids, weights) -> {
+                builds.incrementAndGet();
+                return balancer.build(ids, weights);
+            });
+            Assertions.assertEquals(Arrays.asList(table.ids), i % 2 == 0
+                    ? Arrays.asList("10.0.0.0:80", "10.0.0.1:80", "10.0.0.2:80")
+                    : Arrays.asList("10.0.0.3:80", "10.0.0.4:80", "10.0.0.5:80"));
+        }
+        Assertions.assertEquals(2, builds.get());
+    }
+
+    private static class TestEndpoint extends AbstractEndpoint {
+
+        private final String host;
+
+        TestEndpoint(String host) {
+            this.host = host;
+        }
+
+        @Override
+        public String getHost() {
+            return host;
+        }
+
+        @Override
+        public int getPort() {
+            return 80;
+        }
+
+        @Override
+        public String getLabel(String key) {
+            return null;
+        }
+
+        @Override
+        public EndpointState getState() {
+            return EndpointState.HEALTHY;
+        }
+    }
+}
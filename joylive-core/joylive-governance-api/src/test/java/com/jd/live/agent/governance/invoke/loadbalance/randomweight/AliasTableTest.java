@@ -0,0 +1,77 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.loadbalance.randomweight;
+
+import com.jd.live.agent.governance.invoke.loadbalance.Candidate;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * AliasTableTest
+ *
+ * @since 1.6.0
+ */
+public class AliasTableTest {
+
+    private static final int ROUNDS = 200000;
+
+    private static final List<Integer> WEIGHTS = Arrays.asList(0, 10, 30, 60);
+
+    @Test
+    void testAliasTable() {
+        AliasTable<Integer> table = AliasTable.of(WEIGHTS, Function.identity());
+        Assertions.assertTrue(table.isBuiltFrom(WEIGHTS));
+        assertDistribution(table::elect);
+    }
+
+    @Test
+    void testRandomWeight() {
+        assertDistribution(() -> RandomWeight.elect(WEIGHTS, Function.identity()));
+    }
+
+    @Test
+    void testUniform() {
+        List<Integer> weights = Arrays.asList(0, 0, 0);
+        AliasTable<Integer> table = AliasTable.of(weights, Function.identity());
+        int[] counts = new int[weights.size()];
+        for (int i = 0; i < 3000; i++) {
+            counts[table.elect().getIndex()]++;
+        }
+        for (int count : counts) {
+            Assertions.assertTrue(count > 0);
+        }
+        Assertions.assertNull(AliasTable.of(null, Function.<Integer>identity()).choose());
+    }
+
+    private void assertDistribution(Supplier<Candidate<Integer>> supplier) {
+        int[] counts = new int[WEIGHTS.size()];
+        for (int i = 0; i < ROUNDS; i++) {
+            Candidate<Integer> candidate = supplier.get();
+            Assertions.assertEquals(WEIGHTS.get(candidate.getIndex()), candidate.getTarget());
+            counts[candidate.getIndex()]++;
+        }
+        Assertions.assertEquals(0, counts[0]);
+        for (int i = 1; i < counts.length; i++) {
+            double expected = ROUNDS * WEIGHTS.get(i) / 100.0;
+            Assertions.assertEquals(expected, counts[i], expected * 0.05);
+        }
+    }
+}
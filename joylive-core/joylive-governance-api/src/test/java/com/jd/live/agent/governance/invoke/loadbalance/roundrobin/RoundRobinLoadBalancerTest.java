@@ -0,0 +1,240 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.loadbalance.roundrobin;
+
+import com.jd.live.agent.core.Constants;
+import com.jd.live.agent.governance.instance.AbstractEndpoint;
+import com.jd.live.agent.governance.instance.EndpointState;
+import com.jd.live.agent.governance.invoke.Invocation;
+import com.jd.live.agent.governance.invoke.metadata.ServiceMetadata;
+import com.jd.live.agent.governance.invoke.metadata.parser.MetadataParser.LiveParser;
+import com.jd.live.agent.governance.invoke.metadata.parser.MetadataParser.ServiceParser;
+import com.jd.live.agent.governance.request.ServiceRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * RoundRobinLoadBalancerTest
+ *
+ * @since 1.6.0
+ */
+public class RoundRobinLoadBalancerTest {
+
+    @Test
+    void testSmooth() {
+        RoundRobinLoadBalancer balancer = new RoundRobinLoadBalancer();
+        Invocation<ServiceRequest> invocation = invocation("smooth");
+        List<TestEndpoint> endpoints = Arrays.asList(new TestEndpoint("a", 5), new TestEndpoint("b", 1), new TestEndpoint("c", 1));
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 14; i++) {
+            builder.append(balancer.elect(endpoints, invocation).getTarget().getHost());
+        }
+        // the same sequence as nginx, the stripes start at different positions.
+        String sequence = builder.substring(0, 7);
+        Assertions.assertEquals(sequence, builder.substring(7));
+        Assertions.assertTrue("aabacaaaabacaa".contains(sequence));
+    }
+
+    @Test
+    void testRecreated() {
+        RoundRobinLoadBalancer balancer = new RoundRobinLoadBalancer();
+        Invocation<ServiceRequest> invocation = invocation("recreated");
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 14; i++) {
+            // the endpoints are recreated by the framework for each request.
+            List<TestEndpoint> endpoints = Arrays.asList(new TestEndpoint("a", 5), new TestEndpoint("b", 1), new TestEndpoint("c", 1));
+            builder.append(balancer.elect(endpoints, invocation).getTarget().getHost());
+        }
+        String sequence = builder.substring(0, 7);
+        Assertions.assertEquals(sequence, builder.substring(7));
+        Assertions.assertTrue("aabacaaaabacaa".contains(sequence));
+    }
+
+    @Test
+    void testUniform() {
+        RoundRobinLoadBalancer balancer = new RoundRobinLoadBalancer();
+        Invocation<ServiceRequest> invocation = invocation("uniform");
+        List<TestEndpoint> endpoints = Arrays.asList(new TestEndpoint("a", 100), new TestEndpoint("b", 100), new TestEndpoint("c", 100));
+        int first = balancer.elect(endpoints, invocation).getIndex();
+        for (int i = 1; i < 9; i++) {
+            Assertions.assertEquals((first + i) % 3, balancer.elect(endpoints, invocation).getIndex());
+        }
+    }
+
+    @Test
+    void testWarmup() {
+        RoundRobinLoadBalancer balancer = new RoundRobinLoadBalancer();
+        Invocation<ServiceRequest> invocation = invocation("warmup");
+        long now = System.currentTimeMillis();
+        // the second endpoint has run a quarter of its warmup, so it has a quarter of its weight.
+        List<TestEndpoint> endpoints = Arrays.asList(
+                new TestEndpoint("a", 100),
+                new TestEndpoint("b", 100, now - 1000000L / 4, 1000000));
+        int[] counts = new int[2];
+        for (int i = 0; i < 1250; i++) {
+            counts[balancer.elect(endpoints, invocation).getIndex()]++;
+        }
+        Assertions.assertEquals(1000, counts[0], 10);
+        Assertions.assertEquals(250, counts[1], 10);
+    }
+
+    @Test
+    void testConcurrent() throws InterruptedException {
+        RoundRobinLoadBalancer balancer = new RoundRobinLoadBalancer();
+        Invocation<ServiceRequest> invocation = invocation("concurrent");
+        List<TestEndpoint> endpoints = new ArrayList<>();
+        int totalWeight = 0;
+        for (int i = 0; i < 10; i++) {
+            endpoints.add(new TestEndpoint("host" + i, i + 1));
+            totalWeight += i + 1;
+        }
+        int threads = 32;
+        int rounds = totalWeight * 100;
+        AtomicIntegerArray counts = new AtomicIntegerArray(endpoints.size());
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < rounds; i++) {
+                    counts.incrementAndGet(balancer.elect(endpoints, invocation).getIndex());
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        for (int i = 0; i < endpoints.size(); i++) {
+            double expected = (double) threads * rounds * (i + 1) / totalWeight;
+            Assertions.assertEquals(expected, counts.get(i), expected * 0.01);
+        }
+    }
+
+    @Test
+    void testSubsets() {
+        RoundRobinLoadBalancer balancer = new RoundRobinLoadBalancer();
+        Invocation<ServiceRequest> invocation = invocation("subsets");
+        // the subsets of the same service are filtered by the route filters, they should not reset each other.
+        List<TestEndpoint> subset1 = Arrays.asList(new TestEndpoint("a", 5), new TestEndpoint("b", 1), new TestEndpoint("c", 1));
+        List<TestEndpoint> subset2 = Arrays.asList(new TestEndpoint("d", 1), new TestEndpoint("e", 3));
+        int[] counts1 = new int[3];
+        int[] counts2 = new int[2];
+        for (int i = 0; i < 28; i++) {
+            counts1[balancer.elect(subset1, invocation).getIndex()]++;
+            counts2[balancer.elect(new ArrayList<>(subset2), invocation).getIndex()]++;
+        }
+        Assertions.assertArrayEquals(new int[]{20, 4, 4}, counts1);
+        Assertions.assertArrayEquals(new int[]{7, 21}, counts2);
+    }
+
+    @Test
+    void testThroughput() {
+        List<TestEndpoint> endpoints = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            endpoints.add(new TestEndpoint("host" + i, (i + 1) * 10));
+        }
+        long cached = run(endpoints, false);
+        long recreated = run(endpoints, true);
+        System.out.println("cached: " + cached + " elections/ms, recreated: " + recreated + " elections/ms");
+        Assertions.assertTrue(cached > 0 && recreated > 0);
+    }
+
+    private static long run(List<TestEndpoint> endpoints, boolean recreated) {
+        RoundRobinLoadBalancer balancer = new RoundRobinLoadBalancer();
+        Invocation<ServiceRequest> invocation = invocation("throughput");
+        long count = 0;
+        long start = System.currentTimeMillis();
+        long deadline = start + 200L;
+        while ((count & 1023) != 0 || System.currentTimeMillis() < deadline) {
+            balancer.elect(recreated ? new ArrayList<>(endpoints) : endpoints, invocation);
+            count++;
+        }
+        return count / Math.max(1L, System.currentTimeMillis() - start);
+    }
+
+    static Invocation<ServiceRequest> invocation(String service) {
+        return new Invocation<ServiceRequest>() {
+            {
+                serviceMetadata = ServiceMetadata.builder().serviceName(service).build();
+            }
+
+            @Override
+            protected LiveParser createLiveParser() {
+                return null;
+            }
+
+            @Override
+            protected ServiceParser createServiceParser() {
+                return null;
+            }
+        };
+    }
+
+    static class TestEndpoint extends AbstractEndpoint {
+
+        private final String host;
+
+        private final int weight;
+
+        private final Long timestamp;
+
+        private final Integer warmup;
+
+        TestEndpoint(String host, int weight) {
+            this(host, weight, null, null);
+        }
+
+        TestEndpoint(String host, int weight, Long timestamp, Integer warmup) {
+            this.host = host;
+            this.weight = weight;
+            this.timestamp = timestamp;
+            this.warmup = warmup;
+        }
+
+        @Override
+        public String getHost() {
+            return host;
+        }
+
+        @Override
+        public int getPort() {
+            return 8080;
+        }
+
+        @Override
+        public Long getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public Integer getWarmup() {
+            return warmup;
+        }
+
+        @Override
+        public String getLabel(String key) {
+            return Constants.LABEL_WEIGHT.equals(key) ? String.valueOf(weight) : null;
+        }
+
+        @Override
+        public EndpointState getState() {
+            return EndpointState.HEALTHY;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.outlier;
+
+import com.jd.live.agent.core.util.URI;
+import com.jd.live.agent.governance.invoke.counter.Counter;
+import com.jd.live.agent.governance.invoke.counter.EndpointCounter;
+import com.jd.live.agent.governance.invoke.outlier.OutlierDetector.OutlierState;
+import com.jd.live.agent.governance.invoke.outlier.OutlierEvent.OutlierEventType;
+import com.jd.live.agent.governance.invoke.outlier.OutlierEvent.OutlierReason;
+import com.jd.live.agent.governance.policy.service.outlier.OutlierPolicy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OutlierDetectorTest
+ *
+ * @since 1.6.0
+ */
+public class OutlierDetectorTest {
+
+    private static final URI URI = new URI("http", "order", null, "/order", null);
+
+    @Test
+    void testConsecutiveErrors() {
+        OutlierPolicy policy = new OutlierPolicy();
+        policy.setMaxEjectionPercent(50);
+        OutlierState state = new OutlierState("order", null, policy, 0);
+        List<EndpointCounter> endpoints = build(4);
+        for (int i = 0; i < 5; i++) {
+            endpoints.get(1).getOrCreate(URI).fail(10);
+            endpoints.get(2).getOrCreate(URI).fail(10);
+        }
+        long now = 1000L;
+        List<OutlierEvent> events = state.scan(endpoints, now);
+        Assertions.assertEquals(2, events.size());
+        Assertions.assertEquals(OutlierReason.CONSECUTIVE_ERRORS, events.get(0).getReason());
+        Assertions.assertTrue(state.getEjection().isEjected("10.0.0.1"));
+        Assertions.assertTrue(state.getEjection().isEjected("10.0.0.2"));
+        Assertions.assertFalse(state.getEjection().isEjected("10.0.0.0"));
+        Assertions.assertEquals(0, endpoints.get(1).getConsecutiveFailed());
+
+        // restored after the base ejection time
+        events = state.scan(endpoints, now + OutlierPolicy.DEFAULT_BASE_EJECTION_TIME);
+        Assertions.assertEquals(2, events.size());
+        Assertions.assertEquals(OutlierEventType.RESTORE, events.get(0).getType());
+        Assertions.assertTrue(state.getEjection().isEmpty());
+
+        // ejected again with a doubled ejection time
+        for (int i = 0; i < 5; i++) {
+            endpoints.get(1).getOrCreate(URI).fail(10);
+        }
+        events = state.scan(endpoints, now + OutlierPolicy.DEFAULT_BASE_EJECTION_TIME + 1);
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertEquals(2 * OutlierPolicy.DEFAULT_BASE_EJECTION_TIME, events.get(0).getDuration());
+    }
+
+    @Test
+    void testMaxEjectionPercent() {
+        OutlierPolicy policy = new OutlierPolicy();
+        policy.setMaxEjectionPercent(25);
+        OutlierState state = new OutlierState("order", null, policy, 0);
+        List<EndpointCounter> endpoints = build(8);
+        for (EndpointCounter endpoint : endpoints) {
+            Counter counter = endpoint.getOrCreate(URI);
+            for (int i = 0; i < 5; i++) {
+                counter.fail(10);
+            }
+        }
+        state.scan(endpoints, 1000L);
+        Assertions.assertEquals(2, state.getEjection().getSize());
+    }
+
+    @Test
+    void testLatency() {
+        OutlierPolicy policy = new OutlierPolicy();
+        policy.setLatencyFactor(3.0);
+        policy.setMaxEjectionPercent(50);
+        OutlierState state = new OutlierState("order", null, policy, 0);
+        List<EndpointCounter> endpoints = build(5);
+        for (int i = 0; i < endpoints.size(); i++) {
+            Counter counter = endpoints.get(i).getOrCreate(URI);
+            for (int j = 0; j < 20; j++) {
+                counter.success(i == 3 ? 100 : 10);
+            }
+        }
+        List<OutlierEvent> events = state.scan(endpoints, 1000L);
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertEquals(OutlierReason.LATENCY, events.get(0).getReason());
+        Assertions.assertTrue(state.getEjection().isEjected("10.0.0.3"));
+    }
+
+    private List<EndpointCounter> build(int size) {
+        List<EndpointCounter> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new EndpointCounter("10.0.0." + i, null));
+        }
+        return result;
+    }
+}
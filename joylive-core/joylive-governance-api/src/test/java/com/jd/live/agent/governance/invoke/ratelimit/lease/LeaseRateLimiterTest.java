@@ -0,0 +1,155 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.ratelimit.lease;
+
+import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
+import com.jd.live.agent.governance.policy.service.limit.SlidingWindow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LeaseRateLimiterTest
+ *
+ * @since 1.6.0
+ */
+public class LeaseRateLimiterTest {
+
+    private static final int LIMIT = 1000;
+
+    @Test
+    void testSharedLimit() {
+        MemoryLeaseStore store = new MemoryLeaseStore();
+        RateLimitPolicy policy = createPolicy(null);
+        SlidingWindow window = new SlidingWindow(LIMIT, 60000L);
+        LeaseRateLimiter[] nodes = new LeaseRateLimiter[3];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new LeaseRateLimiter(store, policy, window);
+        }
+        int acquired = 0;
+        for (int i = 0; i < LIMIT * 2; i++) {
+            if (nodes[i % nodes.length].acquire()) {
+                acquired++;
+            }
+        }
+        // the permits left at the window boundary are bounded by a lease per node
+        Assertions.assertTrue(acquired >= LIMIT - nodes.length * LIMIT / 10, "acquired=" + acquired);
+        Assertions.assertTrue(acquired <= LIMIT + nodes.length * LIMIT / 10, "acquired=" + acquired);
+        // the store is not accessed on every request
+        Assertions.assertTrue(store.getLeases() < LIMIT / 10, "leases=" + store.getLeases());
+    }
+
+    @Test
+    void testFallback() {
+        MemoryLeaseStore store = new MemoryLeaseStore();
+        store.setAvailable(false);
+        LeaseRateLimiter limiter = new LeaseRateLimiter(store, createPolicy(0.2), new SlidingWindow(LIMIT, 60000L));
+        int acquired = 0;
+        for (int i = 0; i < LIMIT; i++) {
+            if (limiter.acquire()) {
+                acquired++;
+            }
+        }
+        Assertions.assertTrue(limiter.isDegraded());
+        Assertions.assertTrue(acquired <= LIMIT / 5, "acquired=" + acquired);
+        Assertions.assertTrue(acquired > 0, "acquired=" + acquired);
+    }
+
+    @Test
+    void testFirstAcquire() {
+        MemoryLeaseStore store = new MemoryLeaseStore();
+        LeaseRateLimiter limiter = new LeaseRateLimiter(store, createPolicy(null), new SlidingWindow(LIMIT, 60000L));
+        Assertions.assertTrue(limiter.acquire());
+        Assertions.assertEquals(1, store.getLeases());
+    }
+
+    @Test
+    void testWindowSwitch() throws InterruptedException {
+        MemoryLeaseStore memory = new MemoryLeaseStore();
+        try (DelayLeaseStore store = new DelayLeaseStore(memory, 5)) {
+            // 200 permits per 200ms, and the node consumes about 40 permits per window.
+            LeaseRateLimiter limiter = new LeaseRateLimiter(store, createPolicy(null), new SlidingWindow(200, 200L));
+            int acquired = 0;
+            int failed = 0;
+            long endTime = System.currentTimeMillis() + 1000;
+            while (System.currentTimeMillis() < endTime) {
+                if (limiter.acquire()) {
+                    acquired++;
+                } else {
+                    failed++;
+                }
+                Thread.sleep(5);
+            }
+            Assertions.assertEquals(0, failed, "acquired=" + acquired);
+            // the leases are neither duplicated nor requested on every acquire.
+            Assertions.assertTrue(memory.getLeases() < acquired / 2, "leases=" + memory.getLeases());
+        }
+    }
+
+    private RateLimitPolicy createPolicy(Double fallbackRatio) {
+        RateLimitPolicy policy = new RateLimitPolicy();
+        policy.setId(1L);
+        policy.setName("order");
+        Map<String, String> parameters = new HashMap<>();
+        if (fallbackRatio != null) {
+            parameters.put(LeaseRateLimiter.KEY_FALLBACK_RATIO, String.valueOf(fallbackRatio));
+        }
+        policy.setParameters(parameters);
+        return policy;
+    }
+
+    /**
+     * A lease store, which completes the leases of the delegate asynchronously after a delay.
+     */
+    private static class DelayLeaseStore implements LeaseStore {
+
+        private final LeaseStore delegate;
+
+        private final long delay;
+
+        private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+        DelayLeaseStore(LeaseStore delegate, long delay) {
+            this.delegate = delegate;
+            this.delay = delay;
+        }
+
+        @Override
+        public CompletionStage<Long> lease(String key, long permits, long limit, long expire) {
+            CompletableFuture<Long> result = new CompletableFuture<>();
+            executor.schedule(() -> delegate.lease(key, permits, limit, expire).whenComplete((granted, e) -> {
+                if (e != null) {
+                    result.completeExceptionally(e);
+                } else {
+                    result.complete(granted);
+                }
+            }), delay, TimeUnit.MILLISECONDS);
+            return result;
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.policy;
+
+import com.jd.live.agent.governance.policy.service.MergePolicy;
+import com.jd.live.agent.governance.policy.service.Service;
+import com.jd.live.agent.governance.policy.service.ServiceGroup;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * GovernancePolicyTest
+ *
+ * @since 1.6.0
+ */
+public class GovernancePolicyTest {
+
+    private static final String OWNER = "service-file-syncer";
+
+    @Test
+    void testUpdateInRow() {
+        GovernancePolicy policy = new GovernancePolicy();
+        List<Service> updates1 = parse("a:1:g1");
+        List<Service> result1 = policy.onUpdate(updates1, null, MergePolicy.ALL, OWNER);
+        policy.setServices(result1);
+        Service a = result1.get(0);
+
+        GovernancePolicy next = policy.copy();
+        List<Service> updates2 = parse("a:1:g1", "b:1:g1,g2");
+        List<Service> result2 = next.onUpdate(updates2, null, MergePolicy.ALL, OWNER);
+        next.setServices(result2);
+
+        // the first result is unchanged
+        Assertions.assertEquals(1, result1.size());
+        Assertions.assertSame(a, result1.get(0));
+        Assertions.assertEquals(1, a.getVersion());
+        Assertions.assertEquals(1, a.getGroups().size());
+        Assertions.assertEquals("g1", a.getGroups().get(0).getName());
+        // the second update does not share the entries of the first one
+        Assertions.assertEquals(2, result2.size());
+        Assertions.assertSame(a, result2.get(0));
+        Assertions.assertNotSame(a, updates2.get(0));
+        Assertions.assertSame(updates2.get(1), result2.get(1));
+        Assertions.assertEquals(2, result2.get(1).getGroups().size());
+        for (Service service : updates1) {
+            Assertions.assertNotSame(service, updates2.get(1));
+        }
+    }
+
+    /**
+     * Simulates the parsing of a policy file, every entry of which is a new instance.
+     *
+     * @param entries the entries in the format of name:version:group1,group2
+     * @return the services
+     */
+    private static List<Service> parse(String... entries) {
+        List<Service> result = new ArrayList<>(entries.length);
+        for (String entry : entries) {
+            String[] parts = entry.split(":");
+            Service service = new Service(parts[0]);
+            service.setVersion(Long.parseLong(parts[1]));
+            List<ServiceGroup> groups = new ArrayList<>();
+            for (String group : Arrays.asList(parts[2].split(","))) {
+                groups.add(new ServiceGroup(group));
+            }
+            service.setGroups(groups);
+            result.add(service);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.policy.service;
+
+import com.jd.live.agent.core.util.URI;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static com.jd.live.agent.governance.policy.PolicyId.KEY_SERVICE_GROUP;
+import static com.jd.live.agent.governance.policy.PolicyId.KEY_SERVICE_METHOD;
+
+/**
+ * ServiceTest
+ *
+ * @since 1.6.0
+ */
+public class ServiceTest {
+
+    @Test
+    void testUri() {
+        Service service = new Service("test");
+        URI uri = service.getUri("g1", "/echo", "get");
+        Assertions.assertSame(uri, service.getUri("g1", "/echo", "get"));
+        Assertions.assertEquals("test", uri.getHost());
+        Assertions.assertEquals("/echo", uri.getPath());
+        Assertions.assertEquals("g1", uri.getParameter(KEY_SERVICE_GROUP));
+        Assertions.assertEquals("get", uri.getParameter(KEY_SERVICE_METHOD));
+        Assertions.assertNotSame(uri, service.getUri("g1", "/echo", "post"));
+        Assertions.assertNull(service.getUri(null, "/echo", "get").getParameter(KEY_SERVICE_GROUP));
+        // the cache belongs to the service, and is released with the policy.
+        Assertions.assertNotSame(uri, new Service("test").getUri("g1", "/echo", "get"));
+    }
+
+    @Test
+    void testAllocation() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        Service service = new Service("test");
+        String[] paths = {"/a", "/b", "/c", "/d"};
+        int rounds = 100000;
+        for (int i = 0; i < rounds; i++) {
+            service.getUri(null, paths[i & 3], "get");
+        }
+        long threadId = Thread.currentThread().getId();
+        long start = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < rounds; i++) {
+            service.getUri(null, paths[i & 3], "get");
+        }
+        double bytes = (double) (threadBean.getThreadAllocatedBytes(threadId) - start) / rounds;
+        System.out.println("uri lookup: " + bytes + " bytes/op");
+        Assertions.assertTrue(bytes < 1);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.policy.snapshot;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * PolicySnapshotTest
+ *
+ * @since 1.6.0
+ */
+public class PolicySnapshotTest {
+
+    @TempDir
+    File dir;
+
+    @Test
+    void testReadWrite() throws IOException {
+        for (boolean compress : new boolean[]{true, false}) {
+            File file = new File(dir, "app-" + compress + ".policy");
+            PolicySnapshot snapshot = create();
+            long size = snapshot.write(file, compress);
+            Assertions.assertEquals(file.length(), size);
+            PolicySnapshot result = PolicySnapshot.read(file);
+            Assertions.assertNotNull(result);
+            Assertions.assertEquals(snapshot.getTimestamp(), result.getTimestamp());
+            Assertions.assertEquals(snapshot.getVersions(), result.getVersions());
+            Assertions.assertArrayEquals(snapshot.getSection("services"), result.getSection("services"));
+            Assertions.assertEquals(0, result.getSection("liveSpaces").length);
+            Assertions.assertNull(result.getSection("laneSpaces"));
+        }
+        Assertions.assertNull(PolicySnapshot.read(new File(dir, "none.policy")));
+    }
+
+    @Test
+    void testCorrupted() throws IOException {
+        File file = new File(dir, "app.policy");
+        create().write(file, true);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(20);
+            int b = raf.read();
+            raf.seek(20);
+            raf.write(b ^ 0xFF);
+        }
+        Assertions.assertThrows(IOException.class, () -> PolicySnapshot.read(file));
+    }
+
+    private PolicySnapshot create() {
+        Map<String, Long> versions = new LinkedHashMap<>();
+        versions.put("service:order", 3L);
+        versions.put("live:1001", 7L);
+        Map<String, byte[]> sections = new LinkedHashMap<>();
+        sections.put("liveSpaces", new byte[0]);
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 100; i++) {
+            builder.append(i > 0 ? "," : "").append("{\"name\":\"service-").append(i).append("\",\"version\":").append(i).append('}');
+        }
+        sections.put("services", builder.append(']').toString().getBytes(StandardCharsets.UTF_8));
+        return new PolicySnapshot(System.currentTimeMillis(), versions, sections);
+    }
+}
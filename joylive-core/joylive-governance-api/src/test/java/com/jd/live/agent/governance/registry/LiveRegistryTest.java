@@ -0,0 +1,153 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.registry;
+
+import com.jd.live.agent.core.Constants;
+import com.jd.live.agent.governance.instance.AbstractEndpoint;
+import com.jd.live.agent.governance.instance.EndpointState;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LiveRegistryTest
+ *
+ * @since 1.6.0
+ */
+public class LiveRegistryTest {
+
+    @Test
+    void testUpdate() {
+        LiveRegistry registry = new LiveRegistry();
+        List<EndpointEvent> events = new ArrayList<>();
+        registry.subscribe("order", events::add);
+
+        registry.update("order", Arrays.asList(new TestEndpoint("10.0.0.1", 100), new TestEndpoint("10.0.0.2", 100)));
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertEquals(1, events.get(0).getVersion());
+        Assertions.assertEquals(2, events.get(0).getAdds().size());
+
+        // unchanged full list in another order
+        registry.update("order", Arrays.asList(new TestEndpoint("10.0.0.2", 100), new TestEndpoint("10.0.0.1", 100)));
+        Assertions.assertEquals(1, events.size());
+
+        // weight is changed
+        registry.update("order", Arrays.asList(new TestEndpoint("10.0.0.1", 100), new TestEndpoint("10.0.0.2", 50)));
+        Assertions.assertEquals(2, events.size());
+        EndpointEvent event = events.get(1);
+        Assertions.assertEquals(2, event.getVersion());
+        Assertions.assertTrue(event.getAdds().isEmpty());
+        Assertions.assertTrue(event.getRemoves().isEmpty());
+        Assertions.assertEquals(50, event.getEndpoints().get(1).getWeight(null));
+
+        // delta
+        registry.update("order", Collections.singletonList(new TestEndpoint("10.0.0.3", 100)), Collections.singletonList("10.0.0.1:8080"));
+        Assertions.assertEquals(3, events.size());
+        event = events.get(2);
+        Assertions.assertEquals(3, event.getVersion());
+        Assertions.assertEquals(1, event.getAdds().size());
+        Assertions.assertEquals(1, event.getRemoves().size());
+        Assertions.assertEquals(2, event.getEndpoints().size());
+
+        // unchanged delta
+        registry.update("order", Collections.singletonList(new TestEndpoint("10.0.0.3", 100)), Collections.singletonList("10.0.0.9:8080"));
+        Assertions.assertEquals(3, events.size());
+
+        // full list after delta
+        registry.update("order", Arrays.asList(new TestEndpoint("10.0.0.3", 100), new TestEndpoint("10.0.0.2", 50)));
+        Assertions.assertEquals(3, events.size());
+        registry.update("order", Collections.emptyList());
+        Assertions.assertEquals(4, events.size());
+        Assertions.assertEquals(2, events.get(3).getRemoves().size());
+    }
+
+    @Test
+    void testFingerprintCollision() {
+        LiveRegistry registry = new LiveRegistry();
+        List<EndpointEvent> events = new ArrayList<>();
+        registry.subscribe("order", events::add);
+
+        registry.update("order", Collections.singletonList(new TestEndpoint("10.0.0.1", 100, "zone", "a", 1L)));
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertNotEquals(new TestEndpoint("10.0.0.1", 100, "zone", "a", null).getFingerprint(),
+                new TestEndpoint("10.0.0.1", 100, "zone", "b", null).getFingerprint());
+
+        // the same fingerprint with different labels is still a change
+        registry.update("order", Collections.singletonList(new TestEndpoint("10.0.0.1", 100, "zone", "b", 1L)));
+        Assertions.assertEquals(2, events.size());
+        registry.update("order", Collections.singletonList(new TestEndpoint("10.0.0.1", 100, "zone", "c", 1L)), null);
+        Assertions.assertEquals(3, events.size());
+        registry.update("order", Collections.singletonList(new TestEndpoint("10.0.0.1", 100, "zone", "c", 1L)));
+        Assertions.assertEquals(3, events.size());
+    }
+
+    private static class TestEndpoint extends AbstractEndpoint {
+
+        private final String host;
+
+        private final int weight;
+
+        private final Map<String, String> labels;
+
+        private final Long fingerprint;
+
+        TestEndpoint(String host, int weight) {
+            this(host, weight, "zone", "a", null);
+        }
+
+        TestEndpoint(String host, int weight, String key, String value, Long fingerprint) {
+            this.host = host;
+            this.weight = weight;
+            this.labels = Collections.singletonMap(key, value);
+            this.fingerprint = fingerprint;
+        }
+
+        @Override
+        public Map<String, String> getLabels() {
+            return labels;
+        }
+
+        @Override
+        public long getFingerprint() {
+            return fingerprint != null ? fingerprint : super.getFingerprint();
+        }
+
+        @Override
+        public String getHost() {
+            return host;
+        }
+
+        @Override
+        public int getPort() {
+            return 8080;
+        }
+
+        @Override
+        public String getLabel(String key) {
+            return Constants.LABEL_WEIGHT.equals(key) ? String.valueOf(weight) : null;
+        }
+
+        @Override
+        public EndpointState getState() {
+            return EndpointState.HEALTHY;
+        }
+    }
+}
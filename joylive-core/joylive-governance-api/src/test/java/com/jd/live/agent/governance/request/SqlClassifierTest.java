@@ -0,0 +1,104 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.request;
+
+import com.jd.live.agent.governance.request.SqlClassifier.Dialect;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SqlClassifierTest
+ *
+ * @since 1.6.0
+ */
+public class SqlClassifierTest {
+
+    @Test
+    void testClassify() {
+        Assertions.assertFalse(SqlClassifier.classify("select * from t_user where name = 'update'"));
+        Assertions.assertFalse(SqlClassifier.classify("  /* insert */ -- delete\n (SELECT 1) union (select 2)"));
+        Assertions.assertFalse(SqlClassifier.classify("SELECT `update` FROM t; -- drop\n"));
+        Assertions.assertTrue(SqlClassifier.classify("\n\t/* hint */ INSERT INTO t_user VALUES (1, 'a')"));
+        Assertions.assertTrue(SqlClassifier.classify("update t_user set name = 'select' where id = 1"));
+        Assertions.assertTrue(SqlClassifier.classify("select 1; delete from t_user"));
+        Assertions.assertFalse(SqlClassifier.classify("select ';delete'; select 2"));
+        Assertions.assertTrue(SqlClassifier.classify("replace into t_user values (1)"));
+        Assertions.assertTrue(SqlClassifier.classify("CREATE FUNCTION f() RETURNS int AS $$ select 1; $$ LANGUAGE sql"));
+        Assertions.assertFalse(SqlClassifier.classify("select $$;delete$$"));
+        Assertions.assertFalse(SqlClassifier.classify(""));
+    }
+
+    @Test
+    void testCte() {
+        Assertions.assertFalse(SqlClassifier.classify("WITH RECURSIVE a(id) AS (select 1), \"b\" AS NOT MATERIALIZED (select (2)) SELECT * FROM a, b"));
+        Assertions.assertTrue(SqlClassifier.classify("with a as (select id from t) delete from t where id in (select id from a)"));
+        Assertions.assertTrue(SqlClassifier.classify("with a as (delete from t returning *) select * from a"));
+    }
+
+    @Test
+    void testFallback() {
+        Assertions.assertTrue(SqlClassifier.classify("do $$ begin delete from t; end $$"));
+        Assertions.assertFalse(SqlClassifier.classify("call get_user(?)"));
+        Assertions.assertTrue(SqlClassifier.classify("explain analyze delete from t"));
+    }
+
+    @Test
+    void testDialect() {
+        Assertions.assertTrue(SqlClassifier.classify("SELECT a # b; DELETE FROM t", Dialect.POSTGRESQL));
+        Assertions.assertFalse(SqlClassifier.classify("SELECT a # b; DELETE FROM t", Dialect.MYSQL));
+        Assertions.assertTrue(SqlClassifier.classify("SELECT a # b; DELETE FROM t"));
+        Assertions.assertTrue(SqlClassifier.classify("SELECT 1--1; DELETE FROM t", Dialect.MYSQL));
+
+        String sql = "SELECT 'x\\'; DELETE FROM t; SELECT ''";
+        Assertions.assertTrue(SqlClassifier.classify(sql, Dialect.POSTGRESQL));
+        Assertions.assertTrue(SqlClassifier.classify(sql, Dialect.MYSQL));
+        Assertions.assertTrue(SqlClassifier.classify(sql));
+        Assertions.assertFalse(SqlClassifier.classify("SELECT E'x\\'; DELETE FROM t; SELECT 1'", Dialect.POSTGRESQL));
+        Assertions.assertFalse(SqlClassifier.classify("SELECT 'x\\'; DELETE FROM t; SELECT 1'", Dialect.MYSQL));
+        Assertions.assertTrue(SqlClassifier.classify("SELECT 'x\\'; DELETE FROM t; SELECT 1'"));
+        Assertions.assertTrue(SqlClassifier.classify("SELECT 'unterminated; DELETE FROM t", Dialect.POSTGRESQL));
+    }
+
+    @Test
+    void testLocking() {
+        Assertions.assertTrue(SqlClassifier.classify("SELECT * FROM t WHERE id = 1 FOR UPDATE"));
+        Assertions.assertTrue(SqlClassifier.classify("select * from t for share nowait", Dialect.POSTGRESQL));
+        Assertions.assertTrue(SqlClassifier.classify("select * from t for no key update", Dialect.POSTGRESQL));
+        Assertions.assertTrue(SqlClassifier.classify("select * from t lock in share mode", Dialect.MYSQL));
+        Assertions.assertTrue(SqlClassifier.classify("with a as (select * from t for update) select * from a"));
+        Assertions.assertTrue(SqlClassifier.classify("(select * from t) for update"));
+        Assertions.assertFalse(SqlClassifier.classify("select 'for update', \"for\", before_update from t /* for update */"));
+    }
+
+    @Test
+    void testCache() {
+        Object statement = new Object();
+        AtomicInteger counter = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertTrue(SqlClassifier.isWrite(statement, s -> {
+                counter.incrementAndGet();
+                return "delete from t";
+            }));
+        }
+        Assertions.assertEquals(1, counter.get());
+        for (int i = 0; i < 5000; i++) {
+            Assertions.assertEquals(i % 2 == 0, SqlClassifier.isWrite((i % 2 == 0 ? "delete from t where id = " : "select * from t where id = ") + i));
+        }
+        Assertions.assertTrue(SqlClassifier.isWrite(new String("delete from t where id = 0")));
+    }
+}
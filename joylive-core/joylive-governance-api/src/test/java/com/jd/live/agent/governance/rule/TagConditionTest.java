@@ -0,0 +1,47 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.rule;
+
+import com.jd.live.agent.governance.rule.tag.TagCondition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * TagConditionTest
+ *
+ * @since 1.6.0
+ */
+public class TagConditionTest {
+
+    @Test
+    void testCidr() {
+        TagCondition condition = new TagCondition("clientIp", new ArrayList<>(Arrays.asList("10.0.0.0/8", "fd00::/8")), OpType.CIDR);
+        Assertions.assertTrue(condition.match(Collections.singletonList("10.1.2.3")));
+        Assertions.assertTrue(condition.match(Collections.singletonList("fd00::1")));
+        Assertions.assertFalse(condition.match(Collections.singletonList("192.168.1.1")));
+        Assertions.assertFalse(condition.match(Collections.singletonList("unknown")));
+        condition.getValues().add("192.168.1.0/24");
+        Assertions.assertTrue(condition.match(Collections.singletonList("192.168.1.1")));
+        condition.setValues(Collections.singletonList("172.16.0.0/12"));
+        Assertions.assertFalse(condition.match(Collections.singletonList("10.1.2.3")));
+        Assertions.assertTrue(OpType.CIDR.isMatch(Collections.singletonList("172.16.0.0/12"), Collections.singletonList("172.31.0.1")));
+        Assertions.assertEquals(OpType.CIDR, OpType.codeOf("cidr"));
+    }
+}
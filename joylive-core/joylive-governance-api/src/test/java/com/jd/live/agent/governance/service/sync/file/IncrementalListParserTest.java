@@ -0,0 +1,105 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.service.sync.file;
+
+import com.jd.live.agent.governance.service.sync.file.IncrementalListParser.ListDelta;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * IncrementalListParserTest
+ *
+ * @since 1.6.0
+ */
+public class IncrementalListParserTest {
+
+    @Test
+    void testSplit() {
+        Assertions.assertTrue(IncrementalListParser.split(bytes("  ")).isEmpty());
+        Assertions.assertTrue(IncrementalListParser.split(bytes(" [ ] ")).isEmpty());
+        List<int[]> ranges = IncrementalListParser.split(bytes("[{\"a\":\"],\\\"\"}, {\"b\":[1,2]} ,3]"));
+        Assertions.assertEquals(3, ranges.size());
+        Assertions.assertArrayEquals(new int[]{1, 12}, ranges.get(0));
+        Assertions.assertArrayEquals(new int[]{15, 11}, ranges.get(1));
+        Assertions.assertArrayEquals(new int[]{28, 1}, ranges.get(2));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> IncrementalListParser.split(bytes("{}")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> IncrementalListParser.split(bytes("[{}")));
+    }
+
+    @Test
+    void testParseChangedEntries() {
+        AtomicInteger counter = new AtomicInteger();
+        IncrementalListParser<Entry> parser = new IncrementalListParser<>(reader -> {
+            counter.incrementAndGet();
+            try (BufferedReader br = new BufferedReader(reader)) {
+                return new Entry(br.lines().collect(Collectors.joining()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, Entry::getName);
+        ListDelta<Entry> first = parser.apply(bytes("[{\"name\":\"a\"},{\"name\":\"b\"}]"));
+        Assertions.assertTrue(first.isFull());
+        Assertions.assertEquals(2, first.getUpdates().size());
+        Assertions.assertEquals(2, counter.get());
+
+        // only the changed entry is parsed, and the unchanged one is not returned.
+        ListDelta<Entry> second = parser.apply(bytes("[\n  {\"name\":\"a\"},\n  {\"name\":\"c\"}\n]"));
+        Assertions.assertFalse(second.isFull());
+        Assertions.assertEquals(3, counter.get());
+        Assertions.assertEquals(1, second.getUpdates().size());
+        Assertions.assertEquals("{\"name\":\"c\"}", second.getUpdates().get(0).getName());
+        Assertions.assertEquals(Collections.singleton("{\"name\":\"b\"}"), second.getDeletes());
+
+        ListDelta<Entry> third = parser.apply(bytes("[{\"name\":\"a\"},{\"name\":\"c\"}]"));
+        Assertions.assertTrue(third.getUpdates().isEmpty());
+        Assertions.assertTrue(third.getDeletes().isEmpty());
+        Assertions.assertEquals(3, counter.get());
+
+        // the whole list is parsed into new instances after reset.
+        parser.reset();
+        ListDelta<Entry> fourth = parser.apply(bytes("[{\"name\":\"a\"},{\"name\":\"c\"}]"));
+        Assertions.assertTrue(fourth.isFull());
+        Assertions.assertEquals(2, fourth.getUpdates().size());
+        Assertions.assertNotSame(first.getUpdates().get(0), fourth.getUpdates().get(0));
+        Assertions.assertNotSame(second.getUpdates().get(0), fourth.getUpdates().get(1));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static class Entry {
+
+        private final String name;
+
+        Entry(String name) {
+            this.name = name;
+        }
+
+        String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.service.sync.http;
+
+import com.jd.live.agent.core.instance.Application;
+import com.jd.live.agent.governance.config.SyncConfig;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HttpWatcherTest
+ *
+ * @since 1.6.0
+ */
+public class HttpWatcherTest {
+
+    private static final String ETAG = "\"v1\"";
+
+    private HttpServer server;
+
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = exchange.getRequestURI().getPath().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("ETag", ETAG);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testConditionalRequest() throws Exception {
+        SyncConfig config = new SyncConfig();
+        config.setInterval(50);
+        config.setConcurrency(2);
+        String prefix = "http://127.0.0.1:" + server.getAddress().getPort();
+        List<String> updates = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        try (HttpWatcher watcher = new HttpWatcher("test-watcher", config, new Application())) {
+            HttpListener<String> listener = event -> {
+                if (event.getType() == HttpWatchEvent.EventType.UPDATE) {
+                    updates.add(event.getData());
+                    latch.countDown();
+                }
+                return true;
+            };
+            watcher.subscribe(new Resource("a", prefix + "/a"), listener);
+            watcher.subscribe(new Resource("b", prefix + "/b"), listener);
+            Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(await(2));
+            int size = updates.size();
+            Assertions.assertTrue(await(8));
+            // unchanged resources are not delivered again.
+            Assertions.assertEquals(size, updates.size());
+        }
+        Assertions.assertTrue(updates.contains("/a"));
+        Assertions.assertTrue(updates.contains("/b"));
+    }
+
+    @Test
+    void testValidatorKeptAfterApply() throws Exception {
+        SyncConfig config = new SyncConfig();
+        config.setInterval(50);
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/c";
+        AtomicInteger updates = new AtomicInteger();
+        try (HttpWatcher watcher = new HttpWatcher("test-watcher", config, new Application())) {
+            watcher.subscribe(new Resource("c", url), event -> {
+                if (event.getType() == HttpWatchEvent.EventType.UPDATE && updates.incrementAndGet() == 1) {
+                    throw new IllegalStateException("failed to apply");
+                }
+                return true;
+            });
+            Assertions.assertTrue(await(2));
+        }
+        // the content is fetched again after the first apply failed.
+        Assertions.assertEquals(2, updates.get());
+    }
+
+    @Test
+    void testRetryOnUnapplied() throws Exception {
+        SyncConfig config = new SyncConfig();
+        config.setInterval(50);
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/d";
+        AtomicInteger updates = new AtomicInteger();
+        try (HttpWatcher watcher = new HttpWatcher("test-watcher", config, new Application())) {
+            // the listener reports the first content is not applied without throwing.
+            watcher.subscribe(new Resource("d", url), event -> event.getType() != HttpWatchEvent.EventType.UPDATE
+                    || updates.incrementAndGet() > 1);
+            Assertions.assertTrue(await(2));
+        }
+        Assertions.assertEquals(2, updates.get());
+    }
+
+    private boolean await(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (notModified.get() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        return notModified.get() >= count;
+    }
+
+    private static class Resource implements HttpResource {
+
+        private final String id;
+
+        private final String url;
+
+        Resource(String id, String url) {
+            this.id = id;
+            this.url = url;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String getUrl() {
+            return url;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.subscription.policy;
+
+import com.jd.live.agent.core.parser.ObjectParser;
+import com.jd.live.agent.core.parser.TypeReference;
+import com.jd.live.agent.governance.policy.GovernancePolicy;
+import com.jd.live.agent.governance.policy.PolicySubscription;
+import com.jd.live.agent.governance.policy.PolicySupervisor;
+import com.jd.live.agent.governance.policy.service.Service;
+import com.jd.live.agent.governance.subscription.policy.PolicyEvent.EventType;
+import com.jd.live.agent.governance.subscription.policy.listener.AbstractListener;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * PolicyApplierTest
+ *
+ * @since 1.6.0
+ */
+public class PolicyApplierTest {
+
+    @Test
+    void testCoalesce() throws InterruptedException {
+        TestSupervisor supervisor = new TestSupervisor();
+        PolicyApplier applier = new PolicyApplier(supervisor);
+        int threads = 16;
+        int rounds = 50;
+        AtomicInteger successes = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            new Thread(() -> {
+                for (int i = 0; i < rounds; i++) {
+                    String name = "service-" + thread + "-" + i;
+                    if (applier.apply(policy -> addService(policy, name))) {
+                        successes.incrementAndGet();
+                    }
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        Assertions.assertEquals(threads * rounds, successes.get());
+        Set<String> names = new HashSet<>();
+        supervisor.getPolicy().getServices().forEach(s -> names.add(s.getName()));
+        Assertions.assertEquals(threads * rounds, names.size());
+        Assertions.assertEquals(threads * rounds, applier.getMetric().getUpdates());
+        Assertions.assertEquals(supervisor.updates.get(), applier.getMetric().getBatches());
+        Assertions.assertTrue(applier.getMetric().getBatches() <= threads * rounds);
+    }
+
+    @Test
+    void testFailure() {
+        TestSupervisor supervisor = new TestSupervisor();
+        PolicyApplier applier = new PolicyApplier(supervisor);
+        Assertions.assertFalse(applier.apply(policy -> {
+            throw new IllegalStateException("error");
+        }));
+        Assertions.assertTrue(applier.apply(policy -> addService(policy, "a")));
+        Assertions.assertEquals(1, supervisor.getPolicy().getServices().size());
+    }
+
+    @Test
+    void testCoalesceWindow() throws InterruptedException {
+        TestSupervisor supervisor = new TestSupervisor();
+        PolicyApplier applier = new PolicyApplier(supervisor);
+        applier.setCoalesceWindow(100);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            String name = "service-" + t;
+            new Thread(() -> {
+                try {
+                    start.await();
+                    applier.apply(policy -> addService(policy, name));
+                } catch (InterruptedException ignored) {
+                } finally {
+                    latch.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        latch.await();
+        Assertions.assertEquals(threads, supervisor.getPolicy().getServices().size());
+        Assertions.assertTrue(applier.getMetric().getBatches() < threads);
+    }
+
+    @Test
+    void testRetryWithFreshItems() {
+        TestSupervisor supervisor = new TestSupervisor();
+        PolicyApplier applier = new PolicyApplier(supervisor);
+        ItemListener listener = new ItemListener(supervisor, applier);
+        for (Object value : new Object[]{"a", new Item("b")}) {
+            listener.items.clear();
+            supervisor.failures.set(2);
+            Assertions.assertTrue(listener.onUpdate(PolicyEvent.builder().type(EventType.UPDATE_ITEM).value(value).build()));
+            Assertions.assertEquals(3, listener.items.size());
+            Assertions.assertNotSame(listener.items.get(0), listener.items.get(1));
+            Assertions.assertNotSame(listener.items.get(1), listener.items.get(2));
+            Assertions.assertFalse(listener.reused);
+        }
+    }
+
+    private static void addService(GovernancePolicy policy, String name) {
+        List<Service> services = policy.getServices() == null ? new ArrayList<>() : new ArrayList<>(policy.getServices());
+        services.add(new Service(name));
+        policy.setServices(services);
+    }
+
+    private static class TestSupervisor implements PolicySupervisor {
+
+        private final AtomicReference<GovernancePolicy> policy = new AtomicReference<>(new GovernancePolicy());
+
+        private final AtomicInteger updates = new AtomicInteger();
+
+        private final AtomicInteger failures = new AtomicInteger();
+
+        @Override
+        public boolean update(GovernancePolicy expect, GovernancePolicy update) {
+            if (failures.getAndDecrement() > 0) {
+                return false;
+            }
+            if (policy.compareAndSet(expect, update)) {
+                updates.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public GovernancePolicy getPolicy() {
+            return policy.get();
+        }
+
+        @Override
+        public CompletableFuture<Void> subscribe(String namespace, String service) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public List<PolicySubscription> getSubscriptions() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public void waitReady() {
+        }
+    }
+
+    private static class Item {
+
+        private final String name;
+
+        private boolean applied;
+
+        Item(String name) {
+            this.name = name;
+        }
+    }
+
+    private static class ItemListener extends AbstractListener<Item> {
+
+        private final List<Item> items = new ArrayList<>();
+
+        private boolean reused;
+
+        ItemListener(PolicySupervisor supervisor, PolicyApplier applier) {
+            super(Item.class, supervisor, new ItemParser(), applier);
+        }
+
+        @Override
+        protected void updateItems(GovernancePolicy policy, List<Item> items, PolicyEvent event) {
+        }
+
+        @Override
+        protected void updateItem(GovernancePolicy policy, Item item, PolicyEvent event) {
+            reused |= item.applied;
+            item.applied = true;
+            items.add(item);
+        }
+
+        @Override
+        protected void deleteItem(GovernancePolicy policy, PolicyEvent event) {
+        }
+    }
+
+    private static class ItemParser implements ObjectParser {
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> T read(Reader reader, Class<T> clazz) {
+            try (BufferedReader br = new BufferedReader(reader)) {
+                return (T) new Item(br.readLine());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public <T> T read(Reader reader, TypeReference<T> reference) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T read(Reader reader, Type type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void write(Writer writer, Object obj) {
+            try {
+                writer.write(((Item) obj).name);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -28,6 +28,17 @@ import com.jd.live.agent.core.inject.annotation.Injectable;
 import com.jd.live.agent.core.instance.Application;
 import com.jd.live.agent.governance.config.GovernanceConfig;
 import com.jd.live.agent.governance.event.TrafficEvent;
+import com.jd.live.agent.governance.event.TrafficKey;
+import com.jd.live.agent.governance.invoke.InvocationContext;
+import com.jd.live.agent.governance.invoke.admission.AdmissionController;
+import com.jd.live.agent.governance.invoke.admission.AdmissionMetric;
+import com.jd.live.agent.governance.invoke.filter.InboundFilter;
+import com.jd.live.agent.governance.invoke.filter.inbound.AdmissionFilter;
+import com.jd.live.agent.governance.invoke.outlier.OutlierDetector;
+import com.jd.live.agent.governance.invoke.outlier.OutlierEvent;
+import com.jd.live.agent.governance.invoke.outlier.OutlierEvent.OutlierEventType;
+import com.jd.live.agent.governance.subscription.policy.PolicyApplier;
+import com.jd.live.agent.governance.subscription.policy.PolicyApplier.PolicyApplierMetric;
 import com.jd.live.agent.implement.event.opentelemetry.config.CounterConfig;
 import com.jd.live.agent.implement.event.opentelemetry.config.ExporterConfig;
 import com.jd.live.agent.implement.event.opentelemetry.log.LoggingExporterFactory;
@@ -41,8 +52,11 @@ import io.opentelemetry.sdk.metrics.SdkMeterProvider;
 import io.opentelemetry.sdk.metrics.export.MetricReader;
 import io.opentelemetry.sdk.resources.Resource;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 import static com.jd.live.agent.governance.event.TrafficEvent.*;
 
@@ -56,6 +70,34 @@ public class EventExporter implements Subscription<TrafficEvent>, ExtensionIniti
 
     private static final String REQUESTS = "requests";
 
+    private static final String COUNTER_POLICY_APPLY_BATCHES_TOTAL = "joylive_policy_apply_batches_total";
+
+    private static final String COUNTER_POLICY_APPLY_UPDATES_TOTAL = "joylive_policy_apply_updates_total";
+
+    private static final String COUNTER_POLICY_APPLY_RETRIES_TOTAL = "joylive_policy_apply_retries_total";
+
+    private static final String COUNTER_POLICY_APPLY_LATENCY_TOTAL = "joylive_policy_apply_latency_microseconds_total";
+
+    private static final String GAUGE_POLICY_APPLY_MAX_BATCH_SIZE = "joylive_policy_apply_max_batch_size";
+
+    private static final String COUNTER_OUTLIER_EJECTIONS_TOTAL = "joylive_outlier_ejections_total";
+
+    private static final String COUNTER_OUTLIER_RESTORATIONS_TOTAL = "joylive_outlier_restorations_total";
+
+    private static final String GAUGE_OUTLIER_EJECTED_ENDPOINTS = "joylive_outlier_ejected_endpoints";
+
+    private static final String COUNTER_ADMISSION_QUEUED_TOTAL = "joylive_admission_queued_total";
+
+    private static final String COUNTER_ADMISSION_REJECTED_TOTAL = "joylive_admission_rejected_total";
+
+    private static final String COUNTER_ADMISSION_DROPPED_TOTAL = "joylive_admission_dropped_total";
+
+    private static final String COUNTER_ADMISSION_QUEUE_TIME_TOTAL = "joylive_admission_queue_time_milliseconds_total";
+
+    private static final String GAUGE_ADMISSION_MAX_QUEUE_TIME = "joylive_admission_max_queue_time_milliseconds";
+
+    private static final int MAX_ATTRIBUTES = 10000;
+
     private static final AttributeKey<String> ATTRIBUTE_APPLICATION = AttributeKey.stringKey(KEY_APPLICATION);
 
     private static final AttributeKey<String> ATTRIBUTE_LIVE_SPACE_ID = AttributeKey.stringKey(KEY_LIVE_SPACE_ID);
@@ -94,6 +136,10 @@ public class EventExporter implements Subscription<TrafficEvent>, ExtensionIniti
 
     private static final AttributeKey<String> ATTRIBUTE_REJECT_TYPE = AttributeKey.stringKey(KEY_REJECT_TYPE);
 
+    private static final AttributeKey<String> ATTRIBUTE_OUTLIER_REASON = AttributeKey.stringKey("reason");
+
+    private static final AttributeKey<String> ATTRIBUTE_ADMISSION_TIER = AttributeKey.stringKey(KEY_ADMISSION_TIER);
+
     private LongCounter gatewayInbounds;
 
     private LongCounter gatewayInboundForwards;
@@ -127,8 +173,13 @@ public class EventExporter implements Subscription<TrafficEvent>, ExtensionIniti
     @Inject
     private Map<String, ExporterFactory> factoryMap;
 
+    @Inject(value = InvocationContext.COMPONENT_INVOCATION_CONTEXT, nullable = true)
+    private InvocationContext context;
+
     private OpenTelemetrySdk sdk;
 
+    private final Map<TrafficKey, Attributes> attributes = new ConcurrentHashMap<>();
+
     @Override
     public void handle(List<Event<TrafficEvent>> events) {
         if (events != null) {
@@ -136,7 +187,7 @@ public class EventExporter implements Subscription<TrafficEvent>, ExtensionIniti
             LongCounter counter;
             for (Event<TrafficEvent> event : events) {
                 trafficEvent = event.getData();
-                Attributes attributes = attributes(event);
+                Attributes attributes = getAttributes(event);
                 if (config.isGatewayEnabled() && trafficEvent.getComponentType() == ComponentType.GATEWAY && trafficEvent.getDirection() == Direction.INBOUND) {
                     gatewayInbounds.add(trafficEvent.getRequests(), attributes);
                     counter = trafficEvent.getActionType() == ActionType.FORWARD ? gatewayInboundForwards : gatewayInboundRejects;
@@ -158,6 +209,24 @@ public class EventExporter implements Subscription<TrafficEvent>, ExtensionIniti
         }
     }
 
+    /**
+     * Returns the cached attributes of the event by its dimensions, so the cost scales with the cardinality.
+     *
+     * @param event the event
+     * @return the attributes
+     */
+    private Attributes getAttributes(Event<TrafficEvent> event) {
+        TrafficKey key = new TrafficKey(event.getData());
+        Attributes result = attributes.get(key);
+        if (result == null) {
+            if (attributes.size() >= MAX_ATTRIBUTES) {
+                attributes.clear();
+            }
+            result = attributes.computeIfAbsent(key, k -> attributes(event));
+        }
+        return result;
+    }
+
     private Attributes attributes(Event<TrafficEvent> event) {
         TrafficEvent trafficEvent = event.getData();
         AttributesBuilder builder = Attributes.builder();
@@ -214,6 +283,111 @@ public class EventExporter implements Subscription<TrafficEvent>, ExtensionIniti
         this.serviceOutbounds = meter.counterBuilder(COUNTER_SERVICE_OUTBOUND_REQUESTS_TOTAL).setUnit(REQUESTS).build();
         this.serviceOutboundForwards = meter.counterBuilder(COUNTER_SERVICE_OUTBOUND_FORWARD_REQUESTS_TOTAL).setUnit(REQUESTS).build();
         this.serviceOutboundRejects = meter.counterBuilder(COUNTER_SERVICE_OUTBOUND_REJECT_REQUESTS_TOTAL).setUnit(REQUESTS).build();
+        if (context != null) {
+            exportPolicyApplier(meter, context.getPolicyApplier());
+            exportOutlierDetector(meter, context.getOutlierDetector());
+            exportAdmission(meter, context.getInboundFilters());
+        }
+    }
+
+    /**
+     * Exports the cumulative statistics of the policy applier.
+     *
+     * @param meter   the meter
+     * @param applier the policy applier
+     */
+    private void exportPolicyApplier(Meter meter, PolicyApplier applier) {
+        if (applier == null) {
+            return;
+        }
+        PolicyApplierMetric metric = applier.getMetric();
+        Attributes attrs = Attributes.of(ATTRIBUTE_APPLICATION, application.getName());
+        meter.counterBuilder(COUNTER_POLICY_APPLY_BATCHES_TOTAL).buildWithCallback(m -> m.record(metric.getBatches(), attrs));
+        meter.counterBuilder(COUNTER_POLICY_APPLY_UPDATES_TOTAL).buildWithCallback(m -> m.record(metric.getUpdates(), attrs));
+        meter.counterBuilder(COUNTER_POLICY_APPLY_RETRIES_TOTAL).buildWithCallback(m -> m.record(metric.getRetries(), attrs));
+        meter.counterBuilder(COUNTER_POLICY_APPLY_LATENCY_TOTAL).setUnit("us").buildWithCallback(m -> m.record(metric.getLatencyMicros(), attrs));
+        meter.gaugeBuilder(GAUGE_POLICY_APPLY_MAX_BATCH_SIZE).ofLongs().buildWithCallback(m -> m.record(metric.getMaxBatchSize(), attrs));
+    }
+
+    /**
+     * Exports the ejections and restorations by service and reason, and the number of the ejected endpoints.
+     *
+     * @param meter    the meter
+     * @param detector the outlier detector
+     */
+    private void exportOutlierDetector(Meter meter, OutlierDetector detector) {
+        if (detector == null) {
+            return;
+        }
+        LongCounter ejections = meter.counterBuilder(COUNTER_OUTLIER_EJECTIONS_TOTAL).build();
+        LongCounter restorations = meter.counterBuilder(COUNTER_OUTLIER_RESTORATIONS_TOTAL).build();
+        detector.addListener(e -> {
+            if (e.getType() == OutlierEventType.EJECT) {
+                ejections.add(1, attributes(e));
+            } else {
+                restorations.add(1, attributes(e));
+            }
+        });
+        Attributes attrs = Attributes.of(ATTRIBUTE_APPLICATION, application.getName());
+        meter.gaugeBuilder(GAUGE_OUTLIER_EJECTED_ENDPOINTS).ofLongs().buildWithCallback(m -> m.record(detector.getEjected(), attrs));
+    }
+
+    /**
+     * Exports the queued, rejected and dropped requests and the queue time of the admission controllers by tier.
+     *
+     * @param meter   the meter
+     * @param filters the inbound filters
+     */
+    private void exportAdmission(Meter meter, InboundFilter[] filters) {
+        AdmissionFilter filter = null;
+        if (filters != null) {
+            for (InboundFilter inboundFilter : filters) {
+                if (inboundFilter instanceof AdmissionFilter) {
+                    filter = (AdmissionFilter) inboundFilter;
+                    break;
+                }
+            }
+        }
+        if (filter == null) {
+            return;
+        }
+        Collection<AdmissionController> controllers = filter.getControllers();
+        meter.counterBuilder(COUNTER_ADMISSION_QUEUED_TOTAL).setUnit(REQUESTS)
+                .buildWithCallback(m -> recordAdmission(controllers, (metric, attrs) -> m.record(metric.getQueued(), attrs)));
+        meter.counterBuilder(COUNTER_ADMISSION_REJECTED_TOTAL).setUnit(REQUESTS)
+                .buildWithCallback(m -> recordAdmission(controllers, (metric, attrs) -> m.record(metric.getRejected(), attrs)));
+        meter.counterBuilder(COUNTER_ADMISSION_DROPPED_TOTAL).setUnit(REQUESTS)
+                .buildWithCallback(m -> recordAdmission(controllers, (metric, attrs) -> m.record(metric.getDropped(), attrs)));
+        meter.counterBuilder(COUNTER_ADMISSION_QUEUE_TIME_TOTAL).setUnit("ms")
+                .buildWithCallback(m -> recordAdmission(controllers, (metric, attrs) -> m.record(metric.getQueueTime(), attrs)));
+        meter.gaugeBuilder(GAUGE_ADMISSION_MAX_QUEUE_TIME).ofLongs().setUnit("ms")
+                .buildWithCallback(m -> recordAdmission(controllers, (metric, attrs) -> m.record(metric.getMaxQueueTime(), attrs)));
+    }
+
+    private void recordAdmission(Collection<AdmissionController> controllers, BiConsumer<AdmissionMetric, Attributes> recorder) {
+        for (AdmissionController controller : controllers) {
+            Long policyId = controller.getPolicy().getId();
+            for (int i = 0; i < controller.getTiers(); i++) {
+                AdmissionMetric metric = controller.getMetric(i);
+                if (metric != null) {
+                    recorder.accept(metric, Attributes.builder()
+                            .put(ATTRIBUTE_APPLICATION, application.getName())
+                            .put(ATTRIBUTE_SERVICE_POLICY_ID, policyId == null ? 0L : policyId)
+                            .put(ATTRIBUTE_ADMISSION_TIER, String.valueOf(i))
+                            .build());
+                }
+            }
+        }
+    }
+
+    private Attributes attributes(OutlierEvent event) {
+        AttributesBuilder builder = Attributes.builder()
+                .put(ATTRIBUTE_APPLICATION, application.getName())
+                .put(ATTRIBUTE_SERVICE_NAME, event.getService());
+        if (event.getReason() != null) {
+            builder.put(ATTRIBUTE_OUTLIER_REASON, event.getReason().name());
+        }
+        return builder.build();
     }
 
     @Override
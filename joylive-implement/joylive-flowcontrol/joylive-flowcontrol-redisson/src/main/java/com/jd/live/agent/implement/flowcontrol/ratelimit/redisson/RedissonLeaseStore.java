@@ -0,0 +1,60 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.implement.flowcontrol.ratelimit.redisson;
+
+import com.jd.live.agent.core.util.Futures;
+import com.jd.live.agent.governance.invoke.ratelimit.lease.LeaseStore;
+import com.jd.live.agent.implement.flowcontrol.ratelimit.redisson.client.RedisClient;
+import org.redisson.api.RAtomicLong;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A lease store backed by the redis atomic counters, which costs one round trip per lease.
+ *
+ * @since 1.6.0
+ */
+public class RedissonLeaseStore implements LeaseStore {
+
+    private final RedisClient client;
+
+    public RedissonLeaseStore(RedisClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public CompletionStage<Long> lease(String key, long permits, long limit, long expire) {
+        client.setLastAccessTime(System.currentTimeMillis());
+        RAtomicLong counter = client.getAtomicLong(key);
+        if (counter == null) {
+            return Futures.future(new IOException("redis client is not available."));
+        }
+        return counter.addAndGetAsync(permits).thenApply(used -> {
+            if (used == permits) {
+                // the first lease of the window
+                counter.expireAsync(Duration.ofMillis(expire));
+            }
+            return LeaseStore.grant(permits, limit, used);
+        });
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+}
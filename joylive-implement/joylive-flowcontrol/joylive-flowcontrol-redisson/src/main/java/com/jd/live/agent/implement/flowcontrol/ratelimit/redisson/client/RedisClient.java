@@ -19,6 +19,7 @@ import com.jd.live.agent.bootstrap.logger.Logger;
 import com.jd.live.agent.bootstrap.logger.LoggerFactory;
 import com.jd.live.agent.implement.flowcontrol.ratelimit.redisson.RedissonRateLimiter;
 import org.redisson.Redisson;
+import org.redisson.api.RAtomicLong;
 import org.redisson.api.RRateLimiter;
 import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
@@ -62,6 +63,16 @@ public class RedisClient implements AutoCloseable {
         return delegate == null ? null : delegate.getRateLimiter(key);
     }
 
+    /**
+     * Retrieves an atomic counter for the specified key.
+     *
+     * @param key the key for the counter
+     * @return the counter for the specified key, or null if the delegate is not initialized
+     */
+    public RAtomicLong getAtomicLong(String key) {
+        return delegate == null ? null : delegate.getAtomicLong(key);
+    }
+
     public long getLastAccessTime() {
         return lastAccessTime;
     }
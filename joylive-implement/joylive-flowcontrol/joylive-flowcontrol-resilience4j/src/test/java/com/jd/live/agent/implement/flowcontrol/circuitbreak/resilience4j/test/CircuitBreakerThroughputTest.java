@@ -0,0 +1,99 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.implement.flowcontrol.circuitbreak.resilience4j.test;
+
+import com.jd.live.agent.core.util.URI;
+import com.jd.live.agent.governance.invoke.circuitbreak.CircuitBreaker;
+import com.jd.live.agent.governance.invoke.circuitbreak.window.SlidingWindowCircuitBreaker;
+import com.jd.live.agent.governance.policy.service.circuitbreak.CircuitBreakLevel;
+import com.jd.live.agent.governance.policy.service.circuitbreak.CircuitBreakPolicy;
+import com.jd.live.agent.implement.flowcontrol.circuitbreak.resilience4j.Resilience4jCircuitBreakerFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the throughput of the native sliding window circuit breaker with the resilience4j one.
+ *
+ * @since 1.6.0
+ */
+public class CircuitBreakerThroughputTest {
+
+    private static final int THREADS = 8;
+
+    private static final int CALLS = 100000;
+
+    @ParameterizedTest
+    @ValueSource(strings = {CircuitBreakPolicy.SLIDING_WINDOW_COUNT, CircuitBreakPolicy.DEFAULT_SLIDING_WINDOW_TIME})
+    void testThroughput(String windowType) throws InterruptedException {
+        CircuitBreakPolicy policy = createPolicy(windowType);
+        URI uri = new URI().host("throughput").parameter("window", windowType);
+        CircuitBreaker resilience4j = new Resilience4jCircuitBreakerFactory().create(policy, uri);
+        CircuitBreaker native0 = new SlidingWindowCircuitBreaker(policy, uri);
+        // warm up
+        run(resilience4j, new AtomicLong());
+        run(native0, new AtomicLong());
+        AtomicLong r4jAcquired = new AtomicLong();
+        AtomicLong nativeAcquired = new AtomicLong();
+        long r4jTime = run(resilience4j, r4jAcquired);
+        long nativeTime = run(native0, nativeAcquired);
+        System.out.printf("[%s] resilience4j: %d ops/ms, native: %d ops/ms%n", windowType,
+                THREADS * CALLS / Math.max(1, r4jTime), THREADS * CALLS / Math.max(1, nativeTime));
+        // both breakers stay closed under the same low failure rate, so they are compared on the same work.
+        Assertions.assertEquals((long) THREADS * CALLS, r4jAcquired.get());
+        Assertions.assertEquals((long) THREADS * CALLS, nativeAcquired.get());
+    }
+
+    private CircuitBreakPolicy createPolicy(String windowType) {
+        CircuitBreakPolicy policy = new CircuitBreakPolicy();
+        policy.setLevel(CircuitBreakLevel.SERVICE);
+        policy.setSlidingWindowType(windowType);
+        policy.setSlidingWindowSize(100);
+        policy.setFailureRateThreshold(99F);
+        policy.setSlowCallRateThreshold(99F);
+        return policy;
+    }
+
+    private long run(CircuitBreaker breaker, AtomicLong acquired) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(THREADS);
+        RuntimeException error = new RuntimeException();
+        long start = System.nanoTime();
+        for (int i = 0; i < THREADS; i++) {
+            new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                for (int j = 0; j < CALLS; j++) {
+                    if (breaker.acquire()) {
+                        count++;
+                        if (random.nextInt(100) == 0) {
+                            breaker.onError(1, error);
+                        } else {
+                            breaker.onSuccess(1);
+                        }
+                    }
+                }
+                acquired.addAndGet(count);
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        return (System.nanoTime() - start) / 1000000;
+    }
+}
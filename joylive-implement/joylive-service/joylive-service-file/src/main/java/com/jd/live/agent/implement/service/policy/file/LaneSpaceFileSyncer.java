@@ -21,19 +21,11 @@ import com.jd.live.agent.core.extension.annotation.ConditionalOnProperty;
 import com.jd.live.agent.core.extension.annotation.Extension;
 import com.jd.live.agent.core.inject.annotation.Config;
 import com.jd.live.agent.core.inject.annotation.Injectable;
-import com.jd.live.agent.core.parser.TypeReference;
 import com.jd.live.agent.governance.config.GovernanceConfig;
 import com.jd.live.agent.governance.policy.lane.LaneSpace;
-import com.jd.live.agent.governance.service.sync.SyncKey.FileKey;
-import com.jd.live.agent.governance.service.sync.Syncer;
-import com.jd.live.agent.governance.service.sync.file.AbstractFileSyncer;
-import com.jd.live.agent.governance.service.sync.file.FileWatcher;
+import com.jd.live.agent.governance.service.sync.file.AbstractListFileSyncer;
 import lombok.Getter;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStreamReader;
-import java.util.List;
-
 /**
  * LiveSpaceFileSyncer
  *
@@ -44,7 +36,7 @@ import java.util.List;
 @Extension("LaneSpaceFileSyncer")
 @ConditionalOnProperty(name = SyncConfig.SYNC_LANE_SPACE_TYPE, value = "file")
 @ConditionalOnProperty(value = GovernanceConfig.CONFIG_LANE_ENABLED, matchIfMissing = true)
-public class LaneSpaceFileSyncer extends AbstractFileSyncer<List<LaneSpace>> {
+public class LaneSpaceFileSyncer extends AbstractListFileSyncer<LaneSpace> {
 
     private static final String CONFIG_LANE_SPACE = "lanes.json";
 
@@ -66,11 +58,13 @@ public class LaneSpaceFileSyncer extends AbstractFileSyncer<List<LaneSpace>> {
     }
 
     @Override
-    protected Syncer<FileKey, List<LaneSpace>> createSyncer() {
-        fileWatcher = new FileWatcher(getName(), getSyncConfig(), publisher);
-        return fileWatcher.createSyncer(file,
-                data -> parser.read(new InputStreamReader(new ByteArrayInputStream(data)), new TypeReference<List<LaneSpace>>() {
-                }));
+    protected Class<LaneSpace> getItemType() {
+        return LaneSpace.class;
+    }
+
+    @Override
+    protected String getKey(LaneSpace item) {
+        return item.getId();
     }
 
 }
@@ -23,20 +23,12 @@ import com.jd.live.agent.core.extension.annotation.ConditionalOnProperty;
 import com.jd.live.agent.core.extension.annotation.Extension;
 import com.jd.live.agent.core.inject.annotation.Config;
 import com.jd.live.agent.core.inject.annotation.Injectable;
-import com.jd.live.agent.core.parser.TypeReference;
 import com.jd.live.agent.governance.subscription.policy.listener.ServiceEvent;
 import com.jd.live.agent.governance.policy.service.MergePolicy;
 import com.jd.live.agent.governance.policy.service.Service;
-import com.jd.live.agent.governance.service.sync.SyncKey.FileKey;
-import com.jd.live.agent.governance.service.sync.Syncer;
-import com.jd.live.agent.governance.service.sync.file.AbstractFileSyncer;
-import com.jd.live.agent.governance.service.sync.file.FileWatcher;
+import com.jd.live.agent.governance.service.sync.file.AbstractListFileSyncer;
 import lombok.Getter;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStreamReader;
-import java.util.List;
-
 /**
  * ServiceFileSyncer
  */
@@ -44,7 +36,7 @@ import java.util.List;
 @Injectable
 @Extension("ServiceFileSyncer")
 @ConditionalOnProperty(name = SyncConfig.SYNC_MICROSERVICE_TYPE, value = "file")
-public class ServiceFileSyncer extends AbstractFileSyncer<List<Service>> {
+public class ServiceFileSyncer extends AbstractListFileSyncer<Service> {
 
     private static final String CONFIG_MICROSERVICE = "microservice.json";
 
@@ -66,10 +58,11 @@ public class ServiceFileSyncer extends AbstractFileSyncer<List<Service>> {
     }
 
     @Override
-    protected PolicyEvent createEvent(List<Service> data) {
+    protected PolicyEvent createEvent(EventType type, String name, Object value) {
         return ServiceEvent.creator()
-                .type(EventType.UPDATE_ALL)
-                .value(data)
+                .type(type)
+                .name(name)
+                .value(value)
                 .description(getType())
                 .watcher(getName())
                 .mergePolicy(MergePolicy.ALL)
@@ -77,10 +70,12 @@ public class ServiceFileSyncer extends AbstractFileSyncer<List<Service>> {
     }
 
     @Override
-    protected Syncer<FileKey, List<Service>> createSyncer() {
-        fileWatcher = new FileWatcher(getName(), getSyncConfig(), publisher);
-        return fileWatcher.createSyncer(file,
-                data -> parser.read(new InputStreamReader(new ByteArrayInputStream(data)), new TypeReference<List<Service>>() {
-                }));
+    protected Class<Service> getItemType() {
+        return Service.class;
+    }
+
+    @Override
+    protected String getKey(Service item) {
+        return item.getName();
     }
 }
@@ -22,7 +22,6 @@ import com.jd.live.agent.core.inject.annotation.Config;
 import com.jd.live.agent.core.inject.annotation.Injectable;
 import com.jd.live.agent.core.parser.TypeReference;
 import com.jd.live.agent.core.util.http.HttpResponse;
-import com.jd.live.agent.core.util.http.HttpUtils;
 import com.jd.live.agent.governance.config.GovernanceConfig;
 import com.jd.live.agent.governance.policy.PolicySubscription;
 import com.jd.live.agent.governance.subscription.policy.listener.ServiceEvent;
@@ -70,9 +69,8 @@ public class LiveServiceHttpSyncer extends AbstractServiceHttpSyncer<ServiceKey>
     }
 
     @Override
-    protected SyncResponse<Service> getResponse(SyncConfig config, String uri) throws IOException {
-        HttpResponse<ApiResponse<ApiResult<Service>>> response = HttpUtils.get(uri,
-                conn -> configure(config, conn),
+    protected SyncResponse<Service> getResponse(SyncConfig config, String uri, String name) throws IOException {
+        HttpResponse<ApiResponse<ApiResult<Service>>> response = request(config, uri, name,
                 reader -> jsonParser.read(reader, new TypeReference<ApiResponse<ApiResult<Service>>>() {
                 }));
         return ApiResponse.from(response).asSyncResponse(ApiResult::asSyncResponse);
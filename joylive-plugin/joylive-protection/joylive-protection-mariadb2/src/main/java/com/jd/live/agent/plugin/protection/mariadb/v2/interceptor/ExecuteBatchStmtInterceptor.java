@@ -48,7 +48,7 @@ public class ExecuteBatchStmtInterceptor extends AbstractDbInterceptor {
         Protocol protocol = (Protocol) ctx.getTarget();
         List<String> sqls = (List<String>) ctx.getArguments()[2];
         for (String sql : sqls) {
-            protect((MethodContext) ctx, new MariadbRequest(protocol, sql));
+            protect((MethodContext) ctx, new MariadbRequest(protocol, sql), protocol);
         }
     }
 
@@ -43,7 +43,7 @@ public class ExecutePrepareInterceptor extends AbstractDbInterceptor {
     public void onEnter(ExecutableContext ctx) {
         Protocol protocol = (Protocol) ctx.getTarget();
         String sql = (String) ctx.getArguments()[0];
-        protect((MethodContext) ctx, new MariadbRequest(protocol, sql));
+        protect((MethodContext) ctx, new MariadbRequest(protocol, sql), protocol);
     }
 
 }
@@ -55,7 +55,8 @@ public class ExecuteQueryInterceptor extends AbstractDbInterceptor {
         } else {
             sql = (String) argument;
         }
-        protect((MethodContext) ctx, new MariadbRequest((Protocol) ctx.getTarget(), sql));
+        Protocol protocol = (Protocol) ctx.getTarget();
+        protect((MethodContext) ctx, new MariadbRequest(protocol, sql), protocol);
     }
 
 }
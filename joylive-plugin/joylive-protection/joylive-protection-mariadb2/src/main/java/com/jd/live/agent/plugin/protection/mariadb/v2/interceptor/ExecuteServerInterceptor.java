@@ -49,7 +49,7 @@ public class ExecuteServerInterceptor extends AbstractDbInterceptor {
     public void onEnter(ExecutableContext ctx) {
         Protocol protocol = (Protocol) ctx.getTarget();
         String sql = ((ServerPrepareResult) ctx.getArguments()[1]).getSql();
-        protect((MethodContext) ctx, new MariadbRequest(protocol, sql));
+        protect((MethodContext) ctx, new MariadbRequest(protocol, sql), protocol);
     }
 
 }
@@ -17,6 +17,7 @@ package com.jd.live.agent.plugin.protection.mariadb.v2.request;
 
 import com.jd.live.agent.bootstrap.util.AbstractAttributes;
 import com.jd.live.agent.governance.request.DbRequest.SQLRequest;
+import com.jd.live.agent.governance.request.SqlClassifier.Dialect;
 import org.mariadb.jdbc.internal.protocol.Protocol;
 import org.mariadb.jdbc.util.Options;
 
@@ -56,4 +57,9 @@ public class MariadbRequest extends AbstractAttributes implements SQLRequest {
     public String getSql() {
         return sql;
     }
+
+    @Override
+    public Dialect getDialect() {
+        return Dialect.MYSQL;
+    }
 }
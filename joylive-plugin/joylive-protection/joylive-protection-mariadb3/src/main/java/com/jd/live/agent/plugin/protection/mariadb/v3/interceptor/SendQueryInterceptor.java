@@ -42,8 +42,8 @@ public class SendQueryInterceptor extends AbstractDbInterceptor {
      */
     @Override
     public void onEnter(ExecutableContext ctx) {
-        protect((MethodContext) ctx,
-                new MariadbRequest((StandardClient) ctx.getTarget(), (ClientMessage) ctx.getArguments()[0]));
+        StandardClient client = (StandardClient) ctx.getTarget();
+        protect((MethodContext) ctx, new MariadbRequest(client, (ClientMessage) ctx.getArguments()[0]), client);
     }
 
 }
@@ -17,6 +17,7 @@ package com.jd.live.agent.plugin.protection.mariadb.v3.request;
 
 import com.jd.live.agent.bootstrap.util.AbstractAttributes;
 import com.jd.live.agent.governance.request.DbRequest.SQLRequest;
+import com.jd.live.agent.governance.request.SqlClassifier.Dialect;
 import org.mariadb.jdbc.client.Context;
 import org.mariadb.jdbc.client.impl.StandardClient;
 import org.mariadb.jdbc.message.ClientMessage;
@@ -57,4 +58,9 @@ public class MariadbRequest extends AbstractAttributes implements SQLRequest {
     public String getSql() {
         return request.description();
     }
+
+    @Override
+    public Dialect getDialect() {
+        return Dialect.MYSQL;
+    }
 }
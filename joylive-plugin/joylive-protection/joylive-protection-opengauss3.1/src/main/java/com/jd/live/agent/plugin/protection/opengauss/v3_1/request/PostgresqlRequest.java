@@ -17,6 +17,8 @@ package com.jd.live.agent.plugin.protection.opengauss.v3_1.request;
 
 import com.jd.live.agent.bootstrap.util.AbstractAttributes;
 import com.jd.live.agent.governance.request.DbRequest.SQLRequest;
+import com.jd.live.agent.governance.request.SqlClassifier;
+import com.jd.live.agent.governance.request.SqlClassifier.Dialect;
 import org.postgresql.core.Query;
 import org.postgresql.core.QueryExecutor;
 
@@ -49,4 +51,9 @@ public class PostgresqlRequest extends AbstractAttributes implements SQLRequest
     public String getSql() {
         return query.toString();
     }
+
+    @Override
+    public boolean isWrite() {
+        return SqlClassifier.isWrite(query, Query::toString, Dialect.POSTGRESQL);
+    }
 }
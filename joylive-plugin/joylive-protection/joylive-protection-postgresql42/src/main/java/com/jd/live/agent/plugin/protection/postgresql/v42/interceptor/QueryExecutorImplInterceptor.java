@@ -40,8 +40,8 @@ public class QueryExecutorImplInterceptor extends AbstractDbInterceptor {
      */
     @Override
     public void onEnter(ExecutableContext ctx) {
-        protect((MethodContext) ctx,
-                new PostgresqlRequest((QueryExecutor) ctx.getTarget(), (Query) ctx.getArguments()[0]));
+        QueryExecutor executor = (QueryExecutor) ctx.getTarget();
+        protect((MethodContext) ctx, new PostgresqlRequest(executor, (Query) ctx.getArguments()[0]), executor);
     }
 
 }
@@ -50,7 +50,7 @@ public class QueryExecutorImplInterceptor extends AbstractDbInterceptor {
         QueryExecutorImpl executor = (QueryExecutorImpl) ctx.getTarget();
         if (fieldDesc != null) {
             ProtocolConnection connection = (ProtocolConnection) fieldDesc.get(executor);
-            protect((MethodContext) ctx, new PostgresqlRequest(connection, (Query) ctx.getArguments()[0]));
+            protect((MethodContext) ctx, new PostgresqlRequest(connection, (Query) ctx.getArguments()[0]), connection);
         }
     }
 
@@ -21,6 +21,7 @@ import com.jd.live.agent.core.Constants;
 import com.jd.live.agent.core.util.option.Converts;
 import com.jd.live.agent.governance.instance.Endpoint;
 import com.jd.live.agent.governance.instance.EndpointState;
+import com.jd.live.agent.governance.instance.Fingerprint;
 import com.jd.live.agent.governance.request.ServiceRequest;
 
 import java.util.Map;
@@ -72,4 +73,21 @@ public class NacosEndpoint extends AbstractAttributes implements Endpoint {
     public Integer getWeight(ServiceRequest request) {
         return Converts.getInteger(getLabel(Constants.LABEL_WEIGHT), (int) (instance.getWeight() * DEFAULT_WEIGHT));
     }
+
+    @Override
+    public Map<String, String> getLabels() {
+        return instance.getMetadata();
+    }
+
+    @Override
+    public long getFingerprint() {
+        return new Fingerprint().add(Endpoint.super.getFingerprint()).add(instance.getWeight()).get();
+    }
+
+    @Override
+    public boolean isSame(Endpoint other) {
+        return other instanceof NacosEndpoint
+                && Double.compare(instance.getWeight(), ((NacosEndpoint) other).instance.getWeight()) == 0
+                && Endpoint.super.isSame(other);
+    }
 }
@@ -25,6 +25,7 @@ import com.jd.live.agent.core.util.type.ClassDesc;
 import com.jd.live.agent.core.util.type.ClassUtils;
 import com.jd.live.agent.core.util.type.FieldDesc;
 import com.jd.live.agent.core.util.type.FieldList;
+import com.jd.live.agent.governance.instance.EndpointCache;
 import com.jd.live.agent.governance.invoke.OutboundInvocation;
 import com.jd.live.agent.governance.invoke.cluster.AbstractLiveCluster;
 import com.jd.live.agent.governance.invoke.cluster.ClusterInvoker;
@@ -47,7 +48,6 @@ import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
 
 
 /**
@@ -71,6 +71,8 @@ public class Dubbo26Cluster extends AbstractLiveCluster<DubboOutboundRequest, Du
 
     private final ObjectParser parser;
 
+    private final EndpointCache<Invoker<?>, DubboEndpoint<?>> endpointCache = new EndpointCache<>(DubboEndpoint::of);
+
     private final Dubbo26OutboundThrower thrower;
 
     private final AtomicBoolean destroyed;
@@ -126,6 +128,16 @@ public class Dubbo26Cluster extends AbstractLiveCluster<DubboOutboundRequest, Du
         return policy;
     }
 
+    /**
+     * Returns the endpoints of the invokers, which are reused until the invokers change.
+     *
+     * @param invokers the invokers
+     * @return the endpoints, which must not be modified
+     */
+    public List<DubboEndpoint<?>> getEndpoints(List<Invoker<?>> invokers) {
+        return endpointCache.get(invokers);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public CompletionStage<List<DubboEndpoint<?>>> route(DubboOutboundRequest request) {
@@ -133,7 +145,7 @@ public class Dubbo26Cluster extends AbstractLiveCluster<DubboOutboundRequest, Du
             List<Invoker<?>> invokers = cluster.list(request.getRequest());
             return CompletableFuture.completedFuture(invokers == null
                     ? new ArrayList<>()
-                    : invokers.stream().map(DubboEndpoint::of).collect(Collectors.toList()));
+                    : getEndpoints(invokers));
         } catch (RpcException e) {
             return Futures.future(e);
         }
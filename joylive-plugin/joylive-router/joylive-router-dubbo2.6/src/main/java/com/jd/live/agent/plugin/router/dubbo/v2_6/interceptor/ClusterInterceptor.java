@@ -33,7 +33,6 @@ import com.jd.live.agent.plugin.router.dubbo.v2_6.response.DubboResponse.DubboOu
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 
 /**
@@ -67,7 +66,7 @@ public class ClusterInterceptor extends InterceptorAdaptor {
         Dubbo26Cluster cluster = clusters.computeIfAbsent((AbstractClusterInvoker<?>) ctx.getTarget(),
                 invoker -> new Dubbo26Cluster(invoker, parser));
         List<Invoker<?>> invokers = (List<Invoker<?>>) arguments[1];
-        List<DubboEndpoint<?>> instances = invokers.stream().map(DubboEndpoint::of).collect(Collectors.toList());
+        List<DubboEndpoint<?>> instances = cluster.getEndpoints(invokers);
         DubboOutboundRequest request = new DubboOutboundRequest((Invocation) arguments[0]);
         if (!request.isSystem() && !request.isDisabled()) {
             DubboOutboundInvocation invocation = new DubboOutboundInvocation(request, context);
@@ -23,6 +23,8 @@ import com.jd.live.agent.bootstrap.bytekit.context.MethodContext;
 import com.jd.live.agent.bootstrap.logger.Logger;
 import com.jd.live.agent.bootstrap.logger.LoggerFactory;
 import com.jd.live.agent.core.plugin.definition.InterceptorAdaptor;
+import com.jd.live.agent.core.util.cache.WeakCache;
+import com.jd.live.agent.governance.instance.EndpointCache;
 import com.jd.live.agent.governance.invoke.InvocationContext;
 import com.jd.live.agent.plugin.router.dubbo.v2_6.exception.Dubbo26OutboundThrower;
 import com.jd.live.agent.plugin.router.dubbo.v2_6.instance.DubboEndpoint;
@@ -38,8 +40,12 @@ public class LoadBalanceInterceptor extends InterceptorAdaptor {
 
     private static final Logger logger = LoggerFactory.getLogger(LoadBalanceInterceptor.class);
 
+    private static final int MAX_CACHES = 1024;
+
     private final InvocationContext context;
 
+    private final WeakCache<AbstractClusterInvoker<?>, EndpointCache<Invoker<?>, DubboEndpoint<?>>> caches = new WeakCache<>(MAX_CACHES);
+
     public LoadBalanceInterceptor(InvocationContext context) {
         this.context = context;
     }
@@ -61,10 +67,11 @@ public class LoadBalanceInterceptor extends InterceptorAdaptor {
         if (!request.isSystem() && !request.isDisabled()) {
             try {
                 DubboOutboundInvocation invocation = new DubboOutboundInvocation(request, context);
+                EndpointCache<Invoker<?>, DubboEndpoint<?>> cache = getEndpointCache((AbstractClusterInvoker<?>) ctx.getTarget());
                 if (invoked != null) {
-                    invoked.forEach(p -> request.addAttempt(new DubboEndpoint<>(p).getId()));
+                    invoked.forEach(p -> request.addAttempt(cache.getEndpoint(p).getId()));
                 }
-                DubboEndpoint<?> endpoint = context.route(invocation, invokers, DubboEndpoint::of);
+                DubboEndpoint<?> endpoint = context.route(invocation, cache.get(invokers));
                 mc.skipWithResult(endpoint.getInvoker());
             } catch (Throwable e) {
                 logger.error("Exception occurred when routing, caused by " + e.getMessage(), e);
@@ -74,4 +81,15 @@ public class LoadBalanceInterceptor extends InterceptorAdaptor {
         }
     }
 
+    /**
+     * Returns the endpoint cache of the cluster invoker, which reuses the endpoints until the invokers change.
+     * The caches are weakly keyed by the cluster invokers, so they are evicted once the invokers are discarded.
+     *
+     * @param invoker the cluster invoker
+     * @return the endpoint cache
+     */
+    private EndpointCache<Invoker<?>, DubboEndpoint<?>> getEndpointCache(AbstractClusterInvoker<?> invoker) {
+        return caches.computeIfAbsent(invoker, i -> new EndpointCache<>(DubboEndpoint::of));
+    }
+
 }
@@ -19,6 +19,7 @@ package org.apache.dubbo.rpc.cluster.support;
 import com.alibaba.dubbo.rpc.support.RpcUtils;
 import com.jd.live.agent.core.parser.ObjectParser;
 import com.jd.live.agent.core.util.Futures;
+import com.jd.live.agent.governance.instance.EndpointCache;
 import com.jd.live.agent.governance.invoke.OutboundInvocation;
 import com.jd.live.agent.governance.invoke.cluster.AbstractLiveCluster;
 import com.jd.live.agent.governance.invoke.cluster.ClusterInvoker;
@@ -41,7 +42,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
-import java.util.stream.Collectors;
 
 import static org.apache.dubbo.common.constants.CommonConstants.DEFAULT_RETRIES;
 import static org.apache.dubbo.common.constants.CommonConstants.RETRIES_KEY;
@@ -68,6 +68,8 @@ public class Dubbo27Cluster extends AbstractLiveCluster<DubboOutboundRequest, Du
 
     private final ObjectParser parser;
 
+    private final EndpointCache<Invoker<?>, DubboEndpoint<?>> endpointCache = new EndpointCache<>(DubboEndpoint::of);
+
     private final Dubbo27OutboundThrower thrower;
 
     /**
@@ -117,6 +119,16 @@ public class Dubbo27Cluster extends AbstractLiveCluster<DubboOutboundRequest, Du
         return policy;
     }
 
+    /**
+     * Returns the endpoints of the invokers, which are reused until the invokers change.
+     *
+     * @param invokers the invokers
+     * @return the endpoints, which must not be modified
+     */
+    public List<DubboEndpoint<?>> getEndpoints(List<Invoker<?>> invokers) {
+        return endpointCache.get(invokers);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public CompletionStage<List<DubboEndpoint<?>>> route(DubboOutboundRequest request) {
@@ -124,7 +136,7 @@ public class Dubbo27Cluster extends AbstractLiveCluster<DubboOutboundRequest, Du
             List<Invoker<?>> invokers = cluster.getDirectory().list(request.getRequest());
             return CompletableFuture.completedFuture(invokers == null
                     ? new ArrayList<>()
-                    : invokers.stream().map(DubboEndpoint::of).collect(Collectors.toList()));
+                    : getEndpoints(invokers));
         } catch (RpcException e) {
             return Futures.future(e);
         }
@@ -133,7 +145,7 @@ public class Dubbo27Cluster extends AbstractLiveCluster<DubboOutboundRequest, Du
     @Override
     public CompletionStage<DubboOutboundResponse> invoke(DubboOutboundRequest request, DubboEndpoint<?> endpoint) {
         try {
-            Result result = endpoint.getInvoker().invoke(request.getRequest());
+            Result result = request.invoke(endpoint.getInvoker());
             DubboOutboundResponse response = new DubboOutboundResponse(result, getRetryPredicate());
             return CompletableFuture.completedFuture(response);
         } catch (Throwable e) {
@@ -33,7 +33,6 @@ import org.apache.dubbo.rpc.cluster.support.Dubbo3Cluster;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 
 /**
@@ -66,7 +65,7 @@ public class ClusterInterceptor extends InterceptorAdaptor {
         Dubbo3Cluster cluster = clusters.computeIfAbsent((AbstractClusterInvoker<?>) ctx.getTarget(),
                 invoker -> new Dubbo3Cluster(invoker, parser));
         List<Invoker<?>> invokers = (List<Invoker<?>>) arguments[1];
-        List<DubboEndpoint<?>> instances = invokers.stream().map(DubboEndpoint::of).collect(Collectors.toList());
+        List<DubboEndpoint<?>> instances = cluster.getEndpoints(invokers);
         DubboOutboundRequest request = new DubboOutboundRequest((Invocation) arguments[0]);
         if (!request.isSystem() && !request.isDisabled()) {
             DubboOutboundResponse response = cluster.request(new DubboOutboundInvocation(request, context), instances);
@@ -137,9 +137,13 @@ public interface DubboRequest {
 
         private final String interfaceName;
 
+        private final URL url;
+
+        private long timeout;
+
         public DubboOutboundRequest(Invocation request) {
             super(request);
-            URL url = request.getInvoker().getUrl();
+            this.url = request.getInvoker().getUrl();
             String providedBy = url.getParameter(PROVIDED_BY);
             this.interfaceName = url.getServiceInterface();
             this.service = providedBy == null ? interfaceName : providedBy;
@@ -167,6 +171,53 @@ public interface DubboRequest {
             return DUBBO_ERROR_FUNCTION;
         }
 
+        @Override
+        public long getTimeout() {
+            if (timeout > 0) {
+                return timeout;
+            }
+            Object value = RpcContext.getClientAttachment().getObjectAttachment(CommonConstants.TIMEOUT_KEY);
+            if (value instanceof Number) {
+                return ((Number) value).longValue();
+            } else if (value instanceof String) {
+                try {
+                    return Long.parseLong((String) value);
+                } catch (NumberFormatException ignored) {
+                }
+            }
+            return url.getMethodPositiveParameter(method, CommonConstants.TIMEOUT_KEY, CommonConstants.DEFAULT_TIMEOUT);
+        }
+
+        @Override
+        public void setTimeout(long timeout) {
+            this.timeout = timeout;
+        }
+
+        /**
+         * Invokes the invoker with the capped timeout, which is passed by the rpc context,
+         * because the dubbo invoker reads the timeout of the call from it.
+         *
+         * @param invoker the invoker
+         * @return the result
+         */
+        public Result invoke(Invoker<?> invoker) {
+            if (timeout <= 0) {
+                return invoker.invoke(request);
+            }
+            RpcContextAttachment context = RpcContext.getClientAttachment();
+            Object old = context.getObjectAttachment(CommonConstants.TIMEOUT_KEY);
+            context.setObjectAttachment(CommonConstants.TIMEOUT_KEY, timeout);
+            try {
+                return invoker.invoke(request);
+            } finally {
+                if (old == null) {
+                    context.removeAttachment(CommonConstants.TIMEOUT_KEY);
+                } else {
+                    context.setObjectAttachment(CommonConstants.TIMEOUT_KEY, old);
+                }
+            }
+        }
+
         @Override
         public boolean isGeneric() {
             Invoker<?> invoker = request.getInvoker();
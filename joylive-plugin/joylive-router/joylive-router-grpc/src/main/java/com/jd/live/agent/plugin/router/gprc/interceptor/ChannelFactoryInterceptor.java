@@ -18,6 +18,7 @@ package com.jd.live.agent.plugin.router.gprc.interceptor;
 import com.jd.live.agent.bootstrap.bytekit.context.ExecutableContext;
 import com.jd.live.agent.bootstrap.bytekit.context.MethodContext;
 import com.jd.live.agent.core.plugin.definition.InterceptorAdaptor;
+import com.jd.live.agent.governance.context.RequestContext;
 import com.jd.live.agent.governance.invoke.InvocationContext;
 import com.jd.live.agent.plugin.router.gprc.loadbalance.LiveRequest;
 import io.grpc.*;
@@ -65,8 +66,14 @@ public class ChannelFactoryInterceptor extends InterceptorAdaptor {
             LiveRequest<ReqT, RespT> request = new LiveRequest<>(method, context);
             CallOptions options = callOptions.withOption(LiveRequest.KEY_LIVE_REQUEST, request);
             request.setCallOptions(options);
-            request.setClientCall(channel.newCall(method, options));
-            request.setCallSupplier(() -> channel.newCall(method, options));
+            long deadline = RequestContext.getDeadline();
+            if (deadline > 0) {
+                // the first call is started before routing, so its deadline is capped here.
+                request.setTimeout(Math.max(deadline - System.currentTimeMillis(), 1));
+            }
+            request.setClientCall(channel.newCall(method, request.getCallOptions()));
+            // the calls of the retries use the call options capped by the remaining time budget.
+            request.setCallSupplier(() -> channel.newCall(method, request.getCallOptions()));
             return context.isFlowControlEnabled() ? new FlowControlClientCall<>(request) : new LiveClientCall<>(request);
         }
 
@@ -44,6 +44,7 @@ import java.lang.reflect.Method;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
@@ -119,6 +120,31 @@ public class LiveRequest<ReqT, RespT> extends PickSubchannelArgs {
         return callOptions;
     }
 
+    /**
+     * Returns the remaining time of the call deadline in milliseconds.
+     *
+     * @return the remaining time, or 0 if the call has no deadline
+     */
+    public long getTimeout() {
+        Deadline deadline = callOptions == null ? null : callOptions.getDeadline();
+        return deadline == null ? 0 : Math.max(deadline.timeRemaining(TimeUnit.MILLISECONDS), 1);
+    }
+
+    /**
+     * Caps the deadline of the call options, which are used to create the calls.
+     *
+     * @param timeout the timeout in milliseconds
+     */
+    public void setTimeout(long timeout) {
+        if (timeout > 0 && callOptions != null) {
+            Deadline deadline = Deadline.after(timeout, TimeUnit.MILLISECONDS);
+            Deadline current = callOptions.getDeadline();
+            if (current == null || deadline.isBefore(current)) {
+                callOptions = callOptions.withDeadline(deadline);
+            }
+        }
+    }
+
     public String getMethodName() {
         return methodDescriptor.getBareMethodName();
     }
@@ -145,6 +145,16 @@ public interface GrpcRequest {
             }
         }
 
+        @Override
+        public long getTimeout() {
+            return request.getTimeout();
+        }
+
+        @Override
+        public void setTimeout(long timeout) {
+            request.setTimeout(timeout);
+        }
+
         public boolean hasEndpoint() {
             LiveRouteResult result = request.getRouteResult();
             return result != null && result.isSuccess();
@@ -33,6 +33,7 @@ import com.jd.live.agent.core.util.type.ClassUtils;
 import com.jd.live.agent.core.util.type.FieldDesc;
 import com.jd.live.agent.governance.exception.ErrorPredicate;
 import com.jd.live.agent.governance.exception.ServiceError;
+import com.jd.live.agent.governance.instance.EndpointCache;
 import com.jd.live.agent.governance.invoke.OutboundInvocation;
 import com.jd.live.agent.governance.invoke.cluster.AbstractLiveCluster;
 import com.jd.live.agent.governance.invoke.cluster.ClusterInvoker;
@@ -94,6 +95,8 @@ public class SofaRpcCluster extends AbstractLiveCluster<SofaRpcOutboundRequest,
 
     private final SofaRpcOutboundThrower thrower;
 
+    private final EndpointCache<ProviderInfo, SofaRpcEndpoint> endpointCache = new EndpointCache<>(p -> new SofaRpcEndpoint(p, this::isConnected));
+
     /**
      * The identifier used for stickiness. This ID is used to route requests to
      * the same provider consistently.
@@ -150,11 +153,7 @@ public class SofaRpcCluster extends AbstractLiveCluster<SofaRpcOutboundRequest,
                 providers.add(directProvider);
             }
         }
-        List<SofaRpcEndpoint> endpoints = new ArrayList<>(providers.size());
-        for (ProviderInfo provider : providers) {
-            endpoints.add(new SofaRpcEndpoint(provider, this::isConnected));
-        }
-        return CompletableFuture.completedFuture(endpoints);
+        return CompletableFuture.completedFuture(endpointCache.get(providers));
     }
 
     @Override
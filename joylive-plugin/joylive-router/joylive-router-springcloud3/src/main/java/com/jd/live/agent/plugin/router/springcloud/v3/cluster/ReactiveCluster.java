@@ -41,8 +41,10 @@ import org.springframework.lang.NonNull;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import reactor.core.publisher.Mono;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -120,7 +122,12 @@ public class ReactiveCluster extends AbstractClientCluster<ReactiveClusterReques
     public CompletionStage<ReactiveClusterResponse> invoke(ReactiveClusterRequest request, SpringEndpoint endpoint) {
         try {
             ClientRequest newRequest = buildRequest(request, endpoint.getInstance());
-            return request.getNext().exchange(newRequest).map(ReactiveClusterResponse::new).toFuture();
+            Mono<ClientResponse> response = request.getNext().exchange(newRequest);
+            long timeout = request.getTimeout();
+            if (timeout > 0) {
+                response = response.timeout(Duration.ofMillis(timeout));
+            }
+            return response.map(ReactiveClusterResponse::new).toFuture();
         } catch (Throwable e) {
             return Futures.future(e);
         }
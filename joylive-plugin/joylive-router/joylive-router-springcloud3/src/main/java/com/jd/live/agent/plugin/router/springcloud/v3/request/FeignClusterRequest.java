@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static com.jd.live.agent.core.util.CollectionUtils.modifiedMap;
 import static com.jd.live.agent.core.util.map.MultiLinkedMap.caseInsensitive;
@@ -47,7 +48,7 @@ import static com.jd.live.agent.core.util.map.MultiLinkedMap.caseInsensitive;
  */
 public class FeignClusterRequest extends AbstractClusterRequest<Request> {
 
-    private final Request.Options options;
+    private Request.Options options;
 
     private CacheObject<Map<String, Collection<String>>> writeableHeaders;
 
@@ -113,6 +114,19 @@ public class FeignClusterRequest extends AbstractClusterRequest<Request> {
         return options;
     }
 
+    @Override
+    public long getTimeout() {
+        return options == null ? 0 : options.readTimeoutMillis();
+    }
+
+    @Override
+    public void setTimeout(long timeout) {
+        if (timeout > 0 && options != null) {
+            options = new Request.Options(Math.min(options.connectTimeoutMillis(), timeout), TimeUnit.MILLISECONDS,
+                    timeout, TimeUnit.MILLISECONDS, options.isFollowRedirects());
+        }
+    }
+
     @Override
     protected Map<String, List<String>> parseHeaders() {
         return caseInsensitive(request.headers(), true);
@@ -40,6 +40,11 @@ public class ReactiveClusterRequest extends AbstractClusterRequest<ClientRequest
 
     private final HttpHeaders writeableHeaders;
 
+    /**
+     * The timeout of the exchange in milliseconds, which is capped to the remaining time budget of the request.
+     */
+    private long timeout;
+
     /**
      * Creates a new instance of ReactiveClusterRequest.
      * @param request The ClientRequest object representing the original request.
@@ -86,6 +91,16 @@ public class ReactiveClusterRequest extends AbstractClusterRequest<ClientRequest
         return next;
     }
 
+    @Override
+    public long getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
     @Override
     protected RequestData buildRequestData() {
         return new RequestData(request);
@@ -16,6 +16,7 @@
 package com.jd.live.agent.plugin.router.springcloud.v4.cluster;
 
 import com.jd.live.agent.core.util.http.HttpMethod;
+import com.jd.live.agent.governance.instance.EndpointCache;
 import com.jd.live.agent.governance.invoke.OutboundInvocation;
 import com.jd.live.agent.governance.invoke.cluster.AbstractLiveCluster;
 import com.jd.live.agent.governance.invoke.cluster.ClusterInvoker;
@@ -40,6 +41,7 @@ import reactor.core.publisher.Mono;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Provides an abstract base for implementing client clusters that can send requests and receive responses from
@@ -54,6 +56,13 @@ public abstract class AbstractClientCluster<
         O extends OutboundResponse>
         extends AbstractLiveCluster<R, O, SpringEndpoint> {
 
+    private static final int MAX_ENDPOINT_CACHES = 1024;
+
+    /**
+     * The endpoint caches of the services, which are discarded with this cluster.
+     */
+    private final Map<String, EndpointCache<ServiceInstance, SpringEndpoint>> endpointCaches = new ConcurrentHashMap<>();
+
     protected SpringOutboundThrower<R> thrower = new SpringOutboundThrower<>();
 
     @Override
@@ -97,19 +106,34 @@ public abstract class AbstractClientCluster<
         } else {
             Mono<List<ServiceInstance>> mono = supplier.get(request.getLbRequest()).next();
             mono.subscribe(
-                    v -> {
-                        List<SpringEndpoint> endpoints = new ArrayList<>();
-                        if (v != null) {
-                            v.forEach(i -> endpoints.add(new SpringEndpoint(i)));
-                        }
-                        future.complete(endpoints);
-                    },
+                    v -> future.complete(getEndpointCache(request.getService()).get(v)),
                     future::completeExceptionally
             );
         }
         return future;
     }
 
+    /**
+     * Returns the endpoint cache of the service, which reuses the endpoints until the instances change.
+     * The discovery clients create new instances on every refresh, so the endpoints are keyed by the instance id,
+     * host and port of the instances.
+     *
+     * @param service the service name
+     * @return the endpoint cache
+     */
+    protected EndpointCache<ServiceInstance, SpringEndpoint> getEndpointCache(String service) {
+        String key = service == null ? "" : service;
+        EndpointCache<ServiceInstance, SpringEndpoint> cache = endpointCaches.get(key);
+        if (cache == null) {
+            if (endpointCaches.size() >= MAX_ENDPOINT_CACHES) {
+                endpointCaches.clear();
+            }
+            cache = endpointCaches.computeIfAbsent(key, s -> new EndpointCache<>(SpringEndpoint::new,
+                    instance -> instance.getInstanceId() + "@" + instance.getHost() + ":" + instance.getPort()));
+        }
+        return cache;
+    }
+
     @Override
     public Throwable createException(Throwable throwable, R request) {
         return thrower.createException(throwable, request);
@@ -39,6 +39,11 @@ public class ReactiveClusterRequest extends AbstractClusterRequest<ClientRequest
 
     private final HttpHeaders writeableHeaders;
 
+    /**
+     * The timeout of the exchange in milliseconds, which is capped to the remaining time budget of the request.
+     */
+    private long timeout;
+
     /**
      * Constructs a new ClientOutboundRequest with the specified parameters.
      *
@@ -84,6 +89,16 @@ public class ReactiveClusterRequest extends AbstractClusterRequest<ClientRequest
         return next;
     }
 
+    @Override
+    public long getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
     @Override
     protected RequestData buildRequestData() {
         return new RequestData(request);
@@ -100,20 +100,17 @@ public class JavaxRequest implements HttpServletRequest, HeaderProvider {
 
     @Override
     public String getHeader(String name) {
-        MultiMap<String, String> headers = getHeaders();
-        return headers == null ? null : headers.getFirst(name);
+        return headers == null ? request.getHeader(name) : headers.getFirst(name);
     }
 
     @Override
     public Enumeration<String> getHeaders(String name) {
-        MultiMap<String, String> headers = getHeaders();
-        return CollectionUtils.toEnumeration(headers == null ? null : headers.get(name));
+        return headers == null ? request.getHeaders(name) : CollectionUtils.toEnumeration(headers.get(name));
     }
 
     @Override
     public Enumeration<String> getHeaderNames() {
-        MultiMap<String, String> headers = getHeaders();
-        return CollectionUtils.toEnumeration(headers == null ? null : headers.keySet());
+        return headers == null ? request.getHeaderNames() : CollectionUtils.toEnumeration(headers.keySet());
     }
 
     @Override
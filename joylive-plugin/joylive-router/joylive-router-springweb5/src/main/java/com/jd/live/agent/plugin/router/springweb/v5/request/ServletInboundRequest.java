@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
 
+import static com.jd.live.agent.core.util.CollectionUtils.toList;
 import static com.jd.live.agent.core.util.type.ClassUtils.loadClass;
 import static com.jd.live.agent.plugin.router.springweb.v5.exception.SpringInboundThrower.THROWER;
 
@@ -118,6 +119,44 @@ public class ServletInboundRequest extends AbstractHttpInboundRequest<HttpServle
         return result;
     }
 
+    @Override
+    public String getHeader(String key) {
+        return key == null || key.isEmpty() ? null : request.getHeader(key);
+    }
+
+    @Override
+    public List<String> getHeaders(String key) {
+        return key == null || key.isEmpty() ? null : toList(request.getHeaders(key));
+    }
+
+    @Override
+    public String getQuery(String key) {
+        return queries != null ? super.getQuery(key) : HttpUtils.getQuery(request.getQueryString(), key);
+    }
+
+    @Override
+    public List<String> getQueries(String key) {
+        return queries != null ? super.getQueries(key) : HttpUtils.getQueries(request.getQueryString(), key);
+    }
+
+    @Override
+    public String getCookie(String key) {
+        if (key == null || key.isEmpty()) {
+            return null;
+        } else if (cookies != null) {
+            return super.getCookie(key);
+        }
+        Cookie[] values = request.getCookies();
+        if (values != null) {
+            for (Cookie cookie : values) {
+                if (key.equalsIgnoreCase(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
     @Override
     protected Map<String, List<String>> parseHeaders() {
         return request instanceof HeaderProvider
@@ -18,6 +18,8 @@ package com.jd.live.agent.core.util.trie;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class PathMatcherTest {
 
     @Test
@@ -50,4 +52,52 @@ public class PathMatcherTest {
         Assertions.assertEquals("ProductAddHandler", matcher.match("/product/123/add").getValue());
         Assertions.assertEquals("123", matcher.match("/product/123/add").getVariable("name"));
     }
+
+    @Test
+    public void testLargeTable() {
+        PathMatcher<String> matcher = new PathMatcher<>('/', 16);
+        for (int i = 0; i < 1000; i++) {
+            matcher.addPath("/api/service" + i + "/{id}/detail", "detail" + i);
+            matcher.addPath("/api/service" + i + "/items", "items" + i);
+        }
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 1000; i++) {
+                PathMatcher.MatchResult<String> result = matcher.match("/api/service" + i + "/" + round + "/detail");
+                Assertions.assertEquals("detail" + i, result.getValue());
+                Assertions.assertEquals(PathMatchType.EQUAL, result.getType());
+                Assertions.assertEquals(String.valueOf(round), result.getVariable("id"));
+                result = matcher.match("/api/service" + i + "/items/" + round);
+                Assertions.assertEquals("items" + i, result.getValue());
+                Assertions.assertEquals(PathMatchType.PREFIX, result.getType());
+            }
+            Assertions.assertNull(matcher.match("/api/service1000/items"));
+            Assertions.assertNull(matcher.match("/api"));
+        }
+    }
+
+    @Test
+    public void testConcurrentMemo() throws InterruptedException {
+        PathMatcher<String> matcher = new PathMatcher<>('/', 8);
+        for (int i = 0; i < 32; i++) {
+            matcher.addPath("/api/service" + i, "service" + i);
+        }
+        AtomicInteger errors = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int n = 0; n < 10000; n++) {
+                    int i = n % 32;
+                    PathMatcher.MatchResult<String> result = matcher.match("/api/service" + i);
+                    if (result == null || !("service" + i).equals(result.getValue())) {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(0, errors.get());
+    }
 }